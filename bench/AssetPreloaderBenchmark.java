@@ -0,0 +1,74 @@
+import java.util.Locale;
+
+/**
+ * Measures how long the pet selection dialog and the game window wait for their images.
+ *
+ * <p>Without a preloader, the dialog decodes its three images when it opens and the game
+ * window decodes the pet's images when it shows them. With an {@link AssetPreloader}
+ * started when the menu opens, they are decoded while the player looks at the menu, which
+ * the benchmark assumes takes {@value #MENU_MILLIS} ms. Each variant starts with an empty
+ * {@link SpriteCache}; the music is left out. The images are read from {@code src}, so that
+ * directory has to be on the class path.</p>
+ * <pre>
+ * javac -d out src/*.java bench/*.java
+ * java -Djava.awt.headless=true -cp out:src AssetPreloaderBenchmark
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see AssetPreloader
+ */
+public class AssetPreloaderBenchmark {
+
+  private static final long MENU_MILLIS = 300;
+
+  private static volatile long sink;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   * @throws InterruptedException if interrupted while on the menu
+   */
+  public static void main(String[] args) throws InterruptedException {
+    // The first pass is a warm-up
+    run(false);
+    run(true);
+    report("on demand", run(false));
+    report("preloaded", run(true));
+  }
+
+  private static long[] run(boolean preload) throws InterruptedException {
+    SpriteCache cache = new SpriteCache(SpriteCache.DEFAULT_BUDGET_BYTES);
+    AssetPreloader preloader = new AssetPreloader(cache, null);
+    if (preload) {
+      preloader.start();
+    }
+    Thread.sleep(MENU_MILLIS);
+    long begin = System.nanoTime();
+    for (String petType : AssetPreloader.PET_TYPES) {
+      sink += cache.getIcon(petType, SpriteState.NORMAL, AssetPreloader.SELECTION_IMAGE_SIZE,
+          AssetPreloader.SELECTION_IMAGE_SIZE).getIconWidth();
+    }
+    long dialog = System.nanoTime() - begin;
+    begin = System.nanoTime();
+    for (SpriteState state : new SpriteState[] {SpriteState.NORMAL, SpriteState.SLEEP,
+        SpriteState.DEAD}) {
+      sink += cache.getIcon("Dog", state, AssetPreloader.GAME_IMAGE_SIZE,
+          AssetPreloader.GAME_IMAGE_SIZE).getIconWidth();
+    }
+    long game = System.nanoTime() - begin;
+    return new long[] {dialog, game, preload ? preloader.start().thenApply(v ->
+        preloader.getPreloadNanos()).join() : 0};
+  }
+
+  private static void report(String variant, long[] result) {
+    System.out.printf(Locale.ROOT,
+        "%-10s selection dialog waits %8.2f ms, game window waits %8.2f ms%n", variant,
+        result[0] / 1e6, result[1] / 1e6);
+    if (result[2] > 0) {
+      System.out.printf(Locale.ROOT, "%-10s all assets loaded in the background in %.2f ms%n",
+          "", result[2] / 1e6);
+    }
+  }
+}
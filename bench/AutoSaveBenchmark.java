@@ -0,0 +1,128 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures autosave rounds over a population of mostly idle pets.
+ *
+ * <p>Every pet autosaves to its own slot once a minute of a {@link ManualClock}. Between two
+ * rounds only a few pets change. The baseline writes every pet's whole save file every
+ * round, the way autosave worked before pets tracked their changes; the tracked variant
+ * runs the pets' real autosave tasks and reports how many were skipped.</p>
+ * <pre>
+ * javac -d out src/*.java bench/*.java
+ * java -cp out AutoSaveBenchmark
+ * </pre>
+ * The benchmark writes to {@code saves/pet_save_autosave-*} and deletes the files at the end.
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see Pet#startAutoSave(String, long, TimeUnit)
+ */
+public class AutoSaveBenchmark {
+
+  private static final int PETS = 500;
+  private static final int ROUNDS = 20;
+  private static final int ACTIVE_PETS = PETS / 50;
+
+  private static volatile long sink;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   * @throws IOException if a save file cannot be written
+   */
+  public static void main(String[] args) throws IOException {
+    ManualClock clock = new ManualClock(0);
+    PetScheduler scheduler = new PetScheduler(clock, 1);
+    Pet[] pets = new Pet[PETS];
+    // Pet.save reports every save on standard output; keep that out of the results
+    PrintStream out = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    try {
+      Files.createDirectories(Path.of("saves"));
+      for (int i = 0; i < PETS; i++) {
+        pets[i] = new Pet(scheduler, true, new PetRandom(i));
+        pets[i].setPetName("Pet " + i);
+        pets[i].save(slot(i));
+      }
+
+      // The first pass is a warm-up
+      blindRounds(pets);
+      long blind = blindRounds(pets);
+
+      for (int i = 0; i < PETS; i++) {
+        // Start from a clean save, then let the autosave task decide
+        pets[i].save(slot(i));
+        pets[i].startAutoSave(slot(i), 1, TimeUnit.MINUTES);
+      }
+      long begin = System.nanoTime();
+      for (int round = 0; round < ROUNDS; round++) {
+        touch(pets, round);
+        clock.advance(1, TimeUnit.MINUTES);
+        scheduler.runDueTasks();
+        scheduler.getSaveWriter().flush().join();
+      }
+      long tracked = System.nanoTime() - begin;
+
+      long skipped = 0;
+      long written = 0;
+      for (Pet pet : pets) {
+        skipped += pet.getAutoSavesSkipped();
+        written += pet.getAutoSavesWritten();
+      }
+      System.setOut(out);
+      System.out.printf(Locale.ROOT, "%d pets, %d changed per round, %d rounds%n", PETS,
+          ACTIVE_PETS, ROUNDS);
+      System.out.printf(Locale.ROOT, "%-20s %9.2f ms/round, %6d saves written%n",
+          "full saves", blind / 1e6 / ROUNDS, PETS * ROUNDS);
+      System.out.printf(Locale.ROOT, "%-20s %9.2f ms/round, %6d saves written, %d skipped%n",
+          "dirty tracking", tracked / 1e6 / ROUNDS, written, skipped);
+    } finally {
+      System.setOut(out);
+      for (int i = 0; i < PETS; i++) {
+        if (pets[i] != null) {
+          pets[i].stopTimers();
+        }
+      }
+      scheduler.getSaveWriter().flush().join();
+      scheduler.shutdown();
+      for (int i = 0; i < PETS; i++) {
+        Files.deleteIfExists(Path.of("saves/pet_save_" + slot(i) + ".dat"));
+        Files.deleteIfExists(Path.of("saves/pet_save_" + slot(i) + ".journal"));
+      }
+    }
+  }
+
+  private static String slot(int pet) {
+    return "autosave-" + pet;
+  }
+
+  /**
+   * Changes a different few pets each round.
+   */
+  private static void touch(Pet[] pets, int round) {
+    for (int i = 0; i < ACTIVE_PETS; i++) {
+      pets[(round * ACTIVE_PETS + i) % PETS].increaseHealth(round % 2 == 0 ? -1 : 1);
+    }
+  }
+
+  private static long blindRounds(Pet[] pets) throws IOException {
+    long begin = System.nanoTime();
+    for (int round = 0; round < ROUNDS; round++) {
+      touch(pets, round);
+      for (int i = 0; i < PETS; i++) {
+        SaveDurability.DATA.write(Path.of("saves/pet_save_" + slot(i) + ".dat"),
+            PetCodec.encode(pets[i]));
+      }
+    }
+    long elapsed = System.nanoTime() - begin;
+    sink = pets[0].getHealth();
+    return elapsed;
+  }
+}
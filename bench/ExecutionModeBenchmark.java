@@ -0,0 +1,78 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+/**
+ * Compares the thread count and heap use of live pets in each {@link ExecutionMode}.
+ *
+ * <p>For 1,000, 10,000 and 100,000 pets the benchmark starts a scheduler, creates the pets
+ * with their timers running, lets the first round of tasks fire and then records the number
+ * of live platform threads and the heap in use after a garbage collection. Virtual threads
+ * need Java 21; on older runtimes the virtual mode falls back to platform threads and the
+ * report says so. Run it from the project root after compiling the sources:</p>
+ * <pre>
+ * javac -d out src/*.java bench/*.java
+ * java -cp out ExecutionModeBenchmark
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see ExecutionMode
+ */
+public class ExecutionModeBenchmark {
+
+  private static final int[] PET_COUNTS = {1_000, 10_000, 100_000};
+  private static final long SETTLE_MILLIS = 2_000;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   */
+  public static void main(String[] args) throws InterruptedException {
+    System.out.println("Java " + Runtime.version() + ", virtual threads available: "
+        + ExecutionMode.isVirtualThreadsAvailable());
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    for (int count : PET_COUNTS) {
+      for (ExecutionMode mode : ExecutionMode.values()) {
+        int threadsBefore = threads.getThreadCount();
+        long heapBefore = usedHeap();
+        threads.resetPeakThreadCount();
+
+        PetScheduler scheduler = new PetScheduler(PetClock.SYSTEM,
+            Runtime.getRuntime().availableProcessors(), mode);
+        scheduler.start();
+        Pet[] pets = new Pet[count];
+        for (int i = 0; i < count; i++) {
+          pets[i] = new Pet(scheduler);
+          pets[i].setAllowTaskExecution();
+          pets[i].startTimer();
+        }
+        Thread.sleep(SETTLE_MILLIS);
+
+        int liveThreads = threads.getThreadCount() - threadsBefore;
+        int peakThreads = threads.getPeakThreadCount() - threadsBefore;
+        long heap = usedHeap() - heapBefore;
+        System.out.printf(Locale.ROOT,
+            "%-8s %,8d pets  %,7d tasks  %3d platform threads (peak %3d)  %,8d KB heap  %,5d B/pet%n",
+            mode, count, scheduler.getTaskCount(), liveThreads, peakThreads, heap / 1024,
+            heap / count);
+
+        for (Pet pet : pets) {
+          pet.stopTimers();
+        }
+        scheduler.shutdown();
+        pets = null;
+        Thread.sleep(200);
+      }
+    }
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
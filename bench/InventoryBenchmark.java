@@ -0,0 +1,106 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares the counted {@link Inventory} with the list of item objects it replaced.
+ *
+ * <p>For inventories of different sizes, the benchmark fills an inventory with generated
+ * items, then uses and regenerates items of random types, and reports the time per use and
+ * the heap the inventory holds. The baseline is an {@code ArrayList} with a new item object
+ * per generated item, from which an item is used by searching for the first item of its
+ * class, the way the inventory worked before it counted items.</p>
+ * <pre>
+ * javac -d out src/*.java bench/*.java
+ * java -cp out InventoryBenchmark
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see Inventory
+ */
+public class InventoryBenchmark {
+
+  private static final int[] INVENTORY_SIZES = {100, 10_000, 100_000};
+  private static final int USES = 20_000;
+
+  private static volatile long sink;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   */
+  public static void main(String[] args) {
+    // The first pass is a warm-up
+    for (int items : INVENTORY_SIZES) {
+      list(items);
+      counted(items);
+    }
+    for (int items : INVENTORY_SIZES) {
+      report("item list", items, list(items));
+      report("counted inventory", items, counted(items));
+    }
+  }
+
+  private static long[] list(int items) {
+    PetRandom random = new PetRandom(3);
+    long before = usedHeap();
+    List<Item> list = new ArrayList<>();
+    for (int i = 0; i < items; i++) {
+      list.add(newItem(random.nextInt(3)));
+    }
+    long heap = usedHeap() - before;
+    long begin = System.nanoTime();
+    for (int i = 0; i < USES; i++) {
+      Class<?> type = newItem(random.nextInt(3)).getClass();
+      for (int j = 0; j < list.size(); j++) {
+        if (list.get(j).getClass() == type) {
+          list.remove(j);
+          break;
+        }
+      }
+      list.add(newItem(random.nextInt(3)));
+    }
+    long elapsed = System.nanoTime() - begin;
+    sink = list.size();
+    return new long[] {elapsed, heap};
+  }
+
+  private static long[] counted(int items) {
+    PetRandom random = new PetRandom(3);
+    long before = usedHeap();
+    Inventory inventory = new Inventory();
+    for (int i = 0; i < items; i++) {
+      inventory.addItem(ItemType.fromCode(random.nextInt(3)).getItem());
+    }
+    long heap = usedHeap() - before;
+    long begin = System.nanoTime();
+    for (int i = 0; i < USES; i++) {
+      inventory.removeItem(ItemType.fromCode(random.nextInt(3)).getItem());
+      inventory.addItem(ItemType.fromCode(random.nextInt(3)).getItem());
+    }
+    long elapsed = System.nanoTime() - begin;
+    sink = inventory.size();
+    return new long[] {elapsed, heap};
+  }
+
+  private static Item newItem(int type) {
+    return switch (type) {
+      case 0 -> new Meat();
+      case 1 -> new Vegetables();
+      default -> new Juice();
+    };
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    System.gc();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  private static void report(String variant, int items, long[] result) {
+    System.out.printf(Locale.ROOT, "%-18s %7d items: %9.1f ns per use, %,10d bytes of heap%n",
+        variant, items, (double) result[0] / USES, Math.max(result[1], 0));
+  }
+}
@@ -0,0 +1,99 @@
+import java.util.List;
+import java.util.Locale;
+import javax.swing.DefaultListModel;
+import javax.swing.JList;
+import javax.swing.SwingUtilities;
+
+/**
+ * Measures the cost of showing one new item in the inventory list.
+ *
+ * <p>The baseline is the refresh the inventory list used to do every five seconds: clear a
+ * {@code DefaultListModel} and add every item name again. The new variant lets an
+ * {@link InventoryListModel} apply the one change. Both models back a {@code JList}, so the
+ * list's own work on each event is included. The benchmark runs on the event dispatch
+ * thread and does not need a display.</p>
+ * <pre>
+ * javac -d out src/*.java bench/*.java
+ * java -Djava.awt.headless=true -cp out InventoryListModelBenchmark
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see InventoryListModel
+ */
+public class InventoryListModelBenchmark {
+
+  private static final int[] INVENTORY_SIZES = {100, 1_000, 10_000};
+  private static final int ROUNDS = 200;
+
+  private static volatile long sink;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   * @throws Exception if the event dispatch thread fails
+   */
+  public static void main(String[] args) throws Exception {
+    SwingUtilities.invokeAndWait(() -> {
+      // The first pass is a warm-up
+      for (int items : INVENTORY_SIZES) {
+        refill(items);
+        incremental(items);
+      }
+      for (int items : INVENTORY_SIZES) {
+        report("clear and refill", items, refill(items));
+        report("incremental", items, incremental(items));
+      }
+    });
+  }
+
+  private static long refill(int items) {
+    Inventory inventory = filled(items);
+    DefaultListModel<String> model = new DefaultListModel<>();
+    JList<String> list = new JList<>(model);
+    list.setPrototypeCellValue("Vegetables");
+    long begin = System.nanoTime();
+    for (int i = 0; i < ROUNDS; i++) {
+      inventory.addItem(ItemType.fromCode(i % 3).getItem());
+      List<Item> shown = inventory.getItems();
+      model.clear();
+      for (Item item : shown) {
+        model.addElement(item.getName());
+      }
+    }
+    long elapsed = System.nanoTime() - begin;
+    sink = model.size();
+    return elapsed;
+  }
+
+  private static long incremental(int items) {
+    Inventory inventory = filled(items);
+    InventoryListModel model = new InventoryListModel();
+    JList<String> list = new JList<>(model);
+    list.setPrototypeCellValue("Vegetables");
+    model.setInventory(inventory);
+    long begin = System.nanoTime();
+    for (int i = 0; i < ROUNDS; i++) {
+      inventory.addItem(ItemType.fromCode(i % 3).getItem());
+      // Apply the queued change now instead of in a later event
+      model.setItems(inventory.getItems());
+    }
+    long elapsed = System.nanoTime() - begin;
+    sink = model.size();
+    return elapsed;
+  }
+
+  private static Inventory filled(int items) {
+    Inventory inventory = new Inventory();
+    for (int i = 0; i < items; i++) {
+      inventory.addItem(ItemType.fromCode(i % 3).getItem());
+    }
+    return inventory;
+  }
+
+  private static void report(String variant, int items, long elapsedNanos) {
+    System.out.printf(Locale.ROOT, "%-17s %6d items: %10.1f us per change%n", variant, items,
+        elapsedNanos / 1e3 / ROUNDS);
+  }
+}
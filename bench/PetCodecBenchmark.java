@@ -0,0 +1,133 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Locale;
+
+/**
+ * Compares the binary save format of {@link PetCodec} with the Java serialization format
+ * earlier versions used.
+ *
+ * <p>For pets with inventories of different sizes, the benchmark reports the size of one
+ * saved pet and the time to encode and to decode it. The pets are lazily evaluated, so
+ * decoding does not register background tasks. The inventories mix the three generated
+ * items at random, which is the worst case for the run-length encoding.</p>
+ * <pre>
+ * javac -d out src/*.java bench/*.java
+ * java -cp out PetCodecBenchmark
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see PetCodec
+ */
+public class PetCodecBenchmark {
+
+  private static final int[] INVENTORY_SIZES = {0, 10, 100, 1_000};
+  private static final int ROUNDS = 20_000;
+
+  private static volatile long sink;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   * @throws Exception if a pet cannot be encoded or decoded
+   */
+  public static void main(String[] args) throws Exception {
+    PetScheduler scheduler = new PetScheduler(new ManualClock(0), 1);
+    try {
+      for (int items : INVENTORY_SIZES) {
+        Pet pet = newPet(scheduler, items);
+        Codec serialization = new Codec() {
+          @Override
+          public byte[] encode(Pet p) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+              out.writeObject(p);
+            }
+            return bytes.toByteArray();
+          }
+
+          @Override
+          public Pet decode(byte[] data) throws Exception {
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+              return (Pet) in.readObject();
+            }
+          }
+        };
+        Codec binary = new Codec() {
+          @Override
+          public byte[] encode(Pet p) throws IOException {
+            return PetCodec.encode(p);
+          }
+
+          @Override
+          public Pet decode(byte[] data) throws IOException {
+            return PetCodec.decode(data);
+          }
+        };
+        // Larger pets get fewer rounds so every size takes about as long
+        int rounds = Math.max(100, ROUNDS / Math.max(1, items / 10));
+        // The first pass of each variant is a warm-up
+        measure(serialization, pet, rounds);
+        measure(binary, pet, rounds);
+        report("serialization", items, serialization.encode(pet).length,
+            measure(serialization, pet, rounds));
+        report("binary codec", items, binary.encode(pet).length, measure(binary, pet, rounds));
+      }
+    } finally {
+      scheduler.shutdown();
+    }
+  }
+
+  private static Pet newPet(PetScheduler scheduler, int items) {
+    PetRandom random = new PetRandom(items);
+    Pet pet = new Pet(scheduler, true, random.split());
+    pet.setPersonality(new Dog());
+    pet.setPetName("Rex");
+    for (int i = 0; i < items; i++) {
+      switch (random.nextInt(3)) {
+        case 0 -> pet.getInventory().addItem(new Meat());
+        case 1 -> pet.getInventory().addItem(new Vegetables());
+        default -> pet.getInventory().addItem(new Juice());
+      }
+    }
+    return pet;
+  }
+
+  /**
+   * Encodes and decodes the pet the given number of times.
+   *
+   * @return the nanoseconds per encode and per decode
+   */
+  private static double[] measure(Codec codec, Pet pet, int rounds) throws Exception {
+    byte[] data = null;
+    long begin = System.nanoTime();
+    for (int i = 0; i < rounds; i++) {
+      data = codec.encode(pet);
+    }
+    long encoded = System.nanoTime() - begin;
+    long checksum = 0;
+    begin = System.nanoTime();
+    for (int i = 0; i < rounds; i++) {
+      checksum += codec.decode(data).getInventory().getItems().size();
+    }
+    long decoded = System.nanoTime() - begin;
+    sink = checksum;
+    return new double[] {(double) encoded / rounds, (double) decoded / rounds};
+  }
+
+  private static void report(String variant, int items, int bytes, double[] nanos) {
+    System.out.printf(Locale.ROOT,
+        "%-14s %5d items: %6d bytes, encode %9.0f ns, decode %9.0f ns%n",
+        variant, items, bytes, nanos[0], nanos[1]);
+  }
+
+  private interface Codec {
+    byte[] encode(Pet pet) throws Exception;
+
+    Pet decode(byte[] data) throws Exception;
+  }
+}
@@ -0,0 +1,110 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Compares the cost of a journaled save with writing the whole pet on every save.
+ *
+ * <p>Between two saves the pet is fed, played with and decayed ten times. A full save
+ * serializes the whole pet, inventory included, and forces the file to disk; a journaled
+ * save only writes and forces the thirty records appended since the previous save. The
+ * pets carry inventories of different sizes, because the inventory is the part of a pet
+ * that grows with play time.</p>
+ * <pre>
+ * javac -d out src/*.java bench/*.java
+ * java -cp out PetJournalBenchmark
+ * </pre>
+ * The benchmark writes to {@code saves/pet_save_bench.*} and deletes the files at the end.
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see PetJournal
+ */
+public class PetJournalBenchmark {
+
+  private static final String SLOT = "bench";
+  private static final int SAVES = 200;
+  private static final int CHANGES_PER_SAVE = 10;
+  private static final int[] INVENTORY_SIZES = {0, 100, 1_000, 10_000};
+
+  private static volatile long sink;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   * @throws IOException if a save file cannot be written
+   */
+  public static void main(String[] args) throws IOException {
+    Files.createDirectories(Path.of("saves"));
+    PetScheduler scheduler = new PetScheduler(new ManualClock(0), 1);
+    try {
+      for (int items : INVENTORY_SIZES) {
+        // The first pass of each variant is a warm-up
+        fullSaves(newPet(scheduler, items));
+        journaledSaves(newPet(scheduler, items));
+        report("full save", items, fullSaves(newPet(scheduler, items)));
+        report("journaled save", items, journaledSaves(newPet(scheduler, items)));
+      }
+    } finally {
+      scheduler.shutdown();
+      Files.deleteIfExists(Path.of("saves/pet_save_" + SLOT + ".dat"));
+      Files.deleteIfExists(Path.of("saves/pet_save_" + SLOT + ".journal"));
+    }
+  }
+
+  private static Pet newPet(PetScheduler scheduler, int items) {
+    Pet pet = new Pet(scheduler, true, new PetRandom(items));
+    for (int i = 0; i < items; i++) {
+      pet.getInventory().addItem(new Meat());
+    }
+    return pet;
+  }
+
+  private static void play(Pet pet) {
+    for (int i = 0; i < CHANGES_PER_SAVE; i++) {
+      pet.feed();
+      pet.play();
+      pet.decay();
+    }
+  }
+
+  private static long fullSaves(Pet pet) throws IOException {
+    long begin = System.nanoTime();
+    for (int i = 0; i < SAVES; i++) {
+      play(pet);
+      try (FileOutputStream file = new FileOutputStream("saves/pet_save_" + SLOT + ".dat");
+          ObjectOutputStream out = new ObjectOutputStream(file)) {
+        out.writeObject(pet);
+        out.flush();
+        file.getFD().sync();
+      }
+    }
+    long elapsed = System.nanoTime() - begin;
+    sink = pet.getscore();
+    pet.stopTimers();
+    return elapsed;
+  }
+
+  private static long journaledSaves(Pet pet) {
+    // The first save writes the snapshot that the journal continues from
+    pet.save(SLOT);
+    long begin = System.nanoTime();
+    for (int i = 0; i < SAVES; i++) {
+      play(pet);
+      pet.save(SLOT);
+    }
+    long elapsed = System.nanoTime() - begin;
+    sink = pet.getscore();
+    pet.stopTimers();
+    return elapsed;
+  }
+
+  private static void report(String variant, int items, long elapsedNanos) {
+    System.out.printf(Locale.ROOT, "%-15s %6d items: %8.1f us/save%n",
+        variant, items, elapsedNanos / 1_000.0 / SAVES);
+  }
+}
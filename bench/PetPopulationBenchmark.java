@@ -0,0 +1,72 @@
+import java.util.Locale;
+
+/**
+ * Compares bulk ticking of a {@link PetPopulation} with ticking individual {@link Pet} objects.
+ *
+ * <p>Each measurement runs a number of warm-up rounds before timing, so the JIT has
+ * compiled the loops. Run it from the project root after compiling the sources:</p>
+ * <pre>
+ * javac -d out src/*.java bench/*.java
+ * java -cp out PetPopulationBenchmark
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see PetPopulation
+ */
+public class PetPopulationBenchmark {
+
+  private static final int POPULATION = 10_000_000;
+  private static final int OBJECTS = 200_000;
+  private static final int ROUNDS = 10;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   */
+  public static void main(String[] args) {
+    PetPopulation population = new PetPopulation(POPULATION, 42);
+    double bulkNanos = measure(() -> {
+      population.decayTick();
+      population.healthTick();
+    });
+    report("PetPopulation bulk tick", POPULATION, bulkNanos);
+
+    PetScheduler scheduler = new PetScheduler(new ManualClock(0), 1);
+    Pet[] pets = new Pet[OBJECTS];
+    for (int i = 0; i < OBJECTS; i++) {
+      pets[i] = new Pet(scheduler, true);
+      pets[i].setPersonality(new Dog());
+    }
+    double objectNanos = measure(() -> {
+      for (Pet pet : pets) {
+        pet.increasescore();
+        pet.increaseHunger();
+        pet.increaseSleep();
+        pet.decreaseSocial();
+        pet.checkBounds();
+        pet.adjustBehavior(pet);
+      }
+    });
+    report("Pet per-object tick", OBJECTS, objectNanos);
+    System.out.printf(Locale.ROOT, "Speed-up per pet: %.1fx%n",
+        (objectNanos / OBJECTS) / (bulkNanos / POPULATION));
+  }
+
+  private static double measure(Runnable round) {
+    for (int i = 0; i < ROUNDS; i++) {
+      round.run();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < ROUNDS; i++) {
+      round.run();
+    }
+    return (System.nanoTime() - start) / (double) ROUNDS;
+  }
+
+  private static void report(String name, int pets, double nanosPerRound) {
+    System.out.printf(Locale.ROOT, "%-24s %,12d pets  %10.2f ms/tick  %6.2f ns/pet%n",
+        name, pets, nanosPerRound / 1e6, nanosPerRound / pets);
+  }
+}
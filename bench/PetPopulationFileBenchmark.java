@@ -0,0 +1,113 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Measures random access to a memory-mapped {@link PetPopulationFile} and compares it with
+ * one save file per pet.
+ *
+ * <p>The benchmark stores a population of pets in one population file, then reads and
+ * updates the attributes of pets picked at random. As a baseline it writes a small number
+ * of pets to one file each, the way the save slots work, and reads them back with
+ * {@link PetCodec}. The files are created in a temporary directory and deleted at the
+ * end.</p>
+ * <pre>
+ * javac -d out src/*.java bench/*.java
+ * java -cp out PetPopulationFileBenchmark
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see PetPopulationFile
+ */
+public class PetPopulationFileBenchmark {
+
+  private static final int PETS = 1_000_000;
+  private static final int RANDOM_READS = 5_000_000;
+  private static final int FILE_PER_PET = 2_000;
+
+  private static volatile long sink;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   * @throws IOException if a file cannot be written
+   */
+  public static void main(String[] args) throws IOException {
+    Path directory = Files.createTempDirectory("pet-population");
+    PetScheduler scheduler = new PetScheduler(new ManualClock(0), 1);
+    Path populationPath = directory.resolve("population.dat");
+    try {
+      Pet pet = new Pet(scheduler, true, new PetRandom(1));
+      pet.setPersonality(new Dog());
+      try (PetPopulationFile file = PetPopulationFile.open(populationPath, PETS)) {
+        long begin = System.nanoTime();
+        for (int id = 0; id < PETS; id++) {
+          file.write(id, pet);
+        }
+        file.force();
+        report("population file: write", PETS, System.nanoTime() - begin);
+
+        // The first pass is a warm-up
+        randomReads(file);
+        report("population file: random read", RANDOM_READS, randomReads(file));
+        report("population file: random update", RANDOM_READS, randomUpdates(file));
+      }
+      System.out.printf(Locale.ROOT, "population file size: %d MB for %d pets%n",
+          Files.size(populationPath) >> 20, PETS);
+
+      long begin = System.nanoTime();
+      for (int id = 0; id < FILE_PER_PET; id++) {
+        Files.write(directory.resolve("pet_" + id + ".dat"), PetCodec.encode(pet));
+      }
+      report("file per pet: write", FILE_PER_PET, System.nanoTime() - begin);
+      PetRandom random = new PetRandom(3);
+      begin = System.nanoTime();
+      long checksum = 0;
+      for (int i = 0; i < FILE_PER_PET; i++) {
+        Path path = directory.resolve("pet_" + random.nextInt(FILE_PER_PET) + ".dat");
+        checksum += PetCodec.decode(Files.readAllBytes(path)).getscore();
+      }
+      sink = checksum;
+      report("file per pet: random read", FILE_PER_PET, System.nanoTime() - begin);
+    } finally {
+      scheduler.shutdown();
+      try (var files = Files.list(directory)) {
+        for (Path path : (Iterable<Path>) files::iterator) {
+          Files.delete(path);
+        }
+      }
+      Files.delete(directory);
+    }
+  }
+
+  private static long randomReads(PetPopulationFile file) {
+    PetRandom random = new PetRandom(2);
+    long checksum = 0;
+    long begin = System.nanoTime();
+    for (int i = 0; i < RANDOM_READS; i++) {
+      checksum += file.readState(random.nextInt(PETS)).getHealth();
+    }
+    long elapsed = System.nanoTime() - begin;
+    sink = checksum;
+    return elapsed;
+  }
+
+  private static long randomUpdates(PetPopulationFile file) {
+    PetRandom random = new PetRandom(4);
+    long begin = System.nanoTime();
+    for (int i = 0; i < RANDOM_READS; i++) {
+      int id = random.nextInt(PETS);
+      PetState state = file.readState(id);
+      file.writeState(id, new PetState(PetState.adjust(state.word(), 1, 5, -2, 15, 0)));
+    }
+    return System.nanoTime() - begin;
+  }
+
+  private static void report(String variant, int operations, long elapsedNanos) {
+    System.out.printf(Locale.ROOT, "%-32s %9.1f ns/op%n", variant,
+        (double) elapsedNanos / operations);
+  }
+}
@@ -0,0 +1,119 @@
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures how fast {@link PetShard}s apply commands sent by several producer threads.
+ *
+ * <p>Producers act on pets spread over the shards, the way the UI, the scheduler threads and
+ * the item generators do in a large game. The same load is then run again with the
+ * producers calling the pets directly, which uses the pets' compare-and-set updates. The
+ * largest batch shows how many commands a shard worked through in one drain cycle.</p>
+ * <pre>
+ * javac -d out src/*.java bench/*.java
+ * java -cp out PetShardBenchmark
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see PetShard
+ */
+public class PetShardBenchmark {
+
+  private static final int PETS = 10_000;
+  private static final int SHARDS = 2;
+  private static final int RING_CAPACITY = 8192;
+  private static final int COMMANDS_PER_PRODUCER = 2_000_000;
+  private static final int[] PRODUCER_COUNTS = {1, 2, 4};
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   */
+  public static void main(String[] args) throws InterruptedException {
+    System.out.println("Available cores: " + Runtime.getRuntime().availableProcessors());
+    PetScheduler scheduler = new PetScheduler(new ManualClock(0), 1);
+    Pet[] pets = new Pet[PETS];
+    for (int i = 0; i < PETS; i++) {
+      pets[i] = new Pet(scheduler, true);
+    }
+    for (int producers : PRODUCER_COUNTS) {
+      // The first pass of each variant is a warm-up
+      runSharded(pets, producers);
+      runDirect(pets, producers);
+      runSharded(pets, producers);
+      runDirect(pets, producers);
+    }
+  }
+
+  private static void runSharded(Pet[] pets, int producers) throws InterruptedException {
+    PetShard[] shards = new PetShard[SHARDS];
+    for (int s = 0; s < SHARDS; s++) {
+      shards[s] = new PetShard("bench-" + s, RING_CAPACITY);
+      shards[s].start();
+    }
+    for (int i = 0; i < pets.length; i++) {
+      shards[i % SHARDS].attach(pets[i]);
+    }
+    long nanos = runProducers(pets, producers);
+    long largestBatch = 0;
+    for (PetShard shard : shards) {
+      shard.shutdown();
+      largestBatch = Math.max(largestBatch, shard.getLargestBatch());
+    }
+    for (Pet pet : pets) {
+      pet.setShard(null);
+    }
+    report("sharded", producers, nanos, "largest batch " + largestBatch);
+  }
+
+  private static void runDirect(Pet[] pets, int producers) throws InterruptedException {
+    report("direct CAS", producers, runProducers(pets, producers), "");
+  }
+
+  /**
+   * Runs the producers and returns the time until every command has been applied.
+   */
+  private static long runProducers(Pet[] pets, int producers) throws InterruptedException {
+    CountDownLatch start = new CountDownLatch(1);
+    Thread[] threads = new Thread[producers];
+    for (int p = 0; p < producers; p++) {
+      int offset = p;
+      threads[p] = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        for (int i = 0; i < COMMANDS_PER_PRODUCER; i++) {
+          Pet pet = pets[(i * 31 + offset) % pets.length];
+          if ((i & 1) == 0) {
+            pet.increaseHealth(1);
+          } else {
+            pet.increaseHealth(-1);
+          }
+        }
+      });
+      threads[p].start();
+    }
+    long begin = System.nanoTime();
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    // Shutting the shards down in the caller drains what is left; wait for that here
+    for (Pet pet : pets) {
+      PetShard shard = pet.getShard();
+      if (shard != null) {
+        shard.awaitProcessed(shard.submit(pet, PetCommand.INCREASE_HEALTH, 0));
+      }
+    }
+    return System.nanoTime() - begin;
+  }
+
+  private static void report(String name, int producers, long nanos, String extra) {
+    long commands = (long) producers * COMMANDS_PER_PRODUCER;
+    System.out.printf(Locale.ROOT, "%-11s %d producers  %7.1f ns/command  %6.1f M commands/s  %s%n",
+        name, producers, nanos / (double) commands, commands * 1e3 / nanos, extra);
+  }
+}
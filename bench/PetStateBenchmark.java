@@ -0,0 +1,169 @@
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the packed compare-and-set pet state with a synchronized baseline under contention.
+ *
+ * <p>Every thread works on the same pet. Each round of a thread applies four attribute
+ * updates and takes one snapshot, the mix the scheduler threads and the UI produce. Each
+ * update either adds or removes one health point, and every thread applies as many of each,
+ * so the final health must equal the starting health. A different value means updates were
+ * lost. The plain-fields variant shows the unsynchronized field updates the pet used before
+ * and is expected to lose updates once more than one core is available.</p>
+ * <pre>
+ * javac -d out src/*.java bench/*.java
+ * java -cp out PetStateBenchmark
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see PetState
+ */
+public class PetStateBenchmark {
+
+  private static final int ROUNDS_PER_THREAD = 2_000_000;
+  private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+  private static final int START_HEALTH = 50;
+
+  private static volatile long sink;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   */
+  public static void main(String[] args) throws InterruptedException {
+    System.out.println("Available cores: " + Runtime.getRuntime().availableProcessors());
+    for (int threads : THREAD_COUNTS) {
+      // The first pass of each variant is a warm-up
+      run(new PackedState(), threads);
+      run(new SynchronizedState(), threads);
+      run(new PlainState(), threads);
+      report("packed CAS", threads, run(new PackedState(), threads));
+      report("synchronized", threads, run(new SynchronizedState(), threads));
+      report("plain fields", threads, run(new PlainState(), threads));
+    }
+  }
+
+  private static Result run(State state, int threads) throws InterruptedException {
+    CountDownLatch start = new CountDownLatch(1);
+    Thread[] workers = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      workers[t] = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        long checksum = 0;
+        for (int i = 0; i < ROUNDS_PER_THREAD; i++) {
+          state.adjustHealth(1);
+          state.adjustHealth(-1);
+          state.adjustHealth(1);
+          state.adjustHealth(-1);
+          checksum += state.snapshot().getHealth();
+        }
+        // Publish the checksum so the snapshot reads are not optimized away
+        sink = checksum;
+      });
+      workers[t].start();
+    }
+    long begin = System.nanoTime();
+    start.countDown();
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    long elapsed = System.nanoTime() - begin;
+    return new Result(elapsed, (long) threads * ROUNDS_PER_THREAD * 5,
+        state.snapshot().getHealth() - START_HEALTH);
+  }
+
+  private static void report(String name, int threads, Result result) {
+    System.out.printf(Locale.ROOT, "%-13s %d threads  %8.1f ns/op  %7.1f Mops/s  health drift %d%n",
+        name, threads, result.nanos / (double) result.operations,
+        result.operations * 1e3 / result.nanos, result.drift);
+  }
+
+  private static final class Result {
+    final long nanos;
+    final long operations;
+    final int drift;
+
+    Result(long nanos, long operations, int drift) {
+      this.nanos = nanos;
+      this.operations = operations;
+      this.drift = drift;
+    }
+  }
+
+  private interface State {
+    void adjustHealth(int delta);
+
+    PetState snapshot();
+  }
+
+  /**
+   * The packed word used by {@link Pet}, updated with compare-and-set.
+   */
+  private static final class PackedState implements State {
+    private final AtomicLong word = new AtomicLong(PetState.pack(0, 20, 80, 20, START_HEALTH, false));
+
+    @Override
+    public void adjustHealth(int delta) {
+      long current;
+      long next;
+      do {
+        current = word.get();
+        next = PetState.adjust(current, 0, 0, 0, 0, delta);
+      } while (!word.compareAndSet(current, next));
+    }
+
+    @Override
+    public PetState snapshot() {
+      return new PetState(word.get());
+    }
+  }
+
+  /**
+   * Separate int fields guarded by the object's monitor.
+   */
+  private static final class SynchronizedState implements State {
+    private int score;
+    private int hunger = 20;
+    private int social = 80;
+    private int sleep = 20;
+    private int health = START_HEALTH;
+
+    @Override
+    public synchronized void adjustHealth(int delta) {
+      health = Math.min(Math.max(health + delta, 0), 100);
+    }
+
+    @Override
+    public synchronized PetState snapshot() {
+      return new PetState(PetState.pack(score, hunger, social, sleep, health, false));
+    }
+  }
+
+  /**
+   * Separate int fields with no synchronization, as the pet had before.
+   */
+  private static final class PlainState implements State {
+    private int score;
+    private int hunger = 20;
+    private int social = 80;
+    private int sleep = 20;
+    private int health = START_HEALTH;
+
+    @Override
+    public void adjustHealth(int delta) {
+      health = Math.min(Math.max(health + delta, 0), 100);
+    }
+
+    @Override
+    public PetState snapshot() {
+      return new PetState(PetState.pack(score, hunger, social, sleep, health, false));
+    }
+  }
+}
@@ -0,0 +1,93 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * Measures whether one {@link RenderLoop} keeps 60 frames per second while it animates
+ * dozens of pets, and how much it allocates per frame.
+ *
+ * <p>Each pet is a {@link PetCanvas} of {@value #PET_SIZE} pixels that plays one of the
+ * looping animations from the {@link SpriteAtlas} of its pet type. A canvas needs a screen
+ * for its back buffer, so the benchmark draws each canvas's frames into an image of its
+ * own instead, with the same drawing code. The images are in main memory, so the numbers are
+ * an upper bound for a screen, where the copies run on the graphics card. Allocation is
+ * read from the loop thread's allocation counter, which HotSpot provides. The images are
+ * read from {@code src}, so that directory has to be on the class path.</p>
+ * <pre>
+ * javac -d out src/*.java bench/*.java
+ * java -Djava.awt.headless=true -cp out:src RenderLoopBenchmark
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see RenderLoop
+ */
+public class RenderLoopBenchmark {
+
+  private static final int[] PET_COUNTS = {12, 24, 48};
+  private static final int PET_SIZE = 96;
+  private static final long RUN_MILLIS = 3000;
+
+  private static volatile Thread loopThread;
+  private static volatile long sink;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   * @throws InterruptedException if interrupted while the loop runs
+   */
+  public static void main(String[] args) throws InterruptedException {
+    // The first pass is a warm-up, and builds the atlases
+    run(PET_COUNTS[PET_COUNTS.length - 1]);
+    for (int pets : PET_COUNTS) {
+      run(pets);
+    }
+  }
+
+  private static void run(int pets) throws InterruptedException {
+    RenderLoop loop = new RenderLoop(RenderLoop.DEFAULT_FRAME_RATE);
+    PetAnimation[] animations = {PetAnimation.IDLE, PetAnimation.SLEEPING};
+    RenderLoop.Target[] targets = new RenderLoop.Target[pets];
+    for (int i = 0; i < pets; i++) {
+      PetCanvas canvas = new PetCanvas(PET_SIZE, loop);
+      canvas.setSize(PET_SIZE, PET_SIZE);
+      canvas.showPet(AssetPreloader.PET_TYPES[i % 3], animations[i % 2]);
+      BufferedImage buffer = SpriteCache.createCompatibleImage(PET_SIZE, PET_SIZE,
+          java.awt.Transparency.OPAQUE);
+      Graphics2D g = buffer.createGraphics();
+      targets[i] = frameNanos -> {
+        loopThread = Thread.currentThread();
+        canvas.paintFrame(g, frameNanos);
+      };
+      loop.add(targets[i]);
+    }
+    Thread.sleep(200);
+    long frames = loop.getFrames();
+    long dropped = loop.getDroppedFrames();
+    long busy = loop.getBusyNanos();
+    long bytes = allocatedBytes(loopThread);
+    long begin = System.nanoTime();
+    Thread.sleep(RUN_MILLIS);
+    double seconds = (System.nanoTime() - begin) / 1e9;
+    long allocated = allocatedBytes(loopThread) - bytes;
+    frames = loop.getFrames() - frames;
+    dropped = loop.getDroppedFrames() - dropped;
+    busy = loop.getBusyNanos() - busy;
+    for (RenderLoop.Target target : targets) {
+      loop.remove(target);
+    }
+    sink += frames;
+    System.out.printf(Locale.ROOT,
+        "%3d pets: %6.1f fps, %4d dropped, %6.2f ms per frame (max %6.2f ms),"
+            + " %6d bytes allocated per frame%n",
+        pets, frames / seconds, dropped, busy / 1e6 / frames, loop.getMaxBusyNanos() / 1e6,
+        allocated / Math.max(1, frames));
+  }
+
+  private static long allocatedBytes(Thread thread) {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+        .getThreadAllocatedBytes(thread.getId());
+  }
+}
@@ -0,0 +1,173 @@
+import java.awt.Color;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.RepaintManager;
+import javax.swing.SwingUtilities;
+
+/**
+ * Measures the repaints and the event dispatch thread time per second spent showing the
+ * pet's attributes while the pet changes often.
+ *
+ * <p>A producer thread reports a new state every {@value #UPDATE_INTERVAL_MICROS}
+ * microseconds; as in the game, most reports change only one or two attributes. The
+ * baseline sets every label and bar of the game window in one event per report, like the
+ * window did before it had a render scheduler. The new variant registers the same updates
+ * with a {@link RenderScheduler} and skips values that did not change, like
+ * {@link PetView} does now. The window cannot be created without a display, so the
+ * benchmark builds the same labels and bars on a panel. Repaints are counted with a
+ * {@code RepaintManager}, so the benchmark does not need a display.</p>
+ * <pre>
+ * javac -d out src/*.java bench/*.java
+ * java -Djava.awt.headless=true -cp out RenderSchedulerBenchmark
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see RenderScheduler
+ */
+public class RenderSchedulerBenchmark {
+
+  private static final int UPDATE_INTERVAL_MICROS = 500;
+  private static final long RUN_NANOS = 2_000_000_000L;
+
+  private static final AtomicLong repaints = new AtomicLong();
+  private static volatile long sink;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   * @throws Exception if the event dispatch thread fails
+   */
+  public static void main(String[] args) throws Exception {
+    SwingUtilities.invokeAndWait(() -> RepaintManager.setCurrentManager(new RepaintManager() {
+      @Override
+      public void addDirtyRegion(JComponent c, int x, int y, int w, int h) {
+        repaints.incrementAndGet();
+        super.addDirtyRegion(c, x, y, w, h);
+      }
+    }));
+    // The first pass is a warm-up
+    run(false);
+    run(true);
+    report("direct", run(false));
+    report("render scheduler", run(true));
+  }
+
+  private static long[] run(boolean scheduled) throws Exception {
+    Fields fields = new Fields();
+    RenderScheduler render = new RenderScheduler(RenderScheduler.DEFAULT_FRAME_RATE);
+    AtomicLong directNanos = new AtomicLong();
+    int[] state = {50, 50, 50, 50, 0};
+    long updates = 0;
+    repaints.set(0);
+    long begin = System.nanoTime();
+    long next = begin;
+    while (System.nanoTime() - begin < RUN_NANOS) {
+      // One attribute changes per report; the score changes every tenth report
+      state[(int) (updates % 4)] = (state[(int) (updates % 4)] + 1) % 101;
+      if (updates % 10 == 0) {
+        state[4]++;
+      }
+      int[] shown = state.clone();
+      if (scheduled) {
+        fields.schedule(render, shown);
+      } else {
+        SwingUtilities.invokeLater(() -> {
+          long start = System.nanoTime();
+          fields.setAll(shown);
+          directNanos.addAndGet(System.nanoTime() - start);
+        });
+      }
+      updates++;
+      next += UPDATE_INTERVAL_MICROS * 1_000L;
+      while (System.nanoTime() < next) {
+        Thread.onSpinWait();
+      }
+    }
+    SwingUtilities.invokeAndWait(render::flush);
+    long elapsed = System.nanoTime() - begin;
+    sink = fields.scoreLabel.getText().length();
+    long busy = scheduled ? render.getBusyNanos() : directNanos.get();
+    return new long[] {updates, repaints.get(), busy, elapsed};
+  }
+
+  private static void report(String variant, long[] result) {
+    double seconds = result[3] / 1e9;
+    System.out.printf(Locale.ROOT,
+        "%-17s %8.0f reports/s: %8.0f repaints/s, %7.2f ms EDT time/s%n", variant,
+        result[0] / seconds, result[1] / seconds, result[2] / 1e6 / seconds);
+  }
+
+  /**
+   * The labels and bars of the game window that show the pet's attributes.
+   */
+  private static final class Fields {
+    final JProgressBar[] bars = new JProgressBar[4];
+    final String[] names = {"Health: ", "Hunger: ", "Social: ", "Sleep: "};
+    final JLabel scoreLabel = new JLabel("Score: 0");
+    final JLabel moodLabel = new JLabel("Mood:");
+    final int[] shown = {-1, -1, -1, -1, -1};
+    String shownMood;
+
+    Fields() {
+      JPanel panel = new JPanel(null);
+      panel.setSize(800, 600);
+      for (int i = 0; i < bars.length; i++) {
+        bars[i] = new JProgressBar(0, 100);
+        bars[i].setStringPainted(true);
+        bars[i].setBounds(125, 62 + 25 * i, 150, 25);
+        panel.add(bars[i]);
+      }
+      scoreLabel.setBounds(10, 10, 200, 30);
+      moodLabel.setBounds(10, 200, 200, 30);
+      panel.add(scoreLabel);
+      panel.add(moodLabel);
+    }
+
+    void setAll(int[] state) {
+      for (int i = 0; i < bars.length; i++) {
+        bars[i].setValue(state[i]);
+        bars[i].setString(names[i] + state[i]);
+        bars[i].setForeground(Color.gray);
+      }
+      scoreLabel.setText("Score: " + state[4]);
+      moodLabel.setText("Mood: " + mood(state));
+    }
+
+    void schedule(RenderScheduler render, int[] state) {
+      for (int i = 0; i < bars.length; i++) {
+        int bar = i;
+        render.schedule(bars[i], () -> {
+          if (shown[bar] != state[bar]) {
+            shown[bar] = state[bar];
+            bars[bar].setValue(state[bar]);
+            bars[bar].setString(names[bar] + state[bar]);
+            bars[bar].setForeground(Color.gray);
+          }
+        });
+      }
+      render.schedule(scoreLabel, () -> {
+        if (shown[4] != state[4]) {
+          shown[4] = state[4];
+          scoreLabel.setText("Score: " + state[4]);
+        }
+      });
+      String mood = mood(state);
+      render.schedule(moodLabel, () -> {
+        if (!mood.equals(shownMood)) {
+          shownMood = mood;
+          moodLabel.setText("Mood: " + mood);
+        }
+      });
+    }
+
+    private static String mood(int[] state) {
+      return state[0] > 50 ? "HAPPY" : "NEUTRAL";
+    }
+  }
+}
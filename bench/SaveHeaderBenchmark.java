@@ -0,0 +1,122 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Measures how long it takes to describe a save slot for the load dialog.
+ *
+ * <p>The header variant reads the slot with {@link SaveHeader#preview(String)}: the header
+ * of the save file and the journal's last record. The baseline loads the pet with
+ * {@link Pet#load(String)} and stops it again, which is what it took to find out what a slot
+ * held before saves had a header: the whole file is decoded, the journal replayed and the
+ * pet's background tasks registered. In between, {@link Pet#loadPassive(String)} decodes the
+ * file and replays the journal but registers nothing and does not need to be stopped.</p>
+ * <pre>
+ * javac -d out src/*.java bench/*.java
+ * java -cp out SaveHeaderBenchmark
+ * </pre>
+ * The benchmark writes to {@code saves/pet_save_header-bench.*} and deletes the files at the
+ * end.
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see SaveHeader
+ */
+public class SaveHeaderBenchmark {
+
+  private static final String SLOT = "header-bench";
+  private static final int ITEMS = 300;
+  private static final int ROUNDS = 5_000;
+
+  private static volatile long sink;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   * @throws IOException if the save file cannot be written or read
+   */
+  public static void main(String[] args) throws IOException {
+    PetScheduler scheduler = new PetScheduler(new ManualClock(0), 1);
+    Path file = Path.of("saves/pet_save_" + SLOT + ".dat");
+    PrintStream out = System.out;
+    try {
+      PetRandom random = new PetRandom(7);
+      Pet pet = new Pet(scheduler, false, random.split());
+      pet.setPetName("Rex");
+      pet.setPersonality(new Dog());
+      for (int i = 0; i < ITEMS; i++) {
+        switch (random.nextInt(3)) {
+          case 0 -> pet.getInventory().addItem(new Meat());
+          case 1 -> pet.getInventory().addItem(new Vegetables());
+          default -> pet.getInventory().addItem(new Juice());
+        }
+      }
+      // Pet.save reports the save on standard output; keep that out of the results
+      System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+      pet.save(SLOT);
+      pet.increaseHealth(-10);
+      pet.save(SLOT);
+      System.setOut(out);
+
+      // The first pass of each variant is a warm-up
+      previews();
+      passiveLoads();
+      loads();
+      report("header preview", previews(), Files.size(file));
+      report("Pet.loadPassive", passiveLoads(), Files.size(file));
+      report("Pet.load", loads(), Files.size(file));
+      pet.stopTimers();
+      scheduler.getSaveWriter().flush().join();
+    } finally {
+      System.setOut(out);
+      scheduler.shutdown();
+      Files.deleteIfExists(file);
+      Files.deleteIfExists(Path.of("saves/pet_save_" + SLOT + ".journal"));
+    }
+  }
+
+  private static long previews() throws IOException {
+    long checksum = 0;
+    long begin = System.nanoTime();
+    for (int i = 0; i < ROUNDS; i++) {
+      checksum += SaveHeader.preview(SLOT).getHealth();
+    }
+    long elapsed = System.nanoTime() - begin;
+    sink = checksum;
+    return elapsed;
+  }
+
+  private static long passiveLoads() {
+    long checksum = 0;
+    long begin = System.nanoTime();
+    for (int i = 0; i < ROUNDS; i++) {
+      checksum += Pet.loadPassive(SLOT).getHealth();
+    }
+    long elapsed = System.nanoTime() - begin;
+    sink = checksum;
+    return elapsed;
+  }
+
+  private static long loads() {
+    long checksum = 0;
+    long begin = System.nanoTime();
+    for (int i = 0; i < ROUNDS; i++) {
+      Pet loaded = Pet.load(SLOT);
+      checksum += loaded.getHealth();
+      loaded.stopTimers();
+    }
+    PetScheduler.getInstance().getSaveWriter().flush().join();
+    long elapsed = System.nanoTime() - begin;
+    sink = checksum;
+    return elapsed;
+  }
+
+  private static void report(String variant, long elapsedNanos, long fileSize) {
+    System.out.printf(Locale.ROOT, "%-16s %8.1f us per slot (%d-byte save file)%n", variant,
+        elapsedNanos / 1e3 / ROUNDS, fileSize);
+  }
+}
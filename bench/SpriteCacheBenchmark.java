@@ -0,0 +1,88 @@
+import java.awt.Image;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.util.Locale;
+import javax.swing.ImageIcon;
+
+/**
+ * Measures the time and the memory allocated to show the pet's image once.
+ *
+ * <p>The baseline is what the game window did on every action before it had a sprite
+ * cache: find the JPEG, decode it with {@code ImageIcon}, scale it with
+ * {@code getScaledInstance} and wrap the result in a new icon. The new variant asks a
+ * {@link SpriteCache} for the icon, as the window does now. Allocation is read from the
+ * thread's allocation counter, which HotSpot provides; {@code ImageIcon} decodes on the
+ * toolkit's own threads, so the baseline allocates far more than it reports. The images
+ * are read from {@code src}, so that directory has to be on the class path.</p>
+ * <pre>
+ * javac -d out src/*.java bench/*.java
+ * java -Djava.awt.headless=true -cp out:src SpriteCacheBenchmark
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see SpriteCache
+ */
+public class SpriteCacheBenchmark {
+
+  private static final String[] PET_TYPES = {"Dog", "Cat", "Bird"};
+  private static final int SIZE = 300;
+  private static final int ROUNDS = 30;
+
+  private static volatile long sink;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   */
+  public static void main(String[] args) {
+    SpriteCache cache = new SpriteCache(SpriteCache.DEFAULT_BUDGET_BYTES);
+    // The first pass is a warm-up
+    decodeAndScale();
+    cached(cache);
+    report("decode and scale", decodeAndScale());
+    report("sprite cache", cached(cache));
+  }
+
+  private static long[] decodeAndScale() {
+    long bytes = allocatedBytes();
+    long begin = System.nanoTime();
+    for (int i = 0; i < ROUNDS; i++) {
+      for (String petType : PET_TYPES) {
+        URL url = SpriteCacheBenchmark.class.getResource(
+            SpriteState.NORMAL.resourcePath(petType));
+        ImageIcon original = new ImageIcon(url);
+        Image scaled = original.getImage().getScaledInstance(SIZE, SIZE, Image.SCALE_SMOOTH);
+        ImageIcon icon = new ImageIcon(scaled);
+        sink += icon.getIconWidth();
+      }
+    }
+    long elapsed = System.nanoTime() - begin;
+    return new long[] {elapsed, allocatedBytes() - bytes};
+  }
+
+  private static long[] cached(SpriteCache cache) {
+    long bytes = allocatedBytes();
+    long begin = System.nanoTime();
+    for (int i = 0; i < ROUNDS; i++) {
+      for (String petType : PET_TYPES) {
+        ImageIcon icon = cache.getIcon(petType, SpriteState.NORMAL, SIZE, SIZE);
+        sink += icon.getIconWidth();
+      }
+    }
+    long elapsed = System.nanoTime() - begin;
+    return new long[] {elapsed, allocatedBytes() - bytes};
+  }
+
+  private static long allocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+        .getCurrentThreadAllocatedBytes();
+  }
+
+  private static void report(String variant, long[] result) {
+    int refreshes = ROUNDS * PET_TYPES.length;
+    System.out.printf(Locale.ROOT, "%-17s %10.1f us, %10d bytes allocated per image%n",
+        variant, result[0] / 1e3 / refreshes, result[1] / refreshes);
+  }
+}
@@ -0,0 +1,51 @@
+/**
+ * A {@link PetClock} that runs a fixed number of times faster than real time.
+ *
+ * <p>With a factor of 60, one real second is one simulated minute, so a full day of pet
+ * life passes in 24 real minutes. The clock starts at the current wall-clock time and
+ * measures the time since then with {@link System#nanoTime()}, so it never runs backwards.
+ * {@link PetClock#SYSTEM} is an accelerated clock with a factor of 1.</p>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see PetClock
+ */
+public class AcceleratedClock implements PetClock {
+  private final long startMillis;
+  private final long startNanos;
+  private final double factor;
+
+  /**
+   * Constructs an accelerated clock.
+   *
+   * @param factor how many simulated milliseconds pass per real millisecond
+   * @throws IllegalArgumentException if {@code factor} is not positive
+   */
+  public AcceleratedClock(double factor) {
+    if (factor <= 0) {
+      throw new IllegalArgumentException("Acceleration factor must be positive.");
+    }
+    this.factor = factor;
+    this.startMillis = System.currentTimeMillis();
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Returns the current simulated time.
+   *
+   * @return the current time in milliseconds since the epoch
+   */
+  @Override
+  public long millis() {
+    return startMillis + (long) ((System.nanoTime() - startNanos) / 1_000_000.0 * factor);
+  }
+
+  /**
+   * Returns the acceleration factor.
+   *
+   * @return how many simulated milliseconds pass per real millisecond
+   */
+  public double getFactor() {
+    return factor;
+  }
+}
@@ -0,0 +1,222 @@
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.imageio.ImageIO;
+
+/**
+ * Decodes the game's images and music in the background while the main menu is shown.
+ *
+ * <p>The pet images used to be decoded the first time a screen showed them, on the event
+ * dispatch thread, and the menu music was read when the menu opened. The preloader starts
+ * all of this at once on a small pool of worker threads: the music first, because the menu
+ * plays it straight away, then the images of the pet selection dialog, then the images of
+ * the game window and the wallpaper. Nothing waits for the preloader as a whole. The
+ * assets go into the {@link SpriteCache} and the {@link MusicPlayer}, which hand a screen
+ * an asset that is ready at once, wait for one that is being decoded, and decode one that
+ * has not been started yet; a screen therefore only waits for the assets it shows that
+ * are not ready.</p>
+ *
+ * <p>The pool has at most two threads and leaves one processor for the event dispatch
+ * thread, so preloading does not delay the menu. The threads are daemons and stop when
+ * everything is loaded.</p>
+ *
+ * <p>The preloader also records the time to the first frame: the time from the start of
+ * the JVM until the main menu was first painted.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * {@code
+ * AssetPreloader.getInstance().start();
+ * }
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see SpriteCache
+ * @see MusicPlayer#preload(String, java.util.concurrent.Executor)
+ */
+public class AssetPreloader {
+
+  /**
+   * The music played while the pet is alive.
+   */
+  public static final String ALIVE_MUSIC = "src/res/Alive.wav";
+
+  /**
+   * The music played when the pet has died.
+   */
+  public static final String DEAD_MUSIC = "src/res/Dead.wav";
+
+  /**
+   * The wallpaper image.
+   */
+  public static final String WALLPAPER = "/res/wallpaper.jpg";
+
+  /**
+   * The system property that prints the time until the first frame when set to true.
+   */
+  public static final String PRINT_STARTUP_PROPERTY = "pet.printStartupTime";
+
+  /**
+   * The pet types that have images.
+   */
+  static final String[] PET_TYPES = {"Dog", "Cat", "Bird"};
+
+  /**
+   * The size of the pet images in the pet selection dialog.
+   */
+  static final int SELECTION_IMAGE_SIZE = 200;
+
+  /**
+   * The size of the pet image in the game window.
+   */
+  static final int GAME_IMAGE_SIZE = 300;
+
+  private static AssetPreloader instance;
+
+  private final SpriteCache sprites;
+  private final MusicPlayer music;
+  private CompletableFuture<Void> loaded;
+  private CompletableFuture<BufferedImage> wallpaper;
+  private volatile long startNanos;
+  private volatile long preloadNanos = -1;
+  private volatile long firstFrameMillis = -1;
+
+  /**
+   * Constructs a preloader.
+   *
+   * @param sprites the cache the pet images go into
+   * @param music the player the music goes into, or null to skip the music
+   */
+  public AssetPreloader(SpriteCache sprites, MusicPlayer music) {
+    this.sprites = sprites;
+    this.music = music;
+  }
+
+  /**
+   * Returns the preloader of the game, which fills the shared sprite cache and music player.
+   *
+   * @return the shared preloader
+   */
+  public static synchronized AssetPreloader getInstance() {
+    if (instance == null) {
+      instance = new AssetPreloader(SpriteCache.getInstance(), MusicPlayer.getInstance());
+    }
+    return instance;
+  }
+
+  /**
+   * Starts loading every asset in the background. Starting again does nothing.
+   *
+   * @return a future that completes when every asset is loaded
+   */
+  public synchronized CompletableFuture<Void> start() {
+    if (loaded != null) {
+      return loaded;
+    }
+    startNanos = System.nanoTime();
+    int threads = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1));
+    ExecutorService pool = Executors.newFixedThreadPool(threads,
+        ExecutionMode.daemonThreads("asset-preloader-"));
+    List<CompletableFuture<?>> tasks = new ArrayList<>();
+    if (music != null) {
+      tasks.add(music.preload(ALIVE_MUSIC, pool));
+    }
+    for (String petType : PET_TYPES) {
+      tasks.add(CompletableFuture.runAsync(() -> sprites.getIcon(petType, SpriteState.NORMAL,
+          SELECTION_IMAGE_SIZE, SELECTION_IMAGE_SIZE), pool));
+    }
+    for (SpriteState state : new SpriteState[] {SpriteState.NORMAL, SpriteState.SLEEP,
+        SpriteState.DEAD}) {
+      for (String petType : PET_TYPES) {
+        tasks.add(CompletableFuture.runAsync(() -> sprites.getIcon(petType, state,
+            GAME_IMAGE_SIZE, GAME_IMAGE_SIZE), pool));
+      }
+    }
+    wallpaper = CompletableFuture.supplyAsync(() -> readImage(WALLPAPER), pool);
+    tasks.add(wallpaper);
+    if (music != null) {
+      tasks.add(music.preload(DEAD_MUSIC, pool));
+    }
+    loaded = CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]))
+        .whenComplete((result, error) -> {
+          preloadNanos = System.nanoTime() - startNanos;
+          pool.shutdown();
+        });
+    return loaded;
+  }
+
+  /**
+   * Returns the wallpaper, waiting for it if it is still being decoded. Without a running
+   * preloader, the wallpaper is decoded on the calling thread.
+   *
+   * @return the wallpaper, or null if it cannot be read
+   */
+  public BufferedImage getWallpaper() {
+    CompletableFuture<BufferedImage> future;
+    synchronized (this) {
+      future = wallpaper;
+      if (future == null) {
+        wallpaper = CompletableFuture.completedFuture(readImage(WALLPAPER));
+        future = wallpaper;
+      }
+    }
+    try {
+      return future.join();
+    } catch (RuntimeException e) {
+      System.err.println("Couldn't read the wallpaper: " + e.getMessage());
+      return null;
+    }
+  }
+
+  private static BufferedImage readImage(String resource) {
+    URL url = AssetPreloader.class.getResource(resource);
+    if (url == null) {
+      System.err.println("Couldn't find file: " + resource);
+      return null;
+    }
+    try {
+      return ImageIO.read(url);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Records that the first frame was painted. Only the first call counts. The time is printed
+   * if {@value #PRINT_STARTUP_PROPERTY} is true.
+   */
+  public void firstFramePainted() {
+    if (firstFrameMillis < 0) {
+      firstFrameMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+      if (Boolean.getBoolean(PRINT_STARTUP_PROPERTY)) {
+        System.out.println("First frame after " + firstFrameMillis + " ms");
+      }
+    }
+  }
+
+  /**
+   * Returns the time from the start of the JVM until the first frame was painted.
+   *
+   * @return the time in milliseconds, or -1 if nothing was painted yet
+   */
+  public long getTimeToFirstFrameMillis() {
+    return firstFrameMillis;
+  }
+
+  /**
+   * Returns how long loading every asset took.
+   *
+   * @return the time in nanoseconds, or -1 if the preloader has not finished
+   */
+  public long getPreloadNanos() {
+    return preloadNanos;
+  }
+}
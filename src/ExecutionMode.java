@@ -0,0 +1,130 @@
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The kind of threads that run pet services on a {@link PetScheduler}.
+ *
+ * <p>In {@link #PLATFORM} mode, due tasks run on a small pool of platform threads and
+ * blocking work such as saving runs on a separate pool. In {@link #VIRTUAL} mode, every due
+ * task and every blocking job runs on its own virtual thread, so a slow save or a music
+ * file that takes a while to load never holds up a pool thread.</p>
+ *
+ * <p>Virtual threads need Java 21 or later. On older runtimes {@link #VIRTUAL} falls back
+ * to platform threads and prints a warning, so the game runs everywhere.</p>
+ *
+ * <p>The shared scheduler reads its mode from the {@value #PROPERTY} system property:</p>
+ * <pre>
+ * java -Dpet.executionMode=virtual -jar PixelPets.jar
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see PetScheduler
+ */
+public enum ExecutionMode {
+  /**
+   * Pet services run on a fixed pool of platform threads.
+   */
+  PLATFORM,
+
+  /**
+   * Pet services run on virtual threads, one per task.
+   */
+  VIRTUAL;
+
+  /**
+   * The system property that selects the mode of the shared scheduler.
+   */
+  public static final String PROPERTY = "pet.executionMode";
+
+  /**
+   * Returns the mode named by the {@value #PROPERTY} system property.
+   *
+   * @return the configured mode, or {@link #PLATFORM} if the property is not set
+   * @throws IllegalArgumentException if the property names an unknown mode
+   */
+  public static ExecutionMode fromSystemProperty() {
+    String value = System.getProperty(PROPERTY);
+    if (value == null || value.isBlank()) {
+      return PLATFORM;
+    }
+    return valueOf(value.trim().toUpperCase(Locale.ROOT));
+  }
+
+  /**
+   * Check if this runtime supports virtual threads.
+   *
+   * @return true if virtual threads are available, false otherwise
+   */
+  public static boolean isVirtualThreadsAvailable() {
+    ExecutorService executor = newVirtualThreadExecutor();
+    if (executor == null) {
+      return false;
+    }
+    executor.shutdown();
+    return true;
+  }
+
+  /**
+   * Creates the executor that runs due tasks.
+   *
+   * @param name the prefix for the names of platform threads
+   * @param platformThreads the number of platform threads to use in {@link #PLATFORM} mode
+   * @return the executor
+   */
+  ExecutorService newTaskExecutor(String name, int platformThreads) {
+    if (this == VIRTUAL) {
+      ExecutorService executor = newVirtualThreadExecutor();
+      if (executor != null) {
+        return executor;
+      }
+      System.err.println("Virtual threads are not available on Java "
+          + Runtime.version().feature() + "; using platform threads.");
+    }
+    return Executors.newFixedThreadPool(platformThreads, daemonThreads(name));
+  }
+
+  /**
+   * Creates the executor that runs blocking work such as file I/O.
+   *
+   * @param name the prefix for the names of platform threads
+   * @return the executor
+   */
+  ExecutorService newBlockingExecutor(String name) {
+    if (this == VIRTUAL) {
+      ExecutorService executor = newVirtualThreadExecutor();
+      if (executor != null) {
+        return executor;
+      }
+    }
+    return Executors.newCachedThreadPool(daemonThreads(name));
+  }
+
+  /**
+   * Creates a virtual-thread-per-task executor through reflection, so the class still
+   * compiles and runs on Java 17.
+   *
+   * @return the executor, or null if virtual threads are not available
+   */
+  private static ExecutorService newVirtualThreadExecutor() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+      return null;
+    }
+  }
+
+  static ThreadFactory daemonThreads(String prefix) {
+    AtomicInteger counter = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
@@ -12,6 +12,7 @@
  * @see Pet
  */
 public class Food extends Item {
+    private static final long serialVersionUID = 727930969392385519L;
 
     /**
      * Constructs a new {@code Food} item with the specified name.
@@ -13,6 +13,7 @@
  * @see Pet
  */
 public class Gift extends Item {
+    private static final long serialVersionUID = -5978720919949054381L;
 
     /**
      * Constructs a new {@code Gift} item with the specified name.
@@ -1,77 +1,509 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Represents an inventory system that manages a collection of items.
  * This class implements {@link Serializable} to support object persistence,
  * allowing the inventory to be saved and loaded between sessions.
- * 
- * <p>The {@link Inventory} class maintains a list of {@link Item} objects 
- * and provides basic operations such as adding, removing, and retrieving 
+ *
+ * <p>The {@link Inventory} class maintains a collection of {@link Item} objects
+ * and provides basic operations such as adding, removing, and retrieving
  * items from the inventory.</p>
- * 
+ *
+ * <p>Items of an {@link ItemType} are not stored one by one: the inventory only counts them,
+ * so adding and removing them takes constant time and the inventory's memory and save size
+ * depend on the number of types, not on the number of items. The items it returns are the
+ * types' shared instances. Other items, such as a named {@link Food} or a {@link Gift}, are
+ * kept as they are. The inventory can be used from several threads.</p>
+ *
+ * <p>An inventory can hold a limited number of items. What happens to an item that arrives
+ * when the inventory is full is decided by its {@link OverflowPolicy}, and the inventory
+ * counts the items it turned away and the items it evicted. New inventories take their
+ * capacity from the {@value #CAPACITY_PROPERTY} system property and are unlimited if it is
+ * not set.</p>
+ *
+ * <p>{@link InventoryListener}s are told about every change, so a view of the inventory can
+ * follow it without reading it again.</p>
+ *
  * <p>Usage Example:</p>
  * <pre>
  * {@code
  * Inventory inventory = new Inventory();
- * Item item = new Item("Food");
- * inventory.addItem(item);
- * inventory.removeItem(item);
+ * inventory.addItem(new Meat());
+ * inventory.removeItem(ItemType.MEAT.getItem());
  * List<Item> items = inventory.getItems();
  * }
  * </pre>
- * 
+ *
  * @author Ramje
  * @version 1.0
  * @see Item
+ * @see ItemType
+ * @see OverflowPolicy
  * @see Serializable
  * @see List
  */
 public class Inventory implements Serializable {
     private static final long serialVersionUID = 1L;
-    private final List<Item> items;
+    // Saved as the list of items earlier versions kept, so saves load in both directions
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("items", List.class)
+    };
+
+    /**
+     * The capacity of an inventory without a limit.
+     */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    /**
+     * The system property that sets the capacity of new inventories.
+     */
+    public static final String CAPACITY_PROPERTY = "pet.inventoryCapacity";
+
+    private static final ItemType[] TYPES = ItemType.values();
+
+    private transient int[] counts;
+    private transient List<Item> otherItems;
+    private transient int size;
+    private transient List<Item> view;
+    private transient volatile int modifications;
+    private transient int capacity;
+    private transient OverflowPolicy overflowPolicy;
+    // The items in the order they arrived; only kept while the oldest item may be evicted
+    private transient ArrayDeque<Item> arrivals;
+    private transient volatile long droppedCount;
+    private transient volatile long evictedCount;
+    private transient List<InventoryListener> listeners;
 
     /**
      * Constructs an empty inventory.
-     * Initializes the list of items that the inventory will manage.
+     * Initializes the counts of items that the inventory will manage and takes its
+     * capacity and overflow policy from the system properties.
+     *
+     * @throws IllegalArgumentException if a system property holds an invalid value
      */
     public Inventory() {
-        items = new ArrayList<>();
+        initialize();
+    }
+
+    private void initialize() {
+        counts = new int[TYPES.length];
+        otherItems = new ArrayList<>();
+        view = new ItemView();
+        listeners = new ArrayList<>();
+        capacity = capacityFromSystemProperty();
+        overflowPolicy = OverflowPolicy.fromSystemProperty();
+        trackArrivals();
+    }
+
+    private static int capacityFromSystemProperty() {
+        String value = System.getProperty(CAPACITY_PROPERTY);
+        if (value == null || value.isBlank()) {
+            return UNLIMITED;
+        }
+        int capacity = Integer.parseInt(value.trim());
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(CAPACITY_PROPERTY + " must be positive");
+        }
+        return capacity;
     }
 
     /**
-     * Adds an {@link Item} to the inventory.
-     * 
+     * Adds an {@link Item} to the inventory. If the inventory is full, the item is turned
+     * away or the oldest item is evicted, as the overflow policy says.
+     *
      * @param item the item to be added to the inventory
+     * @return true if the item was added, false if it was turned away
      * @throws NullPointerException if the item is {@code null}
      */
-    public void addItem(Item item) {
+    public synchronized boolean addItem(Item item) {
         if (item == null) {
             throw new NullPointerException("Item cannot be null");
         }
-        items.add(item);
+        if (size >= capacity && !makeRoom(size - capacity + 1)) {
+            droppedCount++;
+            return false;
+        }
+        ItemType type = ItemType.of(item);
+        Item stored = item;
+        if (type != null) {
+            counts[type.ordinal()]++;
+            stored = type.getItem();
+        } else {
+            otherItems.add(item);
+        }
+        if (arrivals != null) {
+            arrivals.add(stored);
+        }
+        size++;
+        modifications++;
+        fireItemsAdded(stored, 1);
+        return true;
+    }
+
+    /**
+     * Adds several items of one type to the inventory at once. If they do not all fit, the
+     * items that do not fit are turned away or the oldest items are evicted, as the
+     * overflow policy says; the new items count as younger than the items already there.
+     *
+     * @param type the type of the items
+     * @param count the number of items to add
+     * @return the number of items added
+     * @throws NullPointerException if the type is {@code null}
+     * @throws IllegalArgumentException if the count is negative
+     */
+    public synchronized int addItems(ItemType type, int count) {
+        if (type == null) {
+            throw new NullPointerException("Item type cannot be null");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("Count cannot be negative");
+        }
+        int added = count;
+        if (count > capacity - size) {
+            if (overflowPolicy == OverflowPolicy.EVICT_OLDEST) {
+                // New items beyond the capacity would be evicted by the ones after them
+                added = Math.min(count, capacity);
+                evictedCount += count - added;
+                makeRoom(size + added - capacity);
+            } else {
+                added = Math.max(capacity - size, 0);
+                droppedCount += count - added;
+            }
+        }
+        if (added == 0) {
+            return 0;
+        }
+        counts[type.ordinal()] += added;
+        if (arrivals != null) {
+            for (int i = 0; i < added; i++) {
+                arrivals.add(type.getItem());
+            }
+        }
+        size += added;
+        modifications += added;
+        fireItemsAdded(type.getItem(), added);
+        return added;
+    }
+
+    /**
+     * Evicts the oldest items if the overflow policy allows it.
+     *
+     * @param items the number of items to evict
+     * @return true if the items were evicted, false if the policy turns new items away
+     */
+    private boolean makeRoom(int items) {
+        if (overflowPolicy != OverflowPolicy.EVICT_OLDEST) {
+            return false;
+        }
+        for (int i = 0; i < items && !arrivals.isEmpty(); i++) {
+            Item oldest = arrivals.poll();
+            ItemType type = ItemType.of(oldest);
+            if (type != null) {
+                counts[type.ordinal()]--;
+            } else {
+                otherItems.remove(oldest);
+            }
+            size--;
+            modifications++;
+            evictedCount++;
+            fireItemsRemoved(oldest, 1);
+        }
+        return true;
+    }
+
+    /**
+     * Keeps the arrival order of the items while the overflow policy may evict the oldest
+     * one. The order is rebuilt from the list view; items already in the inventory count
+     * as arrived in that order.
+     */
+    private void trackArrivals() {
+        if (overflowPolicy == OverflowPolicy.EVICT_OLDEST && capacity != UNLIMITED) {
+            if (arrivals == null) {
+                arrivals = new ArrayDeque<>(view);
+            }
+        } else {
+            arrivals = null;
+        }
+    }
+
+    /**
+     * Limits the number of items the inventory holds. If the inventory holds more items
+     * than the new capacity, the oldest items are evicted under
+     * {@link OverflowPolicy#EVICT_OLDEST}; under the other policies, the inventory keeps
+     * them and accepts new items once it holds fewer than the capacity.
+     *
+     * @param capacity the largest number of items, or {@link #UNLIMITED}
+     * @param overflowPolicy what to do with an item that arrives when the inventory is full
+     * @throws IllegalArgumentException if the capacity is not positive
+     * @throws NullPointerException if the policy is {@code null}
+     */
+    public synchronized void setCapacity(int capacity, OverflowPolicy overflowPolicy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (overflowPolicy == null) {
+            throw new NullPointerException("Overflow policy cannot be null");
+        }
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        trackArrivals();
+        if (size > capacity) {
+            makeRoom(size - capacity);
+        }
+    }
+
+    /**
+     * Sets the capacity and overflow policy of a loaded inventory without evicting anything.
+     * Saved items are all kept, even if the inventory now holds more than the capacity; the
+     * limit applies to the items that arrive after loading.
+     *
+     * @param capacity the largest number of items, or {@link #UNLIMITED}
+     * @param overflowPolicy what to do with an item that arrives when the inventory is full
+     */
+    synchronized void restoreCapacity(int capacity, OverflowPolicy overflowPolicy) {
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        trackArrivals();
+    }
+
+    /**
+     * Returns the largest number of items the inventory holds.
+     *
+     * @return the capacity, or {@link #UNLIMITED}
+     */
+    public synchronized int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns what the inventory does with an item that arrives when it is full.
+     *
+     * @return the overflow policy
+     */
+    public synchronized OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Check if the inventory holds as many items as it can.
+     *
+     * @return true if the inventory is full, false otherwise
+     */
+    public synchronized boolean isFull() {
+        return size >= capacity;
     }
 
     /**
-     * Removes an {@link Item} from the inventory.
-     * 
+     * Returns the number of items that were turned away because the inventory was full.
+     *
+     * @return the number of dropped items
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Returns the number of items that were evicted to make room for newer ones.
+     *
+     * @return the number of evicted items
+     */
+    public long getEvictedCount() {
+        return evictedCount;
+    }
+
+    /**
+     * Removes an {@link Item} from the inventory. For an item of an {@link ItemType},
+     * one item of that type is removed, whichever instance is passed.
+     *
      * @param item the item to be removed from the inventory
      * @throws NullPointerException if the item is {@code null}
      */
-    public void removeItem(Item item) {
+    public synchronized void removeItem(Item item) {
         if (item == null) {
             throw new NullPointerException("Item cannot be null");
         }
-        items.remove(item);
+        ItemType type = ItemType.of(item);
+        if (type != null) {
+            if (counts[type.ordinal()] == 0) {
+                return;
+            }
+            counts[type.ordinal()]--;
+        } else if (!otherItems.remove(item)) {
+            return;
+        }
+        if (arrivals != null) {
+            // Items of a type are alike, so the oldest of them is the one that goes
+            arrivals.removeFirstOccurrence(type != null ? type.getItem() : item);
+        }
+        size--;
+        modifications++;
+        fireItemsRemoved(type != null ? type.getItem() : item, 1);
+    }
+
+    /**
+     * Removes every item from the inventory. The capacity, the overflow policy, the
+     * listeners and the counts of dropped and evicted items are kept.
+     */
+    public synchronized void clear() {
+        if (size == 0) {
+            return;
+        }
+        Arrays.fill(counts, 0);
+        otherItems.clear();
+        if (arrivals != null) {
+            arrivals.clear();
+        }
+        size = 0;
+        modifications++;
+        for (InventoryListener listener : listeners) {
+            listener.inventoryChanged(this);
+        }
+    }
+
+    /**
+     * Registers a listener that is told about every later change to the inventory.
+     *
+     * @param listener the listener
+     * @throws NullPointerException if the listener is {@code null}
+     * @see InventoryListener
+     */
+    public synchronized void addInventoryListener(InventoryListener listener) {
+        if (listener == null) {
+            throw new NullPointerException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener the listener
+     */
+    public synchronized void removeInventoryListener(InventoryListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fireItemsAdded(Item item, int count) {
+        for (InventoryListener listener : listeners) {
+            listener.itemsAdded(this, item, count);
+        }
+    }
+
+    private void fireItemsRemoved(Item item, int count) {
+        for (InventoryListener listener : listeners) {
+            listener.itemsRemoved(this, item, count);
+        }
+    }
+
+    /**
+     * Returns the number of items of a type in the inventory.
+     *
+     * @param type the item type
+     * @return the number of items of the type
+     */
+    public synchronized int getCount(ItemType type) {
+        return counts[type.ordinal()];
+    }
+
+    /**
+     * Returns the number of items in the inventory.
+     *
+     * @return the number of items
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the items that have no {@link ItemType}, in the order they were added.
+     *
+     * @return an unmodifiable view of the untyped items
+     */
+    List<Item> getOtherItems() {
+        return Collections.unmodifiableList(otherItems);
+    }
+
+    /**
+     * Returns the number of times an item was added to or removed from this inventory
+     * since it was created or loaded. Comparing two counts shows whether the inventory
+     * changed in between.
+     *
+     * @return the modification count
+     */
+    public int getModificationCount() {
+        return modifications;
     }
 
     /**
-     * Returns the list of all items in the inventory.
-     * 
+     * Returns the list of all items in the inventory: the items of each {@link ItemType}
+     * in the order of the types, then the other items in the order they were added.
+     * The list is a read-only view that follows later changes to the inventory.
+     *
      * @return a list of items currently in the inventory
      */
     public List<Item> getItems() {
-        return items;
+        return view;
+    }
+
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        // The shared items are written once and referred to from then on
+        fields.put("items", new ArrayList<>(view));
+        out.writeFields();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        initialize();
+        int limit = capacity;
+        restoreCapacity(UNLIMITED, overflowPolicy);
+        List<Item> items = (List<Item>) fields.get("items", null);
+        if (items != null) {
+            for (Item item : items) {
+                addItem(item);
+            }
+        }
+        restoreCapacity(limit, overflowPolicy);
+        // A loaded inventory starts unchanged
+        modifications = 0;
+    }
+
+    /**
+     * The list view of the inventory. Looking up an item walks the types, so it takes time
+     * in the number of types rather than the number of items.
+     */
+    private final class ItemView extends AbstractList<Item> {
+        @Override
+        public Item get(int index) {
+            synchronized (Inventory.this) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+                }
+                for (ItemType type : TYPES) {
+                    int count = counts[type.ordinal()];
+                    if (index < count) {
+                        return type.getItem();
+                    }
+                    index -= count;
+                }
+                return otherItems.get(index);
+            }
+        }
+
+        @Override
+        public int size() {
+            return Inventory.this.size();
+        }
     }
 }
@@ -0,0 +1,313 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.AbstractListModel;
+import javax.swing.SwingUtilities;
+
+/**
+ * A list model that shows the names of the items in an {@link Inventory} and follows its
+ * changes.
+ *
+ * <p>The inventory list used to be refilled every few seconds: the whole model was cleared
+ * and every item name added again, one Swing event per item, even when nothing had changed.
+ * This model listens to the inventory instead. Changes may come from any thread; they are
+ * queued, and one task on the event dispatch thread applies everything queued so far.
+ * Consecutive changes to the same kind of item are merged, so a burst of generated meat
+ * becomes one interval event. Each event names exactly the rows that changed, so the cost
+ * of an update depends on the change, not on the size of the inventory.</p>
+ *
+ * <p>The model keeps its own copy of the inventory on the event dispatch thread, in the
+ * order of {@link Inventory#getItems()}: the items of each {@link ItemType}, then the other
+ * items. Between a change and the task that applies it, the model shows the inventory as it
+ * was; {@link #getItemAt(int)} returns the item the user sees in a row.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * {@code
+ * InventoryListModel model = new InventoryListModel();
+ * JList<String> list = new JList<>(model);
+ * model.setInventory(pet.getInventory());
+ * }
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see InventoryListener
+ */
+public class InventoryListModel extends AbstractListModel<String> implements InventoryListener {
+  private static final long serialVersionUID = 1L;
+
+  private static final ItemType[] TYPES = ItemType.values();
+
+  // Only used on the event dispatch thread
+  private final int[] counts = new int[TYPES.length];
+  private final List<Item> otherItems = new ArrayList<>();
+  private int size;
+  private Inventory inventory;
+
+  // Changes that have not been applied yet, guarded by the queue itself
+  private final ArrayDeque<Change> pending = new ArrayDeque<>();
+  private boolean applyScheduled;
+
+  /**
+   * Constructs an empty model that follows no inventory.
+   */
+  public InventoryListModel() {
+  }
+
+  /**
+   * Shows an inventory and follows its changes from now on. The model stops following the
+   * inventory it showed before. Call this method on the event dispatch thread.
+   *
+   * @param inventory the inventory to show, or null to show nothing
+   */
+  public void setInventory(Inventory inventory) {
+    if (this.inventory != null) {
+      this.inventory.removeInventoryListener(this);
+    }
+    this.inventory = inventory;
+    if (inventory == null) {
+      synchronized (pending) {
+        pending.clear();
+      }
+      replace(new int[TYPES.length], List.of());
+      return;
+    }
+    inventory.addInventoryListener(this);
+    reload();
+  }
+
+  /**
+   * Copies the whole inventory.
+   */
+  private void reload() {
+    int[] newCounts = new int[TYPES.length];
+    List<Item> newOtherItems;
+    // The inventory is told about its changes while it is locked, so every change queued
+    // so far is part of the copy and every later one is queued after it
+    synchronized (inventory) {
+      synchronized (pending) {
+        pending.clear();
+      }
+      for (ItemType type : TYPES) {
+        newCounts[type.ordinal()] = inventory.getCount(type);
+      }
+      newOtherItems = new ArrayList<>(inventory.getOtherItems());
+    }
+    replace(newCounts, newOtherItems);
+  }
+
+  /**
+   * Returns the inventory the model follows.
+   *
+   * @return the inventory, or null if the model follows none
+   */
+  public Inventory getInventory() {
+    return inventory;
+  }
+
+  /**
+   * Shows a list of items. If the list is the item view of the inventory the model follows,
+   * the changes queued so far are applied at once; the model keeps following the inventory.
+   * Otherwise the model stops following its inventory and shows the given items instead.
+   * Call this method on the event dispatch thread.
+   *
+   * @param items the items to show
+   */
+  public void setItems(List<Item> items) {
+    if (inventory != null && items == inventory.getItems()) {
+      applyPending();
+      return;
+    }
+    setInventory(null);
+    int[] newCounts = new int[TYPES.length];
+    List<Item> newOtherItems = new ArrayList<>();
+    for (Item item : items) {
+      ItemType type = ItemType.of(item);
+      if (type != null) {
+        newCounts[type.ordinal()]++;
+      } else {
+        newOtherItems.add(item);
+      }
+    }
+    replace(newCounts, newOtherItems);
+  }
+
+  /**
+   * Returns the item shown in a row.
+   *
+   * @param index the row
+   * @return the item
+   * @throws IndexOutOfBoundsException if the row does not exist
+   */
+  public Item getItemAt(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    for (ItemType type : TYPES) {
+      if (index < counts[type.ordinal()]) {
+        return type.getItem();
+      }
+      index -= counts[type.ordinal()];
+    }
+    return otherItems.get(index);
+  }
+
+  @Override
+  public String getElementAt(int index) {
+    return getItemAt(index).getName();
+  }
+
+  @Override
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Returns the number of rows, like {@link javax.swing.DefaultListModel#size()}.
+   *
+   * @return the number of rows
+   */
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public void itemsAdded(Inventory source, Item item, int count) {
+    enqueue(new Change(source, item, count));
+  }
+
+  @Override
+  public void itemsRemoved(Inventory source, Item item, int count) {
+    enqueue(new Change(source, item, -count));
+  }
+
+  @Override
+  public void inventoryChanged(Inventory source) {
+    enqueue(new Change(source, null, 0));
+  }
+
+  private void enqueue(Change change) {
+    synchronized (pending) {
+      Change last = pending.peekLast();
+      if (last != null && last.canMerge(change)) {
+        last.count += change.count;
+      } else {
+        pending.add(change);
+      }
+      if (applyScheduled) {
+        return;
+      }
+      applyScheduled = true;
+    }
+    SwingUtilities.invokeLater(this::applyPending);
+  }
+
+  private void applyPending() {
+    List<Change> changes;
+    synchronized (pending) {
+      applyScheduled = false;
+      changes = new ArrayList<>(pending);
+      pending.clear();
+    }
+    for (Change change : changes) {
+      if (change.source != inventory) {
+        continue;
+      }
+      if (change.item == null) {
+        // The copy includes this change and every change after it
+        reload();
+        return;
+      }
+      apply(change);
+    }
+  }
+
+  private void apply(Change change) {
+    ItemType type = ItemType.of(change.item);
+    if (type == null) {
+      applyToOtherItem(change);
+      return;
+    }
+    int start = 0;
+    for (int i = 0; i < type.ordinal(); i++) {
+      start += counts[i];
+    }
+    int end = start + counts[type.ordinal()];
+    if (change.count > 0) {
+      counts[type.ordinal()] += change.count;
+      size += change.count;
+      fireIntervalAdded(this, end, end + change.count - 1);
+    } else if (change.count < 0) {
+      // Items of a type are alike, so the last rows of the type go
+      int removed = Math.min(-change.count, counts[type.ordinal()]);
+      if (removed > 0) {
+        counts[type.ordinal()] -= removed;
+        size -= removed;
+        fireIntervalRemoved(this, end - removed, end - 1);
+      }
+    }
+  }
+
+  private void applyToOtherItem(Change change) {
+    int typed = size - otherItems.size();
+    if (change.count > 0) {
+      int index = size;
+      for (int i = 0; i < change.count; i++) {
+        otherItems.add(change.item);
+      }
+      size += change.count;
+      fireIntervalAdded(this, index, index + change.count - 1);
+      return;
+    }
+    for (int i = 0; i < -change.count; i++) {
+      int index = otherItems.indexOf(change.item);
+      if (index < 0) {
+        return;
+      }
+      otherItems.remove(index);
+      size--;
+      fireIntervalRemoved(this, typed + index, typed + index);
+    }
+  }
+
+  private void replace(int[] newCounts, List<Item> newOtherItems) {
+    int oldSize = size;
+    size = 0;
+    if (oldSize > 0) {
+      fireIntervalRemoved(this, 0, oldSize - 1);
+    }
+    System.arraycopy(newCounts, 0, counts, 0, counts.length);
+    otherItems.clear();
+    otherItems.addAll(newOtherItems);
+    for (int count : counts) {
+      size += count;
+    }
+    size += otherItems.size();
+    if (size > 0) {
+      fireIntervalAdded(this, 0, size - 1);
+    }
+  }
+
+  /**
+   * One queued change: items added (a positive count), items removed (a negative count) or
+   * the whole inventory changed (no item).
+   */
+  private static final class Change {
+    final Inventory source;
+    final Item item;
+    int count;
+
+    Change(Inventory source, Item item, int count) {
+      this.source = source;
+      this.item = item;
+      this.count = count;
+    }
+
+    boolean canMerge(Change next) {
+      // Only changes in the same direction merge, so no row is added and removed at once
+      return source == next.source && item != null && item == next.item
+          && Integer.signum(count) == Integer.signum(next.count);
+    }
+  }
+}
@@ -0,0 +1,55 @@
+/**
+ * Receives the changes made to an {@link Inventory}.
+ *
+ * <p>The inventory calls its listeners on the thread that changed it, while it still holds
+ * its lock, so the calls arrive in the order of the changes and no other change can happen
+ * in between. A listener must therefore return quickly and must not wait for another
+ * thread; a listener that updates Swing components hands the change to the event dispatch
+ * thread, like {@link InventoryListModel} does.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * {@code
+ * inventory.addInventoryListener(new InventoryListener() {
+ *   public void itemsAdded(Inventory source, Item item, int count) { ... }
+ *   public void itemsRemoved(Inventory source, Item item, int count) { ... }
+ *   public void inventoryChanged(Inventory source) { ... }
+ * });
+ * }
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see Inventory#addInventoryListener(InventoryListener)
+ */
+public interface InventoryListener {
+
+  /**
+   * Called after items were added to the inventory. Items of an {@link ItemType} are
+   * reported with the type's shared item.
+   *
+   * @param source the inventory that changed
+   * @param item the added item
+   * @param count the number of such items that were added
+   */
+  void itemsAdded(Inventory source, Item item, int count);
+
+  /**
+   * Called after items were removed from the inventory, because they were used or evicted.
+   * Items of an {@link ItemType} are reported with the type's shared item; for other items,
+   * the first item equal to {@code item} was removed.
+   *
+   * @param source the inventory that changed
+   * @param item the removed item
+   * @param count the number of such items that were removed
+   */
+  void itemsRemoved(Inventory source, Item item, int count);
+
+  /**
+   * Called after the inventory changed in a way that is not reported item by item, such as
+   * being cleared. The listener has to read the whole inventory again.
+   *
+   * @param source the inventory that changed
+   */
+  void inventoryChanged(Inventory source);
+}
@@ -12,6 +12,8 @@ import java.io.Serializable;
  * @version 1.0
  */
 public abstract class Item implements Serializable {
+    // Pinned to the value earlier versions computed, so existing saves still load
+    private static final long serialVersionUID = 2007669239916864396L;
     private final String name;
 
     /**
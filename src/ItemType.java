@@ -0,0 +1,85 @@
+/**
+ * The kinds of item the item generator hands out, each with one shared {@link Item}.
+ *
+ * <p>Items carry no state of their own: every piece of meat behaves like every other. An
+ * {@link Inventory} therefore keeps a count per type instead of one object per item, and
+ * the items it hands out are the shared instances returned by {@link #getItem()}. The
+ * ordinal of a type is the code the item generator, the journal and the save file use
+ * for it.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * {@code
+ * inventory.addItem(ItemType.MEAT.getItem());
+ * int meat = inventory.getCount(ItemType.MEAT);
+ * }
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see Inventory
+ */
+public enum ItemType {
+  /**
+   * A piece of {@link Meat}.
+   */
+  MEAT(new Meat()),
+
+  /**
+   * A portion of {@link Vegetables}.
+   */
+  VEGETABLES(new Vegetables()),
+
+  /**
+   * A glass of {@link Juice}.
+   */
+  JUICE(new Juice());
+
+  private static final ItemType[] VALUES = values();
+
+  private final Item item;
+
+  ItemType(Item item) {
+    this.item = item;
+  }
+
+  /**
+   * Returns the item shared by every item of this type.
+   *
+   * @return the shared item
+   */
+  public Item getItem() {
+    return item;
+  }
+
+  /**
+   * Returns the type with the given code.
+   *
+   * @param code the type's ordinal
+   * @return the type
+   * @throws IllegalArgumentException if no type has the code
+   */
+  public static ItemType fromCode(int code) {
+    if (code < 0 || code >= VALUES.length) {
+      throw new IllegalArgumentException("Unknown item type " + code);
+    }
+    return VALUES[code];
+  }
+
+  /**
+   * Returns the type of an item. Only items of exactly the type's class count; subclasses
+   * and other items, such as a named {@link Food} or a {@link Gift}, have no type.
+   *
+   * @param item the item
+   * @return the item's type, or null if it has none
+   */
+  public static ItemType of(Item item) {
+    Class<?> type = item.getClass();
+    for (ItemType candidate : VALUES) {
+      if (candidate.item.getClass() == type) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+}
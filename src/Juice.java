@@ -8,6 +8,8 @@
  * @see Pet
  */
 public class Juice extends Food {
+    private static final long serialVersionUID = 892575364677756280L;
+
     /**
      * Constructs a {@link Juice} instance with the name "Juice".
      */
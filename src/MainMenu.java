@@ -1,6 +1,10 @@
 import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.concurrent.TimeUnit;
 import javax.swing.*;
 import javax.swing.border.LineBorder;
@@ -50,9 +54,15 @@ public class MainMenu extends JFrame {
      * to implement the gradient painting functionality.
      */
     private static class GradientPanel extends JPanel {
+        private boolean painted = false;
+
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
+            if (!painted) {
+                painted = true;
+                AssetPreloader.getInstance().firstFramePainted();
+            }
             Graphics2D g2d = (Graphics2D) g;
             
             // Soft pastel gradient from light blue to light cyan
@@ -76,6 +86,9 @@ public class MainMenu extends JFrame {
         setResizable(false);
         setLocationRelativeTo(null);
 
+        // Decode the images and music in the background while the menu is shown
+        AssetPreloader.getInstance().start();
+
         // Replace default content pane with gradient panel
         GradientPanel gradientPanel = new GradientPanel();
         gradientPanel.setLayout(null); // Use absolute positioning
@@ -257,14 +270,14 @@ public class MainMenu extends JFrame {
 
     /**
      * Handles the game loading functionality from a saved slot.
-     * Prompts the user to select a save slot (1-3) and loads the corresponding saved game.
+     * Lists the save slots (1-3) with a preview of the pet in each and loads the chosen one.
      * If successful, initializes the game view and controller with the loaded pet data.
      * Changes background music to gameplay music and sets up auto-save functionality.
      * If loading fails, displays an error message.
      * 
      * The method performs the following steps:
-     * 1. Prompts for save slot selection
-     * 2. Validates user input
+     * 1. Reads the header of each save slot and prompts for a slot
+     * 2. Maps the chosen entry back to its slot
      * 3. Attempts to load pet data
      * 4. Initializes game components if load successful
      * 5. Sets up window listeners for proper menu/game navigation
@@ -273,19 +286,19 @@ public class MainMenu extends JFrame {
      */
 
     private void loadGame() {
-        String slot;
-        while (true) {
-            slot = JOptionPane.showInputDialog(this, "Enter load slot (1, 2, or 3):");
-            if (slot == null) {
-                // User clicked cancel or closed the dialog
-                return;
-            }
-            if (!slot.matches("[123]")) {
-                JOptionPane.showMessageDialog(this, "Please enter 1, 2, or 3.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-            } else {
-                break;
-            }
+        // Only the save file headers are read here; no pet is loaded until a slot is chosen
+        String[] slots = {"1", "2", "3"};
+        String[] choices = new String[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            choices[i] = describeSlot(slots[i]);
         }
+        Object choice = JOptionPane.showInputDialog(this, "Choose a save slot to load:", "Load Game",
+                JOptionPane.QUESTION_MESSAGE, null, choices, choices[0]);
+        if (choice == null) {
+            // User clicked cancel or closed the dialog
+            return;
+        }
+        String slot = slots[Arrays.asList(choices).indexOf(choice)];
     
         Pet petModel = Pet.load(slot);
         if (petModel != null) {
@@ -313,12 +326,45 @@ public class MainMenu extends JFrame {
             JOptionPane.showMessageDialog(gameView, "Game loaded successfully.");
             PetController controller = new PetController(petModel, gameView, this, false); // Pass false for loading a game
         } else {
-            JOptionPane.showMessageDialog(this, "Save file doesn't exist.", "Load Error", JOptionPane.ERROR_MESSAGE);
+            // An unreadable save is left as it is, so it must not look like an empty slot
+            String message = Pet.hasSave(slot)
+                    ? "The save in slot " + slot + " could not be read. It has not been changed."
+                    : "Save file doesn't exist.";
+            JOptionPane.showMessageDialog(this, message, "Load Error", JOptionPane.ERROR_MESSAGE);
         }
             
     }
 
 
+    /**
+     * Describes what a save slot holds for the load dialog, from the save file's header.
+     *
+     * @param slot the save slot identifier
+     * @return a one-line description of the slot
+     */
+    private String describeSlot(String slot) {
+        SaveHeader header;
+        try {
+            header = SaveHeader.preview(slot);
+        } catch (IOException e) {
+            return "Slot " + slot + ": unreadable save";
+        }
+        if (header == null) {
+            return "Slot " + slot + ": empty";
+        }
+        if (!header.hasDetails()) {
+            return "Slot " + slot + ": saved by an earlier version";
+        }
+        String name = header.getPetName() != null ? header.getPetName() : "Unnamed pet";
+        String personality = header.getPersonalityName() != null
+                ? " (" + header.getPersonalityName() + ")" : "";
+        String status = header.isDead() ? "dead" : "health " + header.getHealth();
+        String saved = new SimpleDateFormat("yyyy-MM-dd HH:mm").format(new Date(header.getSavedTime()));
+        return "Slot " + slot + ": " + name + personality + ", score " + header.getScore() + ", "
+                + status + ", saved " + saved;
+    }
+
+
     /**
      * Opens the Parental Controls dialog window.
      * Creates a new instance of ParentalControlsDialog and makes it visible to the user.
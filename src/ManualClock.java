@@ -0,0 +1,61 @@
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link PetClock} that only moves when it is told to.
+ *
+ * <p>The clock is thread-safe: one thread may advance it while others read it.
+ * Combined with {@link PetScheduler#runDueTasks()} it gives fully deterministic runs.</p>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see PetClock
+ */
+public class ManualClock implements PetClock {
+  private volatile long millis;
+
+  /**
+   * Constructs a manual clock that starts at the given time.
+   *
+   * @param startMillis the initial time in milliseconds since the epoch
+   */
+  public ManualClock(long startMillis) {
+    this.millis = startMillis;
+  }
+
+  /**
+   * Returns the current time of this clock.
+   *
+   * @return the current time in milliseconds since the epoch
+   */
+  @Override
+  public long millis() {
+    return millis;
+  }
+
+  /**
+   * Moves the clock forward by the given amount.
+   *
+   * @param amount the amount of time to advance
+   * @param unit the time unit of the amount
+   * @throws IllegalArgumentException if {@code amount} is negative
+   */
+  public synchronized void advance(long amount, TimeUnit unit) {
+    if (amount < 0) {
+      throw new IllegalArgumentException("Time cannot move backwards.");
+    }
+    millis += unit.toMillis(amount);
+  }
+
+  /**
+   * Sets the clock to the given time.
+   *
+   * @param newMillis the new time in milliseconds since the epoch
+   * @throws IllegalArgumentException if the new time is before the current time
+   */
+  public synchronized void set(long newMillis) {
+    if (newMillis < millis) {
+      throw new IllegalArgumentException("Time cannot move backwards.");
+    }
+    millis = newMillis;
+  }
+}
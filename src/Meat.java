@@ -13,7 +13,8 @@
  * @see Pet
  */
 public class Meat extends Food {
-    
+    private static final long serialVersionUID = 6478007979031029544L;
+
     /**
      * Constructs a Meat object with the default name "Meat".
      */
@@ -1,5 +1,10 @@
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.sound.sampled.*;
 
 /**
@@ -14,6 +19,13 @@ import javax.sound.sampled.*;
  *   <li>Changing between different music tracks</li>
  *   <li>Volume control</li>
  * </ul>
+ *
+ * Reading and decoding a music file is blocking I/O, so tracks are loaded on the shared
+ * {@link PetScheduler}'s blocking executor rather than on the caller's thread. If several
+ * tracks are requested in quick succession, only the most recent one is played.
+ * A track is read from its file only once; its samples are kept, so switching back to it
+ * later only opens a new clip. Tracks can be read ahead of time with
+ * {@link #preload(String, Executor)}, which the {@link AssetPreloader} does at startup.
  * 
  * Usage example:
  * <pre>{@code
@@ -30,6 +42,9 @@ public class MusicPlayer {
     private Clip clip;
     private static MusicPlayer instance;
     private FloatControl volumeControl;
+    private final AtomicLong latestRequest = new AtomicLong();
+    // The samples of each track read so far, or being read
+    private final ConcurrentHashMap<String, CompletableFuture<Track>> tracks = new ConcurrentHashMap<>();
 
     /**
      * Private constructor to prevent direct instantiation.
@@ -44,7 +59,7 @@ public class MusicPlayer {
      *
      * @return the single instance of {@code MusicPlayer}
      */
-    public static MusicPlayer getInstance() {
+    public static synchronized MusicPlayer getInstance() {
         if (instance == null) {
             instance = new MusicPlayer();
         }
@@ -54,33 +69,137 @@ public class MusicPlayer {
     /**
      * Plays the music from the specified file path.
      * The music will loop continuously until {@link #stopMusic()} is called.
+     * The file is loaded in the background and this method returns straight away.
      *
      * @param filePath the path to the music file to be played
-     * @throws IllegalArgumentException if the music file cannot be found or opened
      */
     public void playMusic(String filePath) {
+        long request = latestRequest.incrementAndGet();
+        PetScheduler.getInstance().getBlockingExecutor().execute(() -> loadAndPlay(filePath, request));
+    }
+
+    /**
+     * Loads and plays a music file, unless a newer track has been requested in the meantime.
+     *
+     * @param filePath the path to the music file to be played
+     * @param request the number of the request that asked for this track
+     */
+    private void loadAndPlay(String filePath, long request) {
+        if (request != latestRequest.get()) {
+            return; // A newer track was requested while this one was waiting
+        }
         stopMusic(); // Stop any currently playing music
         System.out.println("Attempting to play music: " + filePath);
         try {
-            // Open an audio input stream
-            File musicPath = new File(filePath);
-            if (musicPath.exists()) {
-                AudioInputStream audioInput = AudioSystem.getAudioInputStream(musicPath);
-
+            // Waits if the track is still being preloaded
+            Track track = track(filePath, Runnable::run).join();
+            if (track != null) {
                 // Get a sound clip resource
-                clip = AudioSystem.getClip();
+                Clip loaded = AudioSystem.getClip();
 
-                // Open audio clip and load samples from the audio input stream
-                clip.open(audioInput);
-                clip.start();
-                clip.loop(Clip.LOOP_CONTINUOUSLY); // Loop the music indefinitely
+                // Open audio clip with the samples read before.
+                // This happens without holding the player's lock.
+                loaded.open(track.format, track.samples, 0, track.samples.length);
+                synchronized (this) {
+                    if (request != latestRequest.get()) {
+                        loaded.close();
+                        return;
+                    }
+                    stopMusic();
+                    clip = loaded;
+                    clip.start();
+                    clip.loop(Clip.LOOP_CONTINUOUSLY); // Loop the music indefinitely
+                    // Get volume control
+                    volumeControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
+                }
             } else {
                 System.out.println("Cannot find the music file.");
             }
-            // Get volume control
-            volumeControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException ex) {
+        } catch (LineUnavailableException ex) {
             System.err.println("An error occurred while playing music: " + ex.getMessage());
+        } catch (CompletionException ex) {
+            System.err.println("An error occurred while playing music: " + ex.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Reads a track ahead of time, so playing it later does not have to read the file.
+     * Reading a track that has been read, or is being read, does nothing.
+     *
+     * @param filePath the path to the music file
+     * @param executor the executor that reads the file
+     * @return a future that completes when the track has been read
+     */
+    public CompletableFuture<?> preload(String filePath, Executor executor) {
+        return track(filePath, executor);
+    }
+
+    /**
+     * Returns whether a track has been read.
+     *
+     * @param filePath the path to the music file
+     * @return true if the track is ready to be played
+     */
+    public boolean isLoaded(String filePath) {
+        CompletableFuture<Track> future = tracks.get(filePath);
+        return future != null && future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    /**
+     * Returns the samples of a track, starting to read the file if nobody has yet.
+     *
+     * @param filePath the path to the music file
+     * @param executor the executor that reads the file
+     * @return a future with the track, or with null if the file does not exist
+     */
+    private CompletableFuture<Track> track(String filePath, Executor executor) {
+        CompletableFuture<Track> existing = tracks.get(filePath);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<Track> future = new CompletableFuture<>();
+        existing = tracks.putIfAbsent(filePath, future);
+        if (existing != null) {
+            return existing;
+        }
+        executor.execute(() -> read(filePath, future));
+        return future;
+    }
+
+    /**
+     * Reads all samples of a music file. A missing file or a failed read is forgotten, so
+     * the next request looks for the file again.
+     *
+     * @param filePath the path to the music file
+     * @param future the future to complete with the track
+     */
+    private void read(String filePath, CompletableFuture<Track> future) {
+        try {
+            File musicPath = new File(filePath);
+            if (!musicPath.exists()) {
+                tracks.remove(filePath, future);
+                future.complete(null);
+                return;
+            }
+            try (AudioInputStream audioInput = AudioSystem.getAudioInputStream(musicPath)) {
+                future.complete(new Track(audioInput.getFormat(), audioInput.readAllBytes()));
+            }
+        } catch (UnsupportedAudioFileException | IOException | RuntimeException ex) {
+            tracks.remove(filePath, future);
+            future.completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * The samples of a track and their format.
+     */
+    private static final class Track {
+        final AudioFormat format;
+        final byte[] samples;
+
+        Track(AudioFormat format, byte[] samples) {
+            this.format = format;
+            this.samples = samples;
         }
     }
 
@@ -90,7 +209,7 @@ public class MusicPlayer {
      *
      * @param volume the desired volume, where 0.0 is the minimum and 1.0 is the maximum
      */
-    public void setVolume(float volume) {
+    public synchronized void setVolume(float volume) {
         if (volumeControl != null) {
             float min = volumeControl.getMinimum();
             float max = volumeControl.getMaximum();
@@ -103,7 +222,7 @@ public class MusicPlayer {
      * Stops the currently playing music, if any.
      * The music will stop immediately, and resources will be released.
      */
-    public void stopMusic() {
+    public synchronized void stopMusic() {
         System.out.println("Stopping music.");
         if (clip != null && clip.isRunning()) {
             clip.stop();
@@ -0,0 +1,59 @@
+import java.util.Locale;
+
+/**
+ * What an {@link Inventory} does with an item that arrives when it is full.
+ *
+ * <ul>
+ *   <li>{@link #DROP_NEWEST} turns the new item away; the inventory keeps what it has.</li>
+ *   <li>{@link #EVICT_OLDEST} makes room by removing the item that has been in the inventory
+ *       the longest.</li>
+ *   <li>{@link #PAUSE_GENERATOR} stops the pet's item generator from producing items until
+ *       an item is used. Items added some other way are turned away like with
+ *       {@link #DROP_NEWEST}.</li>
+ * </ul>
+ *
+ * <p>New inventories read their policy from the {@value #PROPERTY} system property and their
+ * capacity from {@value Inventory#CAPACITY_PROPERTY}:</p>
+ * <pre>
+ * java -Dpet.inventoryCapacity=50 -Dpet.inventoryOverflow=evict_oldest -jar PixelPets.jar
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see Inventory#setCapacity(int, OverflowPolicy)
+ */
+public enum OverflowPolicy {
+  /**
+   * A full inventory turns new items away.
+   */
+  DROP_NEWEST,
+
+  /**
+   * A full inventory removes its oldest item to make room for a new one.
+   */
+  EVICT_OLDEST,
+
+  /**
+   * A full inventory pauses the item generator and turns other new items away.
+   */
+  PAUSE_GENERATOR;
+
+  /**
+   * The system property that selects the policy of new inventories.
+   */
+  public static final String PROPERTY = "pet.inventoryOverflow";
+
+  /**
+   * Returns the policy named by the {@value #PROPERTY} system property.
+   *
+   * @return the configured policy, or {@link #PAUSE_GENERATOR} if the property is not set
+   * @throws IllegalArgumentException if the property names an unknown policy
+   */
+  public static OverflowPolicy fromSystemProperty() {
+    String value = System.getProperty(PROPERTY);
+    if (value == null || value.isBlank()) {
+      return PAUSE_GENERATOR;
+    }
+    return valueOf(value.trim().toUpperCase(Locale.ROOT));
+  }
+}
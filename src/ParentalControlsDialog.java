@@ -288,7 +288,8 @@ public class ParentalControlsDialog extends JDialog {
                 return;
             }
     
-            Pet pet = Pet.load(slot);
+            // Read the pet without starting it; it is only edited and saved back
+            Pet pet = Pet.loadPassive(slot);
             if (pet != null) {
                 // Revive the pet and update its stats
                 pet.revive();
@@ -297,10 +298,14 @@ public class ParentalControlsDialog extends JDialog {
                 pet.setSocial(100);
                 pet.setSleep(0);
     
-                // Save the updated pet back to the selected slot
-                pet.save(slot);
-    
-                JOptionPane.showMessageDialog(this, "Pet revived successfully!", "Revive Pet", JOptionPane.INFORMATION_MESSAGE);
+                // Save the updated pet back to the selected slot, off the event dispatch thread
+                pet.saveAsync(slot).whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+                    if (error == null) {
+                        JOptionPane.showMessageDialog(this, "Pet revived successfully!", "Revive Pet", JOptionPane.INFORMATION_MESSAGE);
+                    } else {
+                        JOptionPane.showMessageDialog(this, "Failed to save the revived pet.", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }));
             } else {
                 JOptionPane.showMessageDialog(this, "Failed to load pet from the selected slot.", "Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -1,15 +1,24 @@
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
-import java.util.Random;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
 import java.util.Scanner;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongUnaryOperator;
 
 /**
  * Represents a virtual pet with various attributes and behaviors.
@@ -25,7 +34,7 @@ import java.util.concurrent.TimeUnit;
  * - Auto-save its state periodically
  * - Die if health reaches zero and be revived
  * 
- * The class manages several background tasks through ExecutorServices:
+ * The class registers several background tasks with the shared {@link PetScheduler}:
  * - Attribute updates over time
  * - Automatic item generation
  * - Auto-save functionality
@@ -33,60 +42,490 @@ import java.util.concurrent.TimeUnit;
  * 
  * All attributes are bounded between 0 and 100, and the pet's health
  * decreases when its needs (hunger, social, sleep) are not met.
+ *
+ * The attributes and the sleeping and dead flags are packed into a single 64-bit word
+ * (see {@link PetState}) that is replaced atomically with a compare-and-set, so updates
+ * from the scheduler threads and the UI are never lost and {@link #snapshot()} always
+ * returns a consistent view of the pet. A pet can also be attached to a {@link PetShard},
+ * in which case all of its actions are queued and applied by the shard's single thread.
+ *
+ * Once a pet has been saved to a slot, every change to it is also appended to the slot's
+ * {@link PetJournal}. Saving then only writes the changes made since the last save, and
+ * {@link #load(String)} replays the journal on top of the last full snapshot.
+ *
+ * The pet is also a {@link Flow.Publisher} of its state: subscribers are told about every
+ * change instead of polling {@link #snapshot()} (see {@link PetStatePublisher}).
  * 
  * @author Jonathan, Ramje, Khushal
  * @version 1.0
  * @see PetModel
  * @see Serializable
  */
-public class Pet implements PetModel, Serializable {
+public class Pet implements PetModel, Serializable, Flow.Publisher<PetState> {
   private static final long serialVersionUID = 1L;
 
   private static final String SAVE_FILE_PREFIX = "saves/pet_save_";
 
-  private transient ScheduledExecutorService autosaveService;
-  private int score;
-  private int hunger;
-  private int social;
-  private int sleep;
-  private int health;
+  // Sections of the pet that can change between two saves
+  private static final int DIRTY_ATTRIBUTES = 1;
+  private static final int DIRTY_INVENTORY = 1 << 1;
+  private static final int DIRTY_FLAGS = 1 << 2;
+  private static final int DIRTY_ALL = DIRTY_ATTRIBUTES | DIRTY_INVENTORY | DIRTY_FLAGS;
+  private static final AtomicIntegerFieldUpdater<Pet> DIRTY =
+      AtomicIntegerFieldUpdater.newUpdater(Pet.class, "dirty");
+  private static final AtomicIntegerFieldUpdater<Pet> CATCH_UP_QUEUED =
+      AtomicIntegerFieldUpdater.newUpdater(Pet.class, "catchUpQueued");
+
+  private static final long DECAY_PERIOD_MILLIS = TimeUnit.MINUTES.toMillis(1);
+  private static final long HEALTH_CHECK_PERIOD_MILLIS = TimeUnit.SECONDS.toMillis(5);
+  private static final long DECAY_STEPS = DECAY_PERIOD_MILLIS / HEALTH_CHECK_PERIOD_MILLIS;
+  private static final long ITEM_STEPS = TimeUnit.SECONDS.toMillis(15) / HEALTH_CHECK_PERIOD_MILLIS;
+  // A GENERATE_ITEMS record packs the number of items of each type into 10 bits apiece
+  private static final int ITEM_COUNT_BITS = 10;
+  private static final int ITEM_COUNT_MASK = (1 << ITEM_COUNT_BITS) - 1;
+
+  /**
+   * The number of journal records after which a save writes a new snapshot and compacts the
+   * journal, instead of only writing the new records.
+   */
+  private static final long SNAPSHOT_RECORDS = 4096;
+
+  // The value of a state change that leaves the pet as it is; packed attributes are never negative
+  private static final long NO_CHANGE = -1L;
+
+  /**
+   * The serialized form of the pet. The packed attributes are written as the separate
+   * fields used by earlier versions, so existing save files can still be loaded.
+   */
+  private static final ObjectStreamField[] serialPersistentFields = {
+      new ObjectStreamField("score", int.class),
+      new ObjectStreamField("hunger", int.class),
+      new ObjectStreamField("social", int.class),
+      new ObjectStreamField("sleep", int.class),
+      new ObjectStreamField("health", int.class),
+      new ObjectStreamField("inventory", Inventory.class),
+      new ObjectStreamField("mood", Mood.class),
+      new ObjectStreamField("personality", PersonalityStrategy.class),
+      new ObjectStreamField("preferredAction", Action.class),
+      new ObjectStreamField("lastInteractedTime", long.class),
+      new ObjectStreamField("isSleeping", boolean.class),
+      new ObjectStreamField("personalitySet", boolean.class),
+      new ObjectStreamField("message", String.class),
+      new ObjectStreamField("isDead", boolean.class),
+      new ObjectStreamField("allowTaskExecution", boolean.class),
+      new ObjectStreamField("lazyEvaluation", boolean.class),
+      new ObjectStreamField("lastEvaluatedTime", long.class),
+      new ObjectStreamField("evaluatedSteps", long.class),
+      new ObjectStreamField("petName", String.class),
+      new ObjectStreamField("random", PetRandom.class),
+      new ObjectStreamField("journalSequence", long.class)
+  };
+
+  private transient AtomicLong state;
+  private PetRandom random;
   private Inventory inventory;
   // Mark transient fields that cannot be serialized
+  private transient PetScheduler scheduler;
   private transient TimeSimulator timeSimulator;
-  private transient ScheduledExecutorService executorService1;
-  private transient ScheduledExecutorService executorService2;
-  private transient ScheduledExecutorService autoSaveExecutor;
-  private Mood mood;
+  private transient PetScheduler.ScheduledTask timerTask;
+  private transient PetScheduler.ScheduledTask wakeUpTask;
+  private transient PetScheduler.ScheduledTask autoSaveTask;
+  private volatile Mood mood;
   private PersonalityStrategy personality;
-  private Action preferredAction;
-  private long lastInteractedTime;
-  private boolean isSleeping;
+  private volatile Action preferredAction;
+  private volatile long lastInteractedTime;
   private boolean personalitySet = false;
-  private String message;
-  private boolean isDead = false;
-  private boolean allowTaskExecution = false;
-  private transient ScheduledExecutorService itemGeneratorService;
-
+  private volatile String message;
+  private volatile boolean allowTaskExecution = false;
+  private volatile boolean lazyEvaluation = false;
+  private long lastEvaluatedTime;
+  private long evaluatedSteps;
+  private transient PetScheduler.ScheduledTask itemGeneratorTask;
+  private transient PetScheduler.ScheduledTask journalFlushTask;
+  private transient volatile PetShard shard;
+  // Items without an ItemType waiting for the shard to use them; a command only carries a type
+  private transient ConcurrentLinkedQueue<Item> queuedItems = new ConcurrentLinkedQueue<>();
+  // Restored attributes and interaction times waiting for the shard, for the same reason
+  private transient ConcurrentLinkedQueue<long[]> queuedRestores = new ConcurrentLinkedQueue<>();
+  private transient volatile PetJournal journal;
+  private transient volatile String journalSlot;
+  // The save file was written by an earlier version and is replaced by the next save
+  private transient boolean legacySnapshot;
+  private transient volatile SaveDurability saveDurability;
+  // Read from a save file and not activated yet: nothing is scheduled and time stands still
+  private transient volatile boolean passive;
+  private transient String loadedSlot;
+  private long journalSequence;
+  // The DIRTY_* sections changed since the last save
+  private transient volatile int dirty;
+  // The inventory's modification count that the save file and the journal account for
+  private transient volatile int coveredInventoryModifications;
+  // Only the autosave task, which never overlaps itself, updates the counters
+  private transient volatile long autoSavesSkipped;
+  private transient volatile long autoSavesWritten;
+  private transient volatile long pausedGenerations;
+  // 1 while a CATCH_UP command waits on the pet's shard, so reads queue at most one
+  private transient volatile int catchUpQueued;
+  // Created by the first subscriber, so a pet nobody watches publishes nothing
+  private transient volatile PetStatePublisher statePublisher;
 
 
   /**
    * Constructor for the Pet class.
+   * The pet registers its background work with the shared {@link PetScheduler}.
    */
   public Pet() {
-    score = 0;
-    hunger = 20;
-    social = 80;
-    sleep = 20;
-    health = 100;
+    this(PetScheduler.getInstance());
+  }
+
+  /**
+   * Constructor for the Pet class that registers its background work with the given scheduler.
+   *
+   * @param scheduler the scheduler that runs the pet's periodic and one-shot tasks
+   */
+  public Pet(PetScheduler scheduler) {
+    this(scheduler, false);
+  }
+
+  /**
+   * Constructor for the Pet class.
+   * A pet created with lazy evaluation registers no background work at all; its attributes
+   * are brought up to date in closed form whenever they are read or an action is applied.
+   *
+   * @param scheduler the scheduler that runs the pet's periodic and one-shot tasks
+   * @param lazyEvaluation whether the pet's attributes are evaluated lazily
+   * @see #setLazyEvaluation(boolean)
+   */
+  public Pet(PetScheduler scheduler, boolean lazyEvaluation) {
+    this(scheduler, lazyEvaluation, PetRandom.splitDefault());
+  }
+
+  /**
+   * Constructor for the Pet class that draws its random numbers from the given stream.
+   * Pets whose streams are split from the same root seed, in the same order, make the same
+   * random choices, so a whole population can be replayed from one seed.
+   *
+   * @param scheduler the scheduler that runs the pet's periodic and one-shot tasks
+   * @param lazyEvaluation whether the pet's attributes are evaluated lazily
+   * @param random the pet's own random stream, usually split from a population's root
+   */
+  public Pet(PetScheduler scheduler, boolean lazyEvaluation, PetRandom random) {
+    if (random == null) {
+      throw new NullPointerException("Random stream cannot be null");
+    }
+    this.scheduler = scheduler;
+    this.random = random;
+    this.lazyEvaluation = lazyEvaluation;
+    state = new AtomicLong(PetState.INITIAL);
     mood = Mood.HAPPY;
     inventory = new Inventory();
 
     timeSimulator = new TimeSimulator(this);
-    timeSimulator.startAttributeUpdates();
-    lastInteractedTime = System.currentTimeMillis();
-    executorService1 = Executors.newScheduledThreadPool(1);
-    startItemGenerator();
+    lastInteractedTime = now();
+    lastEvaluatedTime = lastInteractedTime;
+    if (!lazyEvaluation) {
+      timeSimulator.startAttributeUpdates();
+      startItemGenerator();
+    }
+
+  }
+
+  /**
+   * Get the pet's random stream.
+   *
+   * @return the stream the pet draws its score increments and items from
+   */
+  public PetRandom getRandom() {
+    return random;
+  }
+
+  /**
+   * Get the scheduler that runs the pet's background tasks.
+   *
+   * @return the pet's scheduler
+   */
+  public PetScheduler getScheduler() {
+    PetScheduler current = scheduler;
+    if (current == null) {
+      // A passive pet joins the shared scheduler only once it needs it
+      current = PetScheduler.getInstance();
+      scheduler = current;
+    }
+    return current;
+  }
+
+  /**
+   * Get the clock the pet measures time on.
+   * This is the clock of the pet's scheduler, so a pet and its timers always agree on the time.
+   *
+   * @return the pet's clock
+   */
+  public PetClock getClock() {
+    return getScheduler().getClock();
+  }
+
+  private long now() {
+    PetScheduler current = scheduler;
+    // The shared scheduler a passive pet would join runs on the system clock
+    return current != null ? current.getClock().millis() : PetClock.SYSTEM.millis();
+  }
+
+  /**
+   * Take a consistent snapshot of the pet's attributes.
+   * All values in the snapshot were read at the same moment, even while other threads
+   * update the pet.
+   *
+   * @return an immutable snapshot of the pet's attributes
+   */
+  @Override
+  public PetState snapshot() {
+    evaluateLazily();
+    return new PetState(state.get());
+  }
+
+  /**
+   * Subscribe to the pet's state. The subscriber receives the current state first and then
+   * the newest state after each change, as it requests them; it is called on the common
+   * fork/join pool.
+   *
+   * @param subscriber the subscriber
+   */
+  @Override
+  public void subscribe(Flow.Subscriber<? super PetState> subscriber) {
+    getStatePublisher().subscribe(subscriber);
+  }
+
+  /**
+   * Subscribe to the pet's state, calling the subscriber on the given executor.
+   * A view subscribes with {@code SwingUtilities::invokeLater}.
+   *
+   * @param subscriber the subscriber
+   * @param executor the executor that calls the subscriber
+   */
+  public void subscribe(Flow.Subscriber<? super PetState> subscriber, Executor executor) {
+    getStatePublisher().subscribe(subscriber, executor);
+  }
+
+  /**
+   * Get the publisher that tells subscribers about the pet's changes.
+   * A lazily evaluated pet only changes, and so only publishes, when it is read.
+   *
+   * @return the state publisher
+   */
+  public PetStatePublisher getStatePublisher() {
+    PetStatePublisher publisher = statePublisher;
+    if (publisher == null) {
+      synchronized (this) {
+        publisher = statePublisher;
+        if (publisher == null) {
+          // Subscribers read the word as it is; evaluating here would publish again
+          publisher = new PetStatePublisher(() -> new PetState(state.get()));
+          statePublisher = publisher;
+        }
+      }
+    }
+    return publisher;
+  }
+
+  /**
+   * Attach the pet to a shard, or detach it with {@code null}.
+   * While the pet is attached, its actions are queued as {@link PetCommand}s and applied by the
+   * shard's drain thread, so the drain thread is the only thread that changes the pet. Because
+   * actions are applied later, {@link #sleep()} cannot report that the pet is already
+   * sleeping; the duplicate command is ignored instead.
+   *
+   * @param shard the shard that applies the pet's commands, or null to apply them directly
+   * @see PetShard#attach(Pet)
+   */
+  public void setShard(PetShard shard) {
+    this.shard = shard;
+  }
+
+  /**
+   * Get the shard the pet is attached to.
+   *
+   * @return the pet's shard, or null if the pet changes its own state
+   */
+  public PetShard getShard() {
+    return shard;
+  }
+
+  /**
+   * Queue a command on the pet's shard instead of running it on the calling thread.
+   *
+   * @return true if the command was queued, false if the caller should apply it directly
+   */
+  private boolean dispatch(PetCommand command, int argument) {
+    PetShard current = shard;
+    if (current == null || !current.isRunning() || current.isDrainThread()) {
+      return false;
+    }
+    current.submit(this, command, argument);
+    return true;
+  }
+
+  /**
+   * Apply a queued command. This is called by the drain thread of the pet's shard.
+   *
+   * @param command the command to apply
+   * @param argument the command's argument
+   */
+  void apply(PetCommand command, int argument) {
+    switch (command) {
+      case FEED -> feed();
+      case PLAY -> play();
+      case SLEEP -> {
+        if (!isSleeping()) {
+          sleep();
+        }
+      }
+      case WAKE_UP -> wakeUp();
+      case EXERCISE -> exercise();
+      case FEED_MEAT -> feedMeat();
+      case FEED_VEGETABLES -> feedVegetables();
+      case FEED_JUICE -> feedJuice();
+      case INCREASE_HEALTH -> increaseHealth(argument);
+      case RECEIVE_GIFT -> receiveGift();
+      case PREFERRED_ACTION -> performPreferredAction();
+      case REVIVE -> revive();
+      case DECAY -> decay();
+      case UPDATE_ATTRIBUTES -> updateAttributes();
+      case HEALTH_CHECK -> update();
+      case GENERATE_ITEM -> addItemToInventory();
+      case CATCH_UP -> {
+        try {
+          catchUp();
+        } finally {
+          // Cleared afterwards, so reads during the catch-up do not queue another
+          catchUpQueued = 0;
+        }
+      }
+      case USE_ITEM -> {
+        Item item = argument >= 0 ? createItem(argument) : queuedItems.poll();
+        if (item != null) {
+          applyUseItem(item);
+        }
+      }
+      case SET_HUNGER -> setHunger(argument);
+      case SET_SOCIAL -> setSocial(argument);
+      case SET_SLEEP -> setSleep(argument);
+      case SET_HEALTH -> setHealth(argument);
+      case SET_SCORE -> setscore(argument);
+      case SET_PREFERRED_ACTION ->
+          setPreferredAction(argument >= 0 ? Action.values()[argument] : null);
+      case RESET -> reset();
+      case RESTORE -> {
+        long[] record = queuedRestores.poll();
+        if (record != null) {
+          restore(record[0], record[1]);
+        }
+      }
+      default -> {
+      }
+    }
+  }
+
+  /**
+   * Atomically apply a change to the pet's attributes and record it in the pet's journal.
+   * The results are clamped to their bounds.
+   *
+   * @return the packed attributes after the change
+   */
+  private long adjust(PetCommand command, int score, int hunger, int social, int sleep,
+      int health) {
+    PetJournal log = journal;
+    if (log == null) {
+      return adjustState(score, hunger, social, sleep, health);
+    }
+    // Change and record under the journal's lock so the records are in the order of the changes
+    synchronized (log) {
+      long next = adjustState(score, hunger, social, sleep, health);
+      record(log, command, 0, next);
+      return next;
+    }
+  }
+
+  private long adjustState(int score, int hunger, int social, int sleep, int health) {
+    long current;
+    long next;
+    do {
+      current = state.get();
+      next = PetState.adjust(current, score, hunger, social, sleep, health);
+    } while (!state.compareAndSet(current, next));
+    markDirty(DIRTY_ATTRIBUTES);
+    return next;
+  }
+
+  /**
+   * Atomically apply a change to the pet's attributes unless the pet is sleeping.
+   *
+   * @return true if the change was applied, false if the pet is sleeping
+   */
+  private boolean adjustIfAwake(PetCommand command, int score, int hunger, int social, int sleep,
+      int health) {
+    return change(command, 0, current -> PetState.sleeping(current) ? NO_CHANGE
+        : PetState.adjust(current, score, hunger, social, sleep, health));
+  }
+
+  /**
+   * Atomically replace the pet's packed attributes with a function of their current value and
+   * record the change in the pet's journal.
+   *
+   * @param change returns the new packed attributes, or {@link #NO_CHANGE} to leave them
+   * @return true if the attributes were replaced, false if the function returned NO_CHANGE
+   */
+  private boolean change(PetCommand command, int argument, LongUnaryOperator change) {
+    PetJournal log = journal;
+    if (log == null) {
+      return changeState(change) != NO_CHANGE;
+    }
+    synchronized (log) {
+      long next = changeState(change);
+      if (next == NO_CHANGE) {
+        return false;
+      }
+      record(log, command, argument, next);
+      return true;
+    }
+  }
+
+  private long changeState(LongUnaryOperator change) {
+    long current;
+    long next;
+    do {
+      current = state.get();
+      next = change.applyAsLong(current);
+      if (next == NO_CHANGE) {
+        return NO_CHANGE;
+      }
+    } while (!state.compareAndSet(current, next));
+    markDirty(DIRTY_ATTRIBUTES);
+    return next;
+  }
+
+  /**
+   * Append a change to the journal. The caller holds the journal's lock.
+   */
+  private void record(PetJournal log, PetCommand command, int argument, long next) {
+    if (!log.append(command, argument, next, random.currentSeed(), now())) {
+      // The journal lost the change, so the next save has to write a whole snapshot
+      markDirty(DIRTY_ALL);
+    }
+  }
 
+  /**
+   * Note that sections of the pet changed since it was last saved, and tell the
+   * subscribers about the change.
+   */
+  private void markDirty(int sections) {
+    // Reading first keeps the common case, a section that is already dirty, free of writes
+    if ((dirty & sections) != sections) {
+      DIRTY.getAndAccumulate(this, sections, (current, added) -> current | added);
+    }
+    PetStatePublisher publisher = statePublisher;
+    if (publisher != null) {
+      publisher.publish();
+    }
   }
 
   /**
@@ -95,11 +534,18 @@ public class Pet implements PetModel, Serializable {
    * If more than 1 second has passed since the last interaction,
    * it triggers attribute updates via the timeSimulator.
    * The timer automatically shuts down if the pet's health reaches zero.
+   * Starting the timer again replaces the previous registration.
    */
   public void startTimer() {
-    executorService1.scheduleAtFixedRate(() -> {
+    if (lazyEvaluation || passive) {
+      return;
+    }
+    if (timerTask != null) {
+      timerTask.cancel();
+    }
+    timerTask = getScheduler().scheduleAtFixedRate(() -> {
       if (allowTaskExecution) {
-        long currentTime = System.currentTimeMillis();
+        long currentTime = now();
         long timeSinceLastInteraction = (currentTime - lastInteractedTime) / 1000;
 
         if (timeSinceLastInteraction > 1) {
@@ -109,8 +555,8 @@ public class Pet implements PetModel, Serializable {
       }
     }, 3, 5, TimeUnit.SECONDS);
 
-    if (health <= 0) {
-      executorService1.shutdown();
+    if (PetState.health(state.get()) <= 0) {
+      timerTask.cancel();
     }
   }
 
@@ -119,7 +565,19 @@ public class Pet implements PetModel, Serializable {
    * This method allows the pet to perform tasks after being called.
    */
   public void setAllowTaskExecution() {
-    allowTaskExecution = true;
+    if (!allowTaskExecution) {
+      allowTaskExecution = true;
+      markDirty(DIRTY_FLAGS);
+    }
+  }
+
+  /**
+   * Check if the pet's health timer is allowed to run.
+   *
+   * @return true if {@link #setAllowTaskExecution()} has been called, false otherwise
+   */
+  public boolean isTaskExecutionAllowed() {
+    return allowTaskExecution;
   }
 
   /**
@@ -136,7 +594,13 @@ public class Pet implements PetModel, Serializable {
       hunger = 100;
       System.out.println("The maximum hunger level is 100.");
     }
-    this.hunger = hunger;
+    int level = hunger;
+    if (dispatch(PetCommand.SET_HUNGER, level)) {
+      return;
+    }
+    change(PetCommand.SET_ATTRIBUTES, 0, current -> PetState.pack(PetState.score(current),
+        level, PetState.social(current), PetState.sleep(current), PetState.health(current),
+        PetState.sleeping(current)));
   }
 
 
@@ -157,7 +621,13 @@ public class Pet implements PetModel, Serializable {
       score = 100000;
       System.out.println("The maximum score is 100000.");
     }
-    this.score = score;
+    int value = score;
+    if (dispatch(PetCommand.SET_SCORE, value)) {
+      return;
+    }
+    change(PetCommand.SET_ATTRIBUTES, 0, current -> PetState.pack(value,
+        PetState.hunger(current), PetState.social(current), PetState.sleep(current),
+        PetState.health(current), PetState.sleeping(current)));
   }
 
   /**
@@ -174,7 +644,13 @@ public class Pet implements PetModel, Serializable {
       social = 100;
       System.out.println("The maximum social level is 100.");
     }
-    this.social = social;
+    int level = social;
+    if (dispatch(PetCommand.SET_SOCIAL, level)) {
+      return;
+    }
+    change(PetCommand.SET_ATTRIBUTES, 0, current -> PetState.pack(PetState.score(current),
+        PetState.hunger(current), level, PetState.sleep(current), PetState.health(current),
+        PetState.sleeping(current)));
   }
 
   /**
@@ -191,7 +667,13 @@ public class Pet implements PetModel, Serializable {
       sleep = 100;
       System.out.println("The maximum sleep level is 100.");
     }
-    this.sleep = sleep;
+    int level = sleep;
+    if (dispatch(PetCommand.SET_SLEEP, level)) {
+      return;
+    }
+    change(PetCommand.SET_ATTRIBUTES, 0, current -> PetState.pack(PetState.score(current),
+        PetState.hunger(current), PetState.social(current), level, PetState.health(current),
+        PetState.sleeping(current)));
   }
 
   /**
@@ -208,7 +690,13 @@ public class Pet implements PetModel, Serializable {
       health = 100;
       System.out.println("The maximum health level is 100.");
     }
-    this.health = health;
+    int level = health;
+    if (dispatch(PetCommand.SET_HEALTH, level)) {
+      return;
+    }
+    change(PetCommand.SET_ATTRIBUTES, 0, current -> PetState.pack(PetState.score(current),
+        PetState.hunger(current), PetState.social(current), PetState.sleep(current), level,
+        PetState.sleeping(current)));
   }
 
   /**
@@ -216,19 +704,17 @@ public class Pet implements PetModel, Serializable {
    */
   @Override
   public void feed() {
-    if (isSleeping) {
+    if (dispatch(PetCommand.FEED, 0)) {
+      return;
+    }
+    evaluateLazily();
+    if (!adjustIfAwake(PetCommand.FEED, 0, -10, 0, 0, 2)) {
       message = "Pet is sleeping. Please wait until it wakes up.";
-      lastInteractedTime = System.currentTimeMillis();
+      lastInteractedTime = now();
       return;
     }
     message = "You fed your pet!";
-    hunger -= 10;
-    if (hunger < 0) {
-      hunger = 0;
-    }
-    health += 2;
-    lastInteractedTime = System.currentTimeMillis();
-    checkBounds();
+    lastInteractedTime = now();
   }
 
   /**
@@ -237,19 +723,17 @@ public class Pet implements PetModel, Serializable {
    */
   @Override
   public void play() {
-    if (isSleeping) {
+    if (dispatch(PetCommand.PLAY, 0)) {
+      return;
+    }
+    evaluateLazily();
+    if (!adjustIfAwake(PetCommand.PLAY, 0, 0, 10, 0, 2)) {
       message = "Pet is sleeping. Please wait until it wakes up.";
-      lastInteractedTime = System.currentTimeMillis();
+      lastInteractedTime = now();
       return;
     }
     message = "You played with your pet!";
-    social += 10;
-    if (social < 0) {
-      social = 0;
-    }
-    health += 2;
-    lastInteractedTime = System.currentTimeMillis();
-    checkBounds();
+    lastInteractedTime = now();
   }
 
   /**
@@ -257,18 +741,21 @@ public class Pet implements PetModel, Serializable {
    * The pet will automatically wake up after the sleep period.
    * Updates the last interaction time and changes the pet's sleeping state.
    * 
-   * @throws IllegalStateException if the pet is already sleeping
+   * @throws IllegalStateException if the pet is already sleeping and is not attached to a shard
    */
   @Override
   public void sleep() throws IllegalStateException {
-    if (!isSleeping) {
-      isSleeping = true;
+    if (dispatch(PetCommand.SLEEP, 0)) {
+      return;
+    }
+    evaluateLazily();
+    if (change(PetCommand.SLEEP, 0,
+        current -> PetState.sleeping(current) ? NO_CHANGE : PetState.withSleeping(current, true))) {
       message = "You put your pet to sleep!";
       // Update the last interacted time if necessary
-      lastInteractedTime = System.currentTimeMillis();
+      lastInteractedTime = now();
       // Notify the controller/view of the state change if needed
-      executorService2 = Executors.newScheduledThreadPool(1);
-      executorService2.schedule(this::wakeUp, 10, TimeUnit.SECONDS);
+      wakeUpTask = getScheduler().schedule(this::wakeUp, 10, TimeUnit.SECONDS);
   } else {
       throw new IllegalStateException("Pet is already sleeping");
   }
@@ -278,15 +765,18 @@ public class Pet implements PetModel, Serializable {
    * Wake the pet up.
    */
   public void wakeUp() {
-    if (isSleeping) {
-      isSleeping = false;
-      message = "Your pet woke up!";
-      lastInteractedTime = System.currentTimeMillis();
-      sleep = Math.max(sleep + 30, 0); // Decrease sleepiness
-      health += 5;
-      checkBounds();
+    if (dispatch(PetCommand.WAKE_UP, 0)) {
+      return;
+    }
+    evaluateLazily();
+    // Clear the sleeping flag, decrease sleepiness and restore some health in one step
+    if (!change(PetCommand.WAKE_UP, 0, current -> !PetState.sleeping(current) ? NO_CHANGE
+        : PetState.adjust(PetState.withSleeping(current, false), 0, 0, 0, 30, 5))) {
+      return;
+    }
+    message = "Your pet woke up!";
+    lastInteractedTime = now();
   }
-}
 
   /**
    * Get the current hunger level of the pet.
@@ -295,8 +785,8 @@ public class Pet implements PetModel, Serializable {
    */
   @Override
   public int getHunger() {
-    checkBounds();
-    return hunger;
+    evaluateLazily();
+    return PetState.hunger(state.get());
   }
 
   /**
@@ -306,8 +796,8 @@ public class Pet implements PetModel, Serializable {
    */
   @Override
   public int getscore() {
-    checkBounds();
-    return score;
+    evaluateLazily();
+    return PetState.score(state.get());
   }
 
   /**
@@ -317,8 +807,8 @@ public class Pet implements PetModel, Serializable {
    */
   @Override
   public int getSocial() {
-    checkBounds();
-    return social;
+    evaluateLazily();
+    return PetState.social(state.get());
   }
 
   /**
@@ -328,8 +818,8 @@ public class Pet implements PetModel, Serializable {
    */
   @Override
   public int getSleep() {
-    checkBounds();
-    return sleep;
+    evaluateLazily();
+    return PetState.sleep(state.get());
   }
 
   /**
@@ -339,8 +829,8 @@ public class Pet implements PetModel, Serializable {
    */
   @Override
   public int getHealth() {
-    checkBounds();
-    return health;
+    evaluateLazily();
+    return PetState.health(state.get());
   }
 
   /**
@@ -379,14 +869,14 @@ public class Pet implements PetModel, Serializable {
    */
   @Override
   public String displayStates() {
-    checkBounds();
+    PetState current = snapshot();
     String[] states = new String[] {
-        "score: " + score,
-        "Hunger: " + hunger,
-        "Social: " + social,
-        "Sleep: " + sleep,
-        "Health: " + health,
-        "Mood: " + mood,
+        "score: " + current.getScore(),
+        "Hunger: " + current.getHunger(),
+        "Social: " + current.getSocial(),
+        "Sleep: " + current.getSleep(),
+        "Health: " + current.getHealth(),
+        "Mood: " + current.getMood(),
         "Personality: " + personality.getClass().getSimpleName()
     };
     return String.join("\n", states);
@@ -430,51 +920,62 @@ public class Pet implements PetModel, Serializable {
    * Increase the hunger level of the pet.
    */
   public void increaseHunger() {
-    hunger += 5;
-    if (hunger > 100) {
-      hunger = 100;
-    }
+    adjust(PetCommand.DECAY, 0, 5, 0, 0, 0);
   }
 
 
   public void increasescore() {
-    Random random = new Random();
     int randomIncrement = random.nextInt(20) + 1; // Random value between 1 and 20
-    score += randomIncrement;
-    if (score > 100000) {
-        score = 100000;
-    }
+    adjust(PetCommand.DECAY, randomIncrement, 0, 0, 0, 0);
 }
 
   /**
    * Increase the sleep level of the pet.
    */
   public void increaseSleep() {
-    sleep += 15;
-    if (sleep > 100) {
-      sleep = 100;
-    }
+    adjust(PetCommand.DECAY, 0, 0, 0, 15, 0);
   }
 
   /**
    * Decrease the social level of the pet.
    */
   public void decreaseSocial() {
-    social -= 2;
-    if (social < 0) {
-      social = 0;
+    adjust(PetCommand.DECAY, 0, 0, -2, 0, 0);
+  }
+
+  /**
+   * Apply one minute of decay in a single atomic update: the score grows by 1 to 20,
+   * hunger by 5, sleep by 15, and social drops by 2.
+   */
+  public void decay() {
+    if (dispatch(PetCommand.DECAY, 0)) {
+      return;
+    }
+    adjust(PetCommand.DECAY, random.nextInt(20) + 1, 5, -2, 15, 0);
+  }
+
+  /**
+   * Apply the minute update of the {@link TimeSimulator}: one decay, after which the
+   * personality adjusts the pet's behavior to the decayed attributes. Both run as one
+   * command, so the personality never sees the attributes from before the decay.
+   */
+  void updateAttributes() {
+    if (dispatch(PetCommand.UPDATE_ATTRIBUTES, 0)) {
+      return;
+    }
+    decay();
+    PersonalityStrategy current = personality;
+    if (current != null) {
+      current.adjustBehavior(this);
     }
   }
 
   /**
    * Check if the pet's attributes are within the bounds.
+   * Every update clamps the packed attributes, so they are always within their bounds
+   * and this method has nothing left to do.
    */
   public void checkBounds() {
-    score = Math.min(Math.max(score, 0), 100000);
-    hunger = Math.min(Math.max(hunger, 0), 100);
-    social = Math.min(Math.max(social, 0), 100);
-    sleep = Math.min(Math.max(sleep, 0), 100);
-    health = Math.min(Math.max(health, 0), 100);
   }
 
   /**
@@ -484,11 +985,7 @@ public class Pet implements PetModel, Serializable {
    */
   @Override
   public Mood getMood() {
-    if (hunger > 60 | social < 40 | sleep > 60) {
-      mood = Mood.SAD;
-    } else {
-      mood = Mood.HAPPY;
-    }
+    mood = snapshot().getMood();
     return mood;
   }
 
@@ -498,8 +995,12 @@ public class Pet implements PetModel, Serializable {
    */
   @Override
   public void performPreferredAction() {
+    if (dispatch(PetCommand.PREFERRED_ACTION, 0)) {
+      return;
+    }
+    evaluateLazily();
     if (preferredAction != null) {
-      if (preferredAction == Action.SLEEP && isSleeping) {
+      if (preferredAction == Action.SLEEP && isSleeping()) {
         message = "Pet is already sleeping.";
         return;
       }
@@ -518,22 +1019,16 @@ public class Pet implements PetModel, Serializable {
     if (preferredAction != null) {
       switch (preferredAction) {
         case PLAY -> {
-          social += bonus;
-          health += bonus / 3; // Adjust health based on the bonus
-          checkBounds();
+          adjust(PetCommand.PREFERRED_ACTION, 0, 0, bonus, 0, bonus / 3); // Adjust health based on the bonus
           message = "You played with your pet!\nYou received a bonus for playing!\n";
         }
         // Add similar cases for other actions if needed
         case SLEEP -> {
-          sleep -= bonus;
-          health += bonus / 3; // Adjust health based on the bonus
-          checkBounds();
+          adjust(PetCommand.PREFERRED_ACTION, 0, 0, 0, -bonus, bonus / 3); // Adjust health based on the bonus
           message = "Your put your pet to sleep! You received a bonus for sleeping!\n";
         }
         case FEED -> {
-          hunger -= bonus;
-          health += bonus / 3; // Adjust health based on the bonus
-          checkBounds();
+          adjust(PetCommand.PREFERRED_ACTION, 0, -bonus, 0, 0, bonus / 3); // Adjust health based on the bonus
           message = "You fed your pet! You received a bonus for feeding!\n";
         }
         default -> checkBounds();
@@ -547,7 +1042,14 @@ public class Pet implements PetModel, Serializable {
    * @param action the preferred action.
    */
   public void setPreferredAction(Action action) {
-    this.preferredAction = action;
+    if (dispatch(PetCommand.SET_PREFERRED_ACTION, action == null ? -1 : action.ordinal())) {
+      return;
+    }
+    // The personality sets the action every minute, usually to the one it already is
+    if (action != preferredAction) {
+      this.preferredAction = action;
+      markDirty(DIRTY_FLAGS);
+    }
   }
 
   /**
@@ -557,6 +1059,7 @@ public class Pet implements PetModel, Serializable {
    */
   @Override
   public Action getPreferredAction() {
+    evaluateLazily();
     return preferredAction;
   }
 
@@ -567,8 +1070,8 @@ public class Pet implements PetModel, Serializable {
    */
   @Override
   public boolean checkDeath() {
-    isDead = (health <= 0);
-    return isDead;
+    evaluateLazily();
+    return PetState.dead(state.get());
   }
 
 
@@ -590,6 +1093,7 @@ public class Pet implements PetModel, Serializable {
     if (!personalitySet) {
       this.personality = personality;
       personalitySet = true;
+      markDirty(DIRTY_FLAGS);
     } else {
       System.out.println("Personality has already been set and cannot be changed.");
     }
@@ -599,51 +1103,207 @@ public class Pet implements PetModel, Serializable {
    * Update the pet's attributes.
    */
   private void update() {
-    long currentTime = System.currentTimeMillis();
+    if (dispatch(PetCommand.HEALTH_CHECK, 0)) {
+      return;
+    }
+    long currentTime = now();
     long timeSinceLastInteraction = (currentTime - lastInteractedTime) / 1000;
 
     if (timeSinceLastInteraction > 0.00001) {
-      if (hunger > 70 || social < 30 || sleep > 70) {
-        health -= 5;
+      applyHealthPenalty(1);
+    }
+  }
+
+  /**
+   * Apply the health penalty for the given number of health checks.
+   * The pet loses 5 health per check while it is hungry, lonely or tired.
+   *
+   * @param checks the number of health checks
+   */
+  private void applyHealthPenalty(long checks) {
+    int penalty = (int) Math.min(5 * checks, PetState.MAX_LEVEL);
+    change(PetCommand.HEALTH_CHECK, penalty, current -> {
+      if (PetState.hunger(current) <= 70 && PetState.social(current) >= 30
+          && PetState.sleep(current) <= 70) {
+        return NO_CHANGE;
+      }
+      return PetState.adjust(current, 0, 0, 0, 0, -penalty);
+    });
+  }
+
+  /**
+   * Enable or disable lazy evaluation of the pet's attributes.
+   *
+   * <p>In lazy mode the pet has no scheduled tasks. Instead it remembers when it was last
+   * evaluated and, whenever an attribute is read or an action is applied, catches up on the
+   * elapsed time in closed form: the minute decay of {@link TimeSimulator}, the 5 second
+   * health penalty of the timer, the personality adjustment and the item generator.
+   * An idle lazy pet therefore costs no CPU and no threads.
+   *
+   * @param lazy true to evaluate lazily, false to go back to scheduled updates
+   */
+  public synchronized void setLazyEvaluation(boolean lazy) {
+    if (lazy == lazyEvaluation) {
+      return;
+    }
+    markDirty(DIRTY_FLAGS);
+    if (lazy) {
+      timeSimulator.stopAttributeUpdates();
+      if (timerTask != null) {
+        timerTask.cancel();
+      }
+      stopItemGenerator();
+      lastEvaluatedTime = now();
+      evaluatedSteps = 0;
+      lazyEvaluation = true;
+    } else {
+      if (!passive) {
+        catchUp();
+      }
+      lazyEvaluation = false;
+      timeSimulator.startAttributeUpdates();
+      startItemGenerator();
+      if (allowTaskExecution) {
+        startTimer();
       }
     }
   }
 
+  /**
+   * Check if the pet's attributes are evaluated lazily.
+   *
+   * @return true if the pet is in lazy evaluation mode, false otherwise
+   */
+  public boolean isLazyEvaluation() {
+    return lazyEvaluation;
+  }
+
+  /**
+   * Bring a lazily evaluated pet up to date with the current time.
+   * Pets with scheduled updates return straight away without taking a lock. A pet attached
+   * to a shard catches up on the drain thread, in order with its queued commands, so a read
+   * from another thread sees the pet as of the last catch-up.
+   */
+  private void evaluateLazily() {
+    // Time stands still for a passive pet
+    if (!lazyEvaluation || passive || now() - lastEvaluatedTime < HEALTH_CHECK_PERIOD_MILLIS) {
+      return;
+    }
+    if (CATCH_UP_QUEUED.compareAndSet(this, 0, 1)) {
+      if (dispatch(PetCommand.CATCH_UP, 0)) {
+        return;
+      }
+      catchUpQueued = 0;
+    } else if (shard != null && shard.isRunning() && !shard.isDrainThread()) {
+      return;
+    }
+    catchUp();
+  }
+
+  /**
+   * Catch up on the time that passed since the last evaluation.
+   * Time is counted in 5 second health-check steps; every twelfth step is a minute decay
+   * and every third step generates an item, matching the scheduled tasks to within one tick.
+   */
+  private synchronized void catchUp() {
+    if (!lazyEvaluation) {
+      return;
+    }
+    long steps = (now() - lastEvaluatedTime) / HEALTH_CHECK_PERIOD_MILLIS;
+    if (steps <= 0) {
+      return;
+    }
+    long first = evaluatedSteps + 1;
+    long last = evaluatedSteps + steps;
+    lastEvaluatedTime += steps * HEALTH_CHECK_PERIOD_MILLIS;
+    evaluatedSteps = last;
+
+    long items = last / ITEM_STEPS - (first - 1) / ITEM_STEPS;
+    long decays = last / DECAY_STEPS - (first - 1) / DECAY_STEPS;
+    long step = first;
+    while (step <= last) {
+      long current = state.get();
+      if (PetState.hunger(current) == 100 && PetState.sleep(current) == 100
+          && PetState.social(current) == 0) {
+        // Needs are saturated: every remaining check costs health and decay only adds score,
+        // so the draws of the remaining decays are summed and added at once
+        int room = PetState.MAX_SCORE - PetState.score(current);
+        int increase = 0;
+        for (long i = 0; i < decays && increase < room; i++) {
+          increase += random.nextInt(20) + 1;
+        }
+        if (increase > 0) {
+          adjust(PetCommand.DECAY, Math.min(increase, room), 0, 0, 0, 0);
+        }
+        if (allowTaskExecution) {
+          applyHealthPenalty(last - step + 1);
+        }
+        break;
+      }
+      long nextDecay = ((step + DECAY_STEPS - 1) / DECAY_STEPS) * DECAY_STEPS;
+      if (nextDecay > last) {
+        if (allowTaskExecution) {
+          applyHealthPenalty(last - step + 1);
+        }
+        break;
+      }
+      if (allowTaskExecution) {
+        applyHealthPenalty(nextDecay - step);
+      }
+      decay();
+      decays--;
+      if (allowTaskExecution) {
+        applyHealthPenalty(1);
+      }
+      step = nextDecay + 1;
+    }
+    if (items > 0) {
+      generateItems(items);
+    }
+    if (personality != null && last / DECAY_STEPS > (first - 1) / DECAY_STEPS) {
+      personality.adjustBehavior(this);
+    }
+  }
+
   /**
    * Reset the pet model.
    */
   public void reset() {
-    score = 0;
-    hunger = 20;
-    social = 80;
-    sleep = 20;
-    health = 100;
+    if (dispatch(PetCommand.RESET, 0)) {
+      return;
+    }
+    // A new game is not the saved pet, so it gets its own journal once it is saved
+    getScheduler().getSaveWriter().execute(() -> {
+      closeJournal();
+      journalSequence = 0;
+    });
+    // Resets the attributes and clears the sleeping and dead flags
+    state.set(PetState.INITIAL);
     mood = Mood.HAPPY;
+    markDirty(DIRTY_ALL);
 
 
     // Reset any other attributes or flags as needed
-    isDead = false;
-    isSleeping = false;
     personalitySet = false;
     personality = null;
     message = null; // Reset any message
-    inventory = new Inventory();
+    // Cleared rather than replaced, so views of the inventory follow the new game
+    inventory.clear();
 
     // Reset the last interacted time to the current time
-    lastInteractedTime = System.currentTimeMillis();
+    lastInteractedTime = now();
+    lastEvaluatedTime = lastInteractedTime;
+    evaluatedSteps = 0;
 
-    // Re-create or restart any necessary services or threads
-    if (executorService1 != null) {
-      executorService1.shutdownNow();
-      executorService1 = Executors.newScheduledThreadPool(1);
+    // Stop the health timer; it is registered again by startTimer()
+    if (timerTask != null) {
+      timerTask.cancel();
     }
 
     // Reset the personality to null or a default one if applicable
     personality = null; // Or set it to a default personality
 
-    if (autosaveService != null) {
-      autosaveService.shutdownNow();
-    }
+    stopAutoSave();
 
   }
 
@@ -657,53 +1317,336 @@ public class Pet implements PetModel, Serializable {
  * @param unit     The time unit for the interval (e.g., SECONDS, MINUTES)
  */
 public void startAutoSave(String slot, long interval, TimeUnit unit) {
-  if (autoSaveExecutor != null) {
-      autoSaveExecutor.shutdownNow();
+  stopAutoSave();
+  autoSaveTask = getScheduler().scheduleAtFixedRate(() -> autoSave(slot), interval, interval,
+      unit);
+}
+
+/**
+ * Save the pet unless nothing changed since it was last saved to the slot. Idle pets cost
+ * no file I/O at all.
+ */
+private void autoSave(String slot) {
+  if (!hasUnsavedChanges(slot)) {
+    autoSavesSkipped++;
+    return;
   }
-  autoSaveExecutor = Executors.newScheduledThreadPool(1);
-  autoSaveExecutor.scheduleAtFixedRate(() -> save(slot), interval, interval, unit);
+  autoSavesWritten++;
+  saveAsync(slot);
+}
+
+/**
+ * Check if the pet changed since it was last saved to a slot, or was never saved to it.
+ *
+ * @param slot the save slot identifier
+ * @return true if saving to the slot would write anything
+ */
+public boolean hasUnsavedChanges(String slot) {
+  return journal == null || !slot.equals(journalSlot) || legacySnapshot || dirty != 0
+      || inventory.getModificationCount() != coveredInventoryModifications;
+}
+
+/**
+ * Get the number of autosaves that were skipped because the pet had not changed.
+ *
+ * @return the number of skipped autosaves
+ */
+public long getAutoSavesSkipped() {
+  return autoSavesSkipped;
+}
+
+/**
+ * Get the number of autosaves that found changes and queued a save.
+ *
+ * @return the number of written autosaves
+ */
+public long getAutoSavesWritten() {
+  return autoSavesWritten;
 }
 
 /**
  * Stops the automatic save operation.
  */
 public void stopAutoSave() {
-  if (autoSaveExecutor != null) {
-      autoSaveExecutor.shutdownNow();
+  if (autoSaveTask != null) {
+      autoSaveTask.cancel();
   }
 }
 
   /**
-  * Save the pet's state to a file.
+  * Save the pet's state to a file and wait until it has been written.
+  * The save is queued on the scheduler's {@link SaveWriter} like {@link #saveAsync(String)},
+  * so it never runs at the same time as another save. Do not call this method on the Swing
+  * event dispatch thread.
   * @param slot the save slot identifier
   */
   public void save(String slot) {
-    // Ensure the saves directory exists
-    File savesDir = new File("saves");
-    if (!savesDir.exists()) {
-        savesDir.mkdirs();
+    try {
+      saveAsync(slot).join();
+      System.out.println("Game saved successfully.");
+    } catch (CompletionException e) {
+      System.err.println("Error saving game: " + e.getCause().getMessage());
     }
+  }
 
-    // Construct the file path
-    String filePath = SAVE_FILE_PREFIX + slot + ".dat";
+  /**
+   * Queue a save of the pet's state on the scheduler's {@link SaveWriter} and return at once.
+   * A save requested while an earlier save to the same slot is still waiting is merged into
+   * it. The simulation keeps running while the file is written: the pet is only held still
+   * for the moment it takes to copy its state into memory.
+   *
+   * @param slot the save slot identifier
+   * @return a future that completes once the file has been written, or completes
+   *     exceptionally if it could not be written
+   */
+  public CompletableFuture<Void> saveAsync(String slot) {
+    return getScheduler().getSaveWriter().submit(slot, () -> writeSave(slot));
+  }
 
-    try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(filePath))) {
-        out.writeObject(this);
-        System.out.println("Game saved successfully.");
+  /**
+   * Write the pet's state to a file. The first save to a slot writes a full snapshot and
+   * starts the slot's journal. Later saves to the same slot write only what changed: nothing
+   * if the pet did not change, the journal records appended since the last save if only the
+   * attributes or the generated and used items changed, and a new snapshot if anything the
+   * journal does not record changed or the journal has grown long.
+   * Only the save writer calls this method, so two saves never run at once.
+   */
+  private void writeSave(String slot) throws IOException {
+    Files.createDirectories(Path.of("saves"));
+    PetJournal log = journal;
+    if (log != null && slot.equals(journalSlot)) {
+      int sections;
+      boolean journaled;
+      synchronized (log) {
+        sections = DIRTY.getAndSet(this, 0);
+        journaled = inventory.getModificationCount() == coveredInventoryModifications;
+      }
+      if (sections == 0 && journaled && !legacySnapshot) {
+        return;
+      }
+      try {
+        if ((sections & DIRTY_FLAGS) == 0 && journaled && !legacySnapshot
+            && log.getRecordCount() < SNAPSHOT_RECORDS) {
+          log.sync(getSaveDurability());
+        } else {
+          writeSnapshot(slot, log);
+        }
+      } catch (IOException | RuntimeException e) {
+        // Try the same sections again with the next save
+        markDirty(sections);
+        throw e;
+      }
+    } else {
+      closeJournal();
+      // Discard the records of whichever pet was saved to the slot before, then start over
+      log = PetJournal.create(journalPath(slot), journalSequence);
+      useJournal(log, slot);
+      writeSnapshot(slot, log);
+      if (passive) {
+        // A passive pet keeps no files open; activating it opens the journal again
+        closeJournal();
+      }
+    }
+  }
+
+  /**
+   * Write the whole pet to its save file and drop the journal records the file now covers.
+   */
+  private void writeSnapshot(String slot, PetJournal log) throws IOException {
+    byte[] bytes;
+    long covered;
+    // No change can slip in between the snapshot and the sequence number it covers
+    synchronized (log) {
+      covered = log.getLastSequence();
+      journalSequence = covered;
+      DIRTY.set(this, 0);
+      coveredInventoryModifications = inventory.getModificationCount();
+      bytes = PetCodec.encode(this);
+    }
+    try {
+      // A crash while writing leaves the previous save file in place
+      getSaveDurability().write(Path.of(SAVE_FILE_PREFIX + slot + ".dat"), bytes);
     } catch (IOException e) {
-        System.err.println("Error saving game: " + e.getMessage());
+      // The snapshot is missing, so the next save has to write a whole one again
+      markDirty(DIRTY_ALL);
+      throw e;
     }
-}
+    legacySnapshot = false;
+    log.compact(covered);
+  }
+
+  private static Path journalPath(String slot) {
+    return Path.of(SAVE_FILE_PREFIX + slot + ".journal");
+  }
+
+  /**
+   * Replay the journal records written after the pet's snapshot, then keep appending to it.
+   */
+  private void openJournal(String slot) {
+    try {
+      useJournal(PetJournal.open(journalPath(slot), journalSequence, this::replay), slot);
+      coveredInventoryModifications = inventory.getModificationCount();
+    } catch (IOException e) {
+      System.err.println("Error reading pet journal: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Replay the journal records written after the pet's snapshot without keeping the journal
+   * open. The replayed records count as covered, so activating the pet does not replay them
+   * again.
+   */
+  private void replayJournal(String slot) {
+    Path path = journalPath(slot);
+    if (!Files.exists(path)) {
+      return;
+    }
+    try {
+      long covered = journalSequence;
+      PetJournal.read(path, record -> {
+        if (record.getSequence() > covered) {
+          replay(record);
+          journalSequence = record.getSequence();
+        }
+      });
+    } catch (IOException e) {
+      System.err.println("Error reading pet journal: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Apply one journal record. The record holds the attributes and random seed after the
+   * change, so only the inventory and the time of the last interaction are worked out here.
+   */
+  private void replay(PetJournal.Record record) {
+    state.set(record.getState());
+    random.restoreSeed(record.getSeed());
+    switch (record.getCommand()) {
+      case GENERATE_ITEM -> inventory.addItem(createItem(record.getArgument()));
+      case GENERATE_ITEMS -> {
+        ItemType[] types = ItemType.values();
+        for (int type = 0; type < types.length; type++) {
+          inventory.addItems(types[type],
+              record.getArgument() >>> (type * ITEM_COUNT_BITS) & ITEM_COUNT_MASK);
+        }
+      }
+      case USE_ITEM -> {
+        if (record.getArgument() >= 0) {
+          inventory.removeItem(createItem(record.getArgument()));
+        }
+      }
+      case FEED, PLAY, SLEEP, WAKE_UP, EXERCISE, FEED_MEAT, FEED_VEGETABLES, FEED_JUICE, REVIVE ->
+          lastInteractedTime = record.getTime();
+      default -> {
+      }
+    }
+  }
+
+  /**
+   * Write out and close the pet's journal. Changes made after this are not recorded until the
+   * pet is saved again.
+   */
+  /**
+   * Append to a journal from now on, and have the scheduler write its buffered records to the
+   * file every {@value PetJournal#FLUSH_INTERVAL_MILLIS} ms. A passive pet closes the journal
+   * again straight after saving, so it registers no task.
+   */
+  private void useJournal(PetJournal log, String slot) {
+    journal = log;
+    journalSlot = slot;
+    if (journalFlushTask != null) {
+      journalFlushTask.cancel();
+      journalFlushTask = null;
+    }
+    if (passive) {
+      return;
+    }
+    PetScheduler current = getScheduler();
+    journalFlushTask = current.scheduleAtFixedRate(
+        () -> current.getBlockingExecutor().execute(() -> flushJournal(log)),
+        PetJournal.FLUSH_INTERVAL_MILLIS, PetJournal.FLUSH_INTERVAL_MILLIS,
+        TimeUnit.MILLISECONDS);
+  }
+
+  private static void flushJournal(PetJournal log) {
+    try {
+      log.flush();
+    } catch (IOException e) {
+      System.err.println("Error writing pet journal: " + e.getMessage());
+    }
+  }
+
+  private void closeJournal() {
+    PetJournal log = journal;
+    journal = null;
+    journalSlot = null;
+    if (journalFlushTask != null) {
+      journalFlushTask.cancel();
+      journalFlushTask = null;
+    }
+    if (log != null) {
+      try {
+        log.close();
+      } catch (IOException e) {
+        System.err.println("Error writing pet journal: " + e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Set how hard the pet's saves try to survive a crash.
+   * Every save replaces the save file atomically; the durability decides how much of it is
+   * forced to the storage device.
+   *
+   * @param durability the durability level
+   */
+  public void setSaveDurability(SaveDurability durability) {
+    if (durability == null) {
+      throw new NullPointerException("Durability cannot be null");
+    }
+    saveDurability = durability;
+  }
+
+  /**
+   * Get how hard the pet's saves try to survive a crash.
+   *
+   * @return the durability level, by default the one named by {@link SaveDurability#PROPERTY}
+   */
+  public SaveDurability getSaveDurability() {
+    SaveDurability durability = saveDurability;
+    return durability != null ? durability : SaveDurability.fromSystemProperty();
+  }
 
       /**
-     * Load the pet's state from a file.
+     * Load the pet's state from a file and activate it for play.
+     * Journal records written after the file are replayed on top of it, and the loaded pet
+     * keeps appending to the slot's journal.
      *
      * @param slot the save slot identifier
      * 
-     * @return the loaded Pet object
-     * @return null if the file does not exist or an error occurs
+     * @return the loaded Pet object, or null if the file does not exist or cannot be read
+     * @see #loadPassive(String)
      */
     public static Pet load(String slot) {
+      Pet pet = loadPassive(slot);
+      if (pet != null) {
+        pet.activate();
+      }
+      return pet;
+    }
+
+    /**
+     * Load the pet's state from a file without starting anything, to inspect or edit it.
+     * Journal records written after the file are replayed on top of it, but the journal is
+     * not kept open. The pet schedules no tasks, its time stands still, and it does not need
+     * to be stopped; saving it writes a full save file. Call {@link #activate()} to play it.
+     *
+     * @param slot the save slot identifier
+     * @return the passive pet, or null if the file does not exist or cannot be read; an
+     *     unreadable file is reported and left as it is
+     * @see #hasSave(String)
+     */
+    public static Pet loadPassive(String slot) {
       // Construct the file path
       String filePath = SAVE_FILE_PREFIX + slot + ".dat";
       File saveFile = new File(filePath);
@@ -713,43 +1656,259 @@ public void stopAutoSave() {
           return null;
       }
   
-      try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(filePath))) {
-          return (Pet) in.readObject();
-      } catch (IOException | ClassNotFoundException e) {
-          System.err.println("Error loading game: " + e.getMessage());
-          return new Pet(); // Return a new Pet object if loading fails
+      try {
+          // Saves from earlier versions are still read with Java serialization
+          byte[] data = Files.readAllBytes(saveFile.toPath());
+          Pet pet = PetCodec.decode(data);
+          pet.legacySnapshot = PetCodec.isLegacy(data);
+          pet.loadedSlot = slot;
+          pet.replayJournal(slot);
+          return pet;
+      } catch (IOException | RuntimeException e) {
+          // A new pet in its place would be saved over the file, losing the pet for good
+          System.err.println("Error loading game: " + e);
+          return null;
       }
   }
 
+    /**
+     * Check if a save slot holds a save file, readable or not.
+     *
+     * @param slot the save slot identifier
+     * @return true if the slot's save file exists
+     */
+    public static boolean hasSave(String slot) {
+      return Files.exists(Path.of(SAVE_FILE_PREFIX + slot + ".dat"));
+    }
+
+  private void writeObject(ObjectOutputStream oos) throws IOException {
+    // Read the packed attributes once so the saved values are consistent with each other
+    long current = state.get();
+    ObjectOutputStream.PutField fields = oos.putFields();
+    fields.put("score", PetState.score(current));
+    fields.put("hunger", PetState.hunger(current));
+    fields.put("social", PetState.social(current));
+    fields.put("sleep", PetState.sleep(current));
+    fields.put("health", PetState.health(current));
+    fields.put("inventory", inventory);
+    fields.put("mood", mood);
+    fields.put("personality", personality);
+    fields.put("preferredAction", preferredAction);
+    fields.put("lastInteractedTime", lastInteractedTime);
+    fields.put("isSleeping", PetState.sleeping(current));
+    fields.put("personalitySet", personalitySet);
+    fields.put("message", message);
+    fields.put("isDead", PetState.dead(current));
+    fields.put("allowTaskExecution", allowTaskExecution);
+    fields.put("lazyEvaluation", lazyEvaluation);
+    fields.put("lastEvaluatedTime", lastEvaluatedTime);
+    fields.put("evaluatedSteps", evaluatedSteps);
+    fields.put("petName", petName);
+    fields.put("random", random);
+    fields.put("journalSequence", journalSequence);
+    oos.writeFields();
+  }
+
   private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
-    ois.defaultReadObject();
-    // Reinitialize transient fields
+    ObjectInputStream.GetField fields = ois.readFields();
+    state = new AtomicLong(PetState.pack(fields.get("score", 0), fields.get("hunger", 0),
+        fields.get("social", 0), fields.get("sleep", 0), fields.get("health", 0),
+        fields.get("isSleeping", false)));
+    inventory = (Inventory) fields.get("inventory", null);
+    mood = (Mood) fields.get("mood", null);
+    personality = (PersonalityStrategy) fields.get("personality", null);
+    preferredAction = (Action) fields.get("preferredAction", null);
+    lastInteractedTime = fields.get("lastInteractedTime", 0L);
+    personalitySet = fields.get("personalitySet", false);
+    message = (String) fields.get("message", null);
+    allowTaskExecution = fields.get("allowTaskExecution", false);
+    lazyEvaluation = fields.get("lazyEvaluation", false);
+    lastEvaluatedTime = fields.get("lastEvaluatedTime", 0L);
+    evaluatedSteps = fields.get("evaluatedSteps", 0L);
+    petName = (String) fields.get("petName", null);
+    random = (PetRandom) fields.get("random", null);
+    if (random == null) {
+      // Saves from before random streams were persisted continue on a fresh stream
+      random = PetRandom.splitDefault();
+    }
+    journalSequence = fields.get("journalSequence", 0L);
+    initializeTransients();
+  }
+
+  /**
+   * Write the save file header that describes this pet.
+   *
+   * @param out the output, positioned at the start of the file
+   * @param savedTime the time of the save in milliseconds since the epoch
+   * @throws IOException if the header cannot be written
+   */
+  void writeHeader(DataOutput out, long savedTime) throws IOException {
+    SaveHeader.write(out, state.get(), petName, personality, journalSequence, savedTime);
+  }
+
+  /**
+   * Write the pet in the binary save format. The header is written by {@link PetCodec}.
+   *
+   * @param out the output to write to
+   * @throws IOException if the pet cannot be written
+   */
+  void writeTo(DataOutput out) throws IOException {
+    // Read the packed attributes once so the saved values are consistent with each other
+    long current = state.get();
+    out.writeInt(PetState.score(current));
+    out.writeByte(PetState.hunger(current));
+    out.writeByte(PetState.social(current));
+    out.writeByte(PetState.sleep(current));
+    out.writeByte(PetState.health(current));
+    int flags = (PetState.sleeping(current) ? PetCodec.FLAG_SLEEPING : 0)
+        | (PetState.dead(current) ? PetCodec.FLAG_DEAD : 0)
+        | (personalitySet ? PetCodec.FLAG_PERSONALITY_SET : 0)
+        | (allowTaskExecution ? PetCodec.FLAG_ALLOW_TASK_EXECUTION : 0)
+        | (lazyEvaluation ? PetCodec.FLAG_LAZY_EVALUATION : 0);
+    out.writeByte(flags);
+    out.writeByte(PetCodec.enumCode(mood));
+    out.writeByte(PetCodec.enumCode(preferredAction));
+    out.writeByte(PetCodec.personalityCode(personality));
+    out.writeLong(lastInteractedTime);
+    out.writeLong(lastEvaluatedTime);
+    out.writeLong(evaluatedSteps);
+    out.writeLong(journalSequence);
+    out.writeLong(random.currentSeed());
+    out.writeLong(random.gamma());
+    PetCodec.writeString(out, petName);
+    PetCodec.writeString(out, message);
+    PetCodec.writeInventory(out, inventory);
+  }
+
+  /**
+   * Read a pet written by {@link #writeTo(DataOutput)}. The pet is passive until it is
+   * activated.
+   *
+   * @param in the input to read from, positioned after the header
+   * @param version the format version of the save
+   * @return the pet
+   * @throws IOException if the pet cannot be read
+   */
+  static Pet readFrom(DataInput in, int version) throws IOException {
+    int score = in.readInt();
+    int hunger = in.readUnsignedByte();
+    int social = in.readUnsignedByte();
+    int sleep = in.readUnsignedByte();
+    int health = in.readUnsignedByte();
+    int flags = in.readUnsignedByte();
+    Pet pet = new Pet(PetState.pack(score, hunger, social, sleep, health,
+        (flags & PetCodec.FLAG_SLEEPING) != 0));
+    pet.personalitySet = (flags & PetCodec.FLAG_PERSONALITY_SET) != 0;
+    pet.allowTaskExecution = (flags & PetCodec.FLAG_ALLOW_TASK_EXECUTION) != 0;
+    pet.lazyEvaluation = (flags & PetCodec.FLAG_LAZY_EVALUATION) != 0;
+    pet.mood = PetCodec.enumValue(Mood.values(), in.readUnsignedByte());
+    pet.preferredAction = PetCodec.enumValue(Action.values(), in.readUnsignedByte());
+    pet.personality = PetCodec.personality(in.readUnsignedByte());
+    pet.lastInteractedTime = in.readLong();
+    pet.lastEvaluatedTime = in.readLong();
+    pet.evaluatedSteps = in.readLong();
+    pet.journalSequence = in.readLong();
+    long seed = in.readLong();
+    pet.random = PetRandom.restore(seed, in.readLong());
+    pet.petName = PetCodec.readString(in);
+    pet.message = PetCodec.readString(in);
+    pet.inventory = PetCodec.readInventory(in, version);
+    pet.initializeTransients();
+    return pet;
+  }
+
+  /**
+   * Restore the pet's packed attributes and last interaction time from a stored record.
+   *
+   * @param word the packed attributes
+   * @param lastInteracted the time of the last interaction
+   * @see PetPopulationFile#read(int, PetScheduler)
+   */
+  void restore(long word, long lastInteracted) {
+    if (shard != null) {
+      long[] record = {word, lastInteracted};
+      queuedRestores.add(record);
+      if (dispatch(PetCommand.RESTORE, 0)) {
+        return;
+      }
+      queuedRestores.remove(record);
+    }
+    change(PetCommand.SET_ATTRIBUTES, 0, current -> word);
+    lastInteractedTime = lastInteracted;
+  }
+
+  /**
+   * Constructor for a pet that is being read from a save file. Nothing is started.
+   */
+  private Pet(long word) {
+    state = new AtomicLong(word);
+  }
+
+  /**
+   * Set up the transient fields of a pet that was read from a save file. The pet stays
+   * passive: it schedules nothing and does not join a scheduler until {@link #activate()}.
+   */
+  private void initializeTransients() {
     timeSimulator = new TimeSimulator(this);
+    queuedItems = new ConcurrentLinkedQueue<>();
+    queuedRestores = new ConcurrentLinkedQueue<>();
+    passive = true;
+  }
+
+  /**
+   * Start the background work of a pet that was read from a save file, so it can be played:
+   * the attribute updates, the health timer and the item generator, or for a lazily
+   * evaluated pet, the clock it catches up from. A pet loaded with {@link #load(String)}
+   * also keeps appending its changes to the slot's journal. Calling this method on a pet
+   * that is already active has no effect.
+   */
+  public synchronized void activate() {
+    if (!passive) {
+      return;
+    }
+    passive = false;
+    if (loadedSlot != null && journal == null) {
+      openJournal(loadedSlot);
+    }
+    if (lazyEvaluation) {
+      // Time does not pass while the pet is saved
+      lastEvaluatedTime = now();
+      return;
+    }
     timeSimulator.startAttributeUpdates();
-    executorService1 = Executors.newScheduledThreadPool(1);
-    startTimer(); // Restart the timer
+    startTimer();
     startItemGenerator();
-}
-    
+  }
+
+  /**
+   * Check if the pet was read from a save file and not activated yet.
+   *
+   * @return true if the pet is passive, false if it is active
+   */
+  public boolean isPassive() {
+    return passive;
+  }
+
   public void stopTimers() {
       if (timeSimulator != null) {
           timeSimulator.stopAttributeUpdates();
     }
-      if (executorService1 != null && !executorService1.isShutdown()) {
-          executorService1.shutdownNow();
+      if (timerTask != null) {
+          timerTask.cancel();
       }
   
-      if (executorService2 != null && !executorService2.isShutdown()) {
-          executorService2.shutdownNow();
+      if (wakeUpTask != null) {
+          wakeUpTask.cancel();
       }
   
-      if (autosaveService != null && !autosaveService.isShutdown()) {
-          autosaveService.shutdownNow();
+      stopAutoSave();
+      // Stop any other scheduled tasks
+      stopItemGenerator();
+      // Saves that are still queued write to the journal, so close it after them. A pet that
+      // never joined a scheduler has neither.
+      if (scheduler != null) {
+        scheduler.getSaveWriter().execute(this::closeJournal);
       }
-      // Stop any other services or threads
-      if (itemGeneratorService != null && !itemGeneratorService.isShutdown()) {
-        itemGeneratorService.shutdownNow();
-    }
   }
   private String petName;
 
@@ -764,52 +1923,199 @@ public void stopAutoSave() {
  */
 
   public void setPetName(String petName) {
-    this.petName = petName;
+    if (!Objects.equals(petName, this.petName)) {
+      this.petName = petName;
+      markDirty(DIRTY_FLAGS);
+    }
 }
 public Inventory getInventory() {
+  evaluateLazily();
   return inventory;
 }
 
 public void startItemGenerator() {
-  if (itemGeneratorService == null || itemGeneratorService.isShutdown()) {
-    itemGeneratorService = Executors.newSingleThreadScheduledExecutor();
-    itemGeneratorService.scheduleAtFixedRate(() -> {
+  if (lazyEvaluation || passive) {
+    return;
+  }
+  if (itemGeneratorTask == null || itemGeneratorTask.isCancelled()) {
+    itemGeneratorTask = getScheduler().scheduleAtFixedRate(() -> {
         addItemToInventory();
     }, 0, 15, TimeUnit.SECONDS); // Adjust the interval as needed
 }
 }
 
 private void addItemToInventory() {
-    Random random = new Random();
+    if (dispatch(PetCommand.GENERATE_ITEM, 0)) {
+      return;
+    }
+    if (inventory.getOverflowPolicy() == OverflowPolicy.PAUSE_GENERATOR && inventory.isFull()) {
+      // The generator resumes by itself once an item has been used
+      pausedGenerations++;
+      return;
+    }
     int itemType = random.nextInt(3); // 0 for Meat, 1 for Vegetables, 2 for Juice
-
-    switch (itemType) {
-      case 0 -> {
-          Meat meat = new Meat();
-          inventory.addItem(meat);
-      }
-      case 1 -> {
-          Vegetables vegetables = new Vegetables();
-          inventory.addItem(vegetables);
-      }
-      case 2 -> {
-          Juice juice = new Juice();
-          inventory.addItem(juice);
+    Item item = createItem(itemType);
+    PetJournal log = journal;
+    if (log == null) {
+      inventory.addItem(item);
+      return;
+    }
+    synchronized (log) {
+      // An item a full inventory turned away is not recorded, so replaying cannot add it
+      if (changeInventory(log, () -> inventory.addItem(item))) {
+        record(log, PetCommand.GENERATE_ITEM, itemType, state.get());
       }
     }
 }
 
+/**
+ * Run the item generator several times at once, for a lazily evaluated pet that is catching
+ * up. The items are drawn as the generator would draw them, then the items of each type are
+ * added together and recorded in one GENERATE_ITEMS record. If the inventory overflows,
+ * which items are turned away or evicted follows the type order rather than the draw order.
+ *
+ * @param generations the number of generator runs
+ */
+private void generateItems(long generations) {
+  long generated = generations;
+  if (inventory.getOverflowPolicy() == OverflowPolicy.PAUSE_GENERATOR) {
+    long room = Math.max((long) inventory.getCapacity() - inventory.size(), 0);
+    if (generated > room) {
+      pausedGenerations += generated - room;
+      generated = room;
+    }
+  }
+  ItemType[] types = ItemType.values();
+  int[] drawn = new int[types.length];
+  for (long i = 0; i < generated; i++) {
+    drawn[random.nextInt(3)]++;
+  }
+  int[] added = new int[types.length];
+  Runnable change = () -> {
+    for (int type = 0; type < types.length; type++) {
+      added[type] = inventory.addItems(types[type], drawn[type]);
+    }
+  };
+  PetJournal log = journal;
+  if (log == null) {
+    change.run();
+    return;
+  }
+  synchronized (log) {
+    if (changeInventory(log, change)) {
+      recordGeneratedItems(log, added);
+    }
+  }
+}
+
+// One record holds up to 1023 items of each type; a longer catch-up takes more records
+private void recordGeneratedItems(PetJournal log, int[] added) {
+  boolean more = true;
+  while (more) {
+    int argument = 0;
+    more = false;
+    for (int type = 0; type < added.length; type++) {
+      int count = Math.min(added[type], ITEM_COUNT_MASK);
+      added[type] -= count;
+      argument |= count << (type * ITEM_COUNT_BITS);
+      more |= added[type] > 0;
+    }
+    record(log, PetCommand.GENERATE_ITEMS, argument, state.get());
+  }
+}
+
+private static Item createItem(int itemType) {
+  // Generated items are the shared instances of their type
+  return ItemType.fromCode(itemType).getItem();
+}
+
+private static int itemType(Item item) {
+  ItemType type = ItemType.of(item);
+  return type != null ? type.ordinal() : -1;
+}
+
+/**
+ * Use an item from the pet's inventory and remove it. A pet attached to a shard uses the
+ * item on the shard's drain thread.
+ *
+ * @param item the item to use
+ */
+public void useItem(Item item) {
+  int type = itemType(item);
+  if (type < 0 && shard != null) {
+    queuedItems.add(item);
+    if (dispatch(PetCommand.USE_ITEM, type)) {
+      return;
+    }
+    queuedItems.remove(item);
+  } else if (dispatch(PetCommand.USE_ITEM, type)) {
+    return;
+  }
+  applyUseItem(item);
+}
+
+private void applyUseItem(Item item) {
+  item.use(this);
+  PetJournal log = journal;
+  if (log == null) {
+    inventory.removeItem(item);
+    return;
+  }
+  synchronized (log) {
+    changeInventory(log, () -> inventory.removeItem(item));
+    record(log, PetCommand.USE_ITEM, itemType(item), state.get());
+  }
+}
+
+/**
+ * Apply a change to the inventory that is recorded in the journal. The caller holds the
+ * journal's lock. If the journal accounted for the whole inventory before the change, it
+ * still does afterwards.
+ *
+ * @return true if the inventory changed and the change has to be recorded, false if the
+ *     item was turned away or was not in the inventory
+ */
+private boolean changeInventory(PetJournal log, Runnable change) {
+  int before = inventory.getModificationCount();
+  long evicted = inventory.getEvictedCount();
+  change.run();
+  if (inventory.getModificationCount() == before) {
+    return false;
+  }
+  // The journal does not record which item was evicted to make room, so after an eviction
+  // the next save writes the whole inventory
+  if (coveredInventoryModifications == before && inventory.getEvictedCount() == evicted) {
+    coveredInventoryModifications = inventory.getModificationCount();
+  }
+  markDirty(DIRTY_INVENTORY);
+  return true;
+}
+
+/**
+ * Get the number of times the item generator produced nothing because the inventory was
+ * full and its overflow policy pauses the generator.
+ *
+ * @return the number of paused generations
+ */
+public long getPausedGenerations() {
+  return pausedGenerations;
+}
+
 public void stopItemGenerator() {
-  if (itemGeneratorService != null && !itemGeneratorService.isShutdown()) {
-      itemGeneratorService.shutdownNow();
+  if (itemGeneratorTask != null) {
+      itemGeneratorTask.cancel();
   }
 }
 // Call startItemGenerator() when the game starts
 
 public void receiveGift() {
+  if (dispatch(PetCommand.RECEIVE_GIFT, 0)) {
+    return;
+  }
+  evaluateLazily();
   // Implement the effect of receiving a gift
   // For example, increase social or mood attributes
-  social = Math.min(social + 21, 100);
+  adjust(PetCommand.RECEIVE_GIFT, 0, 0, 21, 0, 0);
   mood = Mood.HAPPY;
 }
 
@@ -820,7 +2126,11 @@ public void receiveGift() {
  */
 
 public void increaseHealth(int amount) {
-  health = Math.min(health + amount, 100);
+  if (dispatch(PetCommand.INCREASE_HEALTH, amount)) {
+    return;
+  }
+  evaluateLazily();
+  adjust(PetCommand.INCREASE_HEALTH, 0, 0, 0, 0, amount);
 }
 
 /**
@@ -830,20 +2140,16 @@ public void increaseHealth(int amount) {
  */
 
 public void updateFrom(Pet other) {
-  this.score = other.score;
-  this.hunger = other.hunger;
-  this.social = other.social;
-  this.sleep = other.sleep;
-  this.health = other.health;
+  long word = other.state.get();
+  change(PetCommand.SET_ATTRIBUTES, 0, current -> word);
   this.inventory = other.inventory;
   this.mood = other.mood;
   this.personality = other.personality;
   this.preferredAction = other.preferredAction;
   this.lastInteractedTime = other.lastInteractedTime;
-  this.isSleeping = other.isSleeping;
   this.message = other.message;
-  this.isDead = other.isDead;
   this.allowTaskExecution = other.allowTaskExecution;
+  markDirty(DIRTY_INVENTORY | DIRTY_FLAGS);
 }
 
 /**
@@ -852,6 +2158,9 @@ public void updateFrom(Pet other) {
  * @return the pet's inventory
  */
 public void reinitializeServices() {
+  if (lazyEvaluation || passive) {
+    return;
+  }
   if (timeSimulator == null) {
     timeSimulator = new TimeSimulator(this);
     timeSimulator.startAttributeUpdates();
@@ -864,15 +2173,15 @@ public void reinitializeServices() {
  * Resets the pet's attributes to initial values and reinitializes any necessary services.
  */
 public void revive() {
-  if (isDead) {
-      score = 0;
-      health = 100;
-      hunger = 0; // Set hunger to minimum
-      social = 100; // Set social to maximum
-      sleep = 0;  // Set sleep to minimum
+  if (dispatch(PetCommand.REVIVE, 0)) {
+    return;
+  }
+  evaluateLazily();
+  // Score 0, hunger and sleep at minimum, social and health at maximum
+  if (change(PetCommand.REVIVE, 0, current -> !PetState.dead(current) ? NO_CHANGE
+      : PetState.pack(0, 0, 100, 0, 100, PetState.sleeping(current)))) {
       mood = Mood.HAPPY;
-      isDead = false;
-      lastInteractedTime = System.currentTimeMillis();
+      lastInteractedTime = now();
       // Reinitialize any necessary transient fields
       startTimer();
       startItemGenerator();
@@ -888,17 +2197,18 @@ public void revive() {
  */
 @Override
 public void exercise() {
-    if (isSleeping) {
+    if (dispatch(PetCommand.EXERCISE, 0)) {
+      return;
+    }
+    evaluateLazily();
+    // Increase hunger, decrease sleep (pet becomes sleepier) and increase health
+    if (!adjustIfAwake(PetCommand.EXERCISE, 0, 10, 0, -10, 10)) {
         message = "Pet is sleeping. Please wait until it wakes up.";
-        lastInteractedTime = System.currentTimeMillis();
+        lastInteractedTime = now();
         return;
     }
     message = "You exercised your pet!";
-    hunger += 10; // Increase hunger
-    sleep -= 10;  // decrease sleep (pet becomes sleepier)
-    health += 10;  // Increase health
-    lastInteractedTime = System.currentTimeMillis();
-    checkBounds();
+    lastInteractedTime = now();
 }
 
 /**
@@ -906,7 +2216,7 @@ public void exercise() {
  * @return
  */
 public boolean isSleeping() {
-  return isSleeping;
+  return PetState.sleeping(state.get());
 }
 
 /**
@@ -915,19 +2225,18 @@ public boolean isSleeping() {
  * @return
  */
 public void feedMeat() {
-  if (isSleeping) {
+  if (dispatch(PetCommand.FEED_MEAT, 0)) {
+    return;
+  }
+  evaluateLazily();
+  // Meat reduces hunger significantly, and meat increases health more
+  if (!adjustIfAwake(PetCommand.FEED_MEAT, 0, -20, 0, 0, 5)) {
       message = "Pet is sleeping. Please wait until it wakes up.";
-      lastInteractedTime = System.currentTimeMillis();
+      lastInteractedTime = now();
       return;
   }
   message = "You fed your pet meat!";
-  hunger -= 20; // Meat reduces hunger significantly
-  if (hunger < 0) {
-      hunger = 0;
-  }
-  health += 5; // Meat increases health more
-  lastInteractedTime = System.currentTimeMillis();
-  checkBounds();
+  lastInteractedTime = now();
 }
 
 /**
@@ -936,19 +2245,18 @@ public void feedMeat() {
  * @return
  */
 public void feedVegetables() {
-  if (isSleeping) {
+  if (dispatch(PetCommand.FEED_VEGETABLES, 0)) {
+    return;
+  }
+  evaluateLazily();
+  // Vegetables reduce hunger moderately, and vegetables increase health moderately
+  if (!adjustIfAwake(PetCommand.FEED_VEGETABLES, 0, -15, 0, 0, 3)) {
       message = "Pet is sleeping. Please wait until it wakes up.";
-      lastInteractedTime = System.currentTimeMillis();
+      lastInteractedTime = now();
       return;
   }
   message = "You fed your pet vegetables!";
-  hunger -= 15; // Vegetables reduce hunger moderately
-  if (hunger < 0) {
-      hunger = 0;
-  }
-  health += 3; // Vegetables increase health moderately
-  lastInteractedTime = System.currentTimeMillis();
-  checkBounds();
+  lastInteractedTime = now();
 }
 
 
@@ -958,19 +2266,18 @@ public void feedVegetables() {
  * @return
  */
 public void feedJuice() {
-  if (isSleeping) {
+  if (dispatch(PetCommand.FEED_JUICE, 0)) {
+    return;
+  }
+  evaluateLazily();
+  // Juice reduces hunger slightly, and juice increases health slightly
+  if (!adjustIfAwake(PetCommand.FEED_JUICE, 0, -5, 0, 0, 1)) {
       message = "Pet is sleeping. Please wait until it wakes up.";
-      lastInteractedTime = System.currentTimeMillis();
+      lastInteractedTime = now();
       return;
   }
   message = "You gave your pet juice!";
-  hunger -= 5; // Juice reduces hunger slightly
-  if (hunger < 0) {
-      hunger = 0;
-  }
-  health += 1; // Juice increases health slightly
-  lastInteractedTime = System.currentTimeMillis();
-  checkBounds();
+  lastInteractedTime = now();
 }
 
 }
\ No newline at end of file
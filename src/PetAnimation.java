@@ -0,0 +1,192 @@
+/**
+ * The animations a {@link PetCanvas} plays.
+ *
+ * <p>The pet images are single pictures, so the frames of an animation are that picture
+ * stretched a little: an idle pet breathes, an eating pet chews, a sleeping pet breathes
+ * slowly and a dying pet fades into its dead picture. The enum only describes the frames;
+ * the {@link SpriteAtlas} draws each of them once, so showing a frame is a plain copy.</p>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see PetCanvas
+ */
+public enum PetAnimation {
+
+  /** The awake pet breathes. Loops. */
+  IDLE(16, 100, true),
+
+  /** The pet chews twice, then goes back to what it was doing. */
+  EATING(8, 60, false),
+
+  /** The sleeping pet breathes slowly. Loops. */
+  SLEEPING(16, 250, true),
+
+  /** The pet fades into its dead picture and stays there. */
+  DYING(12, 120, false);
+
+  // Every frame is drawn this much smaller than the canvas, so the motion stays inside it
+  private static final float REST_SCALE = 0.96f;
+
+  private final int frames;
+  private final long frameNanos;
+  private final boolean loops;
+  private final SpriteState[] sprite;
+  private final float[] width;
+  private final float[] height;
+  // The sprite faded in on top of each frame, and how strongly; 0 for no fade
+  private final SpriteState fadeSprite = SpriteState.DEAD;
+  private final float[] fade;
+
+  PetAnimation(int frames, long frameMillis, boolean loops) {
+    this.frames = frames;
+    this.frameNanos = frameMillis * 1_000_000L;
+    this.loops = loops;
+    this.sprite = new SpriteState[frames];
+    this.width = new float[frames];
+    this.height = new float[frames];
+    this.fade = new float[frames];
+  }
+
+  static {
+    for (PetAnimation animation : values()) {
+      animation.buildFrames();
+    }
+  }
+
+  private void buildFrames() {
+    for (int i = 0; i < frames; i++) {
+      double phase = 2 * Math.PI * i / frames;
+      sprite[i] = SpriteState.NORMAL;
+      width[i] = REST_SCALE;
+      height[i] = REST_SCALE;
+      switch (this) {
+        case IDLE:
+          height[i] = REST_SCALE + 0.012f * (float) Math.sin(phase);
+          break;
+        case EATING:
+          // Two chews: the pet squashes down and widens a little
+          float chew = (float) Math.abs(Math.sin(phase));
+          height[i] = REST_SCALE - 0.05f * chew;
+          width[i] = REST_SCALE + 0.03f * chew;
+          break;
+        case SLEEPING:
+          sprite[i] = SpriteState.SLEEP;
+          height[i] = REST_SCALE + 0.02f * (float) Math.sin(phase);
+          break;
+        case DYING:
+          if (i == frames - 1) {
+            sprite[i] = SpriteState.DEAD;
+          } else {
+            fade[i] = (float) i / (frames - 1);
+          }
+          break;
+        default:
+          break;
+      }
+    }
+  }
+
+  /**
+   * Returns the animation for a pet's state.
+   *
+   * @param isDead whether the pet is dead
+   * @param isSleeping whether the pet is sleeping
+   * @return the animation
+   */
+  public static PetAnimation forState(boolean isDead, boolean isSleeping) {
+    if (isDead) {
+      return DYING;
+    }
+    return isSleeping ? SLEEPING : IDLE;
+  }
+
+  /**
+   * Returns the number of frames.
+   *
+   * @return the number of frames
+   */
+  public int getFrames() {
+    return frames;
+  }
+
+  /**
+   * Returns whether the animation starts over after its last frame.
+   *
+   * @return true if the animation loops
+   */
+  public boolean loops() {
+    return loops;
+  }
+
+  /**
+   * Returns the frame shown some time after the animation started. An animation that does
+   * not loop stays on its last frame.
+   *
+   * @param elapsedNanos the time since the animation started
+   * @return the frame
+   */
+  public int frameAt(long elapsedNanos) {
+    long frame = Math.max(0, elapsedNanos) / frameNanos;
+    return loops ? (int) (frame % frames) : (int) Math.min(frame, frames - 1);
+  }
+
+  /**
+   * Returns whether an animation that does not loop has shown all its frames.
+   *
+   * @param elapsedNanos the time since the animation started
+   * @return true if the animation is over; never for a looping animation
+   */
+  public boolean isFinished(long elapsedNanos) {
+    return !loops && elapsedNanos >= frames * frameNanos;
+  }
+
+  /**
+   * Returns the picture a frame shows.
+   *
+   * @param frame the frame
+   * @return the picture
+   */
+  SpriteState spriteAt(int frame) {
+    return sprite[frame];
+  }
+
+  /**
+   * Returns the width of a frame's picture, relative to the frame.
+   *
+   * @param frame the frame
+   * @return the width, at most 1
+   */
+  float widthAt(int frame) {
+    return width[frame];
+  }
+
+  /**
+   * Returns the height of a frame's picture, relative to the frame. The picture stands on
+   * the bottom of the frame.
+   *
+   * @param frame the frame
+   * @return the height, at most 1
+   */
+  float heightAt(int frame) {
+    return height[frame];
+  }
+
+  /**
+   * Returns the picture faded in on top of the frames.
+   *
+   * @return the picture
+   */
+  SpriteState fadeSprite() {
+    return fadeSprite;
+  }
+
+  /**
+   * Returns how strongly the fade picture covers a frame.
+   *
+   * @param frame the frame
+   * @return the opacity from 0, not at all, to 1
+   */
+  float fadeAt(int frame) {
+    return fade[frame];
+  }
+}
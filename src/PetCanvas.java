@@ -0,0 +1,208 @@
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferStrategy;
+
+/**
+ * A canvas that shows an animated pet.
+ *
+ * <p>The game window used to show the pet as a still picture in a label, replaced when the
+ * pet fell asleep or died. The canvas instead plays a {@link PetAnimation}: the pet
+ * breathes, chews when it is fed, sleeps and dies. It does not wait for Swing to paint it:
+ * while it is on screen, the shared {@link RenderLoop} draws it every frame into a back
+ * buffer in video memory, managed by a {@link BufferStrategy}, and then shows the buffer,
+ * so a frame costs one copy from the {@link SpriteAtlas}. The canvas and the loop allocate
+ * nothing per frame; Java2D itself creates one {@code Graphics} for the back buffer each
+ * frame.</p>
+ *
+ * <p>The animation is chosen on the event dispatch thread with
+ * {@link #showPet(String, PetAnimation)} and {@link #play(PetAnimation)}, and read by the
+ * loop's thread.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * {@code
+ * PetCanvas canvas = new PetCanvas(300);
+ * panel.add(canvas);
+ * canvas.showPet("Dog", PetAnimation.IDLE);
+ * canvas.play(PetAnimation.EATING);
+ * }
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see RenderLoop
+ */
+public class PetCanvas extends Canvas implements RenderLoop.Target {
+  private static final long serialVersionUID = 1L;
+
+  private final int size;
+  private final RenderLoop loop;
+
+  // The frames of the pet shown; null while there is none
+  private volatile SpriteAtlas atlas;
+  private volatile PetAnimation animation = PetAnimation.IDLE;
+  private volatile long animationStart = System.nanoTime();
+  // An animation played once on top of the one above, such as eating; null for none
+  private volatile PetAnimation oneShot;
+  private volatile long oneShotStart;
+
+  // Only used on the loop's thread
+  private BufferStrategy strategy;
+
+  /**
+   * Constructs a canvas drawn by the shared render loop.
+   *
+   * @param size the width and height of the pet
+   */
+  public PetCanvas(int size) {
+    this(size, RenderLoop.getInstance());
+  }
+
+  /**
+   * Constructs a canvas.
+   *
+   * @param size the width and height of the pet
+   * @param loop the loop that draws the canvas while it is on screen
+   */
+  public PetCanvas(int size, RenderLoop loop) {
+    this.size = size;
+    this.loop = loop;
+    setBackground(Color.WHITE);
+    setPreferredSize(new Dimension(size, size));
+    // The loop draws the canvas; paint events would only draw it a second time
+    setIgnoreRepaint(true);
+  }
+
+  /**
+   * Shows a pet and the animation it plays from now on. Showing the animation that is
+   * already playing does not restart it. A dead pet stops any animation played once. The
+   * first time a pet type is shown, its frames are drawn into a {@link SpriteAtlas}.
+   *
+   * @param petName the pet type, such as "Dog"
+   * @param animation the animation
+   */
+  public void showPet(String petName, PetAnimation animation) {
+    SpriteAtlas shown = atlas;
+    if (shown == null || !shown.getPetType().equalsIgnoreCase(String.valueOf(petName))) {
+      atlas = SpriteAtlas.get(petName, size);
+    }
+    if (animation != this.animation) {
+      animationStart = System.nanoTime();
+      this.animation = animation;
+    }
+    if (animation == PetAnimation.DYING) {
+      oneShot = null;
+    }
+  }
+
+  /**
+   * Plays an animation once, then goes back to the animation shown before. Does nothing
+   * while the pet is dying.
+   *
+   * @param animation the animation, such as {@link PetAnimation#EATING}
+   */
+  public void play(PetAnimation animation) {
+    if (this.animation == PetAnimation.DYING) {
+      return;
+    }
+    oneShotStart = System.nanoTime();
+    oneShot = animation;
+  }
+
+  /**
+   * Returns the animation shown at a time.
+   *
+   * @param frameNanos the time, from {@link System#nanoTime()}
+   * @return the animation
+   */
+  public PetAnimation getAnimation(long frameNanos) {
+    PetAnimation once = oneShot;
+    if (once != null && !once.isFinished(frameNanos - oneShotStart)) {
+      return once;
+    }
+    return animation;
+  }
+
+  @Override
+  public void addNotify() {
+    super.addNotify();
+    loop.add(this);
+  }
+
+  @Override
+  public void removeNotify() {
+    loop.remove(this);
+    super.removeNotify();
+  }
+
+  @Override
+  public void paint(Graphics g) {
+    // Drawn by the render loop
+  }
+
+  @Override
+  public void update(Graphics g) {
+    // Drawn by the render loop
+  }
+
+  @Override
+  public void renderFrame(long frameNanos) {
+    if (!isShowing() || getWidth() <= 0 || getHeight() <= 0) {
+      return;
+    }
+    try {
+      if (strategy == null) {
+        createBufferStrategy(2);
+        strategy = getBufferStrategy();
+      }
+      // The buffer lives in video memory and can be lost, for example when the screen mode
+      // changes; then the frame is drawn again
+      do {
+        do {
+          Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+          try {
+            paintFrame(g, frameNanos);
+          } finally {
+            g.dispose();
+          }
+        } while (strategy.contentsRestored());
+        strategy.show();
+      } while (strategy.contentsLost());
+    } catch (IllegalStateException e) {
+      // The canvas left the screen while the frame was drawn
+      strategy = null;
+    }
+  }
+
+  /**
+   * Draws the frame shown at a time, centered in the canvas.
+   *
+   * @param g the graphics to draw with
+   * @param frameNanos the time, from {@link System#nanoTime()}
+   */
+  void paintFrame(Graphics2D g, long frameNanos) {
+    int width = getWidth();
+    int height = getHeight();
+    g.setColor(getBackground());
+    g.fillRect(0, 0, width, height);
+    SpriteAtlas frames = atlas;
+    if (frames == null) {
+      return;
+    }
+    PetAnimation once = oneShot;
+    PetAnimation shown;
+    long start;
+    if (once != null && !once.isFinished(frameNanos - oneShotStart)) {
+      shown = once;
+      start = oneShotStart;
+    } else {
+      shown = animation;
+      start = animationStart;
+    }
+    frames.draw(g, shown, shown.frameAt(frameNanos - start), (width - size) / 2,
+        (height - size) / 2);
+  }
+}
@@ -0,0 +1,41 @@
+/**
+ * A source of the current time for pets and the services that drive them.
+ *
+ * <p>All time-dependent game logic reads the time through a {@code PetClock} instead of
+ * calling {@link System#currentTimeMillis()} directly. The real game uses {@link #SYSTEM},
+ * which starts at the wall-clock time and then follows {@link System#nanoTime()}, so the
+ * scheduler's ticks never jump back or forward when the wall clock is adjusted. Load
+ * tests and regression runs can plug in a {@link ManualClock} or an
+ * {@link AcceleratedClock} to simulate hours of pet life in milliseconds.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * {@code
+ * ManualClock clock = new ManualClock(0);
+ * PetScheduler scheduler = new PetScheduler(clock, 1);
+ * Pet pet = new Pet(scheduler);
+ * clock.advance(1, TimeUnit.HOURS);
+ * scheduler.runDueTasks();
+ * }
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see ManualClock
+ * @see AcceleratedClock
+ * @see PetScheduler
+ */
+public interface PetClock {
+
+  /**
+   * A clock that runs at real speed from the wall-clock time at which it was created.
+   */
+  PetClock SYSTEM = new AcceleratedClock(1);
+
+  /**
+   * Returns the current time of this clock.
+   *
+   * @return the current time in milliseconds since the epoch
+   */
+  long millis();
+}
@@ -0,0 +1,315 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes the binary save format of a pet.
+ *
+ * <p>Earlier versions saved a pet with Java serialization, which writes the class
+ * descriptors of the pet, its inventory, every item class and the personality into every
+ * file. The codec writes a small header followed by the pet's fields at fixed widths: the
+ * personality and the other enums as one byte each, and the inventory as runs of equal
+ * items, so an inventory of a thousand pieces of meat takes a handful of bytes.</p>
+ *
+ * <p>Layout of format version {@value #VERSION} (big-endian):</p>
+ * <ul>
+ *   <li>header: the {@value SaveHeader#SIZE}-byte {@link SaveHeader}, which starts with the
+ *       magic {@code "PPET"} (4 bytes) and the version (2 bytes) and describes the pet for
+ *       the load dialog</li>
+ *   <li>attributes: score (4 bytes), hunger, social, sleep, health and flags (1 byte each)</li>
+ *   <li>mood, preferred action and personality codes (1 byte each, 0 for none)</li>
+ *   <li>last interaction time, last lazy evaluation time, evaluated steps, journal sequence,
+ *       random seed and random gamma (8 bytes each)</li>
+ *   <li>pet name and message (a presence byte, then modified UTF-8)</li>
+ *   <li>inventory: number of runs (4 bytes), then per run an item code (1 byte), the item
+ *       name for plain food and gifts, and the run length (4 bytes); then the capacity
+ *       (4 bytes) and the overflow policy code (1 byte)</li>
+ * </ul>
+ *
+ * <p>Version 1 files have no header beyond the magic and the version and are still read.
+ * Inventories of version 1 and 2 files take the configured capacity and overflow policy.
+ * A loaded inventory keeps all its saved items; its limit applies to new items.
+ * Files that start with the Java serialization stream header are read with the legacy
+ * reader, so saves from earlier versions still load and are written in the new format the
+ * next time the pet is saved.</p>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see Pet#save(String)
+ * @see Pet#load(String)
+ */
+public final class PetCodec {
+
+  /**
+   * The magic number at the start of every save file, {@code "PPET"} in ASCII.
+   */
+  public static final int MAGIC = 0x50504554;
+
+  /**
+   * The current format version.
+   */
+  public static final int VERSION = 3;
+
+  private static final int LEGACY_MAGIC = 0xACED;
+
+  static final int FLAG_SLEEPING = 1;
+  static final int FLAG_DEAD = 1 << 1;
+  static final int FLAG_PERSONALITY_SET = 1 << 2;
+  static final int FLAG_ALLOW_TASK_EXECUTION = 1 << 3;
+  static final int FLAG_LAZY_EVALUATION = 1 << 4;
+
+  private static final int ITEM_MEAT = 0;
+  private static final int ITEM_VEGETABLES = 1;
+  private static final int ITEM_JUICE = 2;
+  private static final int ITEM_FOOD = 3;
+  private static final int ITEM_GIFT = 4;
+
+  private PetCodec() {
+  }
+
+  /**
+   * Encodes a pet in the current format.
+   *
+   * @param pet the pet to encode
+   * @return the encoded pet
+   * @throws IOException if the pet holds an item or personality the format cannot represent
+   */
+  public static byte[] encode(Pet pet) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+    DataOutputStream out = new DataOutputStream(bytes);
+    pet.writeHeader(out, System.currentTimeMillis());
+    pet.writeTo(out);
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Decodes a pet written in the current format or by Java serialization.
+   * The decoded pet is passive: it starts no background services until
+   * {@link Pet#activate()} is called.
+   *
+   * @param data the contents of a save file
+   * @return the decoded pet
+   * @throws IOException if the data is not a valid save
+   */
+  public static Pet decode(byte[] data) throws IOException {
+    if (isLegacy(data)) {
+      return decodeLegacy(data);
+    }
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+    if (data.length < 6 || in.readInt() != MAGIC) {
+      throw new InvalidObjectException("Not a pet save file");
+    }
+    int version = in.readUnsignedShort();
+    if (version < 1 || version > VERSION) {
+      throw new InvalidObjectException("Unsupported save format version " + version);
+    }
+    if (version >= 2) {
+      // The header only repeats what the rest of the file holds
+      int headerSize = in.readUnsignedShort();
+      if (headerSize < 8 || in.skipBytes(headerSize - 8) != headerSize - 8) {
+        throw new InvalidObjectException("Invalid save header size " + headerSize);
+      }
+    }
+    return Pet.readFrom(in, version);
+  }
+
+  /**
+   * Check if the data was written by Java serialization, the format of earlier versions.
+   *
+   * @param data the contents of a save file
+   * @return true if the data must be read with the legacy reader, false otherwise
+   */
+  public static boolean isLegacy(byte[] data) {
+    return data.length >= 2 && ((data[0] & 0xFF) << 8 | (data[1] & 0xFF)) == LEGACY_MAGIC;
+  }
+
+  private static Pet decodeLegacy(byte[] data) throws IOException {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+      return (Pet) in.readObject();
+    } catch (ClassNotFoundException | ClassCastException e) {
+      throw new InvalidObjectException("Not a pet save file: " + e.getMessage());
+    }
+  }
+
+  static int personalityCode(PersonalityStrategy personality) throws IOException {
+    if (personality == null) {
+      return 0;
+    }
+    if (personality instanceof Dog) {
+      return 1;
+    }
+    if (personality instanceof Cat) {
+      return 2;
+    }
+    if (personality instanceof Bird) {
+      return 3;
+    }
+    throw new InvalidObjectException("Cannot save personality "
+        + personality.getClass().getName());
+  }
+
+  static PersonalityStrategy personality(int code) throws IOException {
+    return switch (code) {
+      case 0 -> null;
+      case 1 -> new Dog();
+      case 2 -> new Cat();
+      case 3 -> new Bird();
+      default -> throw new InvalidObjectException("Unknown personality code " + code);
+    };
+  }
+
+  static int enumCode(Enum<?> value) {
+    return value == null ? 0 : value.ordinal() + 1;
+  }
+
+  static <E extends Enum<E>> E enumValue(E[] values, int code) throws IOException {
+    if (code == 0) {
+      return null;
+    }
+    if (code > values.length) {
+      throw new InvalidObjectException("Unknown enum code " + code);
+    }
+    return values[code - 1];
+  }
+
+  static void writeString(DataOutput out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  static String readString(DataInput in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  /**
+   * Writes an inventory as runs of equal items: one run per {@link ItemType} the inventory
+   * holds, then the other items in their order, then its capacity and overflow policy.
+   */
+  static void writeInventory(DataOutput out, Inventory inventory) throws IOException {
+    int[] counts = new int[ItemType.values().length];
+    List<Item> items;
+    int capacity;
+    OverflowPolicy overflowPolicy;
+    // Count and write the same items even if one is added meanwhile
+    synchronized (inventory) {
+      for (ItemType type : ItemType.values()) {
+        counts[type.ordinal()] = inventory.getCount(type);
+      }
+      items = new ArrayList<>(inventory.getOtherItems());
+      capacity = inventory.getCapacity();
+      overflowPolicy = inventory.getOverflowPolicy();
+    }
+    int runs = 0;
+    for (int count : counts) {
+      if (count > 0) {
+        runs++;
+      }
+    }
+    for (int i = 0; i < items.size(); i++) {
+      if (i == 0 || !sameItem(items.get(i - 1), items.get(i))) {
+        runs++;
+      }
+    }
+    out.writeInt(runs);
+    for (ItemType type : ItemType.values()) {
+      if (counts[type.ordinal()] > 0) {
+        out.writeByte(type.ordinal());
+        out.writeInt(counts[type.ordinal()]);
+      }
+    }
+    int start = 0;
+    while (start < items.size()) {
+      Item item = items.get(start);
+      int end = start + 1;
+      while (end < items.size() && sameItem(item, items.get(end))) {
+        end++;
+      }
+      int code = itemCode(item);
+      out.writeByte(code);
+      if (code == ITEM_FOOD || code == ITEM_GIFT) {
+        out.writeUTF(item.getName());
+      }
+      out.writeInt(end - start);
+      start = end;
+    }
+    out.writeInt(capacity);
+    out.writeByte(enumCode(overflowPolicy));
+  }
+
+  static Inventory readInventory(DataInput in, int version) throws IOException {
+    Inventory inventory = new Inventory();
+    int capacity = inventory.getCapacity();
+    OverflowPolicy overflowPolicy = inventory.getOverflowPolicy();
+    inventory.restoreCapacity(Inventory.UNLIMITED, overflowPolicy);
+    int runs = in.readInt();
+    for (int run = 0; run < runs; run++) {
+      int code = in.readUnsignedByte();
+      String name = code == ITEM_FOOD || code == ITEM_GIFT ? in.readUTF() : null;
+      int count = in.readInt();
+      if (count <= 0) {
+        throw new InvalidObjectException("Invalid inventory run length " + count);
+      }
+      if (code < ITEM_FOOD) {
+        inventory.addItems(ItemType.fromCode(code), count);
+        continue;
+      }
+      // The items of a run are all alike, so they share one instance
+      Item item = item(code, name);
+      for (int i = 0; i < count; i++) {
+        inventory.addItem(item);
+      }
+    }
+    if (version >= 3) {
+      capacity = in.readInt();
+      overflowPolicy = enumValue(OverflowPolicy.values(), in.readUnsignedByte());
+      if (capacity <= 0 || overflowPolicy == null) {
+        throw new InvalidObjectException("Invalid inventory capacity " + capacity);
+      }
+    }
+    inventory.restoreCapacity(capacity, overflowPolicy);
+    return inventory;
+  }
+
+  private static boolean sameItem(Item a, Item b) {
+    return a.getClass() == b.getClass() && a.getName().equals(b.getName());
+  }
+
+  private static int itemCode(Item item) throws IOException {
+    Class<?> type = item.getClass();
+    if (type == Meat.class) {
+      return ITEM_MEAT;
+    }
+    if (type == Vegetables.class) {
+      return ITEM_VEGETABLES;
+    }
+    if (type == Juice.class) {
+      return ITEM_JUICE;
+    }
+    if (type == Food.class) {
+      return ITEM_FOOD;
+    }
+    if (type == Gift.class) {
+      return ITEM_GIFT;
+    }
+    throw new InvalidObjectException("Cannot save item " + type.getName());
+  }
+
+  private static Item item(int code, String name) throws IOException {
+    return switch (code) {
+      case ITEM_FOOD -> new Food(name);
+      case ITEM_GIFT -> new Gift(name);
+      default -> throw new InvalidObjectException("Unknown item code " + code);
+    };
+  }
+}
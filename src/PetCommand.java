@@ -0,0 +1,154 @@
+/**
+ * A mutation that can be queued for a pet on a {@link PetShard}.
+ *
+ * <p>When a pet is attached to a shard, every method that changes its state is turned into
+ * one of these commands and placed in the shard's ring buffer. The shard's drain thread
+ * then applies the commands one at a time, so a pet's state only ever has one writer.</p>
+ *
+ * <p>The same commands identify the records of a pet's {@link PetJournal}. A record stores
+ * the command's ordinal, so new commands are added at the end.</p>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see PetShard
+ * @see PetJournal
+ * @see Pet
+ */
+public enum PetCommand {
+  /**
+   * {@link Pet#feed()}.
+   */
+  FEED,
+
+  /**
+   * {@link Pet#play()}.
+   */
+  PLAY,
+
+  /**
+   * {@link Pet#sleep()}. A pet that is already sleeping ignores the command.
+   */
+  SLEEP,
+
+  /**
+   * {@link Pet#wakeUp()}.
+   */
+  WAKE_UP,
+
+  /**
+   * {@link Pet#exercise()}.
+   */
+  EXERCISE,
+
+  /**
+   * {@link Pet#feedMeat()}.
+   */
+  FEED_MEAT,
+
+  /**
+   * {@link Pet#feedVegetables()}.
+   */
+  FEED_VEGETABLES,
+
+  /**
+   * {@link Pet#feedJuice()}.
+   */
+  FEED_JUICE,
+
+  /**
+   * {@link Pet#increaseHealth(int)}; the command's argument is the amount.
+   */
+  INCREASE_HEALTH,
+
+  /**
+   * {@link Pet#receiveGift()}.
+   */
+  RECEIVE_GIFT,
+
+  /**
+   * {@link Pet#performPreferredAction()}.
+   */
+  PREFERRED_ACTION,
+
+  /**
+   * {@link Pet#revive()}.
+   */
+  REVIVE,
+
+  /**
+   * {@link Pet#decay()}, the minute update of {@link TimeSimulator}.
+   */
+  DECAY,
+
+  /**
+   * The 5 second health check of the pet's timer.
+   */
+  HEALTH_CHECK,
+
+  /**
+   * One run of the pet's item generator. In a journal record, the argument is the type of
+   * the generated item.
+   */
+  GENERATE_ITEM,
+
+  /**
+   * {@link Pet#useItem(Item)}. The argument is the type of the used item, or -1 for an item
+   * without a type, such as a gift.
+   */
+  USE_ITEM,
+
+  /**
+   * One of the pet's attribute setters. Only recorded in a {@link PetJournal}.
+   */
+  SET_ATTRIBUTES,
+  /**
+   * The minute update of {@link TimeSimulator}: a {@link #DECAY} followed by the
+   * personality's behavior adjustment.
+   */
+  UPDATE_ATTRIBUTES,
+  /**
+   * {@link Pet#setHunger(int)}; the argument is the level.
+   */
+  SET_HUNGER,
+  /**
+   * {@link Pet#setSocial(int)}; the argument is the level.
+   */
+  SET_SOCIAL,
+  /**
+   * {@link Pet#setSleep(int)}; the argument is the level.
+   */
+  SET_SLEEP,
+  /**
+   * {@link Pet#setHealth(int)}; the argument is the level.
+   */
+  SET_HEALTH,
+  /**
+   * {@link Pet#setscore(int)}; the argument is the score.
+   */
+  SET_SCORE,
+  /**
+   * {@link Pet#setPreferredAction(Action)}; the argument is the action's ordinal, or -1 for
+   * none.
+   */
+  SET_PREFERRED_ACTION,
+  /**
+   * {@link Pet#reset()}.
+   */
+  RESET,
+  /**
+   * Restoring a pet from a {@link PetPopulationFile} record. The attributes and time wait in
+   * the pet until the command is applied.
+   */
+  RESTORE,
+  /**
+   * Several runs of the item generator at once, while a lazily evaluated pet catches up. In a
+   * journal record, the argument holds the number of meat, vegetable and juice items added, in
+   * 10 bits each from the lowest.
+   */
+  GENERATE_ITEMS,
+  /**
+   * A lazily evaluated pet catching up on the time since it was last evaluated. Only queued on
+   * a {@link PetShard}.
+   */
+  CATCH_UP;
+}
@@ -1,8 +1,7 @@
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
 import java.util.concurrent.TimeUnit;
 import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
@@ -22,8 +21,8 @@ import javax.swing.SwingUtilities;
  * - UI updates
  * - Background task scheduling
  *
- * This class uses an ExecutorService for scheduling periodic tasks and maintains
- * session information such as playtime tracking.
+ * This class schedules its periodic tasks on the pet's {@link PetScheduler} and measures
+ * session information such as playtime tracking on the pet's {@link PetClock}.
  *
  * @author Jonathan, Ramje, Khushal
  * @version 1.0
@@ -33,10 +32,14 @@ public class PetController {
   private final Pet model;
   private final PetView view;
   private final MainMenu mainMenu;
-  private final ScheduledExecutorService executorService = Executors.newScheduledThreadPool(1);
+  private final PetScheduler scheduler;
+  private final PetClock clock;
+  private final List<PetScheduler.ScheduledTask> scheduledTasks = new ArrayList<>();
   private Action previousPreferredAction = null;
   private boolean isFirstActionSet = true;
   private boolean deathHandled = false;
+  private Flow.Subscription stateSubscription; // Set on the event dispatch thread
+  private boolean unsubscribed = false;
   private final long sessionStartTime; // Time when the session started
   private int sessionPlayTime;   // Playtime accumulated in the current session (in minutes)
 
@@ -53,6 +56,8 @@ public class PetController {
     this.model = model;
     this.view = view;
     this.mainMenu = mainMenu;
+    this.scheduler = model.getScheduler();
+    this.clock = model.getClock();
 
     view.setController(this);
     view.addSaveListener(e -> handleSaveAction());
@@ -71,18 +76,8 @@ public class PetController {
     }
 
     model.startTimer();
-    Timer timer = new Timer();
-
-    // Schedule a task for periodic view updates
-    timer.scheduleAtFixedRate(new TimerTask() {
-        @Override
-        public void run() {
-            if (model.checkDeath()) {
-                timer.cancel();
-            }
-            updateView();
-        }
-    }, 0, 5000);
+    // The view is updated whenever the pet changes instead of every 5 seconds
+    subscribeToState();
 
     view.addFeedListener(e -> handleFeedAction());
     view.addPlayListener(e -> handlePlayAction());
@@ -95,30 +90,92 @@ public class PetController {
     // Update inventory view periodically or whenever items are added
     updateView();
     // Record the session start time
-    sessionStartTime = System.currentTimeMillis();
+    sessionStartTime = clock.millis();
     sessionPlayTime = 0; // Initialize session playtime
     // Start a timer to check playtime restrictions
-    executorService.scheduleAtFixedRate(this::checkPlayTimeRestriction, 1, 1, TimeUnit.MINUTES);
-    // Update inventory view periodically or whenever items are added
-    updateInventoryView();
-    // Schedule a task to update the inventory every few seconds
-    executorService.scheduleAtFixedRate(() -> {
-    SwingUtilities.invokeLater(this::updateInventoryView);
-    }, 0, 5, TimeUnit.SECONDS);
+    scheduledTasks.add(scheduler.scheduleAtFixedRate(this::checkPlayTimeRestriction, 1, 1, TimeUnit.MINUTES));
+    // The inventory list follows the inventory's changes, so it is never polled
+    view.showInventory(model.getInventory());
 }
 
+  /**
+   * This method cancels every task the controller has scheduled.
+   */
+  private void cancelScheduledTasks() {
+    for (PetScheduler.ScheduledTask task : scheduledTasks) {
+      task.cancel();
+    }
+    scheduledTasks.clear();
+    unsubscribed = true;
+    if (stateSubscription != null) {
+      stateSubscription.cancel();
+      stateSubscription = null;
+    }
+  }
+
+  /**
+   * This method subscribes the view to the pet's state.
+   *
+   * The subscriber runs on the event dispatch thread and asks for one state at a time, so
+   * changes made while the view is being updated are merged into the next update.
+   */
+  private void subscribeToState() {
+    model.subscribe(new Flow.Subscriber<PetState>() {
+      @Override
+      public void onSubscribe(Flow.Subscription subscription) {
+        if (unsubscribed) {
+          // The game was left before the subscription arrived
+          subscription.cancel();
+          return;
+        }
+        stateSubscription = subscription;
+        subscription.request(1);
+      }
+
+      @Override
+      public void onNext(PetState state) {
+        updateView();
+        if (stateSubscription != null) {
+          stateSubscription.request(1);
+        }
+      }
+
+      @Override
+      public void onError(Throwable throwable) {
+        stateSubscription = null;
+        System.err.println("The view stopped following the pet: " + throwable);
+      }
+
+      @Override
+      public void onComplete() {
+        stateSubscription = null;
+      }
+    }, SwingUtilities::invokeLater);
+  }
+
+  /**
+   * This method returns the number of whole minutes played in this session.
+   *
+   * @return the session playtime in minutes, measured on the pet's clock
+   */
+  private int sessionMinutes() {
+    return (int) ((clock.millis() - sessionStartTime) / 60000);
+  }
+
   /**
    * This method updates the view.
    * 
    * The view is updated with the current state of the model.
    */
   private void updateView() {
-    view.updateScore(model.getscore());
-    view.updateHealth(model.getHealth());
-    view.updateHunger(model.getHunger());
-    view.updateSocial(model.getSocial());
-    view.updateSleep(model.getSleep());
-    view.updateMood(model.getMood().toString());
+    // Read the attributes once so every label shows the same moment
+    PetState state = model.snapshot();
+    view.updateScore(state.getScore());
+    view.updateHealth(state.getHealth());
+    view.updateHunger(state.getHunger());
+    view.updateSocial(state.getSocial());
+    view.updateSleep(state.getSleep());
+    view.updateMood(state.getMood().toString());
     PersonalityStrategy personality = model.getPersonality();
     if (personality != null) {
         view.updatePersonality(personality.getClass().getSimpleName());
@@ -128,15 +185,13 @@ public class PetController {
 
     long lastInteractedTime = model.getLastInteractedTime();
     view.updateLastInteractedTime(lastInteractedTime);
-    view.updatePetImage(model.getPetName(), model.checkDeath(), model.isSleeping()); // Update pet image based on sleeping state
+    view.updatePetImage(model.getPetName(), state.isDead(), state.isSleeping()); // Update pet image based on sleeping state
     checkForPreferredActionChange();
 
-    if (model.checkDeath()) {
+    // A change delivered while the death dialog is open must not open another one
+    if (state.isDead() && !deathHandled) {
         deathHandled = true;
         handlePetDeath();
-    } else {
-        if (model.getHunger() > 60) {
-        }
     }
 }
 
@@ -181,19 +236,7 @@ public class PetController {
     MusicPlayer.getInstance().changeMusic("src/res/Alive.wav"); 
     model.startItemGenerator();
     model.startTimer();
-    Timer timer = new Timer();
-
-    // Schedule a task for periodic view updates
-    timer.scheduleAtFixedRate(new TimerTask() {
-      @Override
-      public void run() {
-        if (model.checkDeath()) {
-          timer.cancel();
-        }
-        updateView();
-      }
-    }, 0, 5000);
-    
+    // The subscription from the constructor keeps following the reset pet
   }
 
   /**
@@ -218,6 +261,9 @@ public class PetController {
 public void handleFeedAction() {
   model.feed();
   updateView();
+  if (!model.isSleeping()) {
+    view.playEatingAnimation(); // A sleeping pet was not fed
+  }
   view.appendMessage(model.getMessage());
 }
 
@@ -247,13 +293,13 @@ public void handleSleepAction() {
  */
   view.appendMessage(model.getMessage());
   //Schedule wake-up actions
-    executorService.schedule(() -> {
+    scheduledTasks.add(scheduler.schedule(() -> {
         model.wakeUp(); // Move wake-up logic to a method we can call
         SwingUtilities.invokeLater(() -> {
             view.appendMessage(model.getMessage());
             updateView(); // Update the view when the pet wakes up
         });
-    }, 10, TimeUnit.SECONDS); // Adjust sleep duration as needed
+    }, 10, TimeUnit.SECONDS)); // Adjust sleep duration as needed
 }
 
   /**
@@ -281,12 +327,12 @@ public void handleSleepAction() {
 
     if (preferredAction != null && preferredAction.equals(Action.SLEEP)) {
       view.appendMessage(model.getMessage());
-      executorService.schedule(() -> {
+      scheduledTasks.add(scheduler.schedule(() -> {
         SwingUtilities.invokeLater(() -> {
           view.appendMessage("Your pet woke up!"); 
           updateView();
         });
-      }, 1, TimeUnit.MINUTES);
+      }, 1, TimeUnit.MINUTES));
     } else {
       view.appendMessage(model.getMessage());
       updateView();
@@ -349,13 +395,12 @@ public void handleSleepAction() {
         }
     }
 
-    model.save(slot); // Save the game state with the specified slot
+    saveInBackground(slot); // Save the game state with the specified slot
     model.stopTimers(); // Stop timers
-    executorService.shutdownNow(); // Stop controller's executor service
+    cancelScheduledTasks(); // Stop the controller's scheduled tasks
     view.dispose(); // Close the game window
     // Update total playtime
-    long elapsedTime = (System.currentTimeMillis() - sessionStartTime) / 60000; // In minutes
-    sessionPlayTime += elapsedTime; // Update session playtime with elapsed time
+    sessionPlayTime = sessionMinutes(); // Update session playtime with elapsed time
     mainMenu.incrementTotalPlayTime(sessionPlayTime);
     // Change the music to the main menu music
     MusicPlayer.getInstance().changeMusic("src/res/Dead.wav"); // Replace with actual path
@@ -365,6 +410,7 @@ public void handleSleepAction() {
 
 /**
  * This method updates the inventory view.
+ * The list already follows the inventory; this shows the latest changes at once.
  */
 
 private void updateInventoryView() {
@@ -380,8 +426,10 @@ private void updateInventoryView() {
         List<Item> items = model.getInventory().getItems();
         Item selectedItem = view.getSelectedItem(items);
         if (selectedItem != null) {
-            selectedItem.use(model);
-            model.getInventory().removeItem(selectedItem);
+            model.useItem(selectedItem);
+            if (selectedItem instanceof Food && !model.isSleeping()) {
+                view.playEatingAnimation();
+            }
             updateInventoryView();
             updateView(); // Update pet's stats after using the item
         } else {
@@ -423,7 +471,7 @@ private void updateInventoryView() {
  * This method checks the playtime restriction.
  */
 private void checkPlayTimeRestriction() {
-    sessionPlayTime++; // Increment session playtime by 1 minute
+    sessionPlayTime = sessionMinutes(); // Minutes elapsed on the pet's clock
     int totalPlayTime = mainMenu.getTotalPlayTime() + sessionPlayTime;
 
   if (totalPlayTime >= mainMenu.getPlayTimeRestriction()) {
@@ -455,12 +503,12 @@ private void exitGameDueToPlayTimeLimit() {
       }
   }
 
-  model.save(slot); // Save the game state with the specified slot
+  saveInBackground(slot); // Save the game state with the specified slot
   // Update the total playtime in MainMenu
   mainMenu.incrementTotalPlayTime(sessionPlayTime);
   model.stopTimers(); // Stop all timers
-  // Stop any executors in the controller
-  executorService.shutdownNow();
+  // Stop any scheduled tasks in the controller
+  cancelScheduledTasks();
   // Dispose the game view and return to main menu
   view.dispose();
   // Change the music to the main menu music
@@ -487,8 +535,33 @@ private void handleSaveAction() {
       }
   }
 
-  model.save(slot);
-  JOptionPane.showMessageDialog(view, "Game saved successfully.");
+  // Write the file off the event dispatch thread and confirm once it is done
+  model.saveAsync(slot).whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+    if (error == null) {
+      JOptionPane.showMessageDialog(view, "Game saved successfully.");
+    } else {
+      showSaveError(error);
+    }
+  }));
+}
+
+/**
+ * Saves the game off the event dispatch thread while the player leaves the game window.
+ * Only a failed save is reported, since the game window is already gone by then.
+ */
+private void saveInBackground(String slot) {
+  model.saveAsync(slot).whenComplete((result, error) -> {
+    if (error != null) {
+      SwingUtilities.invokeLater(() -> showSaveError(error));
+    }
+  });
+}
+
+private void showSaveError(Throwable error) {
+  Throwable cause = error instanceof CompletionException && error.getCause() != null
+      ? error.getCause() : error;
+  JOptionPane.showMessageDialog(mainMenu, "The game could not be saved: " + cause.getMessage(),
+      "Save Failed", JOptionPane.ERROR_MESSAGE);
 }
 
 
@@ -497,7 +570,7 @@ private void handleSaveAction() {
  */
 public void cleanup() {
   model.stopTimers();
-  executorService.shutdownNow();
+  cancelScheduledTasks();
   view.dispose();
 }
 
@@ -0,0 +1,478 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * An append-only write-ahead log of everything that happens to a saved pet.
+ *
+ * <p>A pet that has been saved to a slot keeps a journal next to its save file. Every change
+ * to the pet, whether an action, a decay tick, a health check, a generated item or a used
+ * item, is appended as one fixed-size record of {@value #RECORD_SIZE} bytes. The save file
+ * then acts as a snapshot, and {@link Pet#load(String)} reads the snapshot and replays the
+ * records written after it. Saving only has to write the records appended since the last
+ * save, so the cost of a save grows with the number of changes rather than with the size of
+ * the pet. Once the journal holds enough records, a new snapshot is written and the journal
+ * is compacted to the records the snapshot does not cover.</p>
+ *
+ * <p>Each record holds the pet's packed attributes and random seed <em>after</em> the change,
+ * so replay never has to recompute anything; the command and its argument are kept to
+ * replay inventory changes and the time of the last interaction. Records are numbered, and
+ * a snapshot remembers the last number it covers.</p>
+ *
+ * <p>Record layout (big-endian):</p>
+ * <ul>
+ *   <li>8 bytes: sequence number</li>
+ *   <li>8 bytes: time on the pet's clock</li>
+ *   <li>8 bytes: packed attributes ({@link PetState})</li>
+ *   <li>8 bytes: random seed ({@link PetRandom})</li>
+ *   <li>4 bytes: argument</li>
+ *   <li>1 byte: command ({@link PetCommand} ordinal)</li>
+ *   <li>1 byte: reserved</li>
+ *   <li>2 bytes: checksum, so a record torn by a crash is detected and dropped</li>
+ * </ul>
+ *
+ * <p>Appends are collected in memory and written to the file when {@link #flush()} is
+ * called; a pet with an open journal has its scheduler flush it every
+ * {@value #FLUSH_INTERVAL_MILLIS} ms, so records of a quiet pet do not stay in memory. A pet
+ * appends under the journal's monitor, so records are in the same order as the changes. A
+ * record the journal cannot take is reported to the caller, which then has to save a whole
+ * snapshot instead.</p>
+ *
+ * <p>Appending never waits for the disk. The monitor only guards the records in memory:
+ * flushing, syncing and compacting take the buffered records under it and then write,
+ * force and rewrite the file while appends go on. A separate lock keeps those file
+ * operations from running at the same time as each other.</p>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see Pet#save(String)
+ * @see Pet#load(String)
+ */
+public class PetJournal implements Closeable {
+
+  /**
+   * The size of one record in bytes.
+   */
+  public static final int RECORD_SIZE = 40;
+
+  /**
+   * How often a pet's scheduler writes the journal's buffered records to the file.
+   */
+  public static final long FLUSH_INTERVAL_MILLIS = 1000;
+
+  private static final int BUFFER_RECORDS = 256;
+  // Full buffers waiting to be written; beyond this, appends are refused until a flush
+  private static final int MAX_FILLED_BUFFERS = 64;
+
+  private final Path file;
+  // Held while the file is written, forced or rewritten; taken before the monitor
+  private final Object fileLock = new Object();
+  private FileChannel channel;
+  private ByteBuffer buffer = newBuffer();
+  private final ArrayDeque<ByteBuffer> filled = new ArrayDeque<>();
+  private ByteBuffer spare;
+  private long lastSequence;
+  private long recordCount;
+
+  private PetJournal(Path file, FileChannel channel, long lastSequence, long recordCount) {
+    this.file = file;
+    this.channel = channel;
+    this.lastSequence = lastSequence;
+    this.recordCount = recordCount;
+  }
+
+  /**
+   * Opens a journal for appending. Records written after the pet's snapshot are passed to
+   * {@code replay} in order, and records that were torn by a crash are cut off.
+   *
+   * @param file the journal file, created if it does not exist
+   * @param coveredSequence the last sequence number covered by the pet's snapshot
+   * @param replay receives every record after {@code coveredSequence}
+   * @return the open journal
+   * @throws IOException if the file cannot be opened
+   */
+  public static PetJournal open(Path file, long coveredSequence, Consumer<Record> replay)
+      throws IOException {
+    long[] last = {coveredSequence};
+    long[] count = {0};
+    long validBytes = Files.exists(file) ? read(file, record -> {
+      if (record.getSequence() > coveredSequence) {
+        replay.accept(record);
+      }
+      last[0] = Math.max(last[0], record.getSequence());
+      count[0]++;
+    }) : 0;
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.READ);
+    channel.truncate(validBytes);
+    channel.position(validBytes);
+    return new PetJournal(file, channel, last[0], count[0]);
+  }
+
+  /**
+   * Opens an empty journal, discarding any records left in the file.
+   *
+   * @param file the journal file, created if it does not exist
+   * @param coveredSequence the last sequence number covered by the pet's snapshot
+   * @return the open journal
+   * @throws IOException if the file cannot be opened
+   */
+  public static PetJournal create(Path file, long coveredSequence) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING);
+    return new PetJournal(file, channel, coveredSequence, 0);
+  }
+
+  /**
+   * Reads every valid record of a journal file in order, stopping at the first torn record.
+   *
+   * @param file the journal file
+   * @param consumer receives each record
+   * @return the number of bytes holding valid records
+   * @throws IOException if the file cannot be read
+   */
+  public static long read(Path file, Consumer<Record> consumer) throws IOException {
+    long valid = 0;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer input = ByteBuffer.allocate(RECORD_SIZE * BUFFER_RECORDS);
+      while (channel.read(input) > 0 || input.position() > 0) {
+        input.flip();
+        if (input.remaining() < RECORD_SIZE) {
+          break;
+        }
+        while (input.remaining() >= RECORD_SIZE) {
+          Record record = Record.decode(input);
+          if (record == null) {
+            return valid;
+          }
+          consumer.accept(record);
+          valid += RECORD_SIZE;
+        }
+        input.compact();
+      }
+    }
+    return valid;
+  }
+
+  /**
+   * Reads the last complete record of a journal file with one positioned read.
+   *
+   * @param file the journal file
+   * @return the last record, or null if the file does not exist, holds no complete record or
+   *     its last record is damaged
+   * @throws IOException if the file cannot be read
+   */
+  public static Record readLast(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long end = channel.size() / RECORD_SIZE * RECORD_SIZE;
+      if (end == 0) {
+        return null;
+      }
+      ByteBuffer input = ByteBuffer.allocate(RECORD_SIZE);
+      long position = end - RECORD_SIZE;
+      while (input.hasRemaining() && channel.read(input, position + input.position()) > 0) {
+        continue;
+      }
+      input.flip();
+      return input.remaining() < RECORD_SIZE ? null : Record.decode(input);
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Appends a record.
+   *
+   * @param command the change that was made
+   * @param argument the change's argument
+   * @param state the pet's packed attributes after the change
+   * @param seed the pet's random seed after the change
+   * @param time the time of the change on the pet's clock
+   * @return true if the record was taken, false if the journal is closed or holds as many
+   *     unwritten records as it can because the file cannot be written; the change is then
+   *     only kept by the next snapshot
+   */
+  public synchronized boolean append(PetCommand command, int argument, long state, long seed,
+      long time) {
+    if (!channel.isOpen()) {
+      return false;
+    }
+    if (!buffer.hasRemaining()) {
+      if (filled.size() >= MAX_FILLED_BUFFERS) {
+        return false;
+      }
+      buffer.flip();
+      filled.add(buffer);
+      buffer = takeSpare();
+    }
+    lastSequence++;
+    recordCount++;
+    Record.encode(buffer, lastSequence, time, state, seed, argument, command);
+    return true;
+  }
+
+  private static ByteBuffer newBuffer() {
+    return ByteBuffer.allocate(RECORD_SIZE * BUFFER_RECORDS);
+  }
+
+  // The caller holds the monitor
+  private ByteBuffer takeSpare() {
+    ByteBuffer next = spare != null ? spare : newBuffer();
+    spare = null;
+    return next;
+  }
+
+  /**
+   * Writes the buffered records to the file. The records are taken under the monitor and
+   * written outside it, so appends do not wait for the file.
+   *
+   * @throws IOException if the records cannot be written
+   */
+  public void flush() throws IOException {
+    synchronized (fileLock) {
+      List<ByteBuffer> batch = new ArrayList<>();
+      FileChannel target;
+      synchronized (this) {
+        if (!channel.isOpen()) {
+          // A scheduled flush that raced with close(); close() wrote the records
+          return;
+        }
+        target = channel;
+        batch.addAll(filled);
+        filled.clear();
+        if (buffer.position() > 0) {
+          buffer.flip();
+          batch.add(buffer);
+          buffer = takeSpare();
+        }
+      }
+      int written = 0;
+      try {
+        for (ByteBuffer records : batch) {
+          while (records.hasRemaining()) {
+            target.write(records);
+          }
+          written++;
+        }
+      } finally {
+        synchronized (this) {
+          // Keep whatever could not be written for the next attempt, ahead of newer records
+          for (int i = batch.size() - 1; i >= written; i--) {
+            filled.addFirst(batch.get(i));
+          }
+          if (written > 0) {
+            spare = batch.get(written - 1).clear();
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes the buffered records to the file and forces them to the storage device as far as
+   * the durability level requires. Appends go on while the file is forced.
+   *
+   * @param durability how hard to try to keep the records through a crash
+   * @throws IOException if the records cannot be written
+   */
+  public void sync(SaveDurability durability) throws IOException {
+    synchronized (fileLock) {
+      flush();
+      FileChannel target;
+      synchronized (this) {
+        target = channel;
+      }
+      durability.force(target);
+    }
+  }
+
+  /**
+   * Drops every record up to and including the given sequence number, because a snapshot now
+   * covers them. The remaining records are rewritten to a new file that replaces the old one.
+   * Records appended meanwhile stay in memory and go to the new file with the next flush.
+   *
+   * @param coveredSequence the last sequence number covered by the new snapshot
+   * @throws IOException if the journal cannot be rewritten
+   */
+  public void compact(long coveredSequence) throws IOException {
+    synchronized (fileLock) {
+      flush();
+      rewrite(coveredSequence);
+    }
+  }
+
+  // The caller holds the file lock, so nothing is written to the file meanwhile
+  private void rewrite(long coveredSequence) throws IOException {
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    long[] kept = {0};
+    long[] read = {0};
+    try (FileChannel output = FileChannel.open(temp, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer out = ByteBuffer.allocate(RECORD_SIZE);
+      IOException[] failure = {null};
+      read(file, record -> {
+        read[0]++;
+        if (record.getSequence() > coveredSequence && failure[0] == null) {
+          out.clear();
+          Record.encode(out, record.sequence, record.time, record.state, record.seed,
+              record.argument, record.command);
+          out.flip();
+          try {
+            while (out.hasRemaining()) {
+              output.write(out);
+            }
+            kept[0]++;
+          } catch (IOException e) {
+            failure[0] = e;
+          }
+        }
+      });
+      if (failure[0] != null) {
+        throw failure[0];
+      }
+      output.force(false);
+    }
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    // The open channel still points at the replaced file, so write to the new one instead
+    FileChannel reopened = FileChannel.open(file, StandardOpenOption.WRITE,
+        StandardOpenOption.READ);
+    reopened.position(reopened.size());
+    FileChannel replaced;
+    synchronized (this) {
+      replaced = channel;
+      channel = reopened;
+      recordCount += kept[0] - read[0];
+    }
+    replaced.close();
+  }
+
+  /**
+   * Returns the sequence number of the last appended record.
+   *
+   * @return the last sequence number
+   */
+  public synchronized long getLastSequence() {
+    return lastSequence;
+  }
+
+  /**
+   * Returns the number of records in the journal, including buffered ones.
+   *
+   * @return the number of records
+   */
+  public synchronized long getRecordCount() {
+    return recordCount;
+  }
+
+  /**
+   * Writes the buffered records and closes the file. Records appended after this are dropped.
+   *
+   * @throws IOException if the records cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (fileLock) {
+      try {
+        flush();
+      } finally {
+        synchronized (this) {
+          channel.close();
+        }
+      }
+    }
+  }
+
+  /**
+   * One decoded journal record.
+   */
+  public static final class Record {
+    private final long sequence;
+    private final long time;
+    private final long state;
+    private final long seed;
+    private final int argument;
+    private final PetCommand command;
+
+    private Record(long sequence, long time, long state, long seed, int argument, PetCommand command) {
+      this.sequence = sequence;
+      this.time = time;
+      this.state = state;
+      this.seed = seed;
+      this.argument = argument;
+      this.command = command;
+    }
+
+    private static void encode(ByteBuffer out, long sequence, long time, long state, long seed,
+        int argument, PetCommand command) {
+      out.putLong(sequence);
+      out.putLong(time);
+      out.putLong(state);
+      out.putLong(seed);
+      out.putInt(argument);
+      out.put((byte) command.ordinal());
+      out.put((byte) 0);
+      out.putShort(checksum(sequence, time, state, seed, argument, command.ordinal()));
+    }
+
+    private static Record decode(ByteBuffer in) {
+      long sequence = in.getLong();
+      long time = in.getLong();
+      long state = in.getLong();
+      long seed = in.getLong();
+      int argument = in.getInt();
+      int ordinal = in.get();
+      in.get();
+      short check = in.getShort();
+      if (ordinal < 0 || ordinal >= PetCommand.values().length
+          || check != checksum(sequence, time, state, seed, argument, ordinal)) {
+        return null;
+      }
+      return new Record(sequence, time, state, seed, argument, PetCommand.values()[ordinal]);
+    }
+
+    private static short checksum(long sequence, long time, long state, long seed, int argument,
+        int ordinal) {
+      long hash = sequence * 31 + time;
+      hash = hash * 31 + state;
+      hash = hash * 31 + seed;
+      hash = hash * 31 + argument;
+      hash = hash * 31 + ordinal + 1;
+      hash ^= hash >>> 32;
+      return (short) (hash ^ (hash >>> 16));
+    }
+
+    public long getSequence() {
+      return sequence;
+    }
+
+    public long getTime() {
+      return time;
+    }
+
+    public long getState() {
+      return state;
+    }
+
+    public long getSeed() {
+      return seed;
+    }
+
+    public int getArgument() {
+      return argument;
+    }
+
+    public PetCommand getCommand() {
+      return command;
+    }
+  }
+}
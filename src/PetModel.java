@@ -116,6 +116,12 @@ public interface PetModel {
    */
   public boolean checkDeath();
 
+  /**
+   * Take a consistent snapshot of the pet's attributes.
+   * @return an immutable snapshot of the pet's attributes.
+   */
+  public PetState snapshot();
+
 
   /**
    * Get the last interacted time of the pet.
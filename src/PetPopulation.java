@@ -0,0 +1,258 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A compact store for a large population of pets, kept as parallel primitive arrays.
+ *
+ * <p>A {@link Pet} is a heavyweight object with timers, strings and an {@link Inventory}.
+ * When only the attributes matter, for example in batch simulations, this class keeps them
+ * as a structure of arrays: one byte per pet for hunger, social, sleep and health (all of
+ * which stay within 0 to 100), one int for the score and one byte for the flags. Ten
+ * million pets fit in about 90 MB.</p>
+ *
+ * <p>The bulk tick methods apply the same rules as the per-object model in one tight loop
+ * over the whole population:</p>
+ * <ul>
+ *   <li>{@link #decayTick()} is {@code TimeSimulator.updateAttributes()}: score, hunger,
+ *       sleep and social decay followed by {@code checkBounds()} clamping</li>
+ *   <li>{@link #healthTick()} is {@code Pet.update()}: the 5 point health penalty for
+ *       hungry, lonely or tired pets</li>
+ * </ul>
+ * <p>The attribute loops are branch-free and operate on byte arrays so the JIT can
+ * auto-vectorize them.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * {@code
+ * PetPopulation population = new PetPopulation(10_000_000, 42);
+ * population.decayTick();
+ * population.healthTick();
+ * int health = population.getHealth(123);
+ * }
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see Pet
+ * @see TimeSimulator
+ */
+public class PetPopulation {
+
+  /**
+   * Flag set when the pet is sleeping.
+   */
+  public static final int FLAG_SLEEPING = 1;
+
+  /**
+   * Flag set when the pet is dead.
+   */
+  public static final int FLAG_DEAD = 1 << 1;
+
+  /**
+   * Flag set when the pet's health timer is allowed to run.
+   */
+  public static final int FLAG_ACTIVE = 1 << 2;
+
+  private static final int MAX_SCORE = 100000;
+
+  private final int size;
+  private final int[] score;
+  private final byte[] hunger;
+  private final byte[] social;
+  private final byte[] sleep;
+  private final byte[] health;
+  private final byte[] flags;
+  private final SplittableRandom random;
+
+  /**
+   * Constructs a population of new pets with the same starting attributes as {@link Pet}.
+   * All pets start active, so the health penalty applies to them.
+   *
+   * @param size the number of pets
+   * @param seed the seed for the random score increments
+   * @throws IllegalArgumentException if {@code size} is negative
+   */
+  public PetPopulation(int size, long seed) {
+    if (size < 0) {
+      throw new IllegalArgumentException("Population size cannot be negative.");
+    }
+    this.size = size;
+    score = new int[size];
+    hunger = new byte[size];
+    social = new byte[size];
+    sleep = new byte[size];
+    health = new byte[size];
+    flags = new byte[size];
+    random = new SplittableRandom(seed);
+    Arrays.fill(hunger, (byte) 20);
+    Arrays.fill(social, (byte) 80);
+    Arrays.fill(sleep, (byte) 20);
+    Arrays.fill(health, (byte) 100);
+    Arrays.fill(flags, (byte) FLAG_ACTIVE);
+  }
+
+  /**
+   * Returns the number of pets in the population.
+   *
+   * @return the population size
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Applies one minute of decay to every pet: the score grows by 1 to 20, hunger by 5,
+   * sleep by 15, and social drops by 2, all clamped to their bounds.
+   */
+  public void decayTick() {
+    for (int i = 0; i < size; i++) {
+      hunger[i] = (byte) Math.min(hunger[i] + 5, 100);
+      sleep[i] = (byte) Math.min(sleep[i] + 15, 100);
+      social[i] = (byte) Math.max(social[i] - 2, 0);
+    }
+    for (int i = 0; i < size; i++) {
+      score[i] = Math.min(score[i] + random.nextInt(20) + 1, MAX_SCORE);
+    }
+  }
+
+  /**
+   * Applies one health check to every active pet: pets that are hungry (above 70),
+   * lonely (below 30) or tired (above 70) lose 5 health, and pets at 0 health are marked dead.
+   */
+  public void healthTick() {
+    for (int i = 0; i < size; i++) {
+      int needy = ((70 - hunger[i]) | (social[i] - 30) | (70 - sleep[i])) >>> 31;
+      int active = (flags[i] & FLAG_ACTIVE) >>> 2;
+      int newHealth = Math.max(health[i] - 5 * (needy & active), 0);
+      health[i] = (byte) newHealth;
+      flags[i] = (byte) (flags[i] | (((newHealth - 1) >>> 31) << 1));
+    }
+  }
+
+  /**
+   * Copies a pet's attributes into the population. The pet is active if its health timer is
+   * allowed to run.
+   *
+   * @param index the pet's index in the population
+   * @param pet the pet to copy
+   */
+  public void set(int index, Pet pet) {
+    PetState state = pet.snapshot();
+    score[index] = state.getScore();
+    hunger[index] = (byte) state.getHunger();
+    social[index] = (byte) state.getSocial();
+    sleep[index] = (byte) state.getSleep();
+    health[index] = (byte) state.getHealth();
+    flags[index] = (byte) ((state.isSleeping() ? FLAG_SLEEPING : 0)
+        | (state.isDead() ? FLAG_DEAD : 0)
+        | (pet.isTaskExecutionAllowed() ? FLAG_ACTIVE : 0));
+  }
+
+  /**
+   * Get the score of a pet.
+   *
+   * @param index the pet's index in the population
+   * @return the score of the pet
+   */
+  public int getScore(int index) {
+    return score[index];
+  }
+
+  /**
+   * Get the hunger level of a pet.
+   *
+   * @param index the pet's index in the population
+   * @return the hunger level of the pet
+   */
+  public int getHunger(int index) {
+    return hunger[index];
+  }
+
+  /**
+   * Get the social level of a pet.
+   *
+   * @param index the pet's index in the population
+   * @return the social level of the pet
+   */
+  public int getSocial(int index) {
+    return social[index];
+  }
+
+  /**
+   * Get the sleep level of a pet.
+   *
+   * @param index the pet's index in the population
+   * @return the sleep level of the pet
+   */
+  public int getSleep(int index) {
+    return sleep[index];
+  }
+
+  /**
+   * Get the health level of a pet.
+   *
+   * @param index the pet's index in the population
+   * @return the health level of the pet
+   */
+  public int getHealth(int index) {
+    return health[index];
+  }
+
+  /**
+   * Get the flags of a pet.
+   *
+   * @param index the pet's index in the population
+   * @return the pet's {@code FLAG_*} bits
+   */
+  public int getFlags(int index) {
+    return flags[index];
+  }
+
+  /**
+   * Set the flags of a pet.
+   *
+   * @param index the pet's index in the population
+   * @param value the pet's new {@code FLAG_*} bits
+   */
+  public void setFlags(int index, int value) {
+    flags[index] = (byte) value;
+  }
+
+  /**
+   * Check if a pet is dead.
+   *
+   * @param index the pet's index in the population
+   * @return true if the pet is dead, false otherwise
+   */
+  public boolean isDead(int index) {
+    return (flags[index] & FLAG_DEAD) != 0;
+  }
+
+  /**
+   * Feed a pet: hunger drops by 10 and health rises by 2, as in {@link Pet#feed()}.
+   * Sleeping pets are not fed.
+   *
+   * @param index the pet's index in the population
+   */
+  public void feed(int index) {
+    if ((flags[index] & FLAG_SLEEPING) != 0) {
+      return;
+    }
+    hunger[index] = (byte) Math.max(hunger[index] - 10, 0);
+    health[index] = (byte) Math.min(health[index] + 2, 100);
+  }
+
+  /**
+   * Play with a pet: social rises by 10 and health by 2, as in {@link Pet#play()}.
+   * Sleeping pets do not play.
+   *
+   * @param index the pet's index in the population
+   */
+  public void play(int index) {
+    if ((flags[index] & FLAG_SLEEPING) != 0) {
+      return;
+    }
+    social[index] = (byte) Math.min(social[index] + 10, 100);
+    health[index] = (byte) Math.min(health[index] + 2, 100);
+  }
+}
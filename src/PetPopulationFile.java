@@ -0,0 +1,336 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file of fixed-size pet records, memory-mapped and addressed by pet id.
+ *
+ * <p>Saving a pet to its own file works for the three save slots of the game, but not for a
+ * population of millions of pets. This file stores every pet in a record of
+ * {@value #RECORD_SIZE} bytes at offset {@code HEADER_SIZE + id * RECORD_SIZE}, and maps the
+ * whole file into memory with {@link FileChannel#map}. Reading or writing any pet is a few
+ * absolute reads or writes on the mapped buffer: no file is opened per pet, nothing is
+ * deserialized, and the operating system's page cache decides which parts of the file are
+ * in memory.</p>
+ *
+ * <p>Record layout (big-endian):</p>
+ * <ul>
+ *   <li>8 bytes: packed attributes ({@link PetState})</li>
+ *   <li>8 bytes: random seed, 8 bytes: random gamma ({@link PetRandom})</li>
+ *   <li>8 bytes: time of the last interaction</li>
+ *   <li>1 byte each: flags, personality, preferred action and mood codes</li>
+ *   <li>4 bytes each: number of meat, vegetable and juice items</li>
+ *   <li>4 bytes: inventory capacity, 1 byte: overflow policy code; 0 in records written
+ *       before they were stored, which take the configured capacity and policy</li>
+ *   <li>11 bytes: reserved</li>
+ * </ul>
+ * <p>The record keeps what a simulated pet needs. Pet names, messages and items other than
+ * the three generated kinds are not stored; use {@link Pet#save(String)} for those.</p>
+ *
+ * <p>Records are mapped in segments of at most 1 GiB, because one mapping cannot be larger
+ * than 2 GiB. Different records can be read and written from different threads at the same
+ * time; the caller makes sure that one record is not written by two threads at once.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * {@code
+ * try (PetPopulationFile file = PetPopulationFile.open(Path.of("population.dat"), 1_000_000)) {
+ *   file.write(42, pet);
+ *   PetState state = file.readState(42);
+ * }
+ * }
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see PetPopulation
+ * @see PetCodec
+ */
+public class PetPopulationFile implements Closeable {
+
+  /**
+   * The magic number at the start of the file, {@code "PPOP"} in ASCII.
+   */
+  public static final int MAGIC = 0x50504F50;
+
+  /**
+   * The current format version.
+   */
+  public static final int VERSION = 1;
+
+  /**
+   * The size of the file header in bytes.
+   */
+  public static final int HEADER_SIZE = 64;
+
+  /**
+   * The size of one pet record in bytes.
+   */
+  public static final int RECORD_SIZE = 64;
+
+  private static final int SEGMENT_SHIFT = 24;
+  private static final int SEGMENT_RECORDS = 1 << SEGMENT_SHIFT;
+  private static final int SEGMENT_MASK = SEGMENT_RECORDS - 1;
+
+  private static final int STATE = 0;
+  private static final int SEED = 8;
+  private static final int GAMMA = 16;
+  private static final int LAST_INTERACTED = 24;
+  private static final int FLAGS = 32;
+  private static final int PERSONALITY = 33;
+  private static final int PREFERRED_ACTION = 34;
+  private static final int MOOD = 35;
+  private static final int ITEMS = 36;
+  private static final int CAPACITY = 48;
+  private static final int OVERFLOW_POLICY = 52;
+
+  private static final int FLAG_PRESENT = 1;
+  private static final int FLAG_LAZY_EVALUATION = 1 << 1;
+  private static final int FLAG_ALLOW_TASK_EXECUTION = 1 << 2;
+
+  private final FileChannel channel;
+  private final MappedByteBuffer header;
+  private final MappedByteBuffer[] segments;
+  private final int capacity;
+
+  private PetPopulationFile(FileChannel channel, int capacity) throws IOException {
+    this.channel = channel;
+    this.capacity = capacity;
+    header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+    segments = new MappedByteBuffer[(capacity + SEGMENT_RECORDS - 1) >>> SEGMENT_SHIFT];
+    for (int i = 0; i < segments.length; i++) {
+      int records = Math.min(SEGMENT_RECORDS, capacity - (i << SEGMENT_SHIFT));
+      long offset = HEADER_SIZE + ((long) i << SEGMENT_SHIFT) * RECORD_SIZE;
+      segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, offset,
+          (long) records * RECORD_SIZE);
+    }
+  }
+
+  /**
+   * Opens a population file, creating it if it does not exist. A file with fewer records
+   * than requested is grown; the new records are empty.
+   *
+   * @param file the path of the file
+   * @param capacity the number of pet records the file must hold
+   * @return the open file
+   * @throws IOException if the file cannot be opened or is not a population file
+   * @throws IllegalArgumentException if {@code capacity} is negative
+   */
+  public static PetPopulationFile open(Path file, int capacity) throws IOException {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Capacity cannot be negative.");
+    }
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      long size = channel.size();
+      int records = capacity;
+      if (size >= HEADER_SIZE) {
+        MappedByteBuffer existing = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        if (existing.getInt(0) != MAGIC || existing.getShort(4) != VERSION
+            || existing.getShort(6) != RECORD_SIZE) {
+          throw new InvalidObjectException("Not a pet population file: " + file);
+        }
+        records = Math.max(capacity, existing.getInt(8));
+      } else if (size != 0) {
+        throw new InvalidObjectException("Not a pet population file: " + file);
+      }
+      // Mapping past the end of the file grows it, and the new records read as zero: empty
+      PetPopulationFile population = new PetPopulationFile(channel, records);
+      population.header.putInt(0, MAGIC);
+      population.header.putShort(4, (short) VERSION);
+      population.header.putShort(6, (short) RECORD_SIZE);
+      population.header.putInt(8, records);
+      return population;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the number of pet records the file holds.
+   *
+   * @return the capacity of the file
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Check if a pet has been written to a record.
+   *
+   * @param id the pet's id
+   * @return true if the record holds a pet, false if it is empty
+   */
+  public boolean contains(int id) {
+    return (segment(id).get(offset(id) + FLAGS) & FLAG_PRESENT) != 0;
+  }
+
+  /**
+   * Read a pet's attributes straight from its record.
+   *
+   * @param id the pet's id
+   * @return the pet's attributes
+   * @throws IllegalArgumentException if the record is empty
+   */
+  public PetState readState(int id) {
+    requirePresent(id);
+    return new PetState(segment(id).getLong(offset(id) + STATE));
+  }
+
+  /**
+   * Replace a pet's attributes in its record, leaving the rest of the record as it is.
+   *
+   * @param id the pet's id
+   * @param state the new attributes
+   * @throws IllegalArgumentException if the record is empty
+   */
+  public void writeState(int id, PetState state) {
+    requirePresent(id);
+    segment(id).putLong(offset(id) + STATE, state.word());
+  }
+
+  /**
+   * Write a pet to its record.
+   *
+   * @param id the pet's id
+   * @param pet the pet to write
+   * @throws IOException if the pet's personality cannot be stored
+   */
+  public void write(int id, Pet pet) throws IOException {
+    MappedByteBuffer buffer = segment(id);
+    int offset = offset(id);
+    Inventory inventory = pet.getInventory();
+    int meat;
+    int vegetables;
+    int juice;
+    int inventoryCapacity;
+    OverflowPolicy overflowPolicy;
+    synchronized (inventory) {
+      meat = inventory.getCount(ItemType.MEAT);
+      vegetables = inventory.getCount(ItemType.VEGETABLES);
+      juice = inventory.getCount(ItemType.JUICE);
+      inventoryCapacity = inventory.getCapacity();
+      overflowPolicy = inventory.getOverflowPolicy();
+    }
+    int flags = FLAG_PRESENT
+        | (pet.isLazyEvaluation() ? FLAG_LAZY_EVALUATION : 0)
+        | (pet.isTaskExecutionAllowed() ? FLAG_ALLOW_TASK_EXECUTION : 0);
+    buffer.putLong(offset + STATE, pet.snapshot().word());
+    buffer.putLong(offset + SEED, pet.getRandom().currentSeed());
+    buffer.putLong(offset + GAMMA, pet.getRandom().gamma());
+    buffer.putLong(offset + LAST_INTERACTED, pet.getLastInteractedTime());
+    buffer.put(offset + PERSONALITY, (byte) PetCodec.personalityCode(pet.getPersonality()));
+    buffer.put(offset + PREFERRED_ACTION, (byte) PetCodec.enumCode(pet.getPreferredAction()));
+    buffer.put(offset + MOOD, (byte) PetCodec.enumCode(pet.getMood()));
+    buffer.putInt(offset + ITEMS, meat);
+    buffer.putInt(offset + ITEMS + 4, vegetables);
+    buffer.putInt(offset + ITEMS + 8, juice);
+    buffer.putInt(offset + CAPACITY, inventoryCapacity);
+    buffer.put(offset + OVERFLOW_POLICY, (byte) PetCodec.enumCode(overflowPolicy));
+    // Mark the record present last, once the rest of it has been written
+    buffer.put(offset + FLAGS, (byte) flags);
+  }
+
+  /**
+   * Create a pet from its record. The pet uses the given scheduler; lazily evaluated pets
+   * start no background tasks.
+   *
+   * @param id the pet's id
+   * @param scheduler the scheduler for the pet's background tasks
+   * @return the pet
+   * @throws IOException if the record holds an unknown personality, action or overflow policy
+   * @throws IllegalArgumentException if the record is empty
+   */
+  public Pet read(int id, PetScheduler scheduler) throws IOException {
+    requirePresent(id);
+    MappedByteBuffer buffer = segment(id);
+    int offset = offset(id);
+    int flags = buffer.get(offset + FLAGS);
+    PetRandom random = PetRandom.restore(buffer.getLong(offset + SEED),
+        buffer.getLong(offset + GAMMA));
+    Pet pet = new Pet(scheduler, (flags & FLAG_LAZY_EVALUATION) != 0, random);
+    pet.restore(buffer.getLong(offset + STATE), buffer.getLong(offset + LAST_INTERACTED));
+    PersonalityStrategy personality = PetCodec.personality(buffer.get(offset + PERSONALITY));
+    if (personality != null) {
+      pet.setPersonality(personality);
+    }
+    pet.setPreferredAction(
+        PetCodec.enumValue(Action.values(), buffer.get(offset + PREFERRED_ACTION)));
+    if ((flags & FLAG_ALLOW_TASK_EXECUTION) != 0) {
+      pet.setAllowTaskExecution();
+    }
+    Inventory inventory = pet.getInventory();
+    int inventoryCapacity = buffer.getInt(offset + CAPACITY);
+    OverflowPolicy overflowPolicy =
+        PetCodec.enumValue(OverflowPolicy.values(), buffer.get(offset + OVERFLOW_POLICY));
+    if (inventoryCapacity <= 0 || overflowPolicy == null) {
+      inventoryCapacity = inventory.getCapacity();
+      overflowPolicy = inventory.getOverflowPolicy();
+    }
+    inventory.restoreCapacity(Inventory.UNLIMITED, overflowPolicy);
+    inventory.addItems(ItemType.MEAT, Math.max(buffer.getInt(offset + ITEMS), 0));
+    inventory.addItems(ItemType.VEGETABLES, Math.max(buffer.getInt(offset + ITEMS + 4), 0));
+    inventory.addItems(ItemType.JUICE, Math.max(buffer.getInt(offset + ITEMS + 8), 0));
+    inventory.restoreCapacity(inventoryCapacity, overflowPolicy);
+    return pet;
+  }
+
+  /**
+   * Empty a pet's record.
+   *
+   * @param id the pet's id
+   */
+  public void delete(int id) {
+    MappedByteBuffer buffer = segment(id);
+    int offset = offset(id);
+    for (int i = 0; i < RECORD_SIZE; i += 8) {
+      buffer.putLong(offset + i, 0);
+    }
+  }
+
+  /**
+   * Write all changed records to the storage device.
+   */
+  public void force() {
+    header.force();
+    for (MappedByteBuffer segment : segments) {
+      segment.force();
+    }
+  }
+
+  /**
+   * Write all changed records to the storage device and close the file. The mapped
+   * memory is released once the buffers are garbage collected.
+   *
+   * @throws IOException if the file cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    force();
+    channel.close();
+  }
+
+  private MappedByteBuffer segment(int id) {
+    if (id < 0 || id >= capacity) {
+      throw new IndexOutOfBoundsException("Pet id " + id + " is outside the file's " + capacity
+          + " records");
+    }
+    return segments[id >>> SEGMENT_SHIFT];
+  }
+
+  private static int offset(int id) {
+    return (id & SEGMENT_MASK) * RECORD_SIZE;
+  }
+
+  private void requirePresent(int id) {
+    if (!contains(id)) {
+      throw new IllegalArgumentException("No pet is stored under id " + id);
+    }
+  }
+}
@@ -0,0 +1,171 @@
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A seeded, splittable stream of random numbers that can be saved with a pet.
+ *
+ * <p>This is the SplitMix64 algorithm used by {@link java.util.SplittableRandom}, and a
+ * {@code PetRandom} created from a seed produces exactly the same numbers as a
+ * {@code SplittableRandom} created from that seed. Unlike {@code SplittableRandom} it is
+ * {@link Serializable}, so a pet's stream is stored in its save file and continues where
+ * it left off after loading.</p>
+ *
+ * <p>Every pet owns its own stream, split from a population's root stream. Draws allocate
+ * nothing, and the only shared state is the pet's own seed, which is advanced with a single
+ * atomic add, so the scheduler threads that tick different pets never contend. A population
+ * created from the same root seed therefore replays the same random choices.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * {@code
+ * PetRandom root = new PetRandom(42);
+ * Pet pet = new Pet(scheduler, false, root.split());
+ * }
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see Pet
+ * @see java.util.SplittableRandom
+ */
+public final class PetRandom implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+  /**
+   * The root stream that pets split their streams from when no population seed is given.
+   */
+  private static final PetRandom DEFAULT_ROOT = new PetRandom(
+      mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()));
+
+  private final AtomicLong seed;
+  private final long gamma;
+
+  /**
+   * Constructs a stream from a seed.
+   *
+   * @param seed the seed
+   */
+  public PetRandom(long seed) {
+    this(seed, GOLDEN_GAMMA);
+  }
+
+  private PetRandom(long seed, long gamma) {
+    this.seed = new AtomicLong(seed);
+    this.gamma = gamma;
+  }
+
+  /**
+   * Splits a new stream from the process-wide root, for pets that are not part of a
+   * seeded population.
+   *
+   * @return a new independent stream
+   */
+  public static PetRandom splitDefault() {
+    return DEFAULT_ROOT.split();
+  }
+
+  /**
+   * Splits off a new stream. The new stream is statistically independent of this one, and
+   * splitting the same streams in the same order always gives the same results.
+   *
+   * @return a new independent stream
+   */
+  public PetRandom split() {
+    return new PetRandom(nextLong(), mixGamma(nextSeed()));
+  }
+
+  /**
+   * Returns the next random long.
+   *
+   * @return a random long
+   */
+  public long nextLong() {
+    return mix64(nextSeed());
+  }
+
+  /**
+   * Returns a random int between 0 (inclusive) and the bound (exclusive).
+   *
+   * @param bound the upper bound, which must be positive
+   * @return a random int in the range
+   * @throws IllegalArgumentException if {@code bound} is not positive
+   */
+  public int nextInt(int bound) {
+    if (bound <= 0) {
+      throw new IllegalArgumentException("Bound must be positive.");
+    }
+    int r = mix32(nextSeed());
+    int m = bound - 1;
+    if ((bound & m) == 0) {
+      return r & m;
+    }
+    // Reject values from the uneven top of the range so the result is unbiased
+    for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextSeed()) >>> 1) {
+      continue;
+    }
+    return r;
+  }
+
+  /**
+   * Returns the current seed. A stream restored to this seed continues with the same numbers.
+   *
+   * @return the current seed
+   */
+  long currentSeed() {
+    return seed.get();
+  }
+
+  /**
+   * Restores the stream to a seed returned by {@link #currentSeed()}.
+   *
+   * @param value the seed to continue from
+   */
+  void restoreSeed(long value) {
+    seed.set(value);
+  }
+
+  /**
+   * Returns the increment the seed advances by. Streams split from each other differ in it.
+   *
+   * @return the stream's gamma
+   */
+  long gamma() {
+    return gamma;
+  }
+
+  /**
+   * Recreates a stream from its current seed and gamma.
+   *
+   * @param seed the seed returned by {@link #currentSeed()}
+   * @param gamma the gamma returned by {@link #gamma()}
+   * @return a stream that continues where the saved one stopped
+   */
+  static PetRandom restore(long seed, long gamma) {
+    return new PetRandom(seed, gamma);
+  }
+
+  private long nextSeed() {
+    return seed.addAndGet(gamma);
+  }
+
+  private static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  private static int mix32(long z) {
+    z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+    return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+  }
+
+  private static long mixGamma(long z) {
+    z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+    z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    z = (z ^ (z >>> 33)) | 1L;
+    int transitions = Long.bitCount(z ^ (z >>> 1));
+    return (transitions < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+  }
+}
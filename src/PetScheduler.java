@@ -0,0 +1,435 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A process-wide tick engine that runs the periodic and one-shot background work of every pet.
+ *
+ * <p>Instead of giving each {@link Pet} its own {@code ScheduledExecutorService}, all pets
+ * register their work here. Tasks are kept in a hierarchical timing wheel made of
+ * {@value #LEVELS} levels of {@value #SLOTS} slots each. A single tick thread advances the
+ * wheel every {@value #TICK_MILLIS} ms and hands due tasks to a small worker pool, so the
+ * number of threads depends on the number of cores rather than on the number of pets.
+ *
+ * <p>Scheduling and cancelling are O(1). Tasks registered from any thread are queued and
+ * picked up by the tick thread, which is the only thread that touches the wheel itself.
+ * Periodic tasks run at a fixed rate and are never run concurrently with themselves.
+ *
+ * <p>Ticks are measured on the scheduler's {@link PetClock}. With an {@link AcceleratedClock}
+ * the wheel simply advances faster; with a {@link ManualClock} the tick thread can be left
+ * unstarted and {@link #runDueTasks()} used to run due work deterministically on the caller.
+ *
+ * <p>Due tasks and blocking work such as saving run on platform or virtual threads,
+ * depending on the scheduler's {@link ExecutionMode}. Only the tick thread is always a
+ * platform thread.
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * {@code
+ * PetScheduler scheduler = PetScheduler.getInstance();
+ * PetScheduler.ScheduledTask task = scheduler.scheduleAtFixedRate(pet::increaseHunger, 0, 1, TimeUnit.MINUTES);
+ * task.cancel();
+ * }
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see Pet
+ * @see TimeSimulator
+ * @see PetClock
+ */
+public class PetScheduler {
+
+  /**
+   * The duration of one wheel tick in milliseconds.
+   */
+  public static final long TICK_MILLIS = 10;
+
+  /**
+   * The number of slots in each level of the wheel.
+   */
+  public static final int SLOTS = 64;
+
+  /**
+   * The number of levels in the wheel.
+   */
+  public static final int LEVELS = 4;
+
+  private static final int SLOT_BITS = 6;
+  private static final int SLOT_MASK = SLOTS - 1;
+  private static final long SAVE_FLUSH_SECONDS = 5;
+  private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+  private static PetScheduler instance;
+
+  private final ScheduledTask[][] wheel = new ScheduledTask[LEVELS][SLOTS];
+  private final ConcurrentLinkedQueue<ScheduledTask> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger taskCount = new AtomicInteger();
+  private final ExecutorService workers;
+  private final ExecutorService blockingWorkers;
+  private final SaveWriter saveWriter;
+  private final ExecutionMode mode;
+  private final PetClock clock;
+  private final long startMillis;
+  private volatile long currentTick;
+  private volatile boolean running;
+  private boolean inline;
+  private Thread tickThread;
+
+  /**
+   * Constructs a scheduler with one worker thread per available core.
+   * The tick thread is not started until {@link #start()} is called.
+   */
+  public PetScheduler() {
+    this(PetClock.SYSTEM, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructs a scheduler that runs its tasks on platform threads.
+   * The tick thread is not started until {@link #start()} is called.
+   *
+   * @param clock the clock that drives the wheel
+   * @param workerThreads the number of threads that run due tasks
+   * @throws IllegalArgumentException if {@code workerThreads} is less than 1
+   */
+  public PetScheduler(PetClock clock, int workerThreads) {
+    this(clock, workerThreads, ExecutionMode.PLATFORM);
+  }
+
+  /**
+   * Constructs a scheduler that measures time on the given clock.
+   * The tick thread is not started until {@link #start()} is called.
+   *
+   * @param clock the clock that drives the wheel
+   * @param workerThreads the number of platform threads that run due tasks; ignored when
+   *     tasks run on virtual threads
+   * @param mode the kind of threads that run due tasks and blocking work
+   * @throws IllegalArgumentException if {@code workerThreads} is less than 1
+   */
+  public PetScheduler(PetClock clock, int workerThreads, ExecutionMode mode) {
+    if (workerThreads < 1) {
+      throw new IllegalArgumentException("Worker thread count must be at least 1.");
+    }
+    if (clock == null) {
+      throw new NullPointerException("Clock cannot be null");
+    }
+    if (mode == null) {
+      throw new NullPointerException("Execution mode cannot be null");
+    }
+    this.clock = clock;
+    this.mode = mode;
+    workers = mode.newTaskExecutor("pet-scheduler-worker-", workerThreads);
+    blockingWorkers = mode.newBlockingExecutor("pet-io-");
+    saveWriter = new SaveWriter(blockingWorkers);
+    startMillis = clock.millis();
+  }
+
+  /**
+   * Returns the kind of threads this scheduler runs its work on.
+   *
+   * @return the scheduler's execution mode
+   */
+  public ExecutionMode getExecutionMode() {
+    return mode;
+  }
+
+  /**
+   * Returns the executor for blocking work such as file I/O, so it does not hold up the
+   * threads that run due tasks. In {@link ExecutionMode#VIRTUAL} mode each job gets its own
+   * virtual thread.
+   *
+   * @return the executor for blocking work
+   */
+  public Executor getBlockingExecutor() {
+    return blockingWorkers;
+  }
+
+  /**
+   * Returns the writer that saves the files of this scheduler's pets. It runs on the
+   * blocking executor and writes one file at a time.
+   *
+   * @return the save writer
+   */
+  public SaveWriter getSaveWriter() {
+    return saveWriter;
+  }
+
+  /**
+   * Returns the clock this scheduler measures time on.
+   *
+   * @return the scheduler's clock
+   */
+  public PetClock getClock() {
+    return clock;
+  }
+
+  /**
+   * Returns the shared scheduler used by all pets, starting it on first use.
+   * Its execution mode is read from the {@value ExecutionMode#PROPERTY} system property.
+   *
+   * @return the process-wide scheduler
+   */
+  public static synchronized PetScheduler getInstance() {
+    if (instance == null) {
+      instance = new PetScheduler(PetClock.SYSTEM, Runtime.getRuntime().availableProcessors(),
+          ExecutionMode.fromSystemProperty());
+      instance.start();
+      // The I/O threads are daemons; give queued saves a moment to finish when the game exits
+      SaveWriter writer = instance.saveWriter;
+      Runtime.getRuntime().addShutdownHook(new Thread(
+          () -> writer.awaitIdle(SAVE_FLUSH_SECONDS, TimeUnit.SECONDS), "pet-save-flush"));
+    }
+    return instance;
+  }
+
+  /**
+   * Starts the tick thread. Calling this method more than once has no effect.
+   */
+  public synchronized void start() {
+    if (inline) {
+      throw new IllegalStateException("Scheduler is being driven by runDueTasks().");
+    }
+    if (tickThread != null) {
+      return;
+    }
+    running = true;
+    tickThread = ExecutionMode.daemonThreads("pet-scheduler-tick").newThread(this::runTicks);
+    tickThread.start();
+  }
+
+  /**
+   * Stops the tick thread and the worker pool. Registered tasks will no longer run; saves
+   * that are already queued are still written.
+   */
+  public synchronized void shutdown() {
+    running = false;
+    if (tickThread != null) {
+      LockSupport.unpark(tickThread);
+    }
+    workers.shutdownNow();
+    blockingWorkers.shutdown();
+  }
+
+  /**
+   * Advances the wheel to the clock's current time on the calling thread and runs every task
+   * that falls due, in deadline order, before returning. This is meant for deterministic
+   * simulations with a {@link ManualClock} and cannot be mixed with {@link #start()}.
+   *
+   * @throws IllegalStateException if the tick thread has been started
+   */
+  public synchronized void runDueTasks() {
+    if (tickThread != null) {
+      throw new IllegalStateException("Scheduler is driven by its own tick thread.");
+    }
+    inline = true;
+    advanceTo((clock.millis() - startMillis) / TICK_MILLIS);
+  }
+
+  /**
+   * Schedules a task to run once after the given delay.
+   *
+   * @param action the work to run
+   * @param delay the delay before the task runs
+   * @param unit the time unit of the delay
+   * @return a handle that can be used to cancel the task
+   */
+  public ScheduledTask schedule(Runnable action, long delay, TimeUnit unit) {
+    return register(action, delay, 0, unit);
+  }
+
+  /**
+   * Schedules a task to run repeatedly at a fixed rate.
+   *
+   * @param action the work to run
+   * @param initialDelay the delay before the first run
+   * @param period the time between the start of consecutive runs
+   * @param unit the time unit of the delay and period
+   * @return a handle that can be used to cancel the task
+   * @throws IllegalArgumentException if {@code period} is not positive
+   */
+  public ScheduledTask scheduleAtFixedRate(Runnable action, long initialDelay, long period, TimeUnit unit) {
+    if (period <= 0) {
+      throw new IllegalArgumentException("Period must be positive.");
+    }
+    return register(action, initialDelay, Math.max(1, toTicks(period, unit)), unit);
+  }
+
+  /**
+   * Returns the number of tasks currently registered with this scheduler.
+   * Cancelled tasks are counted until the wheel reaches their slot.
+   *
+   * @return the number of registered tasks
+   */
+  public int getTaskCount() {
+    return taskCount.get();
+  }
+
+  private ScheduledTask register(Runnable action, long delay, long periodTicks, TimeUnit unit) {
+    if (action == null) {
+      throw new NullPointerException("Action cannot be null");
+    }
+    ScheduledTask task = new ScheduledTask(this, action, periodTicks);
+    long clockTick = (clock.millis() - startMillis) / TICK_MILLIS;
+    task.deadlineTick = Math.max(currentTick, clockTick) + toTicks(delay, unit);
+    taskCount.incrementAndGet();
+    pending.add(task);
+    return task;
+  }
+
+  private static long toTicks(long duration, TimeUnit unit) {
+    long millis = unit.toMillis(Math.max(0, duration));
+    return (millis + TICK_MILLIS - 1) / TICK_MILLIS;
+  }
+
+  /**
+   * The tick thread loop: advances the wheel to the current time, then parks until the next tick.
+   */
+  private void runTicks() {
+    long tickNanos = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+    while (running) {
+      advanceTo((clock.millis() - startMillis) / TICK_MILLIS);
+      LockSupport.parkNanos(tickNanos);
+    }
+  }
+
+  /**
+   * Advances the wheel up to and including the given tick, running every task that falls due.
+   *
+   * @param targetTick the tick to advance to
+   */
+  private void advanceTo(long targetTick) {
+    drainPending();
+    while (currentTick < targetTick) {
+      long tick = currentTick + 1;
+      currentTick = tick;
+      for (int level = LEVELS - 1; level > 0; level--) {
+        if ((tick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+          cascade(level, (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK));
+        }
+      }
+      int slot = (int) (tick & SLOT_MASK);
+      ScheduledTask task = wheel[0][slot];
+      wheel[0][slot] = null;
+      while (task != null) {
+        ScheduledTask next = task.next;
+        task.next = null;
+        place(task);
+        task = next;
+      }
+      drainPending();
+    }
+  }
+
+  private void cascade(int level, int slot) {
+    ScheduledTask task = wheel[level][slot];
+    wheel[level][slot] = null;
+    while (task != null) {
+      ScheduledTask next = task.next;
+      task.next = null;
+      place(task);
+      task = next;
+    }
+  }
+
+  private void drainPending() {
+    ScheduledTask task;
+    while ((task = pending.poll()) != null) {
+      place(task);
+    }
+  }
+
+  /**
+   * Puts a task into the wheel slot matching its deadline, or dispatches it if it is due.
+   */
+  private void place(ScheduledTask task) {
+    if (task.cancelled) {
+      taskCount.decrementAndGet();
+      return;
+    }
+    long delta = task.deadlineTick - currentTick;
+    if (delta <= 0) {
+      if (inline) {
+        task.run();
+      } else {
+        workers.execute(task);
+      }
+      return;
+    }
+    long placement = currentTick + Math.min(delta, MAX_DELTA);
+    int level = 0;
+    while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+      level++;
+    }
+    int slot = (int) ((placement >>> (SLOT_BITS * level)) & SLOT_MASK);
+    task.next = wheel[level][slot];
+    wheel[level][slot] = task;
+  }
+
+  private void reschedule(ScheduledTask task) {
+    if (task.cancelled) {
+      taskCount.decrementAndGet();
+      return;
+    }
+    task.deadlineTick += task.periodTicks;
+    pending.add(task);
+  }
+
+  /**
+   * A handle to a task registered with a {@link PetScheduler}.
+   */
+  public static final class ScheduledTask implements Runnable {
+    private final PetScheduler scheduler;
+    private final Runnable action;
+    private final long periodTicks;
+    private long deadlineTick;
+    private ScheduledTask next;
+    private volatile boolean cancelled;
+
+    private ScheduledTask(PetScheduler scheduler, Runnable action, long periodTicks) {
+      this.scheduler = scheduler;
+      this.action = action;
+      this.periodTicks = periodTicks;
+    }
+
+    /**
+     * Cancels the task. A run that is already in progress is allowed to finish.
+     */
+    public void cancel() {
+      cancelled = true;
+    }
+
+    /**
+     * Check if the task has been cancelled.
+     *
+     * @return true if the task was cancelled, false otherwise
+     */
+    public boolean isCancelled() {
+      return cancelled;
+    }
+
+    /**
+     * Runs the task on a worker thread and re-queues it if it is periodic.
+     */
+    @Override
+    public void run() {
+      if (cancelled) {
+        scheduler.taskCount.decrementAndGet();
+        return;
+      }
+      try {
+        action.run();
+      } catch (RuntimeException e) {
+        System.err.println("Scheduled pet task failed: " + e.getMessage());
+      }
+      if (periodTicks > 0) {
+        scheduler.reschedule(this);
+      } else {
+        cancelled = true;
+        scheduler.taskCount.decrementAndGet();
+      }
+    }
+  }
+}
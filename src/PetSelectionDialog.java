@@ -76,9 +76,9 @@ public class PetSelectionDialog extends JDialog {
         petPanel.setLayout(new GridLayout(1, 3, 10, 10)); // 1 row, 3 columns
 
         // Create buttons with images
-        JButton dogButton = createPetButton("Dog", "res/dog.jpg");
-        JButton catButton = createPetButton("Cat", "res/cat.jpg");
-        JButton birdButton = createPetButton("Bird", "res/bird.jpg");
+        JButton dogButton = createPetButton("Dog");
+        JButton catButton = createPetButton("Cat");
+        JButton birdButton = createPetButton("Bird");
 
         // Add pet buttons to the panel
         petPanel.add(dogButton);
@@ -121,19 +121,15 @@ public class PetSelectionDialog extends JDialog {
      * Creates a JButton with an image and text for a pet option.
      * 
      * @param petName
-     * @param imagePath
      * @return
      */
 
-    private JButton createPetButton(String petName, String imagePath) {
-        java.net.URL imgURL = getClass().getResource(imagePath);
-        if (imgURL == null) {
-            System.err.println("Couldn't find file: " + imagePath);
+    private JButton createPetButton(String petName) {
+        // The game window shows the same images, so they are decoded and scaled only once
+        ImageIcon icon = SpriteCache.getInstance().getIcon(petName, SpriteState.NORMAL, 200, 200);
+        if (icon == null) {
             return new JButton("Missing Image");
         }
-        ImageIcon icon = new ImageIcon(imgURL);
-        Image scaledImage = icon.getImage().getScaledInstance(200, 200, Image.SCALE_SMOOTH);
-        icon = new ImageIcon(scaledImage);
         JButton button = new JButton(icon);
         button.setVerticalTextPosition(SwingConstants.BOTTOM);
         button.setHorizontalTextPosition(SwingConstants.CENTER);
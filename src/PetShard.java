@@ -0,0 +1,266 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A group of pets whose state is changed by a single thread.
+ *
+ * <p>Pets that are attached to a shard no longer change their own state when an action is
+ * called. The call is turned into a {@link PetCommand} and written into the shard's ring
+ * buffer, and the shard's drain thread applies the commands in the order they were
+ * claimed. The UI, the scheduler threads and the item generator can all act on the same
+ * pet without racing, because only the drain thread ever writes to it.</p>
+ *
+ * <p>The ring buffer is bounded and allocated up front, in the style of the LMAX
+ * Disruptor. A producer claims a sequence number with one atomic increment, fills the slot
+ * and publishes it by writing the sequence into the slot's marker. No locks are taken on
+ * this path. The drain thread applies every published command it finds in one pass, so
+ * under load a single cycle can work through thousands of commands. When the ring is full,
+ * producers wait for the drain thread to free a slot.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * {@code
+ * PetShard shard = new PetShard("pets-0", 4096);
+ * shard.start();
+ * shard.attach(pet);
+ * pet.feed(); // queued and applied by the shard's thread
+ * shard.shutdown();
+ * }
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see PetCommand
+ * @see Pet
+ */
+public class PetShard {
+
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final int SPIN_LIMIT = 100;
+
+  private final String name;
+  private final int mask;
+  private final Pet[] pets;
+  private final PetCommand[] commands;
+  private final int[] arguments;
+  private final AtomicLongArray published;
+  private final AtomicLong claimed = new AtomicLong();
+  private volatile long consumed;
+  private final AtomicBoolean idle = new AtomicBoolean();
+  private volatile boolean running;
+  private Thread drainThread;
+  // Written only by the drain thread
+  private volatile int largestBatch;
+
+  /**
+   * Constructs a shard with a ring buffer of the given capacity.
+   * The drain thread is not started until {@link #start()} is called.
+   *
+   * @param name the name of the shard, used for its thread
+   * @param capacity the number of slots in the ring buffer, a power of two
+   * @throws IllegalArgumentException if {@code capacity} is not a positive power of two
+   */
+  public PetShard(String name, int capacity) {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Ring capacity must be a positive power of two.");
+    }
+    this.name = name;
+    mask = capacity - 1;
+    pets = new Pet[capacity];
+    commands = new PetCommand[capacity];
+    arguments = new int[capacity];
+    published = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      published.set(i, -1);
+    }
+  }
+
+  /**
+   * Starts the drain thread. Calling this method more than once has no effect.
+   */
+  public synchronized void start() {
+    if (drainThread != null) {
+      return;
+    }
+    running = true;
+    drainThread = new Thread(this::drain, "pet-shard-" + name);
+    drainThread.setDaemon(true);
+    drainThread.start();
+  }
+
+  /**
+   * Applies every command that has already been published, then stops the drain thread.
+   * Attached pets change their own state again once the shard has stopped.
+   */
+  public synchronized void shutdown() {
+    running = false;
+    if (drainThread != null) {
+      LockSupport.unpark(drainThread);
+      try {
+        drainThread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Attaches a pet to this shard. From now on its state is only changed by the drain thread.
+   *
+   * @param pet the pet to attach
+   */
+  public void attach(Pet pet) {
+    pet.setShard(this);
+  }
+
+  /**
+   * Detaches a pet from this shard. Commands that are already queued are still applied.
+   *
+   * @param pet the pet to detach
+   */
+  public void detach(Pet pet) {
+    if (pet.getShard() == this) {
+      pet.setShard(null);
+    }
+  }
+
+  /**
+   * Check if the shard's drain thread is running.
+   *
+   * @return true if commands submitted now will be applied, false otherwise
+   */
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Check if the calling thread is the shard's drain thread.
+   *
+   * @return true if called from the drain thread, false otherwise
+   */
+  public boolean isDrainThread() {
+    return Thread.currentThread() == drainThread;
+  }
+
+  /**
+   * Queues a command for a pet. If the ring buffer is full, waits until a slot is free.
+   *
+   * @param pet the pet to apply the command to
+   * @param command the command
+   * @param argument the command's argument, or 0 if it takes none
+   * @return the sequence number of the command
+   * @throws IllegalStateException if called from the drain thread, which would wait forever
+   *     on a full ring
+   */
+  public long submit(Pet pet, PetCommand command, int argument) {
+    if (isDrainThread()) {
+      throw new IllegalStateException("The drain thread cannot submit commands to its own shard.");
+    }
+    long sequence = claimed.getAndIncrement();
+    int spins = 0;
+    while (sequence - consumed > mask) {
+      // The ring is full: wait for the drain thread to catch up
+      spins = backOff(spins);
+    }
+    int slot = (int) sequence & mask;
+    pets[slot] = pet;
+    commands[slot] = command;
+    arguments[slot] = argument;
+    published.set(slot, sequence);
+    // Only the producer that clears the idle flag pays for waking the drain thread
+    if (idle.get() && idle.compareAndSet(true, false)) {
+      LockSupport.unpark(drainThread);
+    }
+    return sequence;
+  }
+
+  /**
+   * Waits until the command with the given sequence number has been applied.
+   *
+   * @param sequence a sequence number returned by {@link #submit(Pet, PetCommand, int)}
+   */
+  public void awaitProcessed(long sequence) {
+    int spins = 0;
+    while (consumed <= sequence && running) {
+      spins = backOff(spins);
+    }
+  }
+
+  /**
+   * Waits briefly for the drain thread, spinning at first and then yielding the processor
+   * so the drain thread can run even when there are fewer cores than busy threads.
+   */
+  private static int backOff(int spins) {
+    if (spins < SPIN_LIMIT) {
+      Thread.onSpinWait();
+    } else {
+      Thread.yield();
+    }
+    return spins + 1;
+  }
+
+  /**
+   * Returns the number of commands the drain thread has applied.
+   *
+   * @return the number of applied commands
+   */
+  public long getProcessedCount() {
+    return consumed;
+  }
+
+  /**
+   * Returns the largest number of commands applied in one drain cycle.
+   *
+   * @return the largest batch size
+   */
+  public int getLargestBatch() {
+    return largestBatch;
+  }
+
+  /**
+   * The drain thread loop: applies every published command, then parks until more arrive.
+   */
+  private void drain() {
+    while (true) {
+      int batch = drainBatch();
+      if (batch > 0) {
+        largestBatch = Math.max(largestBatch, batch);
+        continue;
+      }
+      if (!running) {
+        return;
+      }
+      idle.set(true);
+      if (published.get((int) consumed & mask) != consumed) {
+        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+      }
+      idle.set(false);
+    }
+  }
+
+  private int drainBatch() {
+    long next = consumed;
+    int batch = 0;
+    int slot = (int) next & mask;
+    while (published.get(slot) == next) {
+      Pet pet = pets[slot];
+      PetCommand command = commands[slot];
+      int argument = arguments[slot];
+      pets[slot] = null;
+      next++;
+      batch++;
+      try {
+        pet.apply(command, argument);
+      } catch (RuntimeException e) {
+        System.err.println("Pet command " + command + " failed: " + e.getMessage());
+      }
+      // Free the slot for producers as soon as the command has been applied
+      consumed = next;
+      slot = (int) next & mask;
+    }
+    return batch;
+  }
+}
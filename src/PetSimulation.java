@@ -1,66 +1,450 @@
-import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
 
 
 /**
- * A simulation class that demonstrates the functionality of a virtual pet.
- * This class creates a pet instance and performs various interactions with it,
- * such as feeding, playing, and sleeping. The simulation results are written
- * to a specified output file.
- * 
+ * A headless batch simulation engine for virtual pets.
+ * This class reads a scenario file, creates a population of pets and advances all of them
+ * through the scenario's simulated duration as fast as the CPU allows. The results are
+ * written to a specified output file.
+ *
  * The simulation performs the following operations:
- * - Creates a new pet
- * - Executes basic pet interactions (feed, play, sleep)
- * - Displays the pet's current state
- * - Sets and performs a preferred action
- * - Checks and records the pet's health status and mood
- * 
- * The simulation output is written to a file specified by the filePath variable.
- * If an IO error occurs during file writing, an error message is printed to
- * standard error.
- * 
+ * - Creates the requested number of pets with the scenario's personality mix
+ * - Advances every pet in fixed 5 second virtual ticks on a {@link ManualClock}
+ * - Applies the scenario's action schedule (feed, play, sleep, ...) at the given minutes
+ * - Records every pet's final state and the aggregate throughput in pet-ticks per second
+ *
+ * Pets are split into blocks that run in parallel on a {@link ForkJoinPool}. Each block owns
+ * its own clock and an unstarted {@link PetScheduler} that it drives with
+ * {@link PetScheduler#runDueTasks()}, so blocks never share mutable state and no background
+ * threads are left running. No Swing classes are loaded on this path.
+ *
+ * Every pet draws its random numbers from its own {@link PetRandom} stream, split from the
+ * scenario's seed, so running the same scenario twice produces identical results.
+ *
+ * A scenario is a properties file, for example:
+ * <pre>
+ * pets=10000
+ * personalities=Dog:2, Cat:1, Bird:1
+ * durationMinutes=720
+ * mode=lazy
+ * seed=42
+ * actions=30:FEED, 60:PLAY, every 45:FEED, every 120:SLEEP
+ * populationFile=saves/population.dat
+ * </pre>
+ *
+ * If {@code populationFile} is set, every pet's final state is also stored under its id in
+ * that {@link PetPopulationFile}, so a later run or tool can pick up any single pet without
+ * reading the others.
+ *
+ * If an IO error occurs while reading the scenario or writing the output, an error message
+ * is printed to standard error.
+ *
  * @author Khushal
  * @version 1.0
  */
 public class PetSimulation {
 
+  /**
+   * The length of one virtual tick in milliseconds.
+   */
+  public static final long TICK_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+  private static final int TICKS_PER_MINUTE = (int) (TimeUnit.MINUTES.toMillis(1) / TICK_MILLIS);
+  private static final int BLOCK_SIZE = 256;
+
+  private final Scenario scenario;
+  private final String[] personalities;
+  private final int[] score;
+  private final int[] hunger;
+  private final int[] social;
+  private final int[] sleep;
+  private final int[] health;
+  private final int[] items;
+  private final boolean[] dead;
+  private final PetRandom[] streams;
+  private PetPopulationFile populationFile;
+  private long elapsedNanos;
+
+  /**
+   * Constructs a simulation for the given scenario.
+   *
+   * @param scenario the scenario to run
+   */
+  public PetSimulation(Scenario scenario) {
+    this.scenario = scenario;
+    int pets = scenario.pets;
+    personalities = new String[pets];
+    score = new int[pets];
+    hunger = new int[pets];
+    social = new int[pets];
+    sleep = new int[pets];
+    health = new int[pets];
+    items = new int[pets];
+    dead = new boolean[pets];
+    // Split every pet's stream up front, in id order, so the streams do not depend on how
+    // the population is divided between threads
+    streams = new PetRandom[pets];
+    PetRandom root = new PetRandom(scenario.seed);
+    for (int i = 0; i < pets; i++) {
+      streams[i] = root.split();
+    }
+  }
+
   /**
    * Main method for the PetSimulation class.
+   * The first argument is the scenario file and the optional second argument is the output file.
    *
    * @param args command line arguments.
    */
   public static void main(String[] args) {
-    String filePath = "res/output.txt";
+    String filePath = args.length > 1 ? args[1] : "res/output.txt";
 
-    try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
-      // Set the input stream to 1
-      System.setIn(new ByteArrayInputStream("1".getBytes()));
+    try {
+      Scenario scenario = args.length > 0 ? Scenario.load(args[0]) : Scenario.parse(new Properties());
+      PetSimulation simulation = new PetSimulation(scenario);
+      if (scenario.populationFile != null) {
+        try (PetPopulationFile file = PetPopulationFile.open(Path.of(scenario.populationFile),
+            scenario.pets)) {
+          simulation.run(file);
+        }
+      } else {
+        simulation.run();
+      }
 
-      // Create an instance of your Pet class
-      Pet myPet = new Pet();
+      File outputFile = new File(filePath);
+      if (outputFile.getParentFile() != null) {
+        outputFile.getParentFile().mkdirs();
+      }
+      try (PrintWriter writer = new PrintWriter(new FileWriter(outputFile))) {
+        simulation.writeResults(writer);
+      }
+      System.out.println(simulation.summary());
+      System.out.println("Simulation output written to: " + filePath);
+    } catch (IOException e) {
+      System.err.println("An error occurred while running the simulation: " + e.getMessage());
+    } catch (IllegalArgumentException e) {
+      System.err.println("Invalid scenario: " + e.getMessage());
+    }
+  }
 
-      // Interact with the pet
-      myPet.feed();
-      myPet.play();
-      myPet.sleep();
-      myPet.feed();
+  /**
+   * Runs the scenario, advancing every pet through all of its ticks.
+   */
+  public void run() {
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    long start = System.nanoTime();
+    pool.invoke(new Block(0, scenario.pets));
+    elapsedNanos = System.nanoTime() - start;
+  }
 
-      // Display the pet's current state
-      String petState = myPet.displayStates();
-      writer.println("Current Pet State:\n" + petState);
+  /**
+   * Runs the scenario and stores every pet's final state in a population file.
+   *
+   * @param file the population file; pet {@code i} is stored under id {@code i}
+   * @throws IOException if a pet cannot be stored
+   */
+  public void run(PetPopulationFile file) throws IOException {
+    populationFile = file;
+    try {
+      run();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      populationFile = null;
+    }
+  }
 
-      // Perform preferred action
-      myPet.setPreferredAction(Action.SLEEP);
-      myPet.performPreferredAction();
+  /**
+   * Returns the total number of pet-ticks simulated.
+   *
+   * @return the number of pets times the number of ticks
+   */
+  public long getPetTicks() {
+    return (long) scenario.pets * scenario.ticks();
+  }
 
-      Mood petMood = myPet.getMood();
-      writer.println("Pet Mood: " + petMood);
+  /**
+   * Returns the simulation throughput of the last run.
+   *
+   * @return the number of pet-ticks simulated per second of wall-clock time
+   */
+  public double getPetTicksPerSecond() {
+    return elapsedNanos == 0 ? 0 : getPetTicks() / (elapsedNanos / 1e9);
+  }
 
-      System.out.println("Simulation output written to: " + filePath);
-    } catch (IOException e) {
-      System.err.println("An error occurred while writing the simulation output: " + e.getMessage());
+  /**
+   * Returns a one-line summary of the last run.
+   *
+   * @return the pet count, simulated duration, wall-clock time and throughput
+   */
+  public String summary() {
+    return String.format(Locale.ROOT, "%d pets x %d ticks (%d simulated minutes) in %.1f ms: %.0f pet-ticks/s",
+        scenario.pets, scenario.ticks(), scenario.durationMinutes, elapsedNanos / 1e6, getPetTicksPerSecond());
+  }
+
+  /**
+   * Writes the final state of every pet followed by the run summary.
+   *
+   * @param writer the writer to print the results to
+   */
+  public void writeResults(PrintWriter writer) {
+    writer.println("id,personality,score,hunger,social,sleep,health,dead,items");
+    for (int i = 0; i < scenario.pets; i++) {
+      writer.println(i + "," + personalities[i] + "," + score[i] + "," + hunger[i] + "," + social[i] + ","
+          + sleep[i] + "," + health[i] + "," + dead[i] + "," + items[i]);
+    }
+    writer.println("# " + summary());
+  }
+
+  /**
+   * A block of consecutive pets that is simulated on one fork/join worker.
+   */
+  private class Block extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final int from;
+    private final int to;
+
+    Block(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > BLOCK_SIZE) {
+        int mid = (from + to) >>> 1;
+        invokeAll(new Block(from, mid), new Block(mid, to));
+        return;
+      }
+      ManualClock clock = new ManualClock(0);
+      PetScheduler scheduler = new PetScheduler(clock, 1);
+      Pet[] pets = new Pet[to - from];
+      for (int i = 0; i < pets.length; i++) {
+        pets[i] = scenario.createPet(scheduler, streams[from + i]);
+      }
+      scheduler.runDueTasks();
+
+      int ticks = scenario.ticks();
+      for (int tick = 1; tick <= ticks; tick++) {
+        clock.advance(TICK_MILLIS, TimeUnit.MILLISECONDS);
+        scheduler.runDueTasks();
+        List<ScenarioAction> due = tick % TICKS_PER_MINUTE == 0
+            ? scenario.actionsAt(tick / TICKS_PER_MINUTE) : List.of();
+        for (Pet pet : pets) {
+          for (ScenarioAction action : due) {
+            action.applyTo(pet);
+          }
+          pet.checkDeath();
+        }
+      }
+
+      for (int i = 0; i < pets.length; i++) {
+        Pet pet = pets[i];
+        int id = from + i;
+        personalities[id] = pet.getPersonality().getClass().getSimpleName();
+        PetState state = pet.snapshot();
+        score[id] = state.getScore();
+        hunger[id] = state.getHunger();
+        social[id] = state.getSocial();
+        sleep[id] = state.getSleep();
+        health[id] = state.getHealth();
+        dead[id] = state.isDead();
+        items[id] = pet.getInventory().getItems().size();
+        if (populationFile != null) {
+          try {
+            populationFile.write(id, pet);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }
+        pet.stopTimers();
+      }
+      scheduler.shutdown();
+    }
+  }
+
+  /**
+   * The actions a scenario can apply to its pets.
+   */
+  public enum ScenarioAction {
+    FEED, PLAY, SLEEP, EXERCISE, VET, MEAT, VEGETABLES, JUICE, PREFERRED;
+
+    /**
+     * Applies the action to the given pet.
+     *
+     * @param pet the pet to act on
+     */
+    void applyTo(Pet pet) {
+      try {
+        switch (this) {
+          case FEED -> pet.feed();
+          case PLAY -> pet.play();
+          case SLEEP -> pet.sleep();
+          case EXERCISE -> pet.exercise();
+          case VET -> pet.increaseHealth(30);
+          case MEAT -> pet.feedMeat();
+          case VEGETABLES -> pet.feedVegetables();
+          case JUICE -> pet.feedJuice();
+          case PREFERRED -> pet.performPreferredAction();
+          default -> {
+          }
+        }
+      } catch (IllegalStateException e) {
+        // The pet is already sleeping; the scenario simply moves on
+      }
+    }
+  }
+
+  /**
+   * A parsed scenario: how many pets, which personalities, which actions and for how long.
+   */
+  public static class Scenario {
+    private int pets;
+    private int durationMinutes;
+    private boolean lazy;
+    private long seed;
+    private String populationFile;
+    private final List<String> personalityNames = new ArrayList<>();
+    private final List<Integer> personalityWeights = new ArrayList<>();
+    private final List<int[]> actionTimes = new ArrayList<>();
+    private final List<ScenarioAction> actions = new ArrayList<>();
+    private int totalWeight;
+
+    private Scenario() {
+    }
+
+    /**
+     * Loads a scenario from a properties file.
+     *
+     * @param path the path of the scenario file
+     * @return the parsed scenario
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the scenario is invalid
+     */
+    public static Scenario load(String path) throws IOException {
+      Properties properties = new Properties();
+      try (InputStream input = new FileInputStream(path)) {
+        properties.load(input);
+      }
+      return parse(properties);
+    }
+
+    /**
+     * Parses a scenario from properties. Missing keys fall back to a single dog
+     * simulated for one hour with no actions.
+     *
+     * @param properties the scenario properties
+     * @return the parsed scenario
+     * @throws IllegalArgumentException if the scenario is invalid
+     */
+    public static Scenario parse(Properties properties) {
+      Scenario scenario = new Scenario();
+      scenario.pets = Integer.parseInt(properties.getProperty("pets", "1").trim());
+      scenario.durationMinutes = Integer.parseInt(properties.getProperty("durationMinutes", "60").trim());
+      scenario.lazy = !"ticking".equalsIgnoreCase(properties.getProperty("mode", "lazy").trim());
+      scenario.seed = Long.parseLong(properties.getProperty("seed", "0").trim());
+      String populationFile = properties.getProperty("populationFile", "").trim();
+      scenario.populationFile = populationFile.isEmpty() ? null : populationFile;
+      if (scenario.pets < 1 || scenario.durationMinutes < 0) {
+        throw new IllegalArgumentException("pets must be positive and durationMinutes non-negative");
+      }
+
+      for (String entry : properties.getProperty("personalities", "Dog:1").split(",")) {
+        String[] parts = entry.trim().split(":");
+        int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+        createPersonality(parts[0].trim());
+        scenario.personalityNames.add(parts[0].trim());
+        scenario.personalityWeights.add(weight);
+        scenario.totalWeight += weight;
+      }
+      if (scenario.totalWeight <= 0) {
+        throw new IllegalArgumentException("personality weights must add up to a positive number");
+      }
+
+      String actionList = properties.getProperty("actions", "").trim();
+      if (!actionList.isEmpty()) {
+        for (String entry : actionList.split(",")) {
+          String[] parts = entry.trim().split(":");
+          if (parts.length != 2) {
+            throw new IllegalArgumentException("action must look like 'minute:ACTION': " + entry.trim());
+          }
+          String when = parts[0].trim();
+          boolean repeating = when.startsWith("every ");
+          int minute = Integer.parseInt(repeating ? when.substring(6).trim() : when);
+          if (minute <= 0) {
+            throw new IllegalArgumentException("action minute must be positive: " + entry.trim());
+          }
+          scenario.actionTimes.add(new int[] {minute, repeating ? 1 : 0});
+          scenario.actions.add(ScenarioAction.valueOf(parts[1].trim().toUpperCase(Locale.ROOT)));
+        }
+      }
+      return scenario;
+    }
+
+    /**
+     * Returns the number of virtual ticks in the scenario.
+     *
+     * @return the simulated duration in 5 second ticks
+     */
+    public int ticks() {
+      return durationMinutes * TICKS_PER_MINUTE;
+    }
+
+    /**
+     * Returns the actions due at the given minute, in the order they were listed.
+     */
+    private List<ScenarioAction> actionsAt(int minute) {
+      List<ScenarioAction> due = new ArrayList<>();
+      for (int i = 0; i < actions.size(); i++) {
+        int[] time = actionTimes.get(i);
+        if (time[1] == 1 ? minute % time[0] == 0 : minute == time[0]) {
+          due.add(actions.get(i));
+        }
+      }
+      return due;
+    }
+
+    /**
+     * Creates a pet that draws from the given stream. The personality is drawn from the
+     * scenario's mix using the pet's own stream, so it does not depend on how the population
+     * is split across threads.
+     */
+    private Pet createPet(PetScheduler scheduler, PetRandom random) {
+      int draw = random.nextInt(totalWeight);
+      int index = 0;
+      while (draw >= personalityWeights.get(index)) {
+        draw -= personalityWeights.get(index);
+        index++;
+      }
+      Pet pet = new Pet(scheduler, lazy, random);
+      pet.setPetName(personalityNames.get(index));
+      pet.setPersonality(createPersonality(personalityNames.get(index)));
+      pet.setAllowTaskExecution();
+      pet.startTimer();
+      return pet;
+    }
+
+    private static PersonalityStrategy createPersonality(String name) {
+      return switch (name) {
+        case "Dog" -> new Dog();
+        case "Cat" -> new Cat();
+        case "Bird" -> new Bird();
+        default -> throw new IllegalArgumentException("unknown personality: " + name);
+      };
     }
   }
-}
\ No newline at end of file
+}
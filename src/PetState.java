@@ -0,0 +1,262 @@
+/**
+ * An immutable snapshot of a pet's attributes, taken in a single read.
+ *
+ * <p>A {@link Pet} keeps its score, hunger, social, sleep, health and state flags packed into
+ * one 64-bit word that is only ever replaced as a whole with a compare-and-set. A snapshot
+ * wraps one value of that word, so all of its attributes belong to the same moment in time.
+ * Readers such as the controller and the save code take one snapshot instead of calling
+ * every getter separately.</p>
+ *
+ * <p>The word is laid out as follows (bit 0 is the least significant bit):</p>
+ * <ul>
+ *   <li>bits 0 to 6: hunger (0 to 100)</li>
+ *   <li>bits 7 to 13: social (0 to 100)</li>
+ *   <li>bits 14 to 20: sleep (0 to 100)</li>
+ *   <li>bits 21 to 27: health (0 to 100)</li>
+ *   <li>bit 28: sleeping flag</li>
+ *   <li>bit 29: dead flag, set whenever health is 0</li>
+ *   <li>bits 32 to 48: score (0 to 100000)</li>
+ * </ul>
+ * <p>The static helpers build new words from old ones and clamp every attribute to its
+ * bounds, so a packed word is always valid.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * {@code
+ * PetState state = pet.snapshot();
+ * view.updateHunger(state.getHunger());
+ * view.updateHealth(state.getHealth());
+ * }
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see Pet#snapshot()
+ */
+public final class PetState {
+
+  /**
+   * The highest score a pet can reach.
+   */
+  public static final int MAX_SCORE = 100000;
+
+  /**
+   * The highest value of hunger, social, sleep and health.
+   */
+  public static final int MAX_LEVEL = 100;
+
+  private static final int LEVEL_BITS = 7;
+  private static final long LEVEL_MASK = (1L << LEVEL_BITS) - 1;
+  private static final int HUNGER_SHIFT = 0;
+  private static final int SOCIAL_SHIFT = 7;
+  private static final int SLEEP_SHIFT = 14;
+  private static final int HEALTH_SHIFT = 21;
+  private static final long SLEEPING_BIT = 1L << 28;
+  private static final long DEAD_BIT = 1L << 29;
+  private static final int SCORE_SHIFT = 32;
+  private static final long SCORE_MASK = (1L << 17) - 1;
+
+  /**
+   * The packed attributes of a new pet: score 0, hunger 20, social 80, sleep 20, health 100.
+   */
+  static final long INITIAL = pack(0, 20, 80, 20, 100, false);
+
+  private final long word;
+
+  /**
+   * Constructs a snapshot of a packed attribute word.
+   *
+   * @param word the packed attributes
+   */
+  PetState(long word) {
+    this.word = word;
+  }
+
+  /**
+   * Packs a set of attributes into one word, clamping each one to its bounds.
+   *
+   * @param score the score
+   * @param hunger the hunger level
+   * @param social the social level
+   * @param sleep the sleep level
+   * @param health the health level
+   * @param sleeping whether the pet is sleeping
+   * @return the packed attributes
+   */
+  static long pack(int score, int hunger, int social, int sleep, int health, boolean sleeping) {
+    int clampedHealth = level(health);
+    long word = ((long) Math.min(Math.max(score, 0), MAX_SCORE) << SCORE_SHIFT)
+        | ((long) level(hunger) << HUNGER_SHIFT)
+        | ((long) level(social) << SOCIAL_SHIFT)
+        | ((long) level(sleep) << SLEEP_SHIFT)
+        | ((long) clampedHealth << HEALTH_SHIFT);
+    if (sleeping) {
+      word |= SLEEPING_BIT;
+    }
+    if (clampedHealth == 0) {
+      word |= DEAD_BIT;
+    }
+    return word;
+  }
+
+  /**
+   * Applies a change to every attribute of a packed word at once.
+   * The results are clamped to their bounds and the sleeping flag is kept.
+   *
+   * @param word the packed attributes
+   * @param score the change in score
+   * @param hunger the change in hunger
+   * @param social the change in social
+   * @param sleep the change in sleep
+   * @param health the change in health
+   * @return the packed attributes after the change
+   */
+  static long adjust(long word, int score, int hunger, int social, int sleep, int health) {
+    return pack(score(word) + score, hunger(word) + hunger, social(word) + social,
+        sleep(word) + sleep, health(word) + health, sleeping(word));
+  }
+
+  /**
+   * Sets or clears the sleeping flag of a packed word.
+   *
+   * @param word the packed attributes
+   * @param sleeping whether the pet is sleeping
+   * @return the packed attributes with the new flag
+   */
+  static long withSleeping(long word, boolean sleeping) {
+    return sleeping ? word | SLEEPING_BIT : word & ~SLEEPING_BIT;
+  }
+
+  static int score(long word) {
+    return (int) ((word >>> SCORE_SHIFT) & SCORE_MASK);
+  }
+
+  static int hunger(long word) {
+    return (int) ((word >>> HUNGER_SHIFT) & LEVEL_MASK);
+  }
+
+  static int social(long word) {
+    return (int) ((word >>> SOCIAL_SHIFT) & LEVEL_MASK);
+  }
+
+  static int sleep(long word) {
+    return (int) ((word >>> SLEEP_SHIFT) & LEVEL_MASK);
+  }
+
+  static int health(long word) {
+    return (int) ((word >>> HEALTH_SHIFT) & LEVEL_MASK);
+  }
+
+  static boolean sleeping(long word) {
+    return (word & SLEEPING_BIT) != 0;
+  }
+
+  static boolean dead(long word) {
+    return (word & DEAD_BIT) != 0;
+  }
+
+  private static int level(int value) {
+    return Math.min(Math.max(value, 0), MAX_LEVEL);
+  }
+
+  /**
+   * Get the packed attribute word this snapshot was taken from.
+   *
+   * @return the packed attributes
+   */
+  long word() {
+    return word;
+  }
+
+  /**
+   * Get the score of the pet.
+   *
+   * @return the score of the pet
+   */
+  public int getScore() {
+    return score(word);
+  }
+
+  /**
+   * Get the hunger level of the pet.
+   *
+   * @return the hunger level of the pet
+   */
+  public int getHunger() {
+    return hunger(word);
+  }
+
+  /**
+   * Get the social level of the pet.
+   *
+   * @return the social level of the pet
+   */
+  public int getSocial() {
+    return social(word);
+  }
+
+  /**
+   * Get the sleep level of the pet.
+   *
+   * @return the sleep level of the pet
+   */
+  public int getSleep() {
+    return sleep(word);
+  }
+
+  /**
+   * Get the health level of the pet.
+   *
+   * @return the health level of the pet
+   */
+  public int getHealth() {
+    return health(word);
+  }
+
+  /**
+   * Check if the pet is sleeping.
+   *
+   * @return true if the pet is sleeping, false otherwise
+   */
+  public boolean isSleeping() {
+    return sleeping(word);
+  }
+
+  /**
+   * Check if the pet is dead.
+   *
+   * @return true if the pet's health is 0, false otherwise
+   */
+  public boolean isDead() {
+    return dead(word);
+  }
+
+  /**
+   * Get the mood of the pet: sad when it is hungry, lonely or tired, happy otherwise.
+   *
+   * @return the mood of the pet
+   */
+  public Mood getMood() {
+    if (getHunger() > 60 || getSocial() < 40 || getSleep() > 60) {
+      return Mood.SAD;
+    }
+    return Mood.HAPPY;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof PetState && ((PetState) other).word == word;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(word);
+  }
+
+  @Override
+  public String toString() {
+    return "PetState[score=" + getScore() + ", hunger=" + getHunger() + ", social=" + getSocial()
+        + ", sleep=" + getSleep() + ", health=" + getHealth() + ", sleeping=" + isSleeping()
+        + ", dead=" + isDead() + "]";
+  }
+}
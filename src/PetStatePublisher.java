@@ -0,0 +1,214 @@
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Publishes the state of a pet to subscribers whenever it changes.
+ *
+ * <p>The game window used to ask the pet for its state every five seconds, whether or not
+ * anything had changed, and every new game added another timer doing the same. A
+ * subscriber is now told about changes instead. The publisher never queues states: a change
+ * only marks each subscription as pending, and a pending subscription with outstanding
+ * demand delivers the pet's current state once on the subscriber's executor. Any number of
+ * changes before the subscriber asks for the next state therefore result in a single
+ * {@code onNext} with the newest state, so a slow subscriber costs nothing while it is busy
+ * and never sees a stale state.</p>
+ *
+ * <p>Every subscription starts pending, so the first state a subscriber receives is the
+ * state at the time it subscribed. The publisher never completes; a subscriber stops by
+ * cancelling its subscription. {@code onNext} is never called concurrently for one
+ * subscriber.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * {@code
+ * pet.subscribe(new Flow.Subscriber<PetState>() {
+ *   private Flow.Subscription subscription;
+ *   public void onSubscribe(Flow.Subscription s) { subscription = s; s.request(1); }
+ *   public void onNext(PetState state) { show(state); subscription.request(1); }
+ *   public void onError(Throwable e) { }
+ *   public void onComplete() { }
+ * }, SwingUtilities::invokeLater);
+ * }
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see Pet#subscribe(Flow.Subscriber, Executor)
+ */
+public class PetStatePublisher implements Flow.Publisher<PetState> {
+
+  private final Supplier<PetState> source;
+  private final CopyOnWriteArrayList<StateSubscription> subscriptions =
+      new CopyOnWriteArrayList<>();
+  private volatile long changeCount;
+  private volatile long deliveryCount;
+
+  /**
+   * Constructs a publisher.
+   *
+   * @param source reads the current state; it is called on the subscribers' executors
+   */
+  public PetStatePublisher(Supplier<PetState> source) {
+    if (source == null) {
+      throw new NullPointerException("Source cannot be null");
+    }
+    this.source = source;
+  }
+
+  /**
+   * Subscribes to the state. The subscriber is called on the common fork/join pool.
+   *
+   * @param subscriber the subscriber
+   */
+  @Override
+  public void subscribe(Flow.Subscriber<? super PetState> subscriber) {
+    subscribe(subscriber, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Subscribes to the state. The subscriber is called on the given executor, for example
+   * {@code SwingUtilities::invokeLater} for a subscriber that updates Swing components.
+   *
+   * @param subscriber the subscriber
+   * @param executor the executor that calls the subscriber
+   */
+  public void subscribe(Flow.Subscriber<? super PetState> subscriber, Executor executor) {
+    if (subscriber == null || executor == null) {
+      throw new NullPointerException("Subscriber and executor cannot be null");
+    }
+    StateSubscription subscription = new StateSubscription(subscriber, executor);
+    subscriptions.add(subscription);
+    try {
+      executor.execute(() -> subscriber.onSubscribe(subscription));
+    } catch (RejectedExecutionException e) {
+      subscriptions.remove(subscription);
+      throw e;
+    }
+  }
+
+  /**
+   * Tells every subscriber that the state changed. This only marks the subscriptions as
+   * pending and never calls a subscriber on the caller's thread, so it may be called while
+   * holding a lock.
+   */
+  public void publish() {
+    changeCount++;
+    for (StateSubscription subscription : subscriptions) {
+      subscription.signal();
+    }
+  }
+
+  /**
+   * Returns the number of subscriptions that have not been cancelled.
+   *
+   * @return the number of subscribers
+   */
+  public int getSubscriberCount() {
+    return subscriptions.size();
+  }
+
+  /**
+   * Returns the number of changes published. The count is approximate if changes are
+   * published from several threads at once.
+   *
+   * @return the number of changes
+   */
+  public long getChangeCount() {
+    return changeCount;
+  }
+
+  /**
+   * Returns the number of states delivered to all subscribers together. Compared with
+   * {@link #getChangeCount()}, it shows how many changes were merged.
+   *
+   * @return the number of {@code onNext} calls
+   */
+  public long getDeliveryCount() {
+    return deliveryCount;
+  }
+
+  private final class StateSubscription implements Flow.Subscription, Runnable {
+    private final Flow.Subscriber<? super PetState> subscriber;
+    private final Executor executor;
+    private long demand;
+    private boolean pending = true;
+    private boolean running;
+    private boolean cancelled;
+
+    StateSubscription(Flow.Subscriber<? super PetState> subscriber, Executor executor) {
+      this.subscriber = subscriber;
+      this.executor = executor;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        cancel();
+        executor.execute(() -> subscriber.onError(
+            new IllegalArgumentException("Requested " + n + " states; must be positive")));
+        return;
+      }
+      synchronized (this) {
+        demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+      }
+      schedule();
+    }
+
+    @Override
+    public void cancel() {
+      synchronized (this) {
+        cancelled = true;
+      }
+      subscriptions.remove(this);
+    }
+
+    void signal() {
+      synchronized (this) {
+        pending = true;
+      }
+      schedule();
+    }
+
+    private void schedule() {
+      synchronized (this) {
+        if (running || cancelled || !pending || demand == 0) {
+          return;
+        }
+        running = true;
+      }
+      try {
+        executor.execute(this);
+      } catch (RejectedExecutionException e) {
+        // The subscriber's executor is gone, and so is the subscriber
+        cancel();
+      }
+    }
+
+    @Override
+    public void run() {
+      while (true) {
+        synchronized (this) {
+          if (cancelled || !pending || demand == 0) {
+            running = false;
+            return;
+          }
+          pending = false;
+          demand--;
+        }
+        PetState state = source.get();
+        try {
+          subscriber.onNext(state);
+        } catch (RuntimeException e) {
+          cancel();
+          subscriber.onError(e);
+          return;
+        }
+        deliveryCount++;
+      }
+    }
+  }
+}
@@ -39,6 +39,7 @@ import javax.swing.border.LineBorder;
 public class PetView extends JFrame {
 
   //private final javax.swing.Timer scoreTimer;
+  private static final int PET_IMAGE_SIZE = 300;
   private final JProgressBar healthBar;
   private final JProgressBar hungerBar;
   private final JProgressBar socialBar;
@@ -56,9 +57,9 @@ public class PetView extends JFrame {
   private final JTextArea messageArea;
   private PetController controller;
   //private final boolean isDialogOpen = false;
-  private final JLabel petImageLabel;
+  private final PetCanvas petCanvas;
   private final JButton backButton; 
-  private final DefaultListModel<String> inventoryListModel;
+  private final InventoryListModel inventoryListModel;
   private final JList<String> inventoryList;
   private final JButton useItemButton;
   private final JButton vetButton;
@@ -66,6 +67,16 @@ public class PetView extends JFrame {
   private final JLabel scoreLabel;
   private final JButton exerciseButton;
   private JSlider volumeSlider;
+  private final RenderScheduler renderScheduler = new RenderScheduler(RenderScheduler.DEFAULT_FRAME_RATE);
+  // What the labels and bars show, so updates that change nothing are skipped
+  private int shownScore = Integer.MIN_VALUE;
+  private int shownHealth = Integer.MIN_VALUE;
+  private int shownHunger = Integer.MIN_VALUE;
+  private int shownSocial = Integer.MIN_VALUE;
+  private int shownSleep = Integer.MIN_VALUE;
+  private String shownMood;
+  private String shownPersonality;
+  private long shownLastInteractedTime = Long.MIN_VALUE;
 
 
   /**
@@ -237,8 +248,10 @@ public class PetView extends JFrame {
     add(saveButton, BorderLayout.SOUTH);
 
    // Inventory Panel
-   inventoryListModel = new DefaultListModel<>();
+   inventoryListModel = new InventoryListModel();
    inventoryList = new JList<>(inventoryListModel);
+   // Every row has the size of the prototype, so adding rows does not measure the others
+   inventoryList.setPrototypeCellValue("Vegetables");
    JScrollPane inventoryScrollPane = new JScrollPane(inventoryList);
    inventoryScrollPane.setPreferredSize(new Dimension(200, 400));
 
@@ -260,10 +273,9 @@ public class PetView extends JFrame {
     JScrollPane scrollPane = new JScrollPane(messageArea);
 
 
-    petImageLabel = new JLabel();
-    petImageLabel.setHorizontalAlignment(JLabel.CENTER);
-    // Add the petImageLabel to the panel at the desired position
-    panel.add(petImageLabel);
+    // The pet is animated by the shared render loop
+    petCanvas = new PetCanvas(PET_IMAGE_SIZE);
+    panel.add(petCanvas);
 
     // In the constructor
     volumeSlider = new JSlider(0, 100, 100); // Min 0, Max 100, Initial 100
@@ -307,9 +319,8 @@ public class PetView extends JFrame {
   scrollPane.setBounds(465, 400, 240,90 ); // Reduce width and height
   panel.add(scrollPane);
 
-  // Position the pet image label
-  petImageLabel.setBounds(50, 175, 300, 300); // Adjust for compact layout
-  panel.add(petImageLabel);
+  // Position the pet canvas
+  petCanvas.setBounds(50, 175, PET_IMAGE_SIZE, PET_IMAGE_SIZE); // Adjust for compact layout
 
   // Position the buttons on the right side
   feedButton.setBounds(540, 90, 90, 30); // Compact buttons start lower
@@ -355,36 +366,25 @@ public void displayPetSelectionDialog() {
 
   /**
    * This method updates the pet image based on its state.
+   * The pet keeps its animation if its state did not change.
    *
    * @param petName the name of the pet
    * @param isDead whether the pet is dead
    * @param isSleeping whether the pet is sleeping
    */
 public void updatePetImage(String petName, boolean isDead, boolean isSleeping) {
-  String imagePath;
-  if (isDead) {
-      imagePath = "/res/" + petName.toLowerCase() + "_dead.jpg";
-  } else if (isSleeping) {
-      imagePath = "/res/" + petName.toLowerCase() + "_sleep.jpg";
-  } else {
-      imagePath = "/res/" + petName.toLowerCase() + ".jpg";
+  if (petName == null) {
+      return; // No pet has been chosen yet
   }
-  java.net.URL imgURL = getClass().getResource(imagePath);
-  if (imgURL != null) {
-      ImageIcon originalIcon = new ImageIcon(imgURL);
-
-      // Scale the image to desired size
-      int desiredWidth = 300; // Adjust as needed
-      int desiredHeight = 300; // Adjust as needed
-
-      Image scaledImage = originalIcon.getImage().getScaledInstance(desiredWidth, desiredHeight, Image.SCALE_SMOOTH);
-      ImageIcon scaledIcon = new ImageIcon(scaledImage);
+  petCanvas.showPet(petName, PetAnimation.forState(isDead, isSleeping));
+}
 
-      petImageLabel.setIcon(scaledIcon);
-  } else {
-      System.err.println("Couldn't find file: " + imagePath);
+  /**
+   * This method shows the pet eating.
+   */
+  public void playEatingAnimation() {
+    petCanvas.play(PetAnimation.EATING);
   }
-}
 
   /**
    * This method sets the controller for the view.
@@ -473,9 +473,52 @@ private PersonalityStrategy mapNameToPersonality(String petName) {
    * @param health the health status to be displayed
    */
   public void updateHealth(int health) {
-    healthBar.setValue(health);
-    healthBar.setString("Health: " + health);
-    healthBar.setForeground(Color.gray); 
+    render(healthBar, () -> {
+      if (health != shownHealth) {
+        shownHealth = health;
+        showBar(healthBar, "Health: ", health);
+      }
+    });
+  }
+
+  /**
+   * This method applies an update to a label or bar. While the window is showing, the
+   * update is applied with the next frame on the event dispatch thread, together with the
+   * other updates of that frame; otherwise there is nothing to repaint and it is applied
+   * at once.
+   *
+   * @param component the component the update changes
+   * @param update the update
+   */
+  private void render(JComponent component, Runnable update) {
+    if (isShowing()) {
+      renderScheduler.schedule(component, update);
+    } else {
+      renderScheduler.cancel(component);
+      update.run();
+    }
+  }
+
+  /**
+   * This method shows a value in an attribute bar.
+   *
+   * @param bar the bar
+   * @param name the text in front of the value
+   * @param value the value
+   */
+  private void showBar(JProgressBar bar, String name, int value) {
+    bar.setValue(value);
+    bar.setString(name + value);
+    bar.setForeground(Color.gray);
+  }
+
+  /**
+   * This method returns the scheduler that applies the updates of the labels and bars.
+   *
+   * @return the render scheduler
+   */
+  public RenderScheduler getRenderScheduler() {
+    return renderScheduler;
   }
 
 
@@ -485,7 +528,12 @@ private PersonalityStrategy mapNameToPersonality(String petName) {
    * @param score the score to be displayed
    */
   public void updateScore(int score) {
-    scoreLabel.setText("Score: " + score);
+    render(scoreLabel, () -> {
+      if (score != shownScore) {
+        shownScore = score;
+        scoreLabel.setText("Score: " + score);
+      }
+    });
   }
 
   /**
@@ -494,9 +542,12 @@ private PersonalityStrategy mapNameToPersonality(String petName) {
    * @param hunger the hunger status to be displayed
    */
   public void updateHunger(int hunger) {
-    hungerBar.setValue(hunger);
-    hungerBar.setString("Hunger: " + hunger);
-    hungerBar.setForeground(Color.gray); 
+    render(hungerBar, () -> {
+      if (hunger != shownHunger) {
+        shownHunger = hunger;
+        showBar(hungerBar, "Hunger: ", hunger);
+      }
+    }); 
   }
 
   /**
@@ -505,9 +556,12 @@ private PersonalityStrategy mapNameToPersonality(String petName) {
    * @param social the social status to be displayed
    */
   public void updateSocial(int social) {
-    socialBar.setValue(social);
-    socialBar.setString("Social: " + social);
-    socialBar.setForeground(Color.gray);
+    render(socialBar, () -> {
+      if (social != shownSocial) {
+        shownSocial = social;
+        showBar(socialBar, "Social: ", social);
+      }
+    });
   }
 
   /**
@@ -516,9 +570,12 @@ private PersonalityStrategy mapNameToPersonality(String petName) {
    * @param sleep the sleep status to be displayed
    */
   public void updateSleep(int sleep) {
-    sleepBar.setValue(sleep);
-    sleepBar.setString("Sleep: " + sleep);
-    sleepBar.setForeground(Color.gray);
+    render(sleepBar, () -> {
+      if (sleep != shownSleep) {
+        shownSleep = sleep;
+        showBar(sleepBar, "Sleep: ", sleep);
+      }
+    });
   }
 
   /**
@@ -527,7 +584,12 @@ private PersonalityStrategy mapNameToPersonality(String petName) {
    * @param string the mood to be displayed
    */
   public void updateMood(String string) {
-    moodLabel.setText("Mood: " + string);
+    render(moodLabel, () -> {
+      if (!string.equals(shownMood)) {
+        shownMood = string;
+        moodLabel.setText("Mood: " + string);
+      }
+    });
   }
 
   /**
@@ -536,7 +598,12 @@ private PersonalityStrategy mapNameToPersonality(String petName) {
    * @param personality the personality to be displayed
    */
   public void updatePersonality(String personality) {
-    personalityLabel.setText("Pixel Pet: " + personality);
+    render(personalityLabel, () -> {
+      if (!personality.equals(shownPersonality)) {
+        shownPersonality = personality;
+        personalityLabel.setText("Pixel Pet: " + personality);
+      }
+    });
   }
 
   /**
@@ -607,12 +674,18 @@ private PersonalityStrategy mapNameToPersonality(String petName) {
    * @param timeInMillis the time in milliseconds
    */
   public void updateLastInteractedTime(long timeInMillis) {
-    // Convert the time to a readable format if needed
-    SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-    String formattedTime = sdf.format(new Date(timeInMillis));
-
-    // Update the lastInteractedLabel in the view
-    lastInteractedLabel.setText("Last Interaction: " + formattedTime);
+    render(lastInteractedLabel, () -> {
+      if (timeInMillis == shownLastInteractedTime) {
+        return;
+      }
+      shownLastInteractedTime = timeInMillis;
+      // Convert the time to a readable format if needed
+      SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+      String formattedTime = sdf.format(new Date(timeInMillis));
+
+      // Update the lastInteractedLabel in the view
+      lastInteractedLabel.setText("Last Interaction: " + formattedTime);
+    });
   }
 
   /**
@@ -757,14 +830,23 @@ private PersonalityStrategy mapNameToPersonality(String petName) {
 
 /**
  * This method displays the inventory dialog.
+ * If the items are the item view of the inventory the list follows, only the changes that
+ * have not been shown yet are applied.
  * 
  * @param items
  */
     public void updateInventory(List<Item> items) {
-        inventoryListModel.clear();
-        for (Item item : items) {
-            inventoryListModel.addElement(item.getName());
-        }
+        inventoryListModel.setItems(items);
+    }
+
+    /**
+     * This method shows an inventory in the inventory list. The list follows the
+     * inventory's changes from then on, so it does not have to be updated.
+     *
+     * @param inventory the inventory to show
+     */
+    public void showInventory(Inventory inventory) {
+        inventoryListModel.setInventory(inventory);
     }
 
 
@@ -787,7 +869,8 @@ private PersonalityStrategy mapNameToPersonality(String petName) {
     public Item getSelectedItem(List<Item> items) {
         int selectedIndex = inventoryList.getSelectedIndex();
         if (selectedIndex != -1) {
-            return items.get(selectedIndex);
+            // The item in the selected row, even if the inventory changed since it was shown
+            return inventoryListModel.getItemAt(selectedIndex);
         } else {
             return null;
         }
@@ -809,16 +892,17 @@ private PersonalityStrategy mapNameToPersonality(String petName) {
    * @param model
    */
   public void updateViewWithModel(Pet model) {
-    updateScore(model.getscore());
-    updateHealth(model.getHealth());
-    updateHunger(model.getHunger());
-    updateSocial(model.getSocial());
-    updateSleep(model.getSleep());
-    updateMood(model.getMood().toString());
+    PetState state = model.snapshot();
+    updateScore(state.getScore());
+    updateHealth(state.getHealth());
+    updateHunger(state.getHunger());
+    updateSocial(state.getSocial());
+    updateSleep(state.getSleep());
+    updateMood(state.getMood().toString());
     updatePersonality(model.getPersonality() != null ? model.getPersonality().getClass().getSimpleName() : "No Personality Set");
     updateLastInteractedTime(model.getLastInteractedTime());
-    updateInventory(model.getInventory().getItems());
-    updatePetImage(model.getPetName(), false, model.isSleeping()); // Ensure the pet image is updated
+    showInventory(model.getInventory());
+    updatePetImage(model.getPetName(), false, state.isSleeping()); // Ensure the pet image is updated
     setActionButtonsEnabled(true);
     toggleAttributesVisibility(true);
     toggleButtonsVisibility(true);
@@ -0,0 +1,222 @@
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One thread that draws every animated pet on screen at a fixed frame rate.
+ *
+ * <p>Each {@link PetCanvas} registers itself while it is on screen. The loop then draws
+ * every registered target once per frame, one after the other, and sleeps until the next
+ * frame is due. A frame that took too long is not made up: the loop skips the frames it
+ * missed and counts them as dropped, so the animations stay in time. With no targets the
+ * thread sleeps until one is added.</p>
+ *
+ * <p>The loop itself allocates nothing per frame: the targets are kept in an array that is
+ * only replaced when a target is added or removed. The frame rate is set with the system
+ * property {@value #FRAME_RATE_PROPERTY}.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * {@code
+ * RenderLoop.getInstance().add(frameNanos -> draw(frameNanos));
+ * }
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see PetCanvas
+ */
+public class RenderLoop {
+
+  /**
+   * Something the loop draws every frame.
+   */
+  public interface Target {
+
+    /**
+     * Draws a frame. Called on the loop's thread.
+     *
+     * @param frameNanos the time of the frame, from {@link System#nanoTime()}
+     */
+    void renderFrame(long frameNanos);
+  }
+
+  /**
+   * The system property that sets the frame rate.
+   */
+  public static final String FRAME_RATE_PROPERTY = "pet.frameRate";
+
+  /**
+   * The default number of frames per second.
+   */
+  public static final int DEFAULT_FRAME_RATE = 60;
+
+  private static final Target[] NO_TARGETS = new Target[0];
+
+  private static RenderLoop instance;
+
+  private final long frameNanos;
+  private volatile Target[] targets = NO_TARGETS;
+  private Thread thread;
+
+  private volatile long frames;
+  private volatile long droppedFrames;
+  private volatile long busyNanos;
+  private volatile long maxBusyNanos;
+
+  /**
+   * Constructs a loop. Its thread starts when the first target is added.
+   *
+   * @param framesPerSecond the number of frames per second
+   * @throws IllegalArgumentException if the frame rate is not positive
+   */
+  public RenderLoop(int framesPerSecond) {
+    if (framesPerSecond <= 0) {
+      throw new IllegalArgumentException("Frame rate must be positive: " + framesPerSecond);
+    }
+    this.frameNanos = 1_000_000_000L / framesPerSecond;
+  }
+
+  /**
+   * Returns the loop that draws the game's pets, with the frame rate from
+   * {@value #FRAME_RATE_PROPERTY}.
+   *
+   * @return the shared loop
+   */
+  public static synchronized RenderLoop getInstance() {
+    if (instance == null) {
+      instance = new RenderLoop(Integer.getInteger(FRAME_RATE_PROPERTY, DEFAULT_FRAME_RATE));
+    }
+    return instance;
+  }
+
+  /**
+   * Adds a target, starting the loop's thread if necessary. Adding a target twice does
+   * nothing.
+   *
+   * @param target the target
+   */
+  public synchronized void add(Target target) {
+    for (Target existing : targets) {
+      if (existing == target) {
+        return;
+      }
+    }
+    Target[] grown = Arrays.copyOf(targets, targets.length + 1);
+    grown[targets.length] = target;
+    targets = grown;
+    if (thread == null) {
+      thread = ExecutionMode.daemonThreads("pet-render-loop-").newThread(this::run);
+      thread.start();
+    }
+    LockSupport.unpark(thread);
+  }
+
+  /**
+   * Removes a target. A frame that is being drawn may still draw it.
+   *
+   * @param target the target
+   */
+  public synchronized void remove(Target target) {
+    for (int i = 0; i < targets.length; i++) {
+      if (targets[i] == target) {
+        Target[] shrunk = new Target[targets.length - 1];
+        System.arraycopy(targets, 0, shrunk, 0, i);
+        System.arraycopy(targets, i + 1, shrunk, i, shrunk.length - i);
+        targets = shrunk;
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of targets.
+   *
+   * @return the number of targets
+   */
+  public int getTargetCount() {
+    return targets.length;
+  }
+
+  private void run() {
+    long next = System.nanoTime();
+    while (true) {
+      Target[] current = targets;
+      if (current.length == 0) {
+        LockSupport.park(this);
+        next = System.nanoTime();
+        continue;
+      }
+      long begin = System.nanoTime();
+      for (Target target : current) {
+        try {
+          target.renderFrame(begin);
+        } catch (RuntimeException e) {
+          // One broken target must not stop the others
+          System.err.println("Error drawing a frame: " + e);
+        }
+      }
+      long end = System.nanoTime();
+      long busy = end - begin;
+      busyNanos += busy;
+      if (busy > maxBusyNanos) {
+        maxBusyNanos = busy;
+      }
+      frames++;
+      next += frameNanos;
+      if (end > next) {
+        long missed = (end - next) / frameNanos + 1;
+        droppedFrames += missed;
+        next += missed * frameNanos;
+      }
+      long wait;
+      while ((wait = next - System.nanoTime()) > 0) {
+        LockSupport.parkNanos(this, wait);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of frames drawn.
+   *
+   * @return the number of frames
+   */
+  public long getFrames() {
+    return frames;
+  }
+
+  /**
+   * Returns the number of frames skipped because the frame before took too long.
+   *
+   * @return the number of dropped frames
+   */
+  public long getDroppedFrames() {
+    return droppedFrames;
+  }
+
+  /**
+   * Returns the time spent drawing.
+   *
+   * @return the time in nanoseconds
+   */
+  public long getBusyNanos() {
+    return busyNanos;
+  }
+
+  /**
+   * Returns the longest time a frame took to draw.
+   *
+   * @return the time in nanoseconds
+   */
+  public long getMaxBusyNanos() {
+    return maxBusyNanos;
+  }
+
+  /**
+   * Returns the time between two frames.
+   *
+   * @return the time in nanoseconds
+   */
+  public long getFrameNanos() {
+    return frameNanos;
+  }
+}
@@ -0,0 +1,169 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Collects updates to Swing components and applies them on the event dispatch thread at
+ * most once per display frame.
+ *
+ * <p>The game window used to set each label and bar as soon as the controller read the pet,
+ * from whichever thread that happened on, and every setter repainted its component. Now an
+ * update is registered under a key, normally the component it changes. Only the newest
+ * update per key is kept, and one task on the event dispatch thread applies all pending
+ * updates together, no sooner than one frame after the previous batch. However often the
+ * pet changes, each component is therefore set at most once per frame, and only from the
+ * event dispatch thread.</p>
+ *
+ * <p>The scheduler counts the updates it was given, the updates it applied and the time the
+ * event dispatch thread spent applying them, so the effect of the batching can be
+ * measured.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * {@code
+ * RenderScheduler render = new RenderScheduler(RenderScheduler.DEFAULT_FRAME_RATE);
+ * render.schedule(healthBar, () -> healthBar.setValue(health));
+ * }
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see PetView
+ */
+public class RenderScheduler {
+
+  /**
+   * The default number of frames per second.
+   */
+  public static final int DEFAULT_FRAME_RATE = 60;
+
+  private final long frameNanos;
+  private final Timer frameTimer;
+  // The newest update for each key, in the order the keys were first updated
+  private final Map<Object, Runnable> pending = new LinkedHashMap<>();
+  private boolean scheduled;
+  private long nextFrameNanos;
+
+  private volatile long requestedUpdates;
+  private volatile long appliedUpdates;
+  private volatile long frames;
+  private volatile long busyNanos;
+
+  /**
+   * Constructs a scheduler.
+   *
+   * @param framesPerSecond the highest number of batches applied per second
+   * @throws IllegalArgumentException if the frame rate is not positive
+   */
+  public RenderScheduler(int framesPerSecond) {
+    if (framesPerSecond <= 0) {
+      throw new IllegalArgumentException("Frame rate must be positive: " + framesPerSecond);
+    }
+    this.frameNanos = 1_000_000_000L / framesPerSecond;
+    this.nextFrameNanos = System.nanoTime();
+    frameTimer = new Timer(0, e -> flush());
+    frameTimer.setRepeats(false);
+  }
+
+  /**
+   * Registers an update. It replaces any pending update with the same key and is applied on
+   * the event dispatch thread with the next frame. This method may be called from any
+   * thread.
+   *
+   * @param key identifies what the update changes, usually the component
+   * @param update the update
+   */
+  public void schedule(Object key, Runnable update) {
+    long delay;
+    synchronized (this) {
+      requestedUpdates++;
+      pending.put(key, update);
+      if (scheduled) {
+        return;
+      }
+      scheduled = true;
+      delay = nextFrameNanos - System.nanoTime();
+    }
+    if (delay <= 0) {
+      SwingUtilities.invokeLater(this::flush);
+    } else {
+      // Round up, so a batch never comes early
+      frameTimer.setInitialDelay((int) ((delay + 999_999) / 1_000_000));
+      frameTimer.restart();
+    }
+  }
+
+  /**
+   * Drops the pending update with a key, for example because the component was just set
+   * directly.
+   *
+   * @param key the key of the update
+   */
+  public synchronized void cancel(Object key) {
+    pending.remove(key);
+  }
+
+  /**
+   * Applies the pending updates now. Call this method on the event dispatch thread.
+   */
+  public void flush() {
+    long begin = System.nanoTime();
+    Runnable[] updates;
+    synchronized (this) {
+      scheduled = false;
+      nextFrameNanos = begin + frameNanos;
+      if (pending.isEmpty()) {
+        return;
+      }
+      updates = pending.values().toArray(new Runnable[0]);
+      pending.clear();
+    }
+    for (Runnable update : updates) {
+      update.run();
+    }
+    synchronized (this) {
+      appliedUpdates += updates.length;
+      frames++;
+      busyNanos += System.nanoTime() - begin;
+    }
+  }
+
+  /**
+   * Returns the number of updates registered.
+   *
+   * @return the number of updates given to {@link #schedule(Object, Runnable)}
+   */
+  public long getRequestedUpdates() {
+    return requestedUpdates;
+  }
+
+  /**
+   * Returns the number of updates applied. The difference to
+   * {@link #getRequestedUpdates()} is the number of updates that were replaced by newer ones
+   * or cancelled.
+   *
+   * @return the number of updates applied
+   */
+  public long getAppliedUpdates() {
+    return appliedUpdates;
+  }
+
+  /**
+   * Returns the number of batches applied.
+   *
+   * @return the number of frames
+   */
+  public long getFrames() {
+    return frames;
+  }
+
+  /**
+   * Returns the time the event dispatch thread spent applying updates.
+   *
+   * @return the time in nanoseconds
+   */
+  public long getBusyNanos() {
+    return busyNanos;
+  }
+}
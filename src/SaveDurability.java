@@ -0,0 +1,124 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * How hard a save tries to survive a crash.
+ *
+ * <p>Every level writes a save file atomically: the new contents go to a temporary file
+ * next to the save file, which then replaces the save file in one atomic rename. A crash in
+ * the middle of a save therefore leaves either the old file or the new one, never a
+ * truncated mix. The levels differ in when the data is forced to the storage device:</p>
+ * <ul>
+ *   <li>{@link #NONE} never forces. The save survives the game crashing or being killed,
+ *       but a power loss can lose it. This is the fastest level.</li>
+ *   <li>{@link #DATA} forces the file's contents before the rename, like {@code fdatasync}.
+ *       The new contents are on disk before they replace the old ones.</li>
+ *   <li>{@link #FULL} also forces the file's metadata and, after the rename, the directory,
+ *       so the rename itself survives a power loss.</li>
+ * </ul>
+ *
+ * <p>The level is read from the {@value #PROPERTY} system property and can be changed per
+ * pet with {@link Pet#setSaveDurability(SaveDurability)}:</p>
+ * <pre>
+ * java -Dpet.saveDurability=none -jar PixelPets.jar
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see Pet#save(String)
+ * @see PetJournal#sync(SaveDurability)
+ */
+public enum SaveDurability {
+  /**
+   * Atomic rename only; nothing is forced to the storage device.
+   */
+  NONE,
+
+  /**
+   * The file's contents are forced to the storage device before the rename.
+   */
+  DATA,
+
+  /**
+   * The file's contents and metadata and the directory entry are forced to the device.
+   */
+  FULL;
+
+  /**
+   * The system property that selects the default durability.
+   */
+  public static final String PROPERTY = "pet.saveDurability";
+
+  /**
+   * Returns the durability named by the {@value #PROPERTY} system property.
+   *
+   * @return the configured durability, or {@link #DATA} if the property is not set
+   * @throws IllegalArgumentException if the property names an unknown level
+   */
+  public static SaveDurability fromSystemProperty() {
+    String value = System.getProperty(PROPERTY);
+    if (value == null || value.isBlank()) {
+      return DATA;
+    }
+    return valueOf(value.trim().toUpperCase(Locale.ROOT));
+  }
+
+  /**
+   * Atomically replaces a file with new contents.
+   *
+   * @param target the file to replace; it is created if it does not exist
+   * @param contents the new contents
+   * @throws IOException if the file cannot be written; the old file is then left as it was
+   */
+  public void write(Path target, byte[] contents) throws IOException {
+    Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer buffer = ByteBuffer.wrap(contents);
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      force(channel);
+    }
+    try {
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      // Some file systems cannot rename atomically; replacing is the best they offer
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+    if (this == FULL) {
+      forceDirectory(target.toAbsolutePath().getParent());
+    }
+  }
+
+  /**
+   * Forces a written file to the storage device as far as this level requires.
+   *
+   * @param channel the file's channel
+   * @throws IOException if the file cannot be forced
+   */
+  void force(FileChannel channel) throws IOException {
+    if (this != NONE) {
+      channel.force(this == FULL);
+    }
+  }
+
+  private static void forceDirectory(Path directory) throws IOException {
+    if (directory == null) {
+      return;
+    }
+    try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      channel.force(true);
+    } catch (IOException e) {
+      // Not every platform can open a directory; Windows persists renames on its own
+    }
+  }
+}
@@ -0,0 +1,271 @@
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The fixed-size header at the start of every save file, which describes the saved pet
+ * without loading it.
+ *
+ * <p>Listing the save slots used to mean loading each pet, which decodes the whole file and
+ * starts the pet's background services. The header holds what the load dialog shows in
+ * {@value #SIZE} bytes at the start of the file, so one positioned read per slot is enough.
+ * A slot's journal can hold newer attributes than its save file; {@link #preview(String)}
+ * reads the journal's last record as well, with one more positioned read.</p>
+ *
+ * <p>Layout (big-endian):</p>
+ * <ul>
+ *   <li>magic {@code "PPET"} (4 bytes), format version (2 bytes), header size (2 bytes)</li>
+ *   <li>time of the save in milliseconds since the epoch (8 bytes)</li>
+ *   <li>journal sequence covered by the save (8 bytes)</li>
+ *   <li>score (4 bytes), health, flags and personality code (1 byte each)</li>
+ *   <li>length of the pet name (1 byte), then the name in UTF-8, cut to
+ *       {@value #MAX_NAME_BYTES} bytes; the full name is in the rest of the file</li>
+ * </ul>
+ * <p>Saves written before the header existed have no details; {@link #hasDetails()} returns
+ * false for them.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * {@code
+ * SaveHeader header = SaveHeader.preview("1");
+ * if (header != null && header.hasDetails()) {
+ *   System.out.println(header.getPetName() + ": " + header.getScore());
+ * }
+ * }
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see PetCodec
+ * @see Pet#load(String)
+ */
+public final class SaveHeader {
+
+  /**
+   * The size of the header in bytes.
+   */
+  public static final int SIZE = 64;
+
+  /**
+   * The longest pet name the header holds, in UTF-8 bytes.
+   */
+  public static final int MAX_NAME_BYTES = SIZE - 32;
+
+  private static final int FLAG_SLEEPING = 1;
+  private static final int FLAG_DEAD = 1 << 1;
+
+  private final int version;
+  private final long savedTime;
+  private final long journalSequence;
+  private final int score;
+  private final int health;
+  private final int flags;
+  private final int personalityCode;
+  private final String petName;
+
+  private SaveHeader(int version, long savedTime, long journalSequence, int score, int health,
+      int flags, int personalityCode, String petName) {
+    this.version = version;
+    this.savedTime = savedTime;
+    this.journalSequence = journalSequence;
+    this.score = score;
+    this.health = health;
+    this.flags = flags;
+    this.personalityCode = personalityCode;
+    this.petName = petName;
+  }
+
+  /**
+   * Writes a header.
+   *
+   * @param out the output, positioned at the start of the file
+   * @param word the pet's packed attributes
+   * @param petName the pet's name, or null
+   * @param personality the pet's personality, or null
+   * @param journalSequence the journal sequence the save covers
+   * @param savedTime the time of the save in milliseconds since the epoch
+   * @throws IOException if the personality cannot be saved or the output fails
+   */
+  static void write(DataOutput out, long word, String petName, PersonalityStrategy personality,
+      long journalSequence, long savedTime) throws IOException {
+    byte[] name = petName == null ? new byte[0] : petName.getBytes(StandardCharsets.UTF_8);
+    int nameLength = Math.min(name.length, MAX_NAME_BYTES);
+    // Cut the name at a character boundary rather than in the middle of a UTF-8 sequence
+    while (nameLength < name.length && (name[nameLength] & 0xC0) == 0x80) {
+      nameLength--;
+    }
+    out.writeInt(PetCodec.MAGIC);
+    out.writeShort(PetCodec.VERSION);
+    out.writeShort(SIZE);
+    out.writeLong(savedTime);
+    out.writeLong(journalSequence);
+    out.writeInt(PetState.score(word));
+    out.writeByte(PetState.health(word));
+    out.writeByte((PetState.sleeping(word) ? FLAG_SLEEPING : 0)
+        | (PetState.dead(word) ? FLAG_DEAD : 0));
+    out.writeByte(PetCodec.personalityCode(personality));
+    out.writeByte(nameLength);
+    out.write(name, 0, nameLength);
+    out.write(new byte[MAX_NAME_BYTES - nameLength]);
+  }
+
+  /**
+   * Reads the header of a save file with one positioned read.
+   *
+   * @param file the save file
+   * @return the header, or null if the file does not exist
+   * @throws IOException if the file cannot be read or is not a save file
+   */
+  public static SaveHeader read(Path file) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      // One read fills the buffer; only a file shorter than the header needs a second one
+      while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+        continue;
+      }
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+    buffer.flip();
+    if (buffer.remaining() >= 2 && PetCodec.isLegacy(buffer.array())) {
+      return new SaveHeader(0, 0, 0, 0, 0, 0, 0, null);
+    }
+    if (buffer.remaining() < 6 || buffer.getInt(0) != PetCodec.MAGIC) {
+      throw new InvalidObjectException("Not a pet save file: " + file);
+    }
+    int version = buffer.getShort(4) & 0xFFFF;
+    if (version < 2) {
+      // Written before the header existed
+      return new SaveHeader(version, 0, 0, 0, 0, 0, 0, null);
+    }
+    if (buffer.remaining() < SIZE) {
+      throw new InvalidObjectException("Truncated save file: " + file);
+    }
+    int nameLength = Math.min(buffer.get(31) & 0xFF, MAX_NAME_BYTES);
+    String name = nameLength == 0 ? null
+        : new String(buffer.array(), 32, nameLength, StandardCharsets.UTF_8);
+    return new SaveHeader(version, buffer.getLong(8), buffer.getLong(16), buffer.getInt(24),
+        buffer.get(28) & 0xFF, buffer.get(29) & 0xFF, buffer.get(30) & 0xFF, name);
+  }
+
+  /**
+   * Reads what a save slot holds without loading the pet: the header of the slot's save file,
+   * updated with the attributes of the slot's latest journal record if the journal holds
+   * changes made after the save file was written.
+   *
+   * @param slot the save slot identifier
+   * @return the slot's header, or null if the slot is empty
+   * @throws IOException if the save file cannot be read or is not a save file
+   */
+  public static SaveHeader preview(String slot) throws IOException {
+    SaveHeader header = read(Path.of("saves/pet_save_" + slot + ".dat"));
+    if (header == null || !header.hasDetails()) {
+      return header;
+    }
+    Path journal = Path.of("saves/pet_save_" + slot + ".journal");
+    PetJournal.Record last = PetJournal.readLast(journal);
+    if (last == null || last.getSequence() <= header.journalSequence) {
+      return header;
+    }
+    long word = last.getState();
+    int flags = (PetState.sleeping(word) ? FLAG_SLEEPING : 0)
+        | (PetState.dead(word) ? FLAG_DEAD : 0);
+    long savedTime = Math.max(header.savedTime, Files.getLastModifiedTime(journal).toMillis());
+    return new SaveHeader(header.version, savedTime, last.getSequence(), PetState.score(word),
+        PetState.health(word), flags, header.personalityCode, header.petName);
+  }
+
+  /**
+   * Check if the header describes the pet. Saves written by earlier versions of the game
+   * have no header; only their existence is known.
+   *
+   * @return true if the getters return the saved pet's details, false otherwise
+   */
+  public boolean hasDetails() {
+    return version >= 2;
+  }
+
+  /**
+   * Returns the save format version of the file.
+   *
+   * @return the format version, or 0 for a save written with Java serialization
+   */
+  public int getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns when the slot was last saved.
+   *
+   * @return the time of the save in milliseconds since the epoch
+   */
+  public long getSavedTime() {
+    return savedTime;
+  }
+
+  /**
+   * Returns the pet's name, cut to {@value #MAX_NAME_BYTES} UTF-8 bytes.
+   *
+   * @return the pet's name, or null if the pet has none
+   */
+  public String getPetName() {
+    return petName;
+  }
+
+  /**
+   * Returns the name of the pet's personality.
+   *
+   * @return "Dog", "Cat" or "Bird", or null if the pet has no personality
+   */
+  public String getPersonalityName() {
+    return switch (personalityCode) {
+      case 1 -> "Dog";
+      case 2 -> "Cat";
+      case 3 -> "Bird";
+      default -> null;
+    };
+  }
+
+  /**
+   * Returns the pet's score.
+   *
+   * @return the score
+   */
+  public int getScore() {
+    return score;
+  }
+
+  /**
+   * Returns the pet's health.
+   *
+   * @return the health
+   */
+  public int getHealth() {
+    return health;
+  }
+
+  /**
+   * Check if the pet is dead.
+   *
+   * @return true if the saved pet is dead, false otherwise
+   */
+  public boolean isDead() {
+    return (flags & FLAG_DEAD) != 0;
+  }
+
+  /**
+   * Check if the pet is sleeping.
+   *
+   * @return true if the saved pet is sleeping, false otherwise
+   */
+  public boolean isSleeping() {
+    return (flags & FLAG_SLEEPING) != 0;
+  }
+}
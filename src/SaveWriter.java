@@ -0,0 +1,234 @@
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Writes save files in the background, one at a time and in the order they were requested.
+ *
+ * <p>Saving used to happen on whichever thread asked for it: the Swing event dispatch thread
+ * froze while the file was written, and autosave wrote the same slot again from another
+ * thread at the same time. The writer queues every save instead and runs the queue on a
+ * blocking executor. A save requested for a slot that already has a save waiting in the
+ * queue does not queue a second write: the two requests share the one write, which runs
+ * the most recently submitted task and so saves the newest state. Writes that have already
+ * started are never merged with later requests, so a completed future always means that the
+ * state at the time of the request, or a newer one, is on disk.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * {@code
+ * SaveWriter writer = scheduler.getSaveWriter();
+ * writer.submit("1", () -> Files.write(Path.of("saves/pet_save_1.dat"), bytes))
+ *     .thenRun(() -> System.out.println("Saved"));
+ * }
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see Pet#saveAsync(String)
+ * @see PetScheduler#getSaveWriter()
+ */
+public class SaveWriter {
+
+  /**
+   * One piece of file I/O run by the writer.
+   */
+  @FunctionalInterface
+  public interface Write {
+    /**
+     * Performs the write.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    void run() throws IOException;
+  }
+
+  private final Executor executor;
+  private final ArrayDeque<Job> queue = new ArrayDeque<>();
+  private final Map<String, Job> waiting = new HashMap<>();
+  private boolean draining;
+  private long requestCount;
+  private long writeCount;
+
+  /**
+   * Constructs a writer that runs its queue on the given executor. The executor may run
+   * blocking work; at most one of its threads is used at a time.
+   *
+   * @param executor the executor for the file I/O
+   */
+  public SaveWriter(Executor executor) {
+    if (executor == null) {
+      throw new NullPointerException("Executor cannot be null");
+    }
+    this.executor = executor;
+  }
+
+  /**
+   * Queues a save to a slot. If a save to the same slot is already waiting, this request
+   * replaces its task and shares its future.
+   *
+   * @param slot the save slot the task writes
+   * @param write the task that writes the slot
+   * @return a future that completes once the slot has been written, or completes
+   *     exceptionally with the task's exception
+   */
+  public CompletableFuture<Void> submit(String slot, Write write) {
+    if (slot == null || write == null) {
+      throw new NullPointerException("Slot and write cannot be null");
+    }
+    Job job;
+    boolean start;
+    synchronized (this) {
+      requestCount++;
+      job = waiting.get(slot);
+      if (job != null) {
+        job.write = write;
+        return job.future.copy();
+      }
+      job = new Job(slot, write);
+      waiting.put(slot, job);
+      start = enqueue(job);
+    }
+    if (start) {
+      start();
+    }
+    return job.future.copy();
+  }
+
+  /**
+   * Queues a task that is never merged with other requests, behind everything queued so
+   * far. This is meant for work that must follow the pending saves, such as closing files
+   * they still write to.
+   *
+   * @param write the task
+   * @return a future that completes once the task has run
+   */
+  public CompletableFuture<Void> execute(Write write) {
+    if (write == null) {
+      throw new NullPointerException("Write cannot be null");
+    }
+    Job job = new Job(null, write);
+    boolean start;
+    synchronized (this) {
+      start = enqueue(job);
+    }
+    if (start) {
+      start();
+    }
+    return job.future.copy();
+  }
+
+  /**
+   * Returns a future that completes once everything queued so far has been written.
+   *
+   * @return a future that completes when the current queue has drained
+   */
+  public CompletableFuture<Void> flush() {
+    // A failed save is reported through its own future, not through the flush
+    return execute(() -> { });
+  }
+
+  /**
+   * Waits until everything queued so far has been written.
+   *
+   * @param timeout the longest time to wait
+   * @param unit the unit of {@code timeout}
+   * @return true if the queue drained in time, false if the wait timed out or was interrupted
+   */
+  public boolean awaitIdle(long timeout, TimeUnit unit) {
+    try {
+      flush().get(timeout, unit);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (ExecutionException | TimeoutException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Returns the number of saves requested through {@link #submit(String, Write)}.
+   *
+   * @return the number of save requests
+   */
+  public synchronized long getRequestCount() {
+    return requestCount;
+  }
+
+  /**
+   * Returns the number of saves actually written. The difference to
+   * {@link #getRequestCount()} is the number of requests that were merged into another.
+   *
+   * @return the number of save writes
+   */
+  public synchronized long getWriteCount() {
+    return writeCount;
+  }
+
+  /**
+   * Adds a job to the queue.
+   *
+   * @return true if no thread is draining the queue and the caller has to start one
+   */
+  private boolean enqueue(Job job) {
+    queue.add(job);
+    if (draining) {
+      return false;
+    }
+    draining = true;
+    return true;
+  }
+
+  private void start() {
+    try {
+      executor.execute(this::drain);
+    } catch (RejectedExecutionException e) {
+      // The executor has been shut down; finish the queue on the caller instead
+      drain();
+    }
+  }
+
+  private void drain() {
+    while (true) {
+      Job job;
+      Write write;
+      synchronized (this) {
+        job = queue.poll();
+        if (job == null) {
+          draining = false;
+          return;
+        }
+        if (job.slot != null) {
+          waiting.remove(job.slot);
+          writeCount++;
+        }
+        write = job.write;
+      }
+      try {
+        write.run();
+        job.future.complete(null);
+      } catch (IOException | RuntimeException e) {
+        job.future.completeExceptionally(e);
+      }
+    }
+  }
+
+  private static final class Job {
+    final String slot;
+    final CompletableFuture<Void> future = new CompletableFuture<>();
+    Write write;
+
+    Job(String slot, Write write) {
+      this.slot = slot;
+      this.write = write;
+    }
+  }
+}
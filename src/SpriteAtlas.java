@@ -0,0 +1,187 @@
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Every animation frame of one pet type, drawn once and packed into a single image.
+ *
+ * <p>A {@link PetAnimation} stretches and fades the pet's pictures. Doing that while the
+ * frame is shown would scale a picture every frame, which is slow and, in Java2D, allocates.
+ * The atlas draws each frame once when it is built instead, into a cell the size of the
+ * canvas; frames that look the same share a cell. Showing a frame is then a plain copy of
+ * one cell. The atlas is an image in the screen's format that is never changed after it is
+ * built, so Java2D keeps a copy of it in video memory and the copy runs on the graphics
+ * card.</p>
+ *
+ * <p>The pictures come from the {@link SpriteCache}, so an atlas built after the
+ * {@link AssetPreloader} has run decodes nothing.</p>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see PetAnimation
+ */
+public class SpriteAtlas {
+
+  // Cells per row of the image, so it stays within the texture sizes of graphics cards
+  private static final int COLUMNS = 8;
+
+  private static final List<SpriteAtlas> atlases = new ArrayList<>();
+
+  private final String petType;
+  private final int size;
+  private final int[][] cellOf;
+  private final int cells;
+  private final BufferedImage image;
+
+  /**
+   * Builds an atlas.
+   *
+   * @param sprites the cache to take the pictures from
+   * @param petType the pet type, such as "Dog"
+   * @param size the width and height of a frame
+   */
+  public SpriteAtlas(SpriteCache sprites, String petType, int size) {
+    this.petType = petType;
+    this.size = size;
+    PetAnimation[] animations = PetAnimation.values();
+    cellOf = new int[animations.length][];
+    // The look of each cell: picture, width, height and fade, indexed by cell
+    List<int[]> looks = new ArrayList<>();
+    for (PetAnimation animation : animations) {
+      int[] frameCells = new int[animation.getFrames()];
+      for (int frame = 0; frame < frameCells.length; frame++) {
+        int[] look = lookOf(animation, frame);
+        int cell = 0;
+        while (cell < looks.size() && !Arrays.equals(looks.get(cell), look)) {
+          cell++;
+        }
+        if (cell == looks.size()) {
+          looks.add(look);
+        }
+        frameCells[frame] = cell;
+      }
+      cellOf[animation.ordinal()] = frameCells;
+    }
+    cells = looks.size();
+    int rows = (cells + COLUMNS - 1) / COLUMNS;
+    image = SpriteCache.createCompatibleImage(Math.min(cells, COLUMNS) * size, rows * size,
+        Transparency.OPAQUE);
+    Graphics2D g = image.createGraphics();
+    try {
+      g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+          RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      g.setColor(Color.WHITE);
+      g.fillRect(0, 0, image.getWidth(), image.getHeight());
+      SpriteState[] states = SpriteState.values();
+      for (int cell = 0; cell < cells; cell++) {
+        int[] look = looks.get(cell);
+        int x = cell % COLUMNS * size;
+        int y = cell / COLUMNS * size;
+        g.setClip(x, y, size, size);
+        drawPicture(g, sprites.getImage(petType, states[look[0]], size, size), x, y,
+            look[1], look[2]);
+        if (look[3] > 0) {
+          g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, look[3] / 255f));
+          drawPicture(g, sprites.getImage(petType, states[look[4]], size, size),
+              x, y, look[1], look[2]);
+          g.setComposite(AlphaComposite.SrcOver);
+        }
+      }
+    } finally {
+      g.dispose();
+    }
+  }
+
+  // The frame's picture, width and height in pixels, and fade opacity and picture
+  private int[] lookOf(PetAnimation animation, int frame) {
+    int fade = Math.round(animation.fadeAt(frame) * 255);
+    return new int[] {
+        animation.spriteAt(frame).ordinal(),
+        Math.round(animation.widthAt(frame) * size),
+        Math.round(animation.heightAt(frame) * size),
+        fade,
+        fade > 0 ? animation.fadeSprite().ordinal() : 0};
+  }
+
+  // Draws a picture centered horizontally and standing on the bottom of the cell
+  private void drawPicture(Graphics2D g, BufferedImage picture, int x, int y, int width,
+      int height) {
+    if (picture != null) {
+      g.drawImage(picture, x + (size - width) / 2, y + size - height, width, height, null);
+    }
+  }
+
+  /**
+   * Returns the shared atlas of a pet type at a size, building it the first time.
+   *
+   * @param petType the pet type, such as "Dog"; case does not matter
+   * @param size the width and height of a frame
+   * @return the atlas, or null if there are no pictures of the pet type
+   */
+  public static synchronized SpriteAtlas get(String petType, int size) {
+    if (petType == null) {
+      return null;
+    }
+    for (SpriteAtlas atlas : atlases) {
+      if (atlas.size == size && atlas.petType.equalsIgnoreCase(petType)) {
+        return atlas;
+      }
+    }
+    SpriteCache sprites = SpriteCache.getInstance();
+    if (sprites.getImage(petType, SpriteState.NORMAL, size, size) == null) {
+      return null;
+    }
+    SpriteAtlas atlas = new SpriteAtlas(sprites, petType, size);
+    atlases.add(atlas);
+    return atlas;
+  }
+
+  /**
+   * Returns the pet type.
+   *
+   * @return the pet type
+   */
+  public String getPetType() {
+    return petType;
+  }
+
+  /**
+   * Returns the width and height of a frame.
+   *
+   * @return the size in pixels
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Returns the number of cells, which is the number of frames that look different.
+   *
+   * @return the number of cells
+   */
+  public int getCells() {
+    return cells;
+  }
+
+  /**
+   * Draws a frame of an animation. The frame is copied unscaled, so this allocates nothing.
+   *
+   * @param g the graphics to draw with
+   * @param animation the animation
+   * @param frame the frame
+   * @param x the left of the frame
+   * @param y the top of the frame
+   */
+  public void draw(Graphics2D g, PetAnimation animation, int frame, int x, int y) {
+    int cell = cellOf[animation.ordinal()][frame];
+    int sx = cell % COLUMNS * size;
+    int sy = cell / COLUMNS * size;
+    g.drawImage(image, x, y, x + size, y + size, sx, sy, sx + size, sy + size, null);
+  }
+}
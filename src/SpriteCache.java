@@ -0,0 +1,419 @@
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+/**
+ * Keeps the pet images decoded and scaled to the sizes they are shown at.
+ *
+ * <p>The game window used to find, decode and scale the pet's JPEG every time it showed the
+ * pet, which happened on every action; the pet selection dialog did the same for its
+ * buttons. The cache does this once per pet type, {@link SpriteState} and size: the image
+ * is decoded, scaled down in high quality and drawn into an image in the screen's format,
+ * so drawing it needs no conversion. A later request for the same sprite returns the same
+ * {@link ImageIcon} and allocates nothing.</p>
+ *
+ * <p>The sprites together may use at most a budget of memory, counted at four bytes per
+ * pixel. When a new sprite does not fit, the sprites used least recently are dropped; a
+ * dropped sprite is simply decoded again the next time it is needed. The budget is set
+ * with the system property {@value #BUDGET_PROPERTY} in bytes.</p>
+ *
+ * <p>A game has a handful of sprites, so they are found by a linear scan, which needs no
+ * key object. Sprites are decoded outside the cache's lock, so several threads can decode
+ * different sprites at once, and a thread that asks for a sprite another thread is already
+ * decoding waits for that result instead of decoding it again. The {@link AssetPreloader}
+ * relies on this: the game window only waits for the sprites it shows that are not ready
+ * yet.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * {@code
+ * ImageIcon icon = SpriteCache.getInstance().getIcon("Dog", SpriteState.SLEEP, 300, 300);
+ * }
+ * </pre>
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see SpriteState
+ */
+public class SpriteCache {
+
+  /**
+   * The system property that sets the memory budget in bytes.
+   */
+  public static final String BUDGET_PROPERTY = "pet.spriteCacheBytes";
+
+  /**
+   * The default memory budget: about forty sprites of 300 by 300 pixels.
+   */
+  public static final long DEFAULT_BUDGET_BYTES = 16L * 1024 * 1024;
+
+  private static SpriteCache instance;
+
+  private final long budgetBytes;
+  private final List<Sprite> sprites = new ArrayList<>();
+  // Sprites being decoded, so nobody decodes the same sprite twice
+  private final List<Load> loads = new ArrayList<>();
+  private long usedBytes;
+  private long useCounter;
+  private long hits;
+  private long misses;
+  private long evictions;
+  private long waits;
+
+  /**
+   * Constructs a cache.
+   *
+   * @param budgetBytes the memory the sprites may use together
+   * @throws IllegalArgumentException if the budget is negative
+   */
+  public SpriteCache(long budgetBytes) {
+    if (budgetBytes < 0) {
+      throw new IllegalArgumentException("Budget cannot be negative: " + budgetBytes);
+    }
+    this.budgetBytes = budgetBytes;
+  }
+
+  /**
+   * Returns the cache shared by the game, with the budget from {@value #BUDGET_PROPERTY}.
+   *
+   * @return the shared cache
+   */
+  public static synchronized SpriteCache getInstance() {
+    if (instance == null) {
+      instance = new SpriteCache(Long.getLong(BUDGET_PROPERTY, DEFAULT_BUDGET_BYTES));
+    }
+    return instance;
+  }
+
+  /**
+   * Returns the icon of a sprite, decoding and scaling the image if it is not cached.
+   *
+   * @param petType the pet type, such as "Dog"; case does not matter
+   * @param state the state the pet is drawn in
+   * @param width the width to show the image at
+   * @param height the height to show the image at
+   * @return the icon, or null if the pet type has no image
+   */
+  public ImageIcon getIcon(String petType, SpriteState state, int width, int height) {
+    Sprite sprite = getSprite(petType, state, width, height);
+    return sprite.icon;
+  }
+
+  /**
+   * Returns the image of a sprite, decoding and scaling it if it is not cached.
+   *
+   * @param petType the pet type, such as "Dog"; case does not matter
+   * @param state the state the pet is drawn in
+   * @param width the width of the image
+   * @param height the height of the image
+   * @return the image, or null if the pet type has no image
+   */
+  public BufferedImage getImage(String petType, SpriteState state, int width, int height) {
+    Sprite sprite = getSprite(petType, state, width, height);
+    return sprite.image;
+  }
+
+  /**
+   * Returns whether a sprite is cached.
+   *
+   * @param petType the pet type
+   * @param state the state
+   * @param width the width
+   * @param height the height
+   * @return true if the sprite is cached
+   */
+  public synchronized boolean contains(String petType, SpriteState state, int width,
+      int height) {
+    return find(petType, state, width, height) != null;
+  }
+
+  private Sprite getSprite(String petType, SpriteState state, int width, int height) {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Size must be positive: " + width + "x" + height);
+    }
+    Load load;
+    boolean decoder;
+    synchronized (this) {
+      Sprite sprite = find(petType, state, width, height);
+      if (sprite != null) {
+        hits++;
+        sprite.lastUsed = ++useCounter;
+        return sprite;
+      }
+      load = findLoad(petType, state, width, height);
+      decoder = load == null;
+      if (decoder) {
+        misses++;
+        load = new Load(petType, state, width, height);
+        loads.add(load);
+      } else {
+        waits++;
+      }
+    }
+    return decoder ? decode(load) : load.result.join();
+  }
+
+  /**
+   * Decodes the sprite of a load and adds it to the cache.
+   */
+  private Sprite decode(Load load) {
+    Sprite decoded;
+    try {
+      decoded = new Sprite(load.petType, load.state, load.width, load.height,
+          load(load.petType, load.state, load.width, load.height));
+    } catch (RuntimeException e) {
+      synchronized (this) {
+        loads.remove(load);
+      }
+      load.result.completeExceptionally(e);
+      throw e;
+    }
+    synchronized (this) {
+      loads.remove(load);
+      decoded.lastUsed = ++useCounter;
+      // A sprite larger than the whole budget is not cached, so it must not evict the others
+      if (decoded.bytes <= budgetBytes) {
+        makeRoom(decoded.bytes);
+        sprites.add(decoded);
+        usedBytes += decoded.bytes;
+      }
+    }
+    load.result.complete(decoded);
+    return decoded;
+  }
+
+  private Load findLoad(String petType, SpriteState state, int width, int height) {
+    for (int i = 0; i < loads.size(); i++) {
+      Load load = loads.get(i);
+      if (load.state == state && load.width == width && load.height == height
+          && load.petType.equalsIgnoreCase(petType)) {
+        return load;
+      }
+    }
+    return null;
+  }
+
+  private Sprite find(String petType, SpriteState state, int width, int height) {
+    for (int i = 0; i < sprites.size(); i++) {
+      Sprite sprite = sprites.get(i);
+      if (sprite.state == state && sprite.width == width && sprite.height == height
+          && sprite.petType.equalsIgnoreCase(petType)) {
+        return sprite;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Drops the sprites used least recently until a new sprite fits in the budget.
+   */
+  private void makeRoom(long bytes) {
+    while (usedBytes + bytes > budgetBytes && !sprites.isEmpty()) {
+      int oldest = 0;
+      for (int i = 1; i < sprites.size(); i++) {
+        if (sprites.get(i).lastUsed < sprites.get(oldest).lastUsed) {
+          oldest = i;
+        }
+      }
+      usedBytes -= sprites.remove(oldest).bytes;
+      evictions++;
+    }
+  }
+
+  /**
+   * Reads and scales the image of a sprite. A state without an image for the pet type uses
+   * the type's normal image.
+   */
+  private static BufferedImage load(String petType, SpriteState state, int width, int height) {
+    URL url = SpriteCache.class.getResource(state.resourcePath(petType));
+    if (url == null && state != SpriteState.NORMAL) {
+      url = SpriteCache.class.getResource(SpriteState.NORMAL.resourcePath(petType));
+    }
+    if (url == null) {
+      System.err.println("Couldn't find file: " + state.resourcePath(petType));
+      return null;
+    }
+    try {
+      BufferedImage source = ImageIO.read(url);
+      if (source == null) {
+        System.err.println("Couldn't decode file: " + url);
+        return null;
+      }
+      return scale(source, width, height);
+    } catch (IOException e) {
+      System.err.println("Couldn't read file: " + url + ": " + e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Scales an image in high quality into an image in the screen's format.
+   *
+   * <p>Bilinear filtering only looks at the four nearest pixels, so an image scaled down by
+   * more than half at once loses detail. The image is therefore halved step by step until it
+   * is less than twice the target size, and the last step is bicubic.</p>
+   *
+   * @param source the image
+   * @param width the new width
+   * @param height the new height
+   * @return the scaled image
+   */
+  static BufferedImage scale(BufferedImage source, int width, int height) {
+    BufferedImage current = source;
+    int currentWidth = source.getWidth();
+    int currentHeight = source.getHeight();
+    while (currentWidth / 2 >= width && currentHeight / 2 >= height) {
+      currentWidth /= 2;
+      currentHeight /= 2;
+      BufferedImage half = new BufferedImage(currentWidth, currentHeight,
+          source.getTransparency() == Transparency.OPAQUE
+              ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+      draw(current, half, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      current = half;
+    }
+    BufferedImage scaled = createCompatibleImage(width, height, source.getTransparency());
+    draw(current, scaled, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+    return scaled;
+  }
+
+  private static void draw(BufferedImage source, BufferedImage target, Object interpolation) {
+    Graphics2D g = target.createGraphics();
+    try {
+      g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+      g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      g.drawImage(source, 0, 0, target.getWidth(), target.getHeight(), null);
+    } finally {
+      g.dispose();
+    }
+  }
+
+  /**
+   * Creates an image in the format of the default screen, which can be drawn without
+   * conversion; without a screen, a plain RGB image.
+   */
+  static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+    if (!GraphicsEnvironment.isHeadless()) {
+      GraphicsConfiguration configuration = GraphicsEnvironment.getLocalGraphicsEnvironment()
+          .getDefaultScreenDevice().getDefaultConfiguration();
+      return configuration.createCompatibleImage(width, height, transparency);
+    }
+    return new BufferedImage(width, height, transparency == Transparency.OPAQUE
+        ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+  }
+
+  /**
+   * Returns the number of cached sprites.
+   *
+   * @return the number of sprites
+   */
+  public synchronized int size() {
+    return sprites.size();
+  }
+
+  /**
+   * Returns the memory the cached sprites use, counted at four bytes per pixel.
+   *
+   * @return the memory in bytes
+   */
+  public synchronized long getUsedBytes() {
+    return usedBytes;
+  }
+
+  /**
+   * Returns the memory the sprites may use together.
+   *
+   * @return the budget in bytes
+   */
+  public long getBudgetBytes() {
+    return budgetBytes;
+  }
+
+  /**
+   * Returns the number of requests answered from the cache.
+   *
+   * @return the number of hits
+   */
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * Returns the number of requests that had to decode an image.
+   *
+   * @return the number of misses
+   */
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Returns the number of requests that waited for another thread to decode the sprite.
+   *
+   * @return the number of waits
+   */
+  public synchronized long getWaits() {
+    return waits;
+  }
+
+  /**
+   * Returns the number of sprites dropped to stay within the budget.
+   *
+   * @return the number of evictions
+   */
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  /**
+   * A sprite being decoded by the thread that asked for it first.
+   */
+  private static final class Load {
+    final String petType;
+    final SpriteState state;
+    final int width;
+    final int height;
+    final CompletableFuture<Sprite> result = new CompletableFuture<>();
+
+    Load(String petType, SpriteState state, int width, int height) {
+      this.petType = petType;
+      this.state = state;
+      this.width = width;
+      this.height = height;
+    }
+  }
+
+  /**
+   * One cached sprite. A pet type without an image is cached too, with no image, so it is
+   * not looked for again.
+   */
+  private static final class Sprite {
+    final String petType;
+    final SpriteState state;
+    final int width;
+    final int height;
+    final BufferedImage image;
+    final ImageIcon icon;
+    final long bytes;
+    long lastUsed;
+
+    Sprite(String petType, SpriteState state, int width, int height, BufferedImage image) {
+      this.petType = petType;
+      this.state = state;
+      this.width = width;
+      this.height = height;
+      this.image = image;
+      this.icon = image != null ? new ImageIcon(image) : null;
+      this.bytes = image != null ? 4L * width * height : 0;
+    }
+  }
+}
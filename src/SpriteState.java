@@ -0,0 +1,54 @@
+import java.util.Locale;
+
+/**
+ * The states a pet can be drawn in. Each state has its own image under {@code res/}; a
+ * state without an image for a pet type is drawn with the type's normal image.
+ *
+ * @author Khushal
+ * @version 1.0
+ * @see SpriteCache
+ */
+public enum SpriteState {
+
+  /** The pet is awake and fine. */
+  NORMAL(""),
+
+  /** The pet is asleep. */
+  SLEEP("_sleep"),
+
+  /** The pet is dead. */
+  DEAD("_dead"),
+
+  /** The pet is hungry. */
+  HUNGRY("_hungry");
+
+  private final String suffix;
+
+  SpriteState(String suffix) {
+    this.suffix = suffix;
+  }
+
+  /**
+   * Returns the state a pet is drawn in.
+   *
+   * @param isDead whether the pet is dead
+   * @param isSleeping whether the pet is sleeping
+   * @return the state
+   */
+  public static SpriteState of(boolean isDead, boolean isSleeping) {
+    if (isDead) {
+      return DEAD;
+    }
+    return isSleeping ? SLEEP : NORMAL;
+  }
+
+  /**
+   * Returns the resource path of the image of a pet type in this state.
+   *
+   * @param petType the pet type, such as "Dog"
+   * @return the resource path, such as "/res/dog_sleep.jpg"
+   */
+  public String resourcePath(String petType) {
+    return "/res/" + petType.toLowerCase(Locale.ROOT) + suffix + ".jpg";
+  }
+}
@@ -1,15 +1,13 @@
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
  * A class that simulates the passage of time and updates pet attributes periodically.
  * This class implements Serializable to allow for object persistence.
- * It manages a scheduled executor service that periodically updates the pet's attributes
- * such as hunger, sleep, and social needs.
+ * It registers a periodic task with the pet's {@link PetScheduler} that updates the pet's
+ * attributes such as hunger, sleep, and social needs.
  *
  * The simulator can be started, stopped, and will automatically reinitialize after
  * deserialization through custom serialization handling.
@@ -30,7 +28,7 @@ import java.util.concurrent.TimeUnit;
 public class TimeSimulator implements Serializable {
 
   private static final long serialVersionUID = 1L;
-  private transient  ScheduledExecutorService executorService;
+  private transient PetScheduler.ScheduledTask updateTask;
   private final Pet pet;
 
   /**
@@ -40,47 +38,32 @@ public class TimeSimulator implements Serializable {
    */
   public TimeSimulator(Pet pet) {
     this.pet = pet;
-    executorService = Executors.newScheduledThreadPool(1);
-  }
-
-
-  /**
-   * Initialize the executor service.
-   */
-  private void initializeExecutorService() {
-    executorService = Executors.newScheduledThreadPool(1);
   }
 
   /**
    * Start the attribute updates.
+   * The updates are registered only once; calling this method while they are running has no effect.
    */
   public void startAttributeUpdates() {
-    if (executorService == null || executorService.isShutdown()) {
-      initializeExecutorService();
+    if (updateTask == null || updateTask.isCancelled()) {
+      updateTask = pet.getScheduler().scheduleAtFixedRate(this::updateAttributes, 0, 1, TimeUnit.MINUTES);
     }
-    executorService.scheduleAtFixedRate(this::updateAttributes, 0, 1, TimeUnit.MINUTES);
   }
 
   /**
-   * Update the pet's attributes.
+   * Update the pet's attributes. The decay and the behavior adjustment are applied to the pet
+   * as one command, on the pet's shard if it has one.
    */
   private void updateAttributes() {
-    pet.increasescore();
-    pet.increaseHunger();
-    pet.increaseSleep();
-    pet.decreaseSocial();
-    pet.checkBounds();
-    if (pet.getPersonality() != null) {
-      pet.getPersonality().adjustBehavior(pet);
-    }
+    pet.updateAttributes();
   }
 
   /**
    * Stop the attribute updates.
    */
   public void stopAttributeUpdates() {
-    if (executorService != null && !executorService.isShutdown()) {
-      executorService.shutdownNow();
+    if (updateTask != null) {
+      updateTask.cancel();
     }
   }
 
@@ -95,7 +78,6 @@ public class TimeSimulator implements Serializable {
   ois.defaultReadObject(); // Perform default deserialization
 
   // Reinitialize transient fields
-  initializeExecutorService();
   startAttributeUpdates();
 }
 
@@ -12,6 +12,8 @@
  * @see Food
  */
 public class Vegetables extends Food {
+    private static final long serialVersionUID = -8591620188749099718L;
+
     public Vegetables() {
         super("Vegetables");
     }
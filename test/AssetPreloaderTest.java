@@ -0,0 +1,54 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AssetPreloaderTest {
+
+    private SpriteCache cache;
+    private AssetPreloader preloader;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new SpriteCache(SpriteCache.DEFAULT_BUDGET_BYTES);
+        preloader = new AssetPreloader(cache, null);
+    }
+
+    @Test
+    public void testEverySpriteIsLoaded() throws Exception {
+        preloader.start().get(30, TimeUnit.SECONDS);
+
+        for (String petType : AssetPreloader.PET_TYPES) {
+            assertTrue(cache.contains(petType, SpriteState.NORMAL, 200, 200));
+            assertTrue(cache.contains(petType, SpriteState.NORMAL, 300, 300));
+            assertTrue(cache.contains(petType, SpriteState.SLEEP, 300, 300));
+            assertTrue(cache.contains(petType, SpriteState.DEAD, 300, 300));
+        }
+        assertNotNull(preloader.getWallpaper());
+        assertTrue(preloader.getPreloadNanos() > 0);
+    }
+
+    @Test
+    public void testStartingAgainDoesNothing() {
+        CompletableFuture<Void> first = preloader.start();
+
+        assertSame(first, preloader.start());
+    }
+
+    @Test
+    public void testSpriteBeingPreloadedIsNotDecodedAgain() throws Exception {
+        preloader.start();
+        assertNotNull(cache.getIcon("Dog", SpriteState.DEAD, 300, 300));
+        preloader.start().get(30, TimeUnit.SECONDS);
+
+        // Every sprite was decoded once, by the preloader or by the request above
+        assertEquals(12, cache.getMisses());
+        assertEquals(12, cache.size());
+    }
+
+    @Test
+    public void testWallpaperWithoutPreloading() {
+        assertNotNull(preloader.getWallpaper());
+    }
+}
@@ -0,0 +1,134 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AutoSaveTest {
+
+    private static final String SLOT = "autosave-test";
+
+    private ManualClock clock;
+    private PetScheduler scheduler;
+    private Pet pet;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new ManualClock(0);
+        scheduler = new PetScheduler(clock, 1);
+        pet = new Pet(scheduler, true, new PetRandom(1));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        pet.stopTimers();
+        scheduler.getSaveWriter().flush().join();
+        scheduler.shutdown();
+        Files.deleteIfExists(Path.of("saves/pet_save_" + SLOT + ".dat"));
+        Files.deleteIfExists(Path.of("saves/pet_save_" + SLOT + ".journal"));
+    }
+
+    private void runAutoSave() {
+        clock.advance(1, TimeUnit.MINUTES);
+        scheduler.runDueTasks();
+        scheduler.getSaveWriter().flush().join();
+    }
+
+    @Test
+    public void testSavedPetHasNoUnsavedChanges() {
+        assertTrue(pet.hasUnsavedChanges(SLOT));
+        pet.save(SLOT);
+        assertFalse(pet.hasUnsavedChanges(SLOT));
+        assertTrue(pet.hasUnsavedChanges("another-slot"));
+    }
+
+    @Test
+    public void testEverySectionMakesThePetDirty() {
+        pet.save(SLOT);
+        pet.increaseHealth(-1);
+        assertTrue(pet.hasUnsavedChanges(SLOT));
+        pet.save(SLOT);
+
+        pet.getInventory().addItem(new Meat());
+        assertTrue(pet.hasUnsavedChanges(SLOT));
+        pet.save(SLOT);
+
+        pet.setPetName("Rex");
+        assertTrue(pet.hasUnsavedChanges(SLOT));
+        pet.save(SLOT);
+        assertFalse(pet.hasUnsavedChanges(SLOT));
+    }
+
+    @Test
+    public void testAutoSaveSkipsUnchangedPet() {
+        pet.save(SLOT);
+        pet.startAutoSave(SLOT, 1, TimeUnit.MINUTES);
+
+        runAutoSave();
+        runAutoSave();
+        assertEquals(2, pet.getAutoSavesSkipped());
+        assertEquals(0, pet.getAutoSavesWritten());
+
+        pet.increaseHealth(-1);
+        runAutoSave();
+        assertEquals(1, pet.getAutoSavesWritten());
+        assertFalse(pet.hasUnsavedChanges(SLOT));
+    }
+
+    @Test
+    public void testTickingPetWithPersonalityOnlyAppendsToTheJournal() throws IOException {
+        pet.stopTimers();
+        pet = new Pet(scheduler, false, new PetRandom(1));
+        pet.setPersonality(new Dog());
+        pet.startAutoSave(SLOT, 1, TimeUnit.MINUTES);
+        pet.save(SLOT);
+        // The first minute gives the pet its preferred action, which the journal does not record
+        runAutoSave();
+        Path saveFile = Path.of("saves/pet_save_" + SLOT + ".dat");
+        Path journalFile = Path.of("saves/pet_save_" + SLOT + ".journal");
+        byte[] snapshot = Files.readAllBytes(saveFile);
+        long written = pet.getAutoSavesWritten();
+
+        for (int minute = 0; minute < 5; minute++) {
+            runAutoSave();
+        }
+
+        assertTrue(pet.getAutoSavesWritten() > written);
+        assertArrayEquals(snapshot, Files.readAllBytes(saveFile));
+        assertTrue(Files.size(journalFile) > 0);
+    }
+
+    @Test
+    public void testSchedulerFlushesTheJournal() throws IOException, InterruptedException {
+        pet.save(SLOT);
+        Path journalFile = Path.of("saves/pet_save_" + SLOT + ".journal");
+        pet.increaseHealth(-1);
+        assertEquals(0, Files.size(journalFile));
+
+        clock.advance(PetJournal.FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        scheduler.runDueTasks();
+        // The flush runs on the scheduler's blocking executor
+        for (int i = 0; i < 500 && Files.size(journalFile) == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(PetJournal.RECORD_SIZE, Files.size(journalFile));
+    }
+
+    @Test
+    public void testChangesOutsideTheJournalAreSaved() {
+        pet.save(SLOT);
+        pet.setPetName("Rex");
+        pet.getInventory().addItem(new Juice());
+        pet.save(SLOT);
+        pet.stopTimers();
+        scheduler.getSaveWriter().flush().join();
+
+        Pet loaded = Pet.load(SLOT);
+        loaded.stopTimers();
+        assertEquals("Rex", loaded.getPetName());
+        assertEquals(1, loaded.getInventory().getItems().size());
+    }
+}
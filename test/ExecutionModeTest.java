@@ -0,0 +1,33 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExecutionModeTest {
+
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty(ExecutionMode.PROPERTY);
+    }
+
+    @Test
+    public void testModeIsReadFromSystemProperty() {
+        assertEquals(ExecutionMode.PLATFORM, ExecutionMode.fromSystemProperty());
+        System.setProperty(ExecutionMode.PROPERTY, "virtual");
+        assertEquals(ExecutionMode.VIRTUAL, ExecutionMode.fromSystemProperty());
+        System.setProperty(ExecutionMode.PROPERTY, "green");
+        assertThrows(IllegalArgumentException.class, ExecutionMode::fromSystemProperty);
+    }
+
+    @Test
+    public void testVirtualModeRunsTasksOnAnyRuntime() throws InterruptedException {
+        PetScheduler scheduler = new PetScheduler(PetClock.SYSTEM, 1, ExecutionMode.VIRTUAL);
+        scheduler.start();
+        CountDownLatch latch = new CountDownLatch(2);
+        scheduler.schedule(latch::countDown, 20, TimeUnit.MILLISECONDS);
+        scheduler.getBlockingExecutor().execute(latch::countDown);
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        scheduler.shutdown();
+    }
+}
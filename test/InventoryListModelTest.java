@@ -0,0 +1,130 @@
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventoryListModelTest {
+
+    private Inventory inventory;
+    private InventoryListModel model;
+    private List<ListDataEvent> events;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        inventory = new Inventory();
+        inventory.addItems(ItemType.JUICE, 2);
+        model = new InventoryListModel();
+        events = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> {
+            model.setInventory(inventory);
+            model.addListDataListener(new ListDataListener() {
+                @Override
+                public void intervalAdded(ListDataEvent e) {
+                    events.add(e);
+                }
+
+                @Override
+                public void intervalRemoved(ListDataEvent e) {
+                    events.add(e);
+                }
+
+                @Override
+                public void contentsChanged(ListDataEvent e) {
+                    events.add(e);
+                }
+            });
+        });
+    }
+
+    private List<String> rows() throws Exception {
+        List<String> rows = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> {
+            for (int i = 0; i < model.getSize(); i++) {
+                rows.add(model.getElementAt(i));
+            }
+        });
+        return rows;
+    }
+
+    @Test
+    public void testBurstOfItemsIsOneEvent() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            // Queued while the event dispatch thread is busy, applied together afterwards
+            for (int i = 0; i < 100; i++) {
+                inventory.addItem(new Meat());
+            }
+        });
+        assertEquals(102, rows().size());
+        assertEquals(1, events.size());
+        ListDataEvent event = events.get(0);
+        assertEquals(ListDataEvent.INTERVAL_ADDED, event.getType());
+        assertEquals(0, event.getIndex0());
+        assertEquals(99, event.getIndex1());
+    }
+
+    @Test
+    public void testRemovedItemRemovesOneRow() throws Exception {
+        inventory.addItem(new Gift("Ball"));
+        inventory.removeItem(new Juice());
+        assertEquals(List.of("Juice", "Ball"), rows());
+        ListDataEvent last = events.get(events.size() - 1);
+        assertEquals(ListDataEvent.INTERVAL_REMOVED, last.getType());
+        assertEquals(1, last.getIndex0());
+        assertEquals(1, last.getIndex1());
+    }
+
+    @Test
+    public void testEventsNameTheRowsThatChanged() throws Exception {
+        // Rows: Meat, Meat, Vegetables x3, Juice, Juice
+        inventory.addItems(ItemType.VEGETABLES, 3);
+        rows();
+        inventory.addItems(ItemType.MEAT, 2);
+        rows();
+        SwingUtilities.invokeAndWait(() -> {
+            inventory.removeItem(new Vegetables());
+            inventory.removeItem(new Vegetables());
+        });
+        assertEquals(List.of("Meat", "Meat", "Vegetables", "Juice", "Juice"), rows());
+
+        assertEquals(3, events.size());
+        assertInterval(events.get(0), ListDataEvent.INTERVAL_ADDED, 0, 2);
+        assertInterval(events.get(1), ListDataEvent.INTERVAL_ADDED, 0, 1);
+        assertInterval(events.get(2), ListDataEvent.INTERVAL_REMOVED, 3, 4);
+    }
+
+    private static void assertInterval(ListDataEvent event, int type, int index0, int index1) {
+        assertEquals(type, event.getType());
+        assertEquals(index0, event.getIndex0());
+        assertEquals(index1, event.getIndex1());
+    }
+
+    @Test
+    public void testModelFollowsClearedInventory() throws Exception {
+        inventory.clear();
+        inventory.addItem(new Vegetables());
+        assertEquals(List.of("Vegetables"), rows());
+    }
+
+    @Test
+    public void testRowsMatchInventoryItems() throws Exception {
+        Thread generator = new Thread(() -> {
+            for (int i = 0; i < 300; i++) {
+                inventory.addItem(ItemType.fromCode(i % 3).getItem());
+                if (i % 7 == 0) {
+                    inventory.removeItem(new Meat());
+                }
+            }
+        });
+        generator.start();
+        generator.join();
+        List<String> expected = new ArrayList<>();
+        for (Item item : inventory.getItems()) {
+            expected.add(item.getName());
+        }
+        assertEquals(expected, rows());
+    }
+}
@@ -1,7 +1,12 @@
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 // InventoryTest.java
 
@@ -14,8 +19,8 @@ public class InventoryTest {
     @BeforeEach
     public void setUp() {
         inventory = new Inventory();
-        item1 = new Item("Item1", 10.0);
-        item2 = new Item("Item2", 20.0);
+        item1 = new Gift("Item1");
+        item2 = new Gift("Item2");
     }
 
     @Test
@@ -35,6 +40,16 @@ public class InventoryTest {
         assertFalse(items.contains(item1));
     }
 
+    @Test
+    public void testModificationCountCountsChanges() {
+        int before = inventory.getModificationCount();
+        inventory.addItem(item1);
+        inventory.removeItem(item2);
+        assertEquals(before + 1, inventory.getModificationCount());
+        inventory.removeItem(item1);
+        assertEquals(before + 2, inventory.getModificationCount());
+    }
+
     @Test
     public void testGetItems() {
         inventory.addItem(item1);
@@ -44,4 +59,137 @@ public class InventoryTest {
         assertTrue(items.contains(item1));
         assertTrue(items.contains(item2));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGeneratedItemsAreCounted() {
+        inventory.addItem(new Meat());
+        inventory.addItem(ItemType.MEAT.getItem());
+        inventory.addItem(new Juice());
+        assertEquals(2, inventory.getCount(ItemType.MEAT));
+        assertEquals(1, inventory.getCount(ItemType.JUICE));
+        assertEquals(3, inventory.size());
+        assertSame(ItemType.MEAT.getItem(), inventory.getItems().get(0));
+
+        inventory.removeItem(new Meat());
+        assertEquals(1, inventory.getCount(ItemType.MEAT));
+        inventory.removeItem(new Vegetables());
+        assertEquals(2, inventory.size());
+    }
+
+    @Test
+    public void testItemsAreListedByType() {
+        Item gift = new Gift("Ball");
+        inventory.addItem(gift);
+        inventory.addItem(new Juice());
+        inventory.addItems(ItemType.MEAT, 2);
+        List<Item> items = inventory.getItems();
+        assertEquals(4, items.size());
+        assertEquals("Meat", items.get(0).getName());
+        assertEquals("Meat", items.get(1).getName());
+        assertEquals("Juice", items.get(2).getName());
+        assertSame(gift, items.get(3));
+        assertThrows(UnsupportedOperationException.class, () -> items.add(gift));
+    }
+
+    @Test
+    public void testSerializationKeepsCounts() throws Exception {
+        inventory.addItems(ItemType.VEGETABLES, 1000);
+        inventory.addItem(new Gift("Ball"));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(inventory);
+        }
+        Inventory copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (Inventory) in.readObject();
+        }
+        assertEquals(1000, copy.getCount(ItemType.VEGETABLES));
+        assertEquals(1001, copy.size());
+        assertEquals(0, copy.getModificationCount());
+    }
+
+    @Test
+    public void testFullInventoryDropsNewItems() {
+        inventory.setCapacity(3, OverflowPolicy.DROP_NEWEST);
+        for (int i = 0; i < 5; i++) {
+            inventory.addItem(new Meat());
+        }
+        assertEquals(3, inventory.size());
+        assertTrue(inventory.isFull());
+        assertEquals(2, inventory.getDroppedCount());
+        assertFalse(inventory.addItem(new Gift("Ball")));
+        assertEquals(0, inventory.addItems(ItemType.JUICE, 5));
+    }
+
+    @Test
+    public void testFullInventoryEvictsOldestItem() {
+        inventory.setCapacity(3, OverflowPolicy.EVICT_OLDEST);
+        inventory.addItem(new Meat());
+        inventory.addItem(new Gift("Ball"));
+        inventory.addItem(new Juice());
+        inventory.removeItem(new Juice());
+        inventory.addItem(new Vegetables());
+        assertTrue(inventory.addItem(new Juice()));
+
+        assertEquals(0, inventory.getCount(ItemType.MEAT));
+        assertEquals(3, inventory.size());
+        assertEquals(1, inventory.getEvictedCount());
+        assertEquals("Ball", inventory.getItems().get(2).getName());
+
+        assertEquals(3, inventory.addItems(ItemType.MEAT, 4));
+        assertEquals(3, inventory.getCount(ItemType.MEAT));
+        assertEquals(5, inventory.getEvictedCount());
+    }
+
+    @Test
+    public void testFullInventoryPausesItemGenerator() {
+        ManualClock clock = new ManualClock(0);
+        PetScheduler scheduler = new PetScheduler(clock, 1);
+        Pet pet = new Pet(scheduler, false, new PetRandom(1));
+        try {
+            pet.getInventory().setCapacity(4, OverflowPolicy.PAUSE_GENERATOR);
+            for (int i = 0; i < 10; i++) {
+                clock.advance(15, TimeUnit.SECONDS);
+                scheduler.runDueTasks();
+            }
+            assertEquals(4, pet.getInventory().size());
+            assertEquals(7, pet.getPausedGenerations());
+
+            pet.useItem(pet.getInventory().getItems().get(0));
+            clock.advance(15, TimeUnit.SECONDS);
+            scheduler.runDueTasks();
+            assertEquals(4, pet.getInventory().size());
+            assertEquals(7, pet.getPausedGenerations());
+        } finally {
+            pet.stopTimers();
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testListenersAreToldAboutChanges() {
+        List<String> changes = new java.util.ArrayList<>();
+        inventory.addInventoryListener(new InventoryListener() {
+            @Override
+            public void itemsAdded(Inventory source, Item item, int count) {
+                changes.add("+" + count + " " + item.getName());
+            }
+
+            @Override
+            public void itemsRemoved(Inventory source, Item item, int count) {
+                changes.add("-" + count + " " + item.getName());
+            }
+
+            @Override
+            public void inventoryChanged(Inventory source) {
+                changes.add("changed");
+            }
+        });
+        inventory.addItem(new Meat());
+        inventory.addItems(ItemType.JUICE, 3);
+        inventory.removeItem(new Meat());
+        inventory.removeItem(new Meat());
+        inventory.clear();
+        assertEquals(List.of("+1 Meat", "+3 Juice", "-1 Meat", "changed"), changes);
+    }
+}
@@ -0,0 +1,122 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyEvaluationTest {
+
+    private static final String SLOT = "lazy-evaluation-test";
+
+    private ManualClock clock;
+    private PetScheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new ManualClock(0);
+        scheduler = new PetScheduler(clock, 1);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        scheduler.getSaveWriter().flush().join();
+        scheduler.shutdown();
+        Files.deleteIfExists(Path.of("saves/pet_save_" + SLOT + ".dat"));
+        Files.deleteIfExists(Path.of("saves/pet_save_" + SLOT + ".journal"));
+    }
+
+    private void advanceMinutes(int minutes) {
+        for (int i = 0; i < minutes; i++) {
+            clock.advance(1, TimeUnit.MINUTES);
+            scheduler.runDueTasks();
+        }
+    }
+
+    @Test
+    public void testLazyEvaluationMatchesTickingWithinOneTick() {
+        Pet ticking = new Pet(scheduler);
+        Pet lazy = new Pet(scheduler, true);
+        scheduler.runDueTasks();
+        advanceMinutes(10);
+
+        assertTrue(Math.abs(ticking.getHunger() - lazy.getHunger()) <= 5);
+        assertTrue(Math.abs(ticking.getSleep() - lazy.getSleep()) <= 15);
+        assertTrue(Math.abs(ticking.getSocial() - lazy.getSocial()) <= 2);
+        assertTrue(Math.abs(ticking.getInventory().getItems().size() - lazy.getInventory().getItems().size()) <= 1);
+    }
+
+    @Test
+    public void testLongCatchUpIsJournaledInBulk() throws IOException {
+        Pet pet = new Pet(scheduler, true, new PetRandom(5));
+        pet.save(SLOT);
+        scheduler.getSaveWriter().flush().join();
+        clock.advance(30, TimeUnit.DAYS);
+
+        // Four items a minute, and the score stops at its maximum once the needs saturate
+        assertEquals(30 * 24 * 60 * 4, pet.getInventory().size());
+        assertEquals(PetState.MAX_SCORE, pet.getscore());
+        pet.stopTimers();
+        scheduler.getSaveWriter().flush().join();
+        long records = Files.size(Path.of("saves/pet_save_" + SLOT + ".journal"))
+                / PetJournal.RECORD_SIZE;
+        assertTrue(records < 500, records + " records");
+
+        Pet loaded = Pet.load(SLOT);
+        assertEquals(pet.snapshot(), loaded.snapshot());
+        for (ItemType type : ItemType.values()) {
+            assertEquals(pet.getInventory().getCount(type), loaded.getInventory().getCount(type));
+        }
+    }
+
+    @Test
+    public void testPausedGeneratorDrawsNoItems() {
+        Pet pet = new Pet(scheduler, true, new PetRandom(5));
+        pet.getInventory().setCapacity(10, OverflowPolicy.PAUSE_GENERATOR);
+        clock.advance(10, TimeUnit.MINUTES);
+
+        assertEquals(10, pet.getInventory().size());
+        assertEquals(30, pet.getPausedGenerations());
+        assertEquals(0, pet.getInventory().getDroppedCount());
+    }
+
+    @Test
+    public void testShardPetCatchesUpOnTheDrainThread() {
+        PetShard shard = new PetShard("lazy", 64);
+        shard.start();
+        try {
+            Pet pet = new Pet(scheduler, true, new PetRandom(5));
+            shard.attach(pet);
+            Thread[] adder = new Thread[1];
+            pet.getInventory().addInventoryListener(new InventoryListener() {
+                @Override
+                public void itemsAdded(Inventory source, Item item, int count) {
+                    adder[0] = Thread.currentThread();
+                }
+
+                @Override
+                public void itemsRemoved(Inventory source, Item item, int count) {
+                }
+
+                @Override
+                public void inventoryChanged(Inventory source) {
+                }
+            });
+            clock.advance(1, TimeUnit.MINUTES);
+
+            for (int i = 0; i < 100; i++) {
+                pet.getHunger();
+            }
+            shard.awaitProcessed(shard.submit(pet, PetCommand.INCREASE_HEALTH, 0));
+            // The reads queued one catch-up between them
+            assertEquals(2, shard.getProcessedCount());
+            assertEquals(4, pet.getInventory().size());
+            assertNotNull(adder[0]);
+            assertNotSame(Thread.currentThread(), adder[0]);
+        } finally {
+            shard.shutdown();
+        }
+    }
+}
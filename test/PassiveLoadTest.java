@@ -0,0 +1,91 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PassiveLoadTest {
+
+    private static final String SLOT = "passive-test";
+
+    private PetScheduler scheduler;
+    private Pet pet;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = new PetScheduler(new ManualClock(0), 1);
+        pet = new Pet(scheduler, false, new PetRandom(1));
+        pet.setPetName("Rex");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        pet.stopTimers();
+        scheduler.getSaveWriter().flush().join();
+        scheduler.shutdown();
+        Files.deleteIfExists(Path.of("saves/pet_save_" + SLOT + ".dat"));
+        Files.deleteIfExists(Path.of("saves/pet_save_" + SLOT + ".journal"));
+    }
+
+    @Test
+    public void testPassiveLoadReplaysTheJournal() {
+        pet.save(SLOT);
+        pet.increaseHealth(-7);
+        pet.save(SLOT);
+
+        Pet loaded = Pet.loadPassive(SLOT);
+        assertTrue(loaded.isPassive());
+        assertEquals(pet.snapshot(), loaded.snapshot());
+        assertEquals("Rex", loaded.getPetName());
+    }
+
+    @Test
+    public void testPassivePetRegistersNoTasks() {
+        pet.save(SLOT);
+        int tasks = scheduler.getTaskCount();
+
+        Pet loaded = Pet.loadPassive(SLOT);
+        loaded.startTimer();
+        loaded.startItemGenerator();
+        loaded.reinitializeServices();
+        assertEquals(tasks, scheduler.getTaskCount());
+        assertTrue(loaded.isPassive());
+    }
+
+    @Test
+    public void testEditedPassivePetIsSavedInFull() {
+        pet.save(SLOT);
+        pet.increaseHealth(-50);
+        pet.save(SLOT);
+
+        Pet edited = Pet.loadPassive(SLOT);
+        edited.setHealth(100);
+        edited.save(SLOT);
+
+        assertEquals(100, Pet.loadPassive(SLOT).getHealth());
+    }
+
+    @Test
+    public void testUnreadableSaveLoadsNothingAndStartsNothing() throws IOException {
+        pet.save(SLOT);
+        scheduler.getSaveWriter().flush().join();
+        Path saveFile = Path.of("saves/pet_save_" + SLOT + ".dat");
+        byte[] saved = Files.readAllBytes(saveFile);
+        byte[] truncated = Arrays.copyOf(saved, saved.length / 2);
+        Files.write(saveFile, truncated);
+        int tasks = PetScheduler.getInstance().getTaskCount();
+
+        assertNull(Pet.loadPassive(SLOT));
+        assertNull(Pet.load(SLOT));
+        assertEquals(tasks, PetScheduler.getInstance().getTaskCount());
+        assertArrayEquals(truncated, Files.readAllBytes(saveFile));
+    }
+
+    @Test
+    public void testMissingSlotLoadsNothing() {
+        assertNull(Pet.loadPassive("passive-test-missing"));
+    }
+}
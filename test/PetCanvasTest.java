@@ -0,0 +1,95 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PetCanvasTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    public void testLoopingAnimationStartsOver() {
+        PetAnimation idle = PetAnimation.IDLE;
+
+        assertEquals(0, idle.frameAt(0));
+        assertEquals(1, idle.frameAt(100 * MILLIS));
+        assertEquals(0, idle.frameAt(idle.getFrames() * 100 * MILLIS));
+        assertFalse(idle.isFinished(Long.MAX_VALUE / 2));
+    }
+
+    @Test
+    public void testDyingAnimationStaysOnTheDeadPicture() {
+        PetAnimation dying = PetAnimation.DYING;
+        int last = dying.getFrames() - 1;
+
+        assertEquals(last, dying.frameAt(10_000 * MILLIS));
+        assertTrue(dying.isFinished(10_000 * MILLIS));
+        assertEquals(SpriteState.DEAD, dying.spriteAt(last));
+        assertEquals(PetAnimation.DYING, PetAnimation.forState(true, true));
+        assertEquals(PetAnimation.SLEEPING, PetAnimation.forState(false, true));
+    }
+
+    @Test
+    public void testEatingIsPlayedOnceThenTheAnimationBeforeReturns() {
+        PetCanvas canvas = new PetCanvas(96, new RenderLoop(RenderLoop.DEFAULT_FRAME_RATE));
+        canvas.showPet("Dog", PetAnimation.SLEEPING);
+        long start = System.nanoTime();
+        canvas.play(PetAnimation.EATING);
+
+        assertEquals(PetAnimation.EATING, canvas.getAnimation(start));
+        assertEquals(PetAnimation.SLEEPING, canvas.getAnimation(start + 10_000 * MILLIS));
+    }
+
+    @Test
+    public void testDyingPetDoesNotEat() {
+        PetCanvas canvas = new PetCanvas(96, new RenderLoop(RenderLoop.DEFAULT_FRAME_RATE));
+        canvas.showPet("Dog", PetAnimation.DYING);
+        canvas.play(PetAnimation.EATING);
+
+        assertEquals(PetAnimation.DYING, canvas.getAnimation(System.nanoTime()));
+    }
+
+    @Test
+    public void testAtlasIsSharedAndStoresEachLookOnce() {
+        SpriteAtlas atlas = SpriteAtlas.get("Dog", 96);
+
+        assertSame(atlas, SpriteAtlas.get("dog", 96));
+        assertNull(SpriteAtlas.get("Dragon", 96));
+        int frames = 0;
+        for (PetAnimation animation : PetAnimation.values()) {
+            frames += animation.getFrames();
+        }
+        assertTrue(atlas.getCells() < frames);
+    }
+
+    @Test
+    public void testCanvasDrawsThePet() {
+        PetCanvas canvas = new PetCanvas(96, new RenderLoop(RenderLoop.DEFAULT_FRAME_RATE));
+        canvas.setSize(96, 96);
+        canvas.showPet("Dog", PetAnimation.IDLE);
+        BufferedImage frame = new BufferedImage(96, 96, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = frame.createGraphics();
+        canvas.paintFrame(g, System.nanoTime());
+        g.dispose();
+
+        // The pet stands on the bottom, so its picture covers the middle of the bottom row
+        assertNotEquals(0xFFFFFF, frame.getRGB(48, 95) & 0xFFFFFF);
+    }
+
+    @Test
+    public void testLoopDrawsTargetsUntilRemoved() throws Exception {
+        RenderLoop loop = new RenderLoop(RenderLoop.DEFAULT_FRAME_RATE);
+        CountDownLatch drawn = new CountDownLatch(3);
+        RenderLoop.Target target = frameNanos -> drawn.countDown();
+        loop.add(target);
+        loop.add(target);
+
+        assertEquals(1, loop.getTargetCount());
+        // Three frames drew the target; the loop counts a frame after drawing it
+        assertTrue(drawn.await(5, TimeUnit.SECONDS));
+        loop.remove(target);
+        assertEquals(0, loop.getTargetCount());
+    }
+}
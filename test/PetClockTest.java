@@ -0,0 +1,69 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PetClockTest {
+
+    private ManualClock clock;
+    private PetScheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new ManualClock(0);
+        scheduler = new PetScheduler(clock, 1);
+    }
+
+    private void advanceMinutes(int minutes) {
+        for (int i = 0; i < minutes; i++) {
+            clock.advance(1, TimeUnit.MINUTES);
+            scheduler.runDueTasks();
+        }
+    }
+
+    @Test
+    public void testManualClockAdvances() {
+        clock.advance(90, TimeUnit.SECONDS);
+        assertEquals(90_000, clock.millis());
+        assertThrows(IllegalArgumentException.class, () -> clock.set(0));
+    }
+
+    @Test
+    public void testAcceleratedClockRunsFaster() throws InterruptedException {
+        AcceleratedClock accelerated = new AcceleratedClock(1000);
+        long start = accelerated.millis();
+        Thread.sleep(20);
+        assertTrue(accelerated.millis() - start >= 20_000);
+    }
+
+    @Test
+    public void testSystemClockIsMonotonicAndFollowsTheWallClock() {
+        long previous = PetClock.SYSTEM.millis();
+        for (int i = 0; i < 100_000; i++) {
+            long now = PetClock.SYSTEM.millis();
+            assertTrue(now >= previous);
+            previous = now;
+        }
+        assertTrue(Math.abs(System.currentTimeMillis() - PetClock.SYSTEM.millis()) < 1000);
+    }
+
+    @Test
+    public void testDecayFollowsManualClock() {
+        Pet pet = new Pet(scheduler);
+        scheduler.runDueTasks();
+        advanceMinutes(10);
+
+        // One decay when the pet is created, then one per simulated minute
+        assertEquals(75, pet.getHunger());
+        assertEquals(58, pet.getSocial());
+        assertEquals(100, pet.getSleep());
+    }
+
+    @Test
+    public void testInteractionTimeUsesPetClock() {
+        Pet pet = new Pet(scheduler);
+        clock.advance(5, TimeUnit.MINUTES);
+        pet.feed();
+        assertEquals(clock.millis(), pet.getLastInteractedTime());
+    }
+}
@@ -0,0 +1,178 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PetCodecTest {
+
+    private PetScheduler scheduler;
+    private Pet pet;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = new PetScheduler(new ManualClock(0), 1);
+        // Lazy pets start no background tasks when they are decoded
+        pet = new Pet(scheduler, true, new PetRandom(42));
+        pet.setPersonality(new Cat());
+        pet.setPetName("Tom");
+        pet.setHealth(55);
+        pet.setHunger(70);
+        pet.setPreferredAction(Action.PLAY);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testRoundTripKeepsAttributes() throws IOException {
+        byte[] data = PetCodec.encode(pet);
+        Pet decoded = PetCodec.decode(data);
+
+        assertEquals(pet.snapshot(), decoded.snapshot());
+        assertEquals("Tom", decoded.getPetName());
+        assertTrue(decoded.getPersonality() instanceof Cat);
+        assertEquals(Action.PLAY, decoded.getPreferredAction());
+        assertTrue(decoded.isLazyEvaluation());
+        assertEquals(pet.getRandom().nextLong(), decoded.getRandom().nextLong());
+    }
+
+    @Test
+    public void testInventoryKeepsOrderAndRunsAreCompact() throws IOException {
+        Inventory inventory = pet.getInventory();
+        for (int i = 0; i < 1000; i++) {
+            inventory.addItem(new Meat());
+        }
+        inventory.addItem(new Juice());
+        inventory.addItem(new Gift("Ball"));
+
+        byte[] data = PetCodec.encode(pet);
+        Inventory decoded = PetCodec.decode(data).getInventory();
+
+        assertEquals(1002, decoded.getItems().size());
+        assertTrue(decoded.getItems().get(999) instanceof Meat);
+        assertTrue(decoded.getItems().get(1000) instanceof Juice);
+        assertEquals("Ball", decoded.getItems().get(1001).getName());
+        assertTrue(data.length < 200);
+    }
+
+    @Test
+    public void testInventoryKeepsCapacityAndOverflowPolicy() throws IOException {
+        Inventory inventory = pet.getInventory();
+        inventory.setCapacity(5, OverflowPolicy.EVICT_OLDEST);
+        for (int i = 0; i < 3; i++) {
+            inventory.addItem(new Meat());
+        }
+        byte[] data = PetCodec.encode(pet);
+
+        // A smaller configured capacity must not drop saved items
+        System.setProperty(Inventory.CAPACITY_PROPERTY, "1");
+        Inventory decoded;
+        try {
+            decoded = PetCodec.decode(data).getInventory();
+        } finally {
+            System.clearProperty(Inventory.CAPACITY_PROPERTY);
+        }
+
+        assertEquals(3, decoded.getCount(ItemType.MEAT));
+        assertEquals(5, decoded.getCapacity());
+        assertEquals(OverflowPolicy.EVICT_OLDEST, decoded.getOverflowPolicy());
+        assertEquals(0, decoded.getEvictedCount());
+    }
+
+    @Test
+    public void testLegacySerializedPetIsStillRead() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(pet);
+        }
+        byte[] data = bytes.toByteArray();
+
+        assertTrue(PetCodec.isLegacy(data));
+        assertFalse(PetCodec.isLegacy(PetCodec.encode(pet)));
+        assertEquals(pet.snapshot(), PetCodec.decode(data).snapshot());
+    }
+
+    @Test
+    public void testUnknownVersionIsRejected() throws IOException {
+        byte[] data = PetCodec.encode(pet);
+        data[5] = 99;
+        assertThrows(InvalidObjectException.class, () -> PetCodec.decode(data));
+        assertThrows(InvalidObjectException.class, () -> PetCodec.decode(new byte[] {1, 2, 3}));
+    }
+
+    @Test
+    public void testHeaderDescribesThePet(@TempDir Path directory) throws IOException {
+        pet.setscore(1234);
+        Path file = directory.resolve("pet_save_1.dat");
+        Files.write(file, PetCodec.encode(pet));
+
+        SaveHeader header = SaveHeader.read(file);
+        assertTrue(header.hasDetails());
+        assertEquals(PetCodec.VERSION, header.getVersion());
+        assertEquals("Tom", header.getPetName());
+        assertEquals("Cat", header.getPersonalityName());
+        assertEquals(1234, header.getScore());
+        assertEquals(55, header.getHealth());
+        assertFalse(header.isDead());
+        assertTrue(Math.abs(System.currentTimeMillis() - header.getSavedTime()) < 60_000);
+        assertNull(SaveHeader.read(directory.resolve("missing.dat")));
+    }
+
+    @Test
+    public void testHeaderCutsLongNamesAtACharacterBoundary(@TempDir Path directory)
+            throws IOException {
+        String name = "\u00e9".repeat(SaveHeader.MAX_NAME_BYTES);
+        pet.setPetName(name);
+        Path file = directory.resolve("pet_save_1.dat");
+        Files.write(file, PetCodec.encode(pet));
+
+        assertEquals(name.substring(0, SaveHeader.MAX_NAME_BYTES / 2),
+                SaveHeader.read(file).getPetName());
+        assertEquals(name, PetCodec.decode(Files.readAllBytes(file)).getPetName());
+    }
+
+    @Test
+    public void testVersionOneFilesWithoutHeaderAreStillRead() throws IOException {
+        byte[] current = PetCodec.encode(pet);
+        // A version 1 file is the current file without the header after magic and version
+        byte[] data = new byte[current.length - SaveHeader.SIZE + 6];
+        System.arraycopy(current, 0, data, 0, 6);
+        System.arraycopy(current, SaveHeader.SIZE, data, 6, current.length - SaveHeader.SIZE);
+        data[5] = 1;
+
+        Pet decoded = PetCodec.decode(data);
+        assertEquals(pet.snapshot(), decoded.snapshot());
+        assertEquals("Tom", decoded.getPetName());
+    }
+
+    @Test
+    public void testOlderFilesKeepTheirItemsUnderTheConfiguredCapacity() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            pet.getInventory().addItem(new Juice());
+        }
+        byte[] data = PetCodec.encode(pet);
+        // Version 2 files end after the inventory runs; the trailing capacity is not read
+        data[5] = 2;
+
+        System.setProperty(Inventory.CAPACITY_PROPERTY, "2");
+        Inventory decoded;
+        try {
+            decoded = PetCodec.decode(data).getInventory();
+        } finally {
+            System.clearProperty(Inventory.CAPACITY_PROPERTY);
+        }
+
+        assertEquals(3, decoded.getCount(ItemType.JUICE));
+        assertEquals(2, decoded.getCapacity());
+        assertFalse(decoded.addItem(new Juice()));
+    }
+}
@@ -2,7 +2,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import javax.swing.*;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CompletableFuture;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 public class PetControllerTest {
@@ -11,14 +12,12 @@ public class PetControllerTest {
     private PetView view;
     private MainMenu mainMenu;
     private PetController controller;
-    private ScheduledExecutorService executorService;
 
     @BeforeEach
     public void setUp() {
         model = mock(Pet.class);
         view = mock(PetView.class);
         mainMenu = mock(MainMenu.class);
-        executorService = mock(ScheduledExecutorService.class);
         controller = new PetController(model, view, mainMenu, true);
     }
 
@@ -103,21 +102,28 @@ public class PetControllerTest {
     @Test
     public void testHandleSaveAction() {
         when(JOptionPane.showInputDialog(anyString())).thenReturn("1");
+        when(model.saveAsync("1")).thenReturn(new CompletableFuture<>());
         controller.handleSaveAction();
-        verify(model).save("1");
-        verify(view).appendMessage("Game saved successfully.");
+        // The save writer writes the file; the controller only queues it and does not wait.
+        // The confirmation is a dialog shown once the future completes.
+        verify(model).saveAsync("1");
+        verify(model, never()).save(anyString());
     }
 
     @Test
     public void testHandleBackToMainMenu() {
+        CompletableFuture<Void> saved = new CompletableFuture<>();
         when(JOptionPane.showInputDialog(anyString())).thenReturn("1");
+        when(model.saveAsync("1")).thenReturn(saved);
         controller.handleBackToMainMenu();
-        verify(model).save("1");
+        verify(model).saveAsync("1");
+        verify(model, never()).save(anyString());
         verify(model).stopTimers();
-        verify(executorService).shutdownNow();
         verify(view).dispose();
         verify(mainMenu).incrementTotalPlayTime(anyInt());
         verify(mainMenu).setVisible(true);
+        // The game window closed without waiting for the save
+        assertFalse(saved.isDone());
     }
 
     @Test
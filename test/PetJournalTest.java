@@ -0,0 +1,145 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PetJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private List<PetJournal.Record> readAll(Path file) throws IOException {
+        List<PetJournal.Record> records = new ArrayList<>();
+        PetJournal.read(file, records::add);
+        return records;
+    }
+
+    @Test
+    public void testRecordsAreReadBackInOrder() throws IOException {
+        Path file = directory.resolve("pet.journal");
+        try (PetJournal journal = PetJournal.create(file, 0)) {
+            journal.append(PetCommand.FEED, 0, 11, 21, 1000);
+            journal.append(PetCommand.GENERATE_ITEM, 2, 12, 22, 2000);
+        }
+
+        List<PetJournal.Record> records = readAll(file);
+        assertEquals(2, records.size());
+        assertEquals(2 * PetJournal.RECORD_SIZE, Files.size(file));
+        assertEquals(1, records.get(0).getSequence());
+        assertEquals(PetCommand.FEED, records.get(0).getCommand());
+        assertEquals(PetCommand.GENERATE_ITEM, records.get(1).getCommand());
+        assertEquals(2, records.get(1).getArgument());
+        assertEquals(12, records.get(1).getState());
+        assertEquals(22, records.get(1).getSeed());
+        assertEquals(2000, records.get(1).getTime());
+    }
+
+    @Test
+    public void testOpenReplaysOnlyRecordsAfterTheSnapshot() throws IOException {
+        Path file = directory.resolve("pet.journal");
+        try (PetJournal journal = PetJournal.create(file, 0)) {
+            for (int i = 0; i < 5; i++) {
+                journal.append(PetCommand.DECAY, 0, i, i, i);
+            }
+        }
+
+        List<PetJournal.Record> replayed = new ArrayList<>();
+        try (PetJournal journal = PetJournal.open(file, 3, replayed::add)) {
+            assertEquals(5, journal.getLastSequence());
+            journal.append(PetCommand.PLAY, 0, 0, 0, 0);
+        }
+        assertEquals(2, replayed.size());
+        assertEquals(4, replayed.get(0).getSequence());
+        assertEquals(6, readAll(file).get(5).getSequence());
+    }
+
+    @Test
+    public void testAppendReportsRecordsItCannotTake() throws IOException {
+        Path file = directory.resolve("pet.journal");
+        PetJournal journal = PetJournal.create(file, 0);
+        assertTrue(journal.append(PetCommand.FEED, 0, 1, 1, 1));
+        journal.close();
+
+        assertFalse(journal.append(PetCommand.PLAY, 0, 2, 2, 2));
+        assertEquals(1, journal.getLastSequence());
+        assertEquals(1, readAll(file).size());
+    }
+
+    @Test
+    public void testCompactionDropsCoveredRecords() throws IOException {
+        Path file = directory.resolve("pet.journal");
+        try (PetJournal journal = PetJournal.create(file, 0)) {
+            for (int i = 0; i < 10; i++) {
+                journal.append(PetCommand.DECAY, 0, i, i, i);
+            }
+            journal.compact(8);
+            assertEquals(2, journal.getRecordCount());
+            journal.append(PetCommand.FEED, 0, 0, 0, 0);
+        }
+
+        List<PetJournal.Record> records = readAll(file);
+        assertEquals(3, records.size());
+        assertEquals(9, records.get(0).getSequence());
+        assertEquals(11, records.get(2).getSequence());
+    }
+
+    @Test
+    public void testAppendsDuringSyncAndCompactionAreKept() throws Exception {
+        Path file = directory.resolve("pet.journal");
+        int records = 20_000;
+        try (PetJournal journal = PetJournal.create(file, 0)) {
+            // Saves sync and compact the journal while the pet keeps appending
+            Thread saver = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 200; i++) {
+                        journal.sync(SaveDurability.NONE);
+                        journal.compact(Math.max(journal.getLastSequence() - 5, 0));
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            saver.start();
+            long accepted = 0;
+            for (int i = 0; i < records; i++) {
+                // A burst that outruns the saver can be refused; refused records take no number
+                long next = accepted + 1;
+                if (journal.append(PetCommand.DECAY, 0, next, next, next)) {
+                    accepted++;
+                }
+            }
+            saver.join();
+            journal.flush();
+
+            List<PetJournal.Record> kept = readAll(file);
+            assertEquals(accepted, journal.getLastSequence());
+            assertEquals(journal.getRecordCount(), kept.size());
+            for (int i = 0; i < kept.size(); i++) {
+                assertEquals(accepted - kept.size() + i + 1, kept.get(i).getSequence());
+                assertEquals(kept.get(i).getSequence(), kept.get(i).getState());
+            }
+        }
+    }
+
+    @Test
+    public void testTornTailIsIgnored() throws IOException {
+        Path file = directory.resolve("pet.journal");
+        try (PetJournal journal = PetJournal.create(file, 0)) {
+            journal.append(PetCommand.FEED, 0, 1, 1, 1);
+            journal.append(PetCommand.PLAY, 0, 2, 2, 2);
+        }
+        // A crash in the middle of a write leaves part of a record behind
+        Files.write(file, new byte[PetJournal.RECORD_SIZE / 2], StandardOpenOption.APPEND);
+
+        assertEquals(2, readAll(file).size());
+        try (PetJournal journal = PetJournal.open(file, 0, record -> { })) {
+            assertEquals(2, journal.getRecordCount());
+        }
+        assertEquals(2 * PetJournal.RECORD_SIZE, Files.size(file));
+    }
+}
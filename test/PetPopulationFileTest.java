@@ -0,0 +1,106 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PetPopulationFileTest {
+
+    @TempDir
+    Path directory;
+
+    private PetScheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = new PetScheduler(new ManualClock(0), 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testPetIsReadBackFromItsRecord() throws IOException {
+        Pet pet = new Pet(scheduler, true, new PetRandom(5));
+        pet.setPersonality(new Bird());
+        pet.setHealth(40);
+        pet.getInventory().addItem(new Meat());
+        pet.getInventory().addItem(new Juice());
+        Path path = directory.resolve("population.dat");
+
+        try (PetPopulationFile file = PetPopulationFile.open(path, 10)) {
+            file.write(7, pet);
+        }
+        try (PetPopulationFile file = PetPopulationFile.open(path, 10)) {
+            assertTrue(file.contains(7));
+            assertFalse(file.contains(6));
+            assertEquals(pet.snapshot(), file.readState(7));
+
+            Pet loaded = file.read(7, scheduler);
+            assertEquals(pet.snapshot(), loaded.snapshot());
+            assertTrue(loaded.getPersonality() instanceof Bird);
+            assertEquals(2, loaded.getInventory().getItems().size());
+            assertEquals(pet.getRandom().nextLong(), loaded.getRandom().nextLong());
+        }
+    }
+
+    @Test
+    public void testInventoryKeepsCapacityAndOverflowPolicy() throws IOException {
+        Pet pet = new Pet(scheduler, true, new PetRandom(5));
+        pet.getInventory().setCapacity(4, OverflowPolicy.DROP_NEWEST);
+        pet.getInventory().addItems(ItemType.MEAT, 4);
+        Path path = directory.resolve("population.dat");
+
+        try (PetPopulationFile file = PetPopulationFile.open(path, 2)) {
+            file.write(1, pet);
+            System.setProperty(Inventory.CAPACITY_PROPERTY, "2");
+            Inventory loaded;
+            try {
+                loaded = file.read(1, scheduler).getInventory();
+            } finally {
+                System.clearProperty(Inventory.CAPACITY_PROPERTY);
+            }
+
+            assertEquals(4, loaded.getCount(ItemType.MEAT));
+            assertEquals(4, loaded.getCapacity());
+            assertEquals(OverflowPolicy.DROP_NEWEST, loaded.getOverflowPolicy());
+            assertEquals(0, loaded.getDroppedCount());
+        }
+    }
+
+    @Test
+    public void testStateCanBeUpdatedInPlace() throws IOException {
+        try (PetPopulationFile file = PetPopulationFile.open(directory.resolve("p.dat"), 4)) {
+            file.write(3, new Pet(scheduler, true, new PetRandom(1)));
+            PetState state = file.readState(3);
+            file.writeState(3, new PetState(PetState.adjust(state.word(), 0, 0, 0, 0, -100)));
+
+            assertTrue(file.readState(3).isDead());
+            file.delete(3);
+            assertFalse(file.contains(3));
+            assertThrows(IllegalArgumentException.class, () -> file.readState(3));
+        }
+    }
+
+    @Test
+    public void testFileGrowsAndKeepsRecords() throws IOException {
+        Path path = directory.resolve("grow.dat");
+        try (PetPopulationFile file = PetPopulationFile.open(path, 2)) {
+            file.write(1, new Pet(scheduler, true, new PetRandom(1)));
+            assertThrows(IndexOutOfBoundsException.class, () -> file.contains(2));
+        }
+        try (PetPopulationFile file = PetPopulationFile.open(path, 100)) {
+            assertEquals(100, file.capacity());
+            assertTrue(file.contains(1));
+            assertFalse(file.contains(99));
+        }
+        try (PetPopulationFile file = PetPopulationFile.open(path, 1)) {
+            // A file never shrinks
+            assertEquals(100, file.capacity());
+        }
+    }
+}
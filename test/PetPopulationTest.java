@@ -0,0 +1,84 @@
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PetPopulationTest {
+
+    private ManualClock clock;
+    private PetScheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new ManualClock(0);
+        scheduler = new PetScheduler(clock, 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testSetKeepsWhetherThePetIsActive() {
+        Pet active = new Pet(scheduler, true, new PetRandom(1));
+        active.setAllowTaskExecution();
+        Pet inactive = new Pet(scheduler, true, new PetRandom(2));
+        PetPopulation population = new PetPopulation(2, 3);
+
+        population.set(0, active);
+        population.set(1, inactive);
+
+        assertEquals(PetPopulation.FLAG_ACTIVE, population.getFlags(0));
+        assertEquals(0, population.getFlags(1));
+    }
+
+    @Test
+    public void testDecayTicksMatchPetsOnTheSameSeed() {
+        Pet pet = new Pet(scheduler, true, new PetRandom(42));
+        PetPopulation population = new PetPopulation(1, 42);
+        population.set(0, pet);
+
+        for (int i = 0; i < 30; i++) {
+            pet.decay();
+            population.decayTick();
+
+            assertEquals(pet.getscore(), population.getScore(0));
+            assertEquals(pet.getHunger(), population.getHunger(0));
+            assertEquals(pet.getSocial(), population.getSocial(0));
+            assertEquals(pet.getSleep(), population.getSleep(0));
+        }
+    }
+
+    @Test
+    public void testHealthTicksMatchPetsOnTheSameClock() {
+        Pet active = new Pet(scheduler, true, new PetRandom(1));
+        active.setAllowTaskExecution();
+        Pet inactive = new Pet(scheduler, true, new PetRandom(2));
+        Pet[] pets = {active, inactive};
+        PetPopulation population = new PetPopulation(pets.length, 3);
+        for (int i = 0; i < pets.length; i++) {
+            population.set(i, pets[i]);
+        }
+
+        for (int minute = 0; minute < 5; minute++) {
+            clock.advance(1, TimeUnit.MINUTES);
+            // A lazy pet catches up a minute as eleven health checks, the decay and one more
+            for (int check = 0; check < 11; check++) {
+                population.healthTick();
+            }
+            population.decayTick();
+            population.healthTick();
+
+            for (int i = 0; i < pets.length; i++) {
+                assertEquals(pets[i].getHunger(), population.getHunger(i));
+                assertEquals(pets[i].getSocial(), population.getSocial(i));
+                assertEquals(pets[i].getSleep(), population.getSleep(i));
+                assertEquals(pets[i].getHealth(), population.getHealth(i));
+            }
+        }
+        assertTrue(active.getHealth() < 100);
+        assertEquals(100, inactive.getHealth());
+    }
+}
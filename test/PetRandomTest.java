@@ -0,0 +1,55 @@
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PetRandomTest {
+
+    @Test
+    public void testMatchesSplittableRandom() {
+        PetRandom random = new PetRandom(42);
+        SplittableRandom reference = new SplittableRandom(42);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(reference.nextInt(20), random.nextInt(20));
+            assertEquals(reference.nextInt(16), random.nextInt(16));
+            assertEquals(reference.nextLong(), random.nextLong());
+        }
+        PetRandom split = random.split();
+        SplittableRandom referenceSplit = reference.split();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(referenceSplit.nextInt(3), split.nextInt(3));
+        }
+    }
+
+    @Test
+    public void testSerializedStreamContinues() throws Exception {
+        PetRandom random = new PetRandom(7);
+        random.nextLong();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(random);
+        }
+        PetRandom loaded;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            loaded = (PetRandom) in.readObject();
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(random.nextLong(), loaded.nextLong());
+        }
+    }
+
+    @Test
+    public void testSeededPetsMakeTheSameChoices() {
+        PetScheduler scheduler = new PetScheduler(new ManualClock(0), 1);
+        Pet first = new Pet(scheduler, true, new PetRandom(99).split());
+        Pet second = new Pet(scheduler, true, new PetRandom(99).split());
+        for (int i = 0; i < 50; i++) {
+            first.increasescore();
+            second.increasescore();
+        }
+        assertEquals(first.getscore(), second.getscore());
+    }
+}
@@ -0,0 +1,67 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PetSchedulerTest {
+
+    private PetScheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = new PetScheduler();
+        scheduler.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testOneShotTaskRuns() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        scheduler.schedule(latch::countDown, 50, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testPeriodicTaskRepeats() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        PetScheduler.ScheduledTask task = scheduler.scheduleAtFixedRate(latch::countDown, 0, 20, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        task.cancel();
+        assertTrue(task.isCancelled());
+    }
+
+    @Test
+    public void testCancelledTaskDoesNotRun() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        PetScheduler.ScheduledTask task = scheduler.schedule(runs::incrementAndGet, 100, TimeUnit.MILLISECONDS);
+        task.cancel();
+        Thread.sleep(300);
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void testHundredThousandPetsShareSchedulerThreads() {
+        int threadsBefore = Thread.activeCount();
+        Pet[] pets = new Pet[100_000];
+        for (int i = 0; i < pets.length; i++) {
+            pets[i] = new Pet(scheduler);
+        }
+        int threadsAfter = Thread.activeCount();
+
+        // Each pet registers its attribute updates and its item generator
+        assertTrue(scheduler.getTaskCount() >= 2 * pets.length);
+        assertTrue(threadsAfter - threadsBefore <= Runtime.getRuntime().availableProcessors() + 1,
+            "Thread count should not grow with the number of pets");
+
+        for (Pet pet : pets) {
+            pet.stopTimers();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PetShardTest {
+
+    private PetShard shard;
+    private Pet pet;
+
+    @BeforeEach
+    public void setUp() {
+        shard = new PetShard("test", 64);
+        shard.start();
+        // The scheduler is never driven, so only the shard changes the pet
+        pet = new Pet(new PetScheduler(new ManualClock(0), 1));
+        shard.attach(pet);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        shard.shutdown();
+    }
+
+    @Test
+    public void testCommandsAreAppliedInOrder() {
+        shard.submit(pet, PetCommand.FEED, 0);
+        shard.submit(pet, PetCommand.SLEEP, 0);
+        shard.awaitProcessed(shard.submit(pet, PetCommand.FEED, 0));
+
+        // The second feed arrives while the pet is sleeping
+        assertEquals(10, pet.getHunger());
+        assertTrue(pet.isSleeping());
+    }
+
+    @Test
+    public void testActionsAreQueuedOnTheShard() {
+        pet.increaseHealth(-30);
+        shard.awaitProcessed(shard.submit(pet, PetCommand.INCREASE_HEALTH, 0));
+        assertEquals(70, pet.getHealth());
+        assertEquals(2, shard.getProcessedCount());
+    }
+
+    @Test
+    public void testConcurrentProducersLoseNoCommands() throws InterruptedException {
+        pet.setHealth(50);
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++) {
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    pet.increaseHealth(1);
+                    pet.increaseHealth(-1);
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        shard.awaitProcessed(shard.submit(pet, PetCommand.INCREASE_HEALTH, 0));
+
+        assertEquals(50, pet.getHealth());
+        // The setter is queued too
+        assertEquals(80_002, shard.getProcessedCount());
+    }
+
+    @Test
+    public void testItemsUsedByConcurrentProducersAreRemovedOnTheDrainThread()
+            throws InterruptedException {
+        Inventory inventory = pet.getInventory();
+        inventory.addItems(ItemType.MEAT, 400);
+        Item[] gifts = new Item[40];
+        for (int i = 0; i < gifts.length; i++) {
+            gifts[i] = new Gift("Ball");
+            inventory.addItem(gifts[i]);
+        }
+        boolean[] offDrainThread = new boolean[1];
+        inventory.addInventoryListener(new InventoryListener() {
+            @Override
+            public void itemsAdded(Inventory source, Item item, int count) {
+            }
+
+            @Override
+            public void itemsRemoved(Inventory source, Item item, int count) {
+                if (!shard.isDrainThread()) {
+                    offDrainThread[0] = true;
+                }
+            }
+
+            @Override
+            public void inventoryChanged(Inventory source) {
+            }
+        });
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++) {
+            int producer = t;
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    pet.useItem(new Meat());
+                    if (i % 10 == 0) {
+                        pet.useItem(gifts[producer * 10 + i / 10]);
+                    }
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        shard.awaitProcessed(shard.submit(pet, PetCommand.INCREASE_HEALTH, 0));
+
+        assertEquals(0, inventory.size());
+        assertFalse(offDrainThread[0]);
+        assertEquals(441, shard.getProcessedCount());
+    }
+
+    @Test
+    public void testSettersAndResetAreQueuedOnTheShard() {
+        pet.setHunger(90);
+        pet.setSocial(10);
+        pet.setSleep(95);
+        pet.setHealth(40);
+        pet.setscore(7);
+        pet.setPreferredAction(Action.PLAY);
+        shard.awaitProcessed(shard.submit(pet, PetCommand.INCREASE_HEALTH, 0));
+
+        assertEquals(7, shard.getProcessedCount());
+        assertEquals(PetState.pack(7, 90, 10, 95, 40, false), pet.snapshot().word());
+        assertEquals(Action.PLAY, pet.getPreferredAction());
+
+        pet.reset();
+        shard.awaitProcessed(shard.submit(pet, PetCommand.INCREASE_HEALTH, 0));
+        assertEquals(9, shard.getProcessedCount());
+        assertEquals(PetState.INITIAL, pet.snapshot().word());
+    }
+
+    @Test
+    public void testPersonalityAdjustsToTheDecayOnTheDrainThread() {
+        boolean[] onDrainThread = new boolean[1];
+        int[] hungerSeen = new int[1];
+        pet.setPersonality(p -> {
+            onDrainThread[0] = shard.isDrainThread();
+            hungerSeen[0] = p.getHunger();
+        });
+        shard.awaitProcessed(shard.submit(pet, PetCommand.INCREASE_HEALTH, 0));
+        int hunger = pet.getHunger();
+
+        pet.updateAttributes();
+        shard.awaitProcessed(shard.submit(pet, PetCommand.INCREASE_HEALTH, 0));
+
+        assertTrue(onDrainThread[0]);
+        assertEquals(hunger + 5, hungerSeen[0]);
+    }
+
+    @Test
+    public void testCapacityMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new PetShard("bad", 100));
+    }
+}
@@ -0,0 +1,104 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PetSimulationTest {
+
+    @TempDir
+    Path directory;
+
+    private static Properties tinyScenario(String mode) {
+        Properties properties = new Properties();
+        properties.setProperty("pets", "6");
+        properties.setProperty("personalities", "Dog:2, Cat:1, Bird:1");
+        properties.setProperty("durationMinutes", "10");
+        properties.setProperty("mode", mode);
+        properties.setProperty("seed", "7");
+        properties.setProperty("actions", "3:FEED, every 4:PLAY, every 5:SLEEP");
+        return properties;
+    }
+
+    // The per-pet rows of the results; the summary line holds the wall-clock time
+    private static String results(PetSimulation simulation) {
+        StringWriter text = new StringWriter();
+        simulation.writeResults(new PrintWriter(text));
+        String output = text.toString();
+        return output.substring(0, output.indexOf("# "));
+    }
+
+    @Test
+    public void testScenarioIsParsed() {
+        PetSimulation.Scenario scenario = PetSimulation.Scenario.parse(tinyScenario("lazy"));
+        assertEquals(120, scenario.ticks());
+
+        PetSimulation simulation = new PetSimulation(scenario);
+        simulation.run();
+        assertEquals(6 * 120, simulation.getPetTicks());
+        String[] rows = results(simulation).split("\n");
+        assertEquals(7, rows.length);
+        assertEquals("id,personality,score,hunger,social,sleep,health,dead,items", rows[0]);
+    }
+
+    @Test
+    public void testInvalidScenariosAreRejected() {
+        for (String[] entry : new String[][] {
+                {"pets", "0"},
+                {"personalities", "Fish:1"},
+                {"personalities", "Dog:0"},
+                {"actions", "FEED"},
+                {"actions", "0:FEED"},
+                {"actions", "5:DANCE"}}) {
+            Properties properties = tinyScenario("lazy");
+            properties.setProperty(entry[0], entry[1]);
+            assertThrows(IllegalArgumentException.class,
+                    () -> PetSimulation.Scenario.parse(properties), entry[1]);
+        }
+    }
+
+    @Test
+    public void testSameSeedGivesSameResults() {
+        for (String mode : List.of("lazy", "ticking")) {
+            PetSimulation first = new PetSimulation(PetSimulation.Scenario.parse(tinyScenario(mode)));
+            PetSimulation second = new PetSimulation(PetSimulation.Scenario.parse(tinyScenario(mode)));
+            first.run();
+            second.run();
+
+            assertEquals(results(first), results(second));
+        }
+    }
+
+    @Test
+    public void testNoSwingOrAwtClassesAreLoaded() throws IOException, InterruptedException {
+        Path scenario = directory.resolve("tiny.properties");
+        Properties properties = tinyScenario("ticking");
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(scenario))) {
+            properties.store(writer, null);
+        }
+        Path output = directory.resolve("output.txt");
+        Path log = directory.resolve("classes.log");
+        // A fresh JVM, so classes loaded by other tests do not count
+        Process process = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-verbose:class", "-cp", System.getProperty("java.class.path"),
+                "PetSimulation", scenario.toString(), output.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        assertEquals(0, process.waitFor());
+
+        assertTrue(new File(output.toString()).length() > 0);
+        String classes = Files.readString(log, StandardCharsets.UTF_8);
+        assertTrue(classes.contains("PetSimulation"));
+        assertFalse(classes.contains("javax.swing."));
+        assertFalse(classes.contains("java.awt."));
+    }
+}
@@ -0,0 +1,147 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PetStatePublisherTest {
+
+    private PetScheduler scheduler;
+    private Pet pet;
+    private ArrayDeque<Runnable> tasks;
+    private Executor executor;
+    private Recorder recorder;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = new PetScheduler(new ManualClock(0), 1);
+        pet = new Pet(scheduler, true, new PetRandom(1));
+        tasks = new ArrayDeque<>();
+        executor = tasks::add;
+        recorder = new Recorder();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pet.stopTimers();
+        scheduler.shutdown();
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    @Test
+    public void testCurrentStateIsDeliveredFirst() {
+        pet.feed();
+        pet.subscribe(recorder, executor);
+        runTasks();
+        recorder.subscription.request(1);
+        runTasks();
+
+        assertEquals(1, recorder.states.size());
+        assertEquals(pet.snapshot(), recorder.states.get(0));
+    }
+
+    @Test
+    public void testNothingIsDeliveredWithoutDemand() {
+        pet.subscribe(recorder, executor);
+        runTasks();
+        pet.feed();
+        runTasks();
+
+        assertTrue(recorder.states.isEmpty());
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void testChangesWithoutDemandAreMerged() {
+        pet.subscribe(recorder, executor);
+        runTasks();
+        recorder.subscription.request(1);
+        runTasks();
+        for (int i = 0; i < 5; i++) {
+            pet.feed();
+        }
+        runTasks();
+        recorder.subscription.request(1);
+        runTasks();
+
+        assertEquals(2, recorder.states.size());
+        assertEquals(pet.snapshot(), recorder.states.get(1));
+        assertEquals(2, pet.getStatePublisher().getDeliveryCount());
+    }
+
+    @Test
+    public void testChangesBeforeTheTaskRunsAreMerged() {
+        pet.subscribe(recorder, executor);
+        runTasks();
+        recorder.subscription.request(Long.MAX_VALUE);
+        runTasks();
+        pet.feed();
+        pet.feed();
+        pet.feed();
+
+        assertEquals(1, tasks.size());
+        runTasks();
+        assertEquals(2, recorder.states.size());
+        assertEquals(pet.snapshot(), recorder.states.get(1));
+    }
+
+    @Test
+    public void testCancelStopsDelivery() {
+        pet.subscribe(recorder, executor);
+        runTasks();
+        recorder.subscription.request(Long.MAX_VALUE);
+        runTasks();
+        recorder.subscription.cancel();
+        pet.feed();
+        runTasks();
+
+        assertEquals(1, recorder.states.size());
+        assertEquals(0, pet.getStatePublisher().getSubscriberCount());
+    }
+
+    @Test
+    public void testNonPositiveRequestIsAnError() {
+        pet.subscribe(recorder, executor);
+        runTasks();
+        recorder.subscription.request(0);
+        runTasks();
+
+        assertTrue(recorder.error instanceof IllegalArgumentException);
+        assertEquals(0, pet.getStatePublisher().getSubscriberCount());
+    }
+
+    private static class Recorder implements Flow.Subscriber<PetState> {
+        final List<PetState> states = new ArrayList<>();
+        Flow.Subscription subscription;
+        Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(PetState state) {
+            states.add(state);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,84 @@
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PetStateTest {
+
+    private Pet newPet() {
+        // The scheduler is never driven, so no background task changes the pet
+        return new Pet(new PetScheduler(new ManualClock(0), 1));
+    }
+
+    @Test
+    public void testPackClampsEveryAttribute() {
+        PetState state = new PetState(PetState.pack(200_000, -5, 150, 100, 0, true));
+        assertEquals(PetState.MAX_SCORE, state.getScore());
+        assertEquals(0, state.getHunger());
+        assertEquals(100, state.getSocial());
+        assertEquals(100, state.getSleep());
+        assertEquals(0, state.getHealth());
+        assertTrue(state.isSleeping());
+        assertTrue(state.isDead());
+    }
+
+    @Test
+    public void testSnapshotIsImmutable() {
+        Pet pet = newPet();
+        PetState before = pet.snapshot();
+        pet.feed();
+        assertEquals(20, before.getHunger());
+        assertEquals(10, pet.snapshot().getHunger());
+        assertNotEquals(before, pet.snapshot());
+    }
+
+    @Test
+    public void testConcurrentUpdatesAreNotLost() throws InterruptedException {
+        Pet pet = newPet();
+        pet.setHealth(50);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    pet.increaseHealth(1);
+                    pet.increaseHealth(-1);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(50, pet.getHealth());
+    }
+
+    @Test
+    public void testSleepingPetIgnoresFeeding() {
+        Pet pet = newPet();
+        pet.sleep();
+        pet.feed();
+        assertEquals(20, pet.getHunger());
+        assertTrue(pet.snapshot().isSleeping());
+        pet.wakeUp();
+        assertFalse(pet.isSleeping());
+        assertEquals(50, pet.getSleep());
+    }
+
+    @Test
+    public void testSerializationRoundTripKeepsAttributes() throws Exception {
+        Pet pet = newPet();
+        pet.setHunger(63);
+        pet.setHealth(55);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(pet);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Pet loaded = (Pet) in.readObject();
+            loaded.stopTimers();
+            assertEquals(55, loaded.snapshot().getHealth());
+        }
+    }
+}
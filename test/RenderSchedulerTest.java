@@ -0,0 +1,65 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RenderSchedulerTest {
+
+    private RenderScheduler render;
+    private List<String> applied;
+
+    @BeforeEach
+    public void setUp() {
+        render = new RenderScheduler(RenderScheduler.DEFAULT_FRAME_RATE);
+        applied = new ArrayList<>();
+    }
+
+    @Test
+    public void testOnlyTheNewestUpdatePerKeyIsApplied() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            render.schedule("health", () -> applied.add("health 1"));
+            render.schedule("mood", () -> applied.add("mood"));
+            render.schedule("health", () -> applied.add("health 2"));
+        });
+        SwingUtilities.invokeAndWait(render::flush);
+
+        assertEquals(List.of("health 2", "mood"), applied);
+        assertEquals(3, render.getRequestedUpdates());
+        assertEquals(2, render.getAppliedUpdates());
+        assertEquals(1, render.getFrames());
+    }
+
+    @Test
+    public void testCancelledUpdateIsNotApplied() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            render.schedule("health", () -> applied.add("health"));
+            render.schedule("mood", () -> applied.add("mood"));
+            render.cancel("health");
+        });
+        SwingUtilities.invokeAndWait(render::flush);
+
+        assertEquals(List.of("mood"), applied);
+    }
+
+    @Test
+    public void testUpdatesAreAppliedOnTheEventDispatchThread() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        boolean[] onEventDispatchThread = new boolean[1];
+        render.schedule("health", () -> {
+            onEventDispatchThread[0] = SwingUtilities.isEventDispatchThread();
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(onEventDispatchThread[0]);
+    }
+
+    @Test
+    public void testFrameRateMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new RenderScheduler(0));
+    }
+}
@@ -0,0 +1,90 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaveDurabilityTest {
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    public void clearProperty() {
+        System.clearProperty(SaveDurability.PROPERTY);
+    }
+
+    @Test
+    public void testWriteReplacesTheFileAtEveryLevel() throws IOException {
+        Path file = directory.resolve("pet_save_1.dat");
+        Files.write(file, new byte[] {9, 9, 9, 9, 9});
+        for (SaveDurability durability : SaveDurability.values()) {
+            byte[] contents = {1, 2, (byte) durability.ordinal()};
+            durability.write(file, contents);
+            assertArrayEquals(contents, Files.readAllBytes(file));
+        }
+    }
+
+    @Test
+    public void testWriteLeavesNoTemporaryFile() throws IOException {
+        Path file = directory.resolve("pet_save_1.dat");
+        SaveDurability.DATA.write(file, new byte[] {1});
+        SaveDurability.DATA.write(file, new byte[] {2});
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void testFailedWriteKeepsTheOldFile() throws IOException {
+        Path file = directory.resolve("pet_save_1.dat");
+        Files.write(file, new byte[] {7});
+        // A directory in place of the temporary file makes the write fail before the rename
+        Files.createDirectory(directory.resolve("pet_save_1.dat.tmp"));
+        assertThrows(IOException.class, () -> SaveDurability.FULL.write(file, new byte[] {8}));
+        assertArrayEquals(new byte[] {7}, Files.readAllBytes(file));
+    }
+
+    @Test
+    public void testFromSystemProperty() {
+        assertEquals(SaveDurability.DATA, SaveDurability.fromSystemProperty());
+        System.setProperty(SaveDurability.PROPERTY, " none ");
+        assertEquals(SaveDurability.NONE, SaveDurability.fromSystemProperty());
+        System.setProperty(SaveDurability.PROPERTY, "Full");
+        assertEquals(SaveDurability.FULL, SaveDurability.fromSystemProperty());
+        System.setProperty(SaveDurability.PROPERTY, "sometimes");
+        assertThrows(IllegalArgumentException.class, SaveDurability::fromSystemProperty);
+    }
+
+    @Test
+    public void testPetRejectsNullDurability() {
+        PetScheduler scheduler = new PetScheduler(new ManualClock(0), 1);
+        try {
+            Pet pet = new Pet(scheduler, true, new PetRandom(1));
+            assertEquals(SaveDurability.DATA, pet.getSaveDurability());
+            pet.setSaveDurability(SaveDurability.NONE);
+            assertEquals(SaveDurability.NONE, pet.getSaveDurability());
+            assertThrows(NullPointerException.class, () -> pet.setSaveDurability(null));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnreadableSaveIsNotReplaced() throws IOException {
+        Path file = Path.of("saves/pet_save_durability-test.dat");
+        Files.createDirectories(file.getParent());
+        byte[] unreadable = {(byte) 0x50, (byte) 0x45, 0, 0, 0};
+        Files.write(file, unreadable);
+        try {
+            assertTrue(Pet.hasSave("durability-test"));
+            assertNull(Pet.load("durability-test"));
+            assertArrayEquals(unreadable, Files.readAllBytes(file));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(Path.of("saves/pet_save_durability-test.journal"));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaveWriterTest {
+
+    /**
+     * An executor that only runs its tasks when the test asks it to.
+     */
+    private static final class ManualExecutor implements Executor {
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.poll().run();
+            }
+        }
+    }
+
+    @Test
+    public void testSavesToTheSameSlotAreMerged() {
+        ManualExecutor executor = new ManualExecutor();
+        SaveWriter writer = new SaveWriter(executor);
+        List<String> written = new ArrayList<>();
+
+        CompletableFuture<Void> first = writer.submit("1", () -> written.add("first"));
+        CompletableFuture<Void> second = writer.submit("1", () -> written.add("second"));
+        CompletableFuture<Void> other = writer.submit("2", () -> written.add("other"));
+        assertFalse(first.isDone());
+
+        executor.runAll();
+        assertEquals(List.of("second", "other"), written);
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+        assertTrue(other.isDone());
+        assertEquals(3, writer.getRequestCount());
+        assertEquals(2, writer.getWriteCount());
+    }
+
+    @Test
+    public void testSaveRequestedDuringAWriteIsWrittenAgain() {
+        ManualExecutor executor = new ManualExecutor();
+        SaveWriter writer = new SaveWriter(executor);
+        List<String> written = new ArrayList<>();
+        List<CompletableFuture<Void>> later = new ArrayList<>();
+
+        writer.submit("1", () -> {
+            written.add("first");
+            later.add(writer.submit("1", () -> written.add("second")));
+        });
+        executor.runAll();
+
+        assertEquals(List.of("first", "second"), written);
+        assertTrue(later.get(0).isDone());
+        assertEquals(2, writer.getWriteCount());
+    }
+
+    @Test
+    public void testFailedSaveCompletesExceptionally() {
+        ManualExecutor executor = new ManualExecutor();
+        SaveWriter writer = new SaveWriter(executor);
+
+        CompletableFuture<Void> failed = writer.submit("1", () -> {
+            throw new IOException("disk full");
+        });
+        CompletableFuture<Void> next = writer.submit("2", () -> { });
+        executor.runAll();
+
+        ExecutionException e = assertThrows(ExecutionException.class, failed::get);
+        assertEquals("disk full", e.getCause().getMessage());
+        assertTrue(next.isDone());
+        assertFalse(next.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testExecuteRunsAfterQueuedSaves() {
+        ManualExecutor executor = new ManualExecutor();
+        SaveWriter writer = new SaveWriter(executor);
+        List<String> written = new ArrayList<>();
+
+        writer.submit("1", () -> written.add("save"));
+        writer.execute(() -> written.add("close"));
+        CompletableFuture<Void> flushed = writer.flush();
+        executor.runAll();
+
+        assertEquals(List.of("save", "close"), written);
+        assertTrue(flushed.isDone());
+    }
+
+    @Test
+    public void testRejectingExecutorRunsSavesOnTheCaller() {
+        SaveWriter writer = new SaveWriter(task -> {
+            throw new RejectedExecutionException();
+        });
+        List<String> written = new ArrayList<>();
+
+        CompletableFuture<Void> future = writer.submit("1", () -> written.add("save"));
+        assertTrue(future.isDone());
+        assertEquals(List.of("save"), written);
+    }
+}
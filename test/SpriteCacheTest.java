@@ -0,0 +1,87 @@
+import java.awt.image.BufferedImage;
+import javax.swing.ImageIcon;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpriteCacheTest {
+
+    private static final long SPRITE_BYTES = 4L * 100 * 100;
+
+    private SpriteCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new SpriteCache(SpriteCache.DEFAULT_BUDGET_BYTES);
+    }
+
+    @Test
+    public void testSpriteIsScaledOnceAndShared() {
+        ImageIcon first = cache.getIcon("Dog", SpriteState.SLEEP, 100, 80);
+        ImageIcon second = cache.getIcon("dog", SpriteState.SLEEP, 100, 80);
+
+        assertNotNull(first);
+        assertSame(first, second);
+        assertEquals(100, first.getIconWidth());
+        assertEquals(80, first.getIconHeight());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void testEachSizeIsCachedSeparately() {
+        BufferedImage small = cache.getImage("Cat", SpriteState.NORMAL, 100, 100);
+        BufferedImage large = cache.getImage("Cat", SpriteState.NORMAL, 200, 200);
+
+        assertNotSame(small, large);
+        assertEquals(2, cache.size());
+        assertEquals(4L * 100 * 100 + 4L * 200 * 200, cache.getUsedBytes());
+    }
+
+    @Test
+    public void testMissingStateUsesTheNormalImage() {
+        assertNotNull(cache.getIcon("Cat", SpriteState.HUNGRY, 100, 100));
+        assertNotNull(cache.getIcon("Dog", SpriteState.HUNGRY, 100, 100));
+    }
+
+    @Test
+    public void testUnknownPetTypeHasNoImage() {
+        assertNull(cache.getIcon("Dragon", SpriteState.NORMAL, 100, 100));
+        assertNull(cache.getIcon("Dragon", SpriteState.NORMAL, 100, 100));
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedSpriteIsEvicted() {
+        cache = new SpriteCache(2 * SPRITE_BYTES);
+        cache.getIcon("Dog", SpriteState.NORMAL, 100, 100);
+        cache.getIcon("Cat", SpriteState.NORMAL, 100, 100);
+        cache.getIcon("Dog", SpriteState.NORMAL, 100, 100);
+        cache.getIcon("Bird", SpriteState.NORMAL, 100, 100);
+
+        assertEquals(1, cache.getEvictions());
+        assertTrue(cache.contains("Dog", SpriteState.NORMAL, 100, 100));
+        assertFalse(cache.contains("Cat", SpriteState.NORMAL, 100, 100));
+        assertTrue(cache.contains("Bird", SpriteState.NORMAL, 100, 100));
+        assertTrue(cache.getUsedBytes() <= cache.getBudgetBytes());
+    }
+
+    @Test
+    public void testSpriteLargerThanTheBudgetIsNotCached() {
+        cache = new SpriteCache(SPRITE_BYTES - 1);
+
+        assertNotNull(cache.getIcon("Dog", SpriteState.NORMAL, 100, 100));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testSpriteLargerThanTheBudgetEvictsNothing() {
+        cache = new SpriteCache(2 * SPRITE_BYTES);
+        cache.getImage("Dog", SpriteState.NORMAL, 100, 100);
+        cache.getImage("Cat", SpriteState.NORMAL, 100, 100);
+
+        assertNotNull(cache.getImage("Bird", SpriteState.NORMAL, 200, 200));
+        assertEquals(2, cache.size());
+        assertEquals(0, cache.getEvictions());
+    }
+}